@@ -1,6 +1,16 @@
 package com.betrybe.agrix.advice;
 
+import com.betrybe.agrix.service.exception.InvalidCursorException;
+import com.betrybe.agrix.service.exception.InvalidFieldsException;
+import com.betrybe.agrix.service.exception.InvalidHarvestDateException;
+import com.betrybe.agrix.service.exception.InvalidLimitException;
+import com.betrybe.agrix.service.exception.InvalidLocationException;
+import com.betrybe.agrix.service.exception.InvalidPeriodException;
+import com.betrybe.agrix.service.exception.InvalidRefreshTokenException;
 import com.betrybe.agrix.service.exception.NotFoundException;
+import com.betrybe.agrix.service.exception.TooManyIdsException;
+import com.betrybe.agrix.service.exception.TooManyLoginAttemptsException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -23,4 +33,114 @@ public class GlobalControllerAdvice {
     return ResponseEntity.status(HttpStatus.NOT_FOUND)
         .body(exception.getMessage());
   }
+
+  /**
+   * Handle invalid cursor response entity.
+   *
+   * @param exception the exception
+   * @return the response entity
+   */
+  @ExceptionHandler
+  public ResponseEntity<String> handleInvalidCursor(InvalidCursorException exception) {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+        .body(exception.getMessage());
+  }
+
+  /**
+   * Handle invalid fields response entity.
+   *
+   * @param exception the exception
+   * @return the response entity
+   */
+  @ExceptionHandler
+  public ResponseEntity<String> handleInvalidFields(InvalidFieldsException exception) {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+        .body(exception.getMessage());
+  }
+
+  /**
+   * Handle too many ids response entity.
+   *
+   * @param exception the exception
+   * @return the response entity
+   */
+  @ExceptionHandler
+  public ResponseEntity<String> handleTooManyIds(TooManyIdsException exception) {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+        .body(exception.getMessage());
+  }
+
+  /**
+   * Handle invalid limit response entity.
+   *
+   * @param exception the exception
+   * @return the response entity
+   */
+  @ExceptionHandler
+  public ResponseEntity<String> handleInvalidLimit(InvalidLimitException exception) {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+        .body(exception.getMessage());
+  }
+
+  /**
+   * Handle invalid location response entity.
+   *
+   * @param exception the exception
+   * @return the response entity
+   */
+  @ExceptionHandler
+  public ResponseEntity<String> handleInvalidLocation(InvalidLocationException exception) {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+        .body(exception.getMessage());
+  }
+
+  /**
+   * Handle invalid period response entity.
+   *
+   * @param exception the exception
+   * @return the response entity
+   */
+  @ExceptionHandler
+  public ResponseEntity<String> handleInvalidPeriod(InvalidPeriodException exception) {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+        .body(exception.getMessage());
+  }
+
+  /**
+   * Handle invalid harvest date response entity.
+   *
+   * @param exception the exception
+   * @return the response entity
+   */
+  @ExceptionHandler
+  public ResponseEntity<String> handleInvalidHarvestDate(InvalidHarvestDateException exception) {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+        .body(exception.getMessage());
+  }
+
+  /**
+   * Handle invalid refresh token response entity.
+   *
+   * @param exception the exception
+   * @return the response entity
+   */
+  @ExceptionHandler
+  public ResponseEntity<String> handleInvalidRefreshToken(InvalidRefreshTokenException exception) {
+    return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+        .body(exception.getMessage());
+  }
+
+  /**
+   * Handle too many login attempts response entity.
+   *
+   * @param exception the exception
+   * @return the response entity
+   */
+  @ExceptionHandler
+  public ResponseEntity<String> handleTooManyLoginAttempts(
+      TooManyLoginAttemptsException exception) {
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfter()))
+        .body(exception.getMessage());
+  }
 }
@@ -0,0 +1,96 @@
+package com.betrybe.agrix.config;
+
+import com.betrybe.agrix.config.ReadWriteRoutingDataSource.Route;
+import java.time.Duration;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Splits the datasource into a primary for writes and a replica for read-only transactions.
+ *
+ * <p>Only active when {@code agrix.datasource.replica.url} is set; otherwise the single
+ * datasource auto-configured by Spring Boot is used as before.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "agrix.datasource.replica", name = "url")
+public class DataSourceRoutingConfig {
+
+  /**
+   * Primary data source.
+   *
+   * @param properties the spring.datasource properties
+   * @return the data source
+   */
+  @Bean
+  public DataSource primaryDataSource(DataSourceProperties properties) {
+    return properties.initializeDataSourceBuilder().build();
+  }
+
+  /**
+   * Replica data source.
+   *
+   * @param url      the replica url
+   * @param username the replica username
+   * @param password the replica password
+   * @return the data source
+   */
+  @Bean
+  public DataSource replicaDataSource(
+      @Value("${agrix.datasource.replica.url}") String url,
+      @Value("${agrix.datasource.replica.username:${spring.datasource.username:}}")
+      String username,
+      @Value("${agrix.datasource.replica.password:${spring.datasource.password:}}")
+      String password
+  ) {
+    return DataSourceBuilder.create()
+        .url(url)
+        .username(username)
+        .password(password)
+        .build();
+  }
+
+  /**
+   * Read your writes tracker.
+   *
+   * @param window how long a principal's reads stay on the primary after a write
+   * @return the read your writes tracker
+   */
+  @Bean
+  public ReadYourWritesTracker readYourWritesTracker(
+      @Value("${agrix.datasource.read-your-writes-window:0s}") Duration window
+  ) {
+    return new ReadYourWritesTracker(window);
+  }
+
+  /**
+   * Routing data source used by JPA and every repository.
+   *
+   * @param primary the primary data source
+   * @param replica the replica data source
+   * @param tracker the read your writes tracker
+   * @return the data source
+   */
+  @Bean
+  @Primary
+  public DataSource dataSource(
+      @Qualifier("primaryDataSource") DataSource primary,
+      @Qualifier("replicaDataSource") DataSource replica,
+      ReadYourWritesTracker tracker
+  ) {
+    ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(tracker);
+    routing.setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+    routing.setDefaultTargetDataSource(primary);
+    routing.afterPropertiesSet();
+
+    return new LazyConnectionDataSourceProxy(routing);
+  }
+}
@@ -0,0 +1,46 @@
+package com.betrybe.agrix.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds up, per thread, the time Hibernate spends executing JDBC statements and batches.
+ *
+ * <p>Hibernate creates one listener per session, as configured by
+ * {@code hibernate.session.events.auto}; the total is kept per thread so a request can read how
+ * much it grew while it ran. Statements issued with the JDBC templates are not included.
+ */
+public class DbTimeListener implements SessionEventListener {
+  private static final ThreadLocal<long[]> TOTAL = ThreadLocal.withInitial(() -> new long[1]);
+
+  private long statementStart;
+  private long batchStart;
+
+  /**
+   * Gets the statement time of the current thread so far.
+   *
+   * @return the nanoseconds spent executing statements
+   */
+  public static long threadTotalNanos() {
+    return TOTAL.get()[0];
+  }
+
+  @Override
+  public void jdbcExecuteStatementStart() {
+    statementStart = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcExecuteStatementEnd() {
+    TOTAL.get()[0] += System.nanoTime() - statementStart;
+  }
+
+  @Override
+  public void jdbcExecuteBatchStart() {
+    batchStart = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcExecuteBatchEnd() {
+    TOTAL.get()[0] += System.nanoTime() - batchStart;
+  }
+}
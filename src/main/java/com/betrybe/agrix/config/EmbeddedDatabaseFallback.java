@@ -0,0 +1,35 @@
+package com.betrybe.agrix.config;
+
+import java.util.Map;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * Keeps the application runnable without a configured database.
+ *
+ * <p>With no {@code spring.datasource.url}, Spring Boot falls back to an embedded H2 database,
+ * which the MySQL migrations are not written for. In that case Flyway is turned off and
+ * Hibernate creates the schema, as it did before migrations existed; any configured url,
+ * including {@code SPRING_DATASOURCE_URL}, leaves the migrations in charge.
+ */
+public class EmbeddedDatabaseFallback implements EnvironmentPostProcessor {
+  private static final String URL = "spring.datasource.url";
+
+  @Override
+  public void postProcessEnvironment(
+      ConfigurableEnvironment environment,
+      SpringApplication application
+  ) {
+    if (environment.containsProperty(URL)) {
+      return;
+    }
+
+    environment.getPropertySources().addFirst(new MapPropertySource("embeddedDatabaseFallback",
+        Map.of(
+            "spring.flyway.enabled", "false",
+            "spring.jpa.hibernate.ddl-auto", "create-drop"
+        )));
+  }
+}
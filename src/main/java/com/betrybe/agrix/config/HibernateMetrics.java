@@ -0,0 +1,124 @@
+package com.betrybe.agrix.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import java.util.function.ToDoubleFunction;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CollectionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the Hibernate statistics as meters.
+ *
+ * <p>Hibernate keeps the counters itself; the meters only read them when scraped, so the cost on
+ * the request path is the statistics collection enabled by
+ * {@code hibernate.generate_statistics}. Connection pool wait times come from the HikariCP
+ * meters ({@code hikaricp.connections.acquire}) Spring Boot already binds, and per-statement
+ * timings from the {@code slowqueries} actuator endpoint.
+ */
+@Component
+public class HibernateMetrics implements MeterBinder {
+  private final Statistics statistics;
+  private final EntityManagerFactory entityManagerFactory;
+
+  /**
+   * Instantiates a new Hibernate metrics.
+   *
+   * @param entityManagerFactory the entity manager factory
+   */
+  @Autowired
+  public HibernateMetrics(EntityManagerFactory entityManagerFactory) {
+    this.entityManagerFactory = entityManagerFactory;
+    this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+      String entityName = entity.getJavaType().getName();
+      String tag = entity.getJavaType().getSimpleName();
+
+      entityCounter(registry, "loads", tag, entityName, EntityStatistics::getLoadCount);
+      entityCounter(registry, "fetches", tag, entityName, EntityStatistics::getFetchCount);
+      entityCounter(registry, "inserts", tag, entityName, EntityStatistics::getInsertCount);
+      entityCounter(registry, "updates", tag, entityName, EntityStatistics::getUpdateCount);
+      entityCounter(registry, "deletes", tag, entityName, EntityStatistics::getDeleteCount);
+    }
+
+    for (String role : statistics.getCollectionRoleNames()) {
+      String tag = role.substring(role.lastIndexOf('.', role.lastIndexOf('.') - 1) + 1);
+
+      FunctionCounter.builder("agrix.hibernate.collection.fetches", statistics,
+              stats -> collection(stats, role, CollectionStatistics::getFetchCount))
+          .description("Collections fetched from the database")
+          .tag("role", tag)
+          .register(registry);
+      FunctionCounter.builder("agrix.hibernate.collection.loads", statistics,
+              stats -> collection(stats, role, CollectionStatistics::getLoadCount))
+          .description("Collections loaded")
+          .tag("role", tag)
+          .register(registry);
+    }
+
+    counter(registry, "agrix.hibernate.query.executions", "Queries executed",
+        Statistics::getQueryExecutionCount);
+    Gauge.builder("agrix.hibernate.query.max-time", statistics,
+            Statistics::getQueryExecutionMaxTime)
+        .description("Slowest query execution so far")
+        .baseUnit("milliseconds")
+        .register(registry);
+    counter(registry, "agrix.hibernate.statements.prepared", "JDBC statements prepared",
+        Statistics::getPrepareStatementCount);
+    counter(registry, "agrix.hibernate.sessions.opened", "Sessions opened",
+        Statistics::getSessionOpenCount);
+    counter(registry, "agrix.hibernate.flushes", "Session flushes",
+        Statistics::getFlushCount);
+
+    cacheCounters(registry, "agrix.hibernate.second-level-cache.requests",
+        Statistics::getSecondLevelCacheHitCount, Statistics::getSecondLevelCacheMissCount);
+    counter(registry, "agrix.hibernate.second-level-cache.puts", "Second-level cache puts",
+        Statistics::getSecondLevelCachePutCount);
+    cacheCounters(registry, "agrix.hibernate.query-plan-cache.requests",
+        Statistics::getQueryPlanCacheHitCount, Statistics::getQueryPlanCacheMissCount);
+  }
+
+  private void entityCounter(MeterRegistry registry, String name, String tag, String entityName,
+      ToDoubleFunction<EntityStatistics> count) {
+    FunctionCounter.builder("agrix.hibernate.entity." + name, statistics,
+            stats -> count.applyAsDouble(stats.getEntityStatistics(entityName)))
+        .description("Entity " + name)
+        .tag("entity", tag)
+        .register(registry);
+  }
+
+  private void counter(MeterRegistry registry, String name, String description,
+      ToDoubleFunction<Statistics> count) {
+    FunctionCounter.builder(name, statistics, count)
+        .description(description)
+        .register(registry);
+  }
+
+  private void cacheCounters(MeterRegistry registry, String name,
+      ToDoubleFunction<Statistics> hits, ToDoubleFunction<Statistics> misses) {
+    FunctionCounter.builder(name, statistics, hits)
+        .tag("result", "hit")
+        .register(registry);
+    FunctionCounter.builder(name, statistics, misses)
+        .tag("result", "miss")
+        .register(registry);
+  }
+
+  private static double collection(Statistics statistics, String role,
+      ToDoubleFunction<CollectionStatistics> count) {
+    CollectionStatistics collectionStatistics = statistics.getCollectionStatistics(role);
+
+    return collectionStatistics == null ? 0 : count.applyAsDouble(collectionStatistics);
+  }
+}
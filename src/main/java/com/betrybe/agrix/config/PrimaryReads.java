@@ -0,0 +1,49 @@
+package com.betrybe.agrix.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Pins the reads of a block to the primary, for lookups that cannot tolerate replica lag.
+ *
+ * <p>Read-only transactions normally go to the replica. Authentication, token revocation and
+ * sync cursors must see the latest committed rows, so they run their statements inside
+ * {@link #call(Supplier)}; the transaction stays read-only, so it is not counted as a write
+ * either. Without a replica configured this is a no-op.
+ */
+public final class PrimaryReads {
+  private static final ThreadLocal<Integer> DEPTH = ThreadLocal.withInitial(() -> 0);
+
+  private PrimaryReads() {}
+
+  /**
+   * Runs the reads against the primary.
+   *
+   * @param <T>   the result type
+   * @param reads the reads
+   * @return the result of the reads
+   */
+  public static <T> T call(Supplier<T> reads) {
+    DEPTH.set(DEPTH.get() + 1);
+
+    try {
+      return reads.get();
+    } finally {
+      int depth = DEPTH.get() - 1;
+
+      if (depth == 0) {
+        DEPTH.remove();
+      } else {
+        DEPTH.set(depth);
+      }
+    }
+  }
+
+  /**
+   * Checks whether the current thread is inside {@link #call(Supplier)}.
+   *
+   * @return true if reads must go to the primary
+   */
+  public static boolean isActive() {
+    return DEPTH.get() > 0;
+  }
+}
@@ -0,0 +1,60 @@
+package com.betrybe.agrix.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes read-only transactions to the replica and everything else to the primary.
+ *
+ * <p>It must be wrapped in a {@code LazyConnectionDataSourceProxy}, otherwise the connection
+ * is fetched before the transaction is flagged as read-only. Reads inside
+ * {@link PrimaryReads#call} stay on the primary. A read-write transaction counts as a write for
+ * the read-your-writes window once it commits, and only once however many connections it opens.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+  private final ReadYourWritesTracker tracker;
+  private final Object writeMarker = new Object();
+
+  /**
+   * Instantiates a new Read write routing data source.
+   *
+   * @param tracker the read-your-writes tracker
+   */
+  public ReadWriteRoutingDataSource(ReadYourWritesTracker tracker) {
+    this.tracker = tracker;
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      return PrimaryReads.isActive() || tracker.wroteRecently() ? Route.PRIMARY : Route.REPLICA;
+    }
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()
+        && !TransactionSynchronizationManager.hasResource(writeMarker)) {
+      TransactionSynchronizationManager.bindResource(writeMarker, Boolean.TRUE);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          tracker.recordWrite();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(writeMarker);
+        }
+      });
+    }
+
+    return Route.PRIMARY;
+  }
+
+  /**
+   * The datasource a connection is routed to.
+   */
+  public enum Route {
+    PRIMARY,
+    REPLICA
+  }
+}
@@ -0,0 +1,69 @@
+package com.betrybe.agrix.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Remembers which principals wrote recently, so their reads can be pinned to the primary
+ * until the replica had time to catch up.
+ */
+public class ReadYourWritesTracker {
+  private static final int PRUNE_THRESHOLD = 10_000;
+
+  private final long windowNanos;
+  private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+  /**
+   * Instantiates a new Read your writes tracker.
+   *
+   * @param window how long reads stay on the primary after a write; zero disables it
+   */
+  public ReadYourWritesTracker(Duration window) {
+    this.windowNanos = window.toNanos();
+  }
+
+  /**
+   * Records a write made by the current principal.
+   */
+  public void recordWrite() {
+    String principal = currentPrincipal();
+
+    if (windowNanos <= 0 || principal == null) {
+      return;
+    }
+
+    long now = System.nanoTime();
+
+    if (lastWrites.size() >= PRUNE_THRESHOLD) {
+      lastWrites.values().removeIf(writtenAt -> now - writtenAt > windowNanos);
+    }
+
+    lastWrites.put(principal, now);
+  }
+
+  /**
+   * Checks whether the current principal wrote inside the window.
+   *
+   * @return true if reads should go to the primary
+   */
+  public boolean wroteRecently() {
+    String principal = currentPrincipal();
+
+    if (windowNanos <= 0 || principal == null) {
+      return false;
+    }
+
+    Long writtenAt = lastWrites.get(principal);
+
+    return writtenAt != null && System.nanoTime() - writtenAt <= windowNanos;
+  }
+
+  private String currentPrincipal() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+    return authentication == null ? null : authentication.getName();
+  }
+}
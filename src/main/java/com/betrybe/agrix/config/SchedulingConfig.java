@@ -0,0 +1,34 @@
+package com.betrybe.agrix.config;
+
+import com.betrybe.agrix.service.AuditService;
+import com.betrybe.agrix.service.CropArchiveService;
+import com.betrybe.agrix.service.CropSnapshotService;
+import com.betrybe.agrix.service.FarmLocationService;
+import com.betrybe.agrix.service.FertilizerForecastService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the scheduled maintenance jobs.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+  /**
+   * Keeps the beans owning scheduled jobs eager under {@code spring.main.lazy-initialization}:
+   * a scheduled method is only registered once its bean exists. The audit writer is kept eager
+   * too, so a journal left by a crash is replayed at startup rather than at the first change.
+   *
+   * @return the exclude filter
+   */
+  @Bean
+  public static LazyInitializationExcludeFilter scheduledJobsExcludeFilter() {
+    return LazyInitializationExcludeFilter.forBeanTypes(
+        CropArchiveService.class, AuditService.class, FarmLocationService.class,
+        CropSnapshotService.class, FertilizerForecastService.class
+    );
+  }
+}
@@ -0,0 +1,163 @@
+package com.betrybe.agrix.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refuses to start when the indexes of the running schema drifted from the migrations.
+ *
+ * <p>Flyway already validates the checksums of the applied migrations and Hibernate
+ * ({@code ddl-auto=validate}) the tables and columns; neither looks at indexes. The indexes the
+ * migrations create are mirrored in the {@code @Table} and {@code @JoinTable} mappings, and this
+ * check compares them, name and column order, with the database metadata before the web server
+ * starts. It only runs when Flyway owns the schema.
+ */
+@Component
+public class SchemaDriftCheck implements SmartInitializingSingleton {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SchemaDriftCheck.class);
+
+  private final EntityManagerFactory entityManagerFactory;
+  private final DataSource dataSource;
+  private final boolean enabled;
+
+  /**
+   * Instantiates a new Schema drift check.
+   *
+   * @param entityManagerFactory the entity manager factory
+   * @param dataSource           the data source
+   * @param enabled              whether migrations own the schema
+   */
+  @Autowired
+  public SchemaDriftCheck(
+      EntityManagerFactory entityManagerFactory,
+      DataSource dataSource,
+      @Value("${spring.flyway.enabled:true}") boolean enabled
+  ) {
+    this.entityManagerFactory = entityManagerFactory;
+    this.dataSource = dataSource;
+    this.enabled = enabled;
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    if (!enabled) {
+      return;
+    }
+
+    Map<String, Map<String, List<String>>> expected = expectedIndexes();
+    List<String> drift = new ArrayList<>();
+
+    try (Connection connection = dataSource.getConnection()) {
+      DatabaseMetaData metaData = connection.getMetaData();
+
+      for (Map.Entry<String, Map<String, List<String>>> table : expected.entrySet()) {
+        Map<String, List<String>> actual = actualIndexes(metaData, table.getKey());
+
+        table.getValue().forEach((name, columns) -> {
+          List<String> found = actual.get(name);
+
+          if (found == null) {
+            drift.add(table.getKey() + "." + name + " is missing");
+          } else if (!found.equals(columns)) {
+            drift.add(table.getKey() + "." + name + " is on " + found + " instead of " + columns);
+          }
+        });
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Could not read the schema metadata", e);
+    }
+
+    if (!drift.isEmpty()) {
+      throw new IllegalStateException("Schema drifted from the migrations: "
+          + String.join("; ", drift));
+    }
+
+    LOGGER.info("Schema matches the migrations ({} tables checked)", expected.size());
+  }
+
+  private Map<String, Map<String, List<String>>> expectedIndexes() {
+    Map<String, Map<String, List<String>>> expected = new TreeMap<>();
+
+    for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+      Class<?> type = entity.getJavaType();
+      Table table = type.getAnnotation(Table.class);
+
+      if (table != null) {
+        addIndexes(expected, table.name(), table.indexes());
+      }
+
+      for (Field field : type.getDeclaredFields()) {
+        JoinTable joinTable = field.getAnnotation(JoinTable.class);
+
+        if (joinTable != null) {
+          addIndexes(expected, joinTable.name(), joinTable.indexes());
+        }
+      }
+    }
+
+    return expected;
+  }
+
+  private static void addIndexes(Map<String, Map<String, List<String>>> expected, String table,
+      Index[] indexes) {
+    for (Index index : indexes) {
+      List<String> columns = Arrays.stream(index.columnList().split(","))
+          .map(column -> column.trim().split("\\s+")[0].toLowerCase(Locale.ROOT))
+          .toList();
+
+      expected.computeIfAbsent(table.toLowerCase(Locale.ROOT), key -> new TreeMap<>())
+          .put(index.name().toLowerCase(Locale.ROOT), columns);
+    }
+  }
+
+  private static Map<String, List<String>> actualIndexes(DatabaseMetaData metaData, String table)
+      throws SQLException {
+    String storedName = metaData.storesUpperCaseIdentifiers()
+        ? table.toUpperCase(Locale.ROOT)
+        : table;
+    Map<String, TreeMap<Short, String>> columnsByPosition = new HashMap<>();
+
+    try (ResultSet rows = metaData.getIndexInfo(
+        metaData.getConnection().getCatalog(), null, storedName, false, false
+    )) {
+      while (rows.next()) {
+        String name = rows.getString("INDEX_NAME");
+        String column = rows.getString("COLUMN_NAME");
+
+        if (name == null || column == null) {
+          continue;
+        }
+
+        columnsByPosition.computeIfAbsent(name.toLowerCase(Locale.ROOT), key -> new TreeMap<>())
+            .put(rows.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+      }
+    }
+
+    Map<String, List<String>> indexes = new HashMap<>();
+    columnsByPosition.forEach((name, columns) -> indexes.put(name, List.copyOf(columns.values())));
+
+    return indexes;
+  }
+}
@@ -0,0 +1,99 @@
+package com.betrybe.agrix.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint listing the statements with the highest maximum execution time.
+ *
+ * <p>Covers the queries run through Hibernate (JPQL, criteria and native queries); statements
+ * issued with the JDBC templates are not tracked. Hibernate keeps statistics for at most
+ * {@code hibernate.statistics.query_max_size} distinct statements, which also bounds the
+ * {@code limit} parameter.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+  private static final int DEFAULT_LIMIT = 20;
+
+  private final Statistics statistics;
+  private final int maxLimit;
+
+  /**
+   * Instantiates a new Slow queries endpoint.
+   *
+   * @param entityManagerFactory the entity manager factory
+   * @param maxLimit             the distinct statements Hibernate keeps statistics for
+   */
+  @Autowired
+  public SlowQueriesEndpoint(
+      EntityManagerFactory entityManagerFactory,
+      @Value("${spring.jpa.properties.hibernate.statistics.query_max_size:5000}") int maxLimit
+  ) {
+    this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    this.maxLimit = maxLimit;
+  }
+
+  /**
+   * Lists the slowest statements.
+   *
+   * @param limit how many statements to list, 20 by default, clamped to [1, query_max_size]
+   * @return the statements, slowest first
+   */
+  @ReadOperation
+  public List<SlowQuery> slowQueries(@Nullable Integer limit) {
+    int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, maxLimit));
+
+    return Arrays.stream(statistics.getQueries())
+        .map(query -> SlowQuery.of(query, statistics.getQueryStatistics(query)))
+        .filter(slowQuery -> slowQuery.executionCount() > 0)
+        .sorted(Comparator.comparingLong(SlowQuery::maxTimeMillis).reversed())
+        .limit(size)
+        .toList();
+  }
+
+  /**
+   * Execution statistics of one statement.
+   *
+   * @param query          the statement
+   * @param executionCount how many times it ran
+   * @param maxTimeMillis  the slowest execution
+   * @param avgTimeMillis  the mean execution
+   * @param minTimeMillis  the fastest execution
+   * @param rowsReturned   the rows returned over all executions
+   * @param planCacheHits  how many times its plan came from the query plan cache
+   */
+  public record SlowQuery(
+      String query,
+      long executionCount,
+      long maxTimeMillis,
+      long avgTimeMillis,
+      long minTimeMillis,
+      long rowsReturned,
+      long planCacheHits
+  ) {
+
+    static SlowQuery of(String query, QueryStatistics statistics) {
+      return new SlowQuery(
+          query,
+          statistics.getExecutionCount(),
+          statistics.getExecutionMaxTime(),
+          statistics.getExecutionAvgTime(),
+          statistics.getExecutionMinTime(),
+          statistics.getExecutionRowCount(),
+          statistics.getPlanCacheHitCount()
+      );
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.betrybe.agrix.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exits as soon as the application is ready when {@code agrix.startup.exit-when-ready} is set.
+ *
+ * <p>Used by the class-data-sharing training run of the Dockerfile: the JVM dumps every class
+ * loaded during startup when it exits. The flag is read at runtime rather than through a
+ * condition, because conditions are frozen by the ahead-of-time build.
+ */
+@Component
+public class StartupTrainingRun {
+  private final boolean exitWhenReady;
+
+  /**
+   * Instantiates a new Startup training run.
+   *
+   * @param exitWhenReady whether to exit once the application is ready
+   */
+  @Autowired
+  public StartupTrainingRun(
+      @Value("${agrix.startup.exit-when-ready:false}") boolean exitWhenReady
+  ) {
+    this.exitWhenReady = exitWhenReady;
+  }
+
+  /**
+   * Closes the context and exits the JVM if this is a training run.
+   *
+   * @param event the ready event
+   */
+  @EventListener
+  public void onReady(ApplicationReadyEvent event) {
+    if (exitWhenReady) {
+      System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+  }
+}
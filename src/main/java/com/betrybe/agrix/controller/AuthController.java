@@ -1,15 +1,30 @@
 package com.betrybe.agrix.controller;
 
 import com.betrybe.agrix.controller.dto.AuthDto;
+import com.betrybe.agrix.controller.dto.RefreshDto;
 import com.betrybe.agrix.controller.dto.TokenDto;
+import com.betrybe.agrix.security.LoginGuard;
+import com.betrybe.agrix.service.RefreshTokenService;
+import com.betrybe.agrix.service.RefreshTokenService.Rotation;
+import com.betrybe.agrix.service.TokenRevocationService;
 import com.betrybe.agrix.service.TokenService;
+import com.betrybe.agrix.service.exception.InvalidRefreshTokenException;
+import com.betrybe.agrix.service.exception.TooManyLoginAttemptsException;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -20,34 +35,107 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthController {
   private final AuthenticationManager authenticationManager;
   private final TokenService tokenService;
+  private final TokenRevocationService tokenRevocationService;
+  private final RefreshTokenService refreshTokenService;
+  private final LoginGuard loginGuard;
 
   /**
    * Instantiates a new Auth controller.
    *
-   * @param authenticationManager the authentication manager
-   * @param tokenService          the token service
+   * @param authenticationManager  the authentication manager
+   * @param tokenService           the token service
+   * @param tokenRevocationService the token revocation service
+   * @param refreshTokenService    the refresh token service
+   * @param loginGuard             the login guard
    */
   @Autowired
-  public AuthController(AuthenticationManager authenticationManager, TokenService tokenService) {
+  public AuthController(AuthenticationManager authenticationManager, TokenService tokenService,
+      TokenRevocationService tokenRevocationService, RefreshTokenService refreshTokenService,
+      LoginGuard loginGuard) {
     this.authenticationManager = authenticationManager;
     this.tokenService = tokenService;
+    this.tokenRevocationService = tokenRevocationService;
+    this.refreshTokenService = refreshTokenService;
+    this.loginGuard = loginGuard;
   }
 
   /**
    * Login string.
    *
    * @param authDto the auth dto
+   * @param request the request, for the client address, which Tomcat resolves from
+   *                X-Forwarded-For behind a trusted proxy
    * @return the string
+   * @throws TooManyLoginAttemptsException if the username or the address is blocked
    */
   @PostMapping("/login")
-  public TokenDto login(@RequestBody AuthDto authDto) {
+  public TokenDto login(@RequestBody AuthDto authDto, HttpServletRequest request)
+      throws TooManyLoginAttemptsException {
+    String address = request.getRemoteAddr();
+    long retryAfter = loginGuard.retryAfter(authDto.username(), address);
+
+    if (retryAfter > 0) {
+      throw new TooManyLoginAttemptsException(retryAfter);
+    }
+
     UsernamePasswordAuthenticationToken usernamePassword =
         new UsernamePasswordAuthenticationToken(authDto.username(), authDto.password());
 
-    Authentication auth = authenticationManager.authenticate(usernamePassword);
+    Authentication auth;
+
+    try {
+      auth = authenticationManager.authenticate(usernamePassword);
+    } catch (AuthenticationException e) {
+      loginGuard.recordFailure(authDto.username(), address);
+      throw e;
+    }
 
     String token = tokenService.generateToken(auth.getName());
 
-    return new TokenDto(token);
+    return new TokenDto(token, refreshTokenService.issue(auth.getName()));
+  }
+
+  /**
+   * Trades a refresh token for a new access token and the next refresh token.
+   *
+   * @param refreshDto the refresh dto
+   * @return the token dto
+   * @throws InvalidRefreshTokenException if the refresh token is not valid
+   */
+  @PostMapping("/refresh")
+  public TokenDto refresh(@RequestBody RefreshDto refreshDto) throws InvalidRefreshTokenException {
+    Rotation rotation = refreshTokenService.rotate(refreshDto.refreshToken());
+
+    return new TokenDto(tokenService.generateToken(rotation.username()), rotation.refreshToken());
+  }
+
+  /**
+   * Revokes the token the request was authenticated with, and the refresh token if one is given.
+   *
+   * @param authorization the authorization header
+   * @param refreshDto    the refresh dto, optional
+   */
+  @PostMapping("/logout")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+      @RequestBody(required = false) RefreshDto refreshDto) {
+    tokenRevocationService.revokeToken(tokenService.verify(authorization.replace("Bearer ", "")));
+
+    if (refreshDto != null && refreshDto.refreshToken() != null) {
+      refreshTokenService.revoke(refreshDto.refreshToken());
+    }
+  }
+
+  /**
+   * Revokes every access and refresh token issued to a person until now.
+   *
+   * @param username the username
+   */
+  @PostMapping("/revoke/{username}")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+  public void revokePerson(@PathVariable String username) {
+    tokenRevocationService.revokePerson(username);
+    refreshTokenService.revokeAll(username);
   }
 }
@@ -1,13 +1,17 @@
 package com.betrybe.agrix.controller;
 
+import com.betrybe.agrix.controller.dto.BatchEntryDto;
 import com.betrybe.agrix.controller.dto.CropDto;
 import com.betrybe.agrix.controller.dto.FertilizerDto;
 import com.betrybe.agrix.entity.Crop;
 import com.betrybe.agrix.service.CropService;
 import com.betrybe.agrix.service.exception.CropNotFoundException;
 import com.betrybe.agrix.service.exception.FertilizerNotFoundException;
+import com.betrybe.agrix.service.exception.InvalidFieldsException;
+import com.betrybe.agrix.service.exception.TooManyIdsException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -66,6 +70,36 @@ public class CropController {
         .toList();
   }
 
+  /**
+   * Gets all crops with only the selected fields.
+   *
+   * @param fields the fields, e.g. id,name,harvestDate
+   * @return the crops
+   * @throws InvalidFieldsException the invalid fields exception
+   */
+  @GetMapping(params = {"fields", "!ids"})
+  @PreAuthorize(
+      "hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_MANAGER')")
+  @ResponseStatus(HttpStatus.OK)
+  public List<Map<String, Object>> getAllCrops(@RequestParam List<String> fields)
+      throws InvalidFieldsException {
+    return cropService.findAll(fields);
+  }
+
+  /**
+   * Gets crops by id with a single lookup; missing ids are reported inline.
+   *
+   * @param ids the ids
+   * @return one entry per requested id, in request order
+   * @throws TooManyIdsException the too many ids exception
+   */
+  @GetMapping(params = "ids")
+  @ResponseStatus(HttpStatus.OK)
+  public List<BatchEntryDto<CropDto>> getCropsById(@RequestParam List<Long> ids)
+      throws TooManyIdsException {
+    return cropService.findAllById(ids);
+  }
+
   /**
    * Gets crops by harvest dates interval.
    *
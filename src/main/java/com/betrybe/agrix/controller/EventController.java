@@ -0,0 +1,40 @@
+package com.betrybe.agrix.controller;
+
+import com.betrybe.agrix.service.ChangeStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * The type Event controller.
+ */
+@RestController
+@RequestMapping("/events")
+public class EventController {
+  private final ChangeStreamService changeStreamService;
+
+  /**
+   * Instantiates a new Event controller.
+   *
+   * @param changeStreamService the change stream service
+   */
+  @Autowired
+  public EventController(ChangeStreamService changeStreamService) {
+    this.changeStreamService = changeStreamService;
+  }
+
+  /**
+   * Streams crop, farm and fertilizer changes as server-sent events.
+   *
+   * @param farmId only stream changes of this farm
+   * @return the sse emitter
+   */
+  @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter stream(@RequestParam(required = false) Long farmId) {
+    return changeStreamService.subscribe(farmId);
+  }
+}
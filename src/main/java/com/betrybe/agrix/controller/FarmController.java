@@ -1,25 +1,44 @@
 package com.betrybe.agrix.controller;
 
+import com.betrybe.agrix.controller.dto.BatchEntryDto;
 import com.betrybe.agrix.controller.dto.CropCreationDto;
 import com.betrybe.agrix.controller.dto.CropDto;
+import com.betrybe.agrix.controller.dto.FarmAggregateDto;
 import com.betrybe.agrix.controller.dto.FarmCreationDto;
+import com.betrybe.agrix.controller.dto.FarmDeletionDto;
 import com.betrybe.agrix.controller.dto.FarmDto;
+import com.betrybe.agrix.controller.dto.NearbyFarmDto;
+import com.betrybe.agrix.controller.dto.OccupancyDto;
 import com.betrybe.agrix.entity.Crop;
 import com.betrybe.agrix.entity.Farm;
 import com.betrybe.agrix.service.CropService;
+import com.betrybe.agrix.service.FarmAggregateService;
+import com.betrybe.agrix.service.FarmDeletionMode;
+import com.betrybe.agrix.service.FarmLocationService;
 import com.betrybe.agrix.service.FarmService;
+import com.betrybe.agrix.service.OccupancyService;
 import com.betrybe.agrix.service.exception.CropNotFoundException;
 import com.betrybe.agrix.service.exception.FarmNotFoundException;
+import com.betrybe.agrix.service.exception.InvalidFieldsException;
+import com.betrybe.agrix.service.exception.InvalidHarvestDateException;
+import com.betrybe.agrix.service.exception.InvalidLimitException;
+import com.betrybe.agrix.service.exception.InvalidLocationException;
+import com.betrybe.agrix.service.exception.InvalidPeriodException;
+import com.betrybe.agrix.service.exception.TooManyIdsException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -31,17 +50,28 @@ import org.springframework.web.bind.annotation.RestController;
 public class FarmController {
   private final FarmService service;
   private final CropService cropService;
+  private final FarmAggregateService farmAggregateService;
+  private final FarmLocationService farmLocationService;
+  private final OccupancyService occupancyService;
 
   /**
    * Instantiates a new Farm controller.
    *
-   * @param service     the service
-   * @param cropService the crop service
+   * @param service              the service
+   * @param cropService          the crop service
+   * @param farmAggregateService the farm aggregate service
+   * @param farmLocationService  the farm location service
+   * @param occupancyService     the occupancy service
    */
   @Autowired
-  public FarmController(FarmService service, CropService cropService) {
+  public FarmController(FarmService service, CropService cropService,
+      FarmAggregateService farmAggregateService, FarmLocationService farmLocationService,
+      OccupancyService occupancyService) {
     this.service = service;
     this.cropService = cropService;
+    this.farmAggregateService = farmAggregateService;
+    this.farmLocationService = farmLocationService;
+    this.occupancyService = occupancyService;
   }
 
   /**
@@ -60,6 +90,123 @@ public class FarmController {
         .toList();
   }
 
+  /**
+   * Gets all farms with only the selected fields.
+   *
+   * @param fields the fields, e.g. id,name
+   * @return the farms
+   * @throws InvalidFieldsException the invalid fields exception
+   */
+  @GetMapping(params = {"fields", "!ids"})
+  @PreAuthorize(
+      "hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_USER')")
+  @ResponseStatus(HttpStatus.OK)
+  public List<Map<String, Object>> getAllFarms(@RequestParam List<String> fields)
+      throws InvalidFieldsException {
+    return service.findAll(fields);
+  }
+
+  /**
+   * Gets farms by id with a single lookup; missing ids are reported inline.
+   *
+   * @param ids the ids
+   * @return one entry per requested id, in request order
+   * @throws TooManyIdsException the too many ids exception
+   */
+  @GetMapping(params = "ids")
+  @ResponseStatus(HttpStatus.OK)
+  public List<BatchEntryDto<FarmDto>> getFarmsById(@RequestParam List<Long> ids)
+      throws TooManyIdsException {
+    return service.findAllById(ids);
+  }
+
+  /**
+   * Gets the farms within a distance of a point, nearest first.
+   *
+   * @param lat      the latitude
+   * @param lon      the longitude
+   * @param radiusKm the radius, in kilometers
+   * @param limit    the maximum number of farms
+   * @return the farms and their distances
+   * @throws InvalidLocationException the invalid location exception
+   * @throws InvalidLimitException    the invalid limit exception
+   */
+  @GetMapping("/near")
+  @PreAuthorize(
+      "hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_USER')")
+  public List<NearbyFarmDto> getFarmsNear(
+      @RequestParam double lat,
+      @RequestParam double lon,
+      @RequestParam double radiusKm,
+      @RequestParam(defaultValue = "100") int limit
+  ) throws InvalidLocationException, InvalidLimitException {
+    return farmLocationService.findNear(lat, lon, radiusKm, limit);
+  }
+
+  /**
+   * Gets the farms inside a bounding box.
+   *
+   * @param south the minimum latitude
+   * @param west  the west longitude
+   * @param north the maximum latitude
+   * @param east  the east longitude
+   * @param limit the maximum number of farms
+   * @return the farms, by id
+   * @throws InvalidLocationException the invalid location exception
+   * @throws InvalidLimitException    the invalid limit exception
+   */
+  @GetMapping("/within")
+  @PreAuthorize(
+      "hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_USER')")
+  public List<FarmDto> getFarmsWithin(
+      @RequestParam double south,
+      @RequestParam double west,
+      @RequestParam double north,
+      @RequestParam double east,
+      @RequestParam(defaultValue = "100") int limit
+  ) throws InvalidLocationException, InvalidLimitException {
+    return farmLocationService.findWithin(south, west, north, east, limit);
+  }
+
+  /**
+   * Gets the land occupancy timeline of every farm.
+   *
+   * @param from the first day
+   * @param to   the last day, inclusive
+   * @return the timelines, by farm id
+   * @throws InvalidPeriodException the invalid period exception
+   */
+  @GetMapping("/occupancy")
+  @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_MANAGER')")
+  public List<OccupancyDto> getFleetOccupancy(
+      @RequestParam LocalDate from,
+      @RequestParam LocalDate to
+  ) throws InvalidPeriodException {
+    return occupancyService.getFleetOccupancy(from, to);
+  }
+
+  /**
+   * Gets the land occupancy timeline of a farm, one run per stretch of days with the same
+   * occupied area.
+   *
+   * @param id   the id
+   * @param from the first day
+   * @param to   the last day, inclusive
+   * @return the timeline
+   * @throws FarmNotFoundException  the farm not found exception
+   * @throws InvalidPeriodException the invalid period exception
+   */
+  @GetMapping("/{id}/occupancy")
+  @PreAuthorize(
+      "hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_USER')")
+  public OccupancyDto getOccupancy(
+      @PathVariable Long id,
+      @RequestParam LocalDate from,
+      @RequestParam LocalDate to
+  ) throws FarmNotFoundException, InvalidPeriodException {
+    return occupancyService.getOccupancy(id, from, to);
+  }
+
   /**
    * Gets farm by id.
    *
@@ -73,6 +220,22 @@ public class FarmController {
     return FarmDto.fromEntity(service.findById(id));
   }
 
+  /**
+   * Gets farm by id with its relations expanded in one document.
+   *
+   * @param id     the id
+   * @param expand the relations to expand: crops, crops.fertilizers
+   * @return the farm aggregate
+   * @throws FarmNotFoundException  the farm not found exception
+   * @throws InvalidFieldsException the invalid fields exception
+   */
+  @GetMapping(value = "/{id}", params = "expand")
+  @ResponseStatus(HttpStatus.OK)
+  public FarmAggregateDto getFarmById(@PathVariable Long id, @RequestParam List<String> expand)
+      throws FarmNotFoundException, InvalidFieldsException {
+    return farmAggregateService.findById(id, expand);
+  }
+
   /**
    * Gets crops from farm by farm id.
    *
@@ -96,10 +259,12 @@ public class FarmController {
    *
    * @param farmCreationDto the farm creation dto
    * @return the farm dto
+   * @throws InvalidLocationException the invalid location exception
    */
   @PostMapping
   @ResponseStatus(HttpStatus.CREATED)
-  public FarmDto createFarm(@RequestBody FarmCreationDto farmCreationDto) {
+  public FarmDto createFarm(@RequestBody FarmCreationDto farmCreationDto)
+      throws InvalidLocationException {
     return FarmDto.fromEntity(service.create(farmCreationDto.toEntity()));
   }
 
@@ -109,15 +274,16 @@ public class FarmController {
    * @param farmId          the farm id
    * @param cropCreationDto the crop creation dto
    * @return the crop dto
-   * @throws FarmNotFoundException the farm not found exception
-   * @throws CropNotFoundException the crop not found exception
+   * @throws FarmNotFoundException       the farm not found exception
+   * @throws CropNotFoundException       the crop not found exception
+   * @throws InvalidHarvestDateException the invalid harvest date exception
    */
   @PostMapping("/{farmId}/crops")
   @ResponseStatus(HttpStatus.CREATED)
   public CropDto createCropToFarm(
       @PathVariable Long farmId,
       @RequestBody CropCreationDto cropCreationDto
-  ) throws FarmNotFoundException, CropNotFoundException {
+  ) throws FarmNotFoundException, CropNotFoundException, InvalidHarvestDateException {
     Crop cropToSave = new Crop(
         cropCreationDto.name(),
         cropCreationDto.plantedArea(),
@@ -133,4 +299,22 @@ public class FarmController {
 
     return CropDto.fromEntity(cropCreated);
   }
+
+  /**
+   * Delete farm.
+   *
+   * @param id   the id
+   * @param mode whether the farm crops are deleted (CASCADE) or kept without a farm (DETACH)
+   * @return the farm deletion dto
+   * @throws FarmNotFoundException the farm not found exception
+   */
+  @DeleteMapping("/{id}")
+  @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+  @ResponseStatus(HttpStatus.OK)
+  public FarmDeletionDto deleteFarm(
+      @PathVariable Long id,
+      @RequestParam(defaultValue = "DETACH") FarmDeletionMode mode
+  ) throws FarmNotFoundException {
+    return service.deleteById(id, mode);
+  }
 }
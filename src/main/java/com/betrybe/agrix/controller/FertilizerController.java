@@ -1,10 +1,17 @@
 package com.betrybe.agrix.controller;
 
+import com.betrybe.agrix.controller.dto.BatchEntryDto;
 import com.betrybe.agrix.controller.dto.FertilizerCreationDto;
 import com.betrybe.agrix.controller.dto.FertilizerDto;
+import com.betrybe.agrix.controller.dto.FertilizerUsageDto;
 import com.betrybe.agrix.service.FertilizerService;
+import com.betrybe.agrix.service.FertilizerUsageService;
 import com.betrybe.agrix.service.exception.FertilizerNotFoundException;
+import com.betrybe.agrix.service.exception.InvalidFieldsException;
+import com.betrybe.agrix.service.exception.TooManyIdsException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +21,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -24,15 +32,19 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/fertilizers")
 public class FertilizerController {
   private final FertilizerService fertilizerService;
+  private final FertilizerUsageService fertilizerUsageService;
 
   /**
    * Instantiates a new Fertilizer controller.
    *
-   * @param fertilizerService the fertilizer service
+   * @param fertilizerService      the fertilizer service
+   * @param fertilizerUsageService the fertilizer usage service
    */
   @Autowired
-  public FertilizerController(FertilizerService fertilizerService) {
+  public FertilizerController(FertilizerService fertilizerService,
+      FertilizerUsageService fertilizerUsageService) {
     this.fertilizerService = fertilizerService;
+    this.fertilizerUsageService = fertilizerUsageService;
   }
 
   /**
@@ -49,6 +61,52 @@ public class FertilizerController {
         .toList());
   }
 
+  /**
+   * Gets all fertilizers with only the selected fields.
+   *
+   * @param fields the fields, e.g. id,name
+   * @return the fertilizers
+   * @throws InvalidFieldsException the invalid fields exception
+   */
+  @GetMapping(params = {"fields", "!ids"})
+  @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+  public ResponseEntity<List<Map<String, Object>>> getAllFertilizers(
+      @RequestParam List<String> fields
+  ) throws InvalidFieldsException {
+    return ResponseEntity.ok().body(fertilizerService.getAllFertilizers(fields));
+  }
+
+  /**
+   * Gets fertilizers by id with a single lookup; missing ids are reported inline.
+   *
+   * @param ids the ids
+   * @return one entry per requested id, in request order
+   * @throws TooManyIdsException the too many ids exception
+   */
+  @GetMapping(params = "ids")
+  public ResponseEntity<List<BatchEntryDto<FertilizerDto>>> getFertilizersById(
+      @RequestParam List<Long> ids
+  ) throws TooManyIdsException {
+    return ResponseEntity.ok().body(fertilizerService.getFertilizersById(ids));
+  }
+
+  /**
+   * Gets how many crops, how much planted area and how many farms use each fertilizer.
+   *
+   * @param from   only count crops planted on or after this date
+   * @param to     only count crops planted on or before this date
+   * @param farmId only count the crops of this farm
+   * @return one entry per fertilizer in use
+   */
+  @GetMapping("/usage")
+  @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+  public ResponseEntity<List<FertilizerUsageDto>> getUsage(
+      @RequestParam(required = false) LocalDate from,
+      @RequestParam(required = false) LocalDate to,
+      @RequestParam(required = false) Long farmId
+  ) {
+    return ResponseEntity.ok().body(fertilizerUsageService.getUsage(from, to, farmId));
+  }
 
   /**
    * Gets fertilizer by id.
@@ -0,0 +1,45 @@
+package com.betrybe.agrix.controller;
+
+import com.betrybe.agrix.controller.dto.FertilizerForecastDto;
+import com.betrybe.agrix.service.FertilizerForecastService;
+import com.betrybe.agrix.service.exception.InvalidPeriodException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * The type Forecast controller.
+ */
+@RestController
+@RequestMapping("/forecast")
+public class ForecastController {
+  private final FertilizerForecastService fertilizerForecastService;
+
+  /**
+   * Instantiates a new Forecast controller.
+   *
+   * @param fertilizerForecastService the fertilizer forecast service
+   */
+  @Autowired
+  public ForecastController(FertilizerForecastService fertilizerForecastService) {
+    this.fertilizerForecastService = fertilizerForecastService;
+  }
+
+  /**
+   * Gets the forecast weekly demand of each fertilizer, the current week first.
+   *
+   * @param weeks the number of weeks
+   * @return the forecast
+   * @throws InvalidPeriodException the invalid period exception
+   */
+  @GetMapping("/fertilizers")
+  @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_MANAGER')")
+  public FertilizerForecastDto getFertilizerForecast(
+      @RequestParam(defaultValue = "26") int weeks
+  ) throws InvalidPeriodException {
+    return fertilizerForecastService.getForecast(weeks);
+  }
+}
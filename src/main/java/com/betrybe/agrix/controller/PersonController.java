@@ -1,12 +1,15 @@
 package com.betrybe.agrix.controller;
 
+import com.betrybe.agrix.controller.dto.PasswordChangeDto;
 import com.betrybe.agrix.controller.dto.PersonCreationDto;
 import com.betrybe.agrix.controller.dto.PersonDto;
 import com.betrybe.agrix.entity.Person;
 import com.betrybe.agrix.service.PersonService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -43,4 +46,17 @@ public class PersonController {
 
     return PersonDto.fromEntity(newPerson);
   }
+
+  /**
+   * Changes the password of the authenticated person and revokes the tokens issued until now.
+   *
+   * @param person            the authenticated person
+   * @param passwordChangeDto the password change dto
+   */
+  @PutMapping("/password")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void changePassword(@AuthenticationPrincipal Person person,
+      @RequestBody PasswordChangeDto passwordChangeDto) {
+    personService.changePassword(person.getUsername(), passwordChangeDto.password());
+  }
 }
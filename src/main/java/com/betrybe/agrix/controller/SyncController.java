@@ -0,0 +1,55 @@
+package com.betrybe.agrix.controller;
+
+import com.betrybe.agrix.controller.dto.SyncPageDto;
+import com.betrybe.agrix.service.SyncService;
+import com.betrybe.agrix.service.exception.InvalidCursorException;
+import com.betrybe.agrix.service.sync.SyncCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * The type Sync controller.
+ */
+@RestController
+@RequestMapping("/sync")
+public class SyncController {
+  private static final int MAX_LIMIT = 1000;
+
+  private final SyncService syncService;
+
+  /**
+   * Instantiates a new Sync controller.
+   *
+   * @param syncService the sync service
+   */
+  @Autowired
+  public SyncController(SyncService syncService) {
+    this.syncService = syncService;
+  }
+
+  /**
+   * Gets the changes made after a cursor.
+   *
+   * @param since  the cursor returned by the previous call, 0 for a full sync
+   * @param farmId restricts crops and farms to a single farm; crops that left it come deleted
+   * @param limit  the page size
+   * @return the sync page
+   * @throws InvalidCursorException the invalid cursor exception
+   */
+  @GetMapping
+  @ResponseStatus(HttpStatus.OK)
+  public SyncPageDto getChanges(
+      @RequestParam(defaultValue = "0") String since,
+      @RequestParam(required = false) Long farmId,
+      @RequestParam(defaultValue = "500") int limit
+  ) throws InvalidCursorException {
+    return syncService.getChanges(
+        SyncCursor.parse(since), farmId, Math.max(1, Math.min(limit, MAX_LIMIT))
+    );
+  }
+}
@@ -0,0 +1,17 @@
+package com.betrybe.agrix.controller.dto;
+
+/**
+ * The type Batch entry dto: one requested id of a batch lookup.
+ *
+ * @param <T>   the resource type
+ * @param id    the requested id
+ * @param data  the resource, or null if it was not found
+ * @param error the not found message, or null if it was found
+ */
+public record BatchEntryDto<T>(
+    Long id,
+    T data,
+    String error
+) {
+
+}
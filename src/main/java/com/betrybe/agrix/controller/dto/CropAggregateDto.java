@@ -0,0 +1,27 @@
+package com.betrybe.agrix.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The type Crop aggregate dto: a crop nested in an expanded farm.
+ *
+ * @param id          the id
+ * @param name        the name
+ * @param plantedArea the planted area
+ * @param plantedDate the planted date
+ * @param harvestDate the harvest date
+ * @param fertilizers the fertilizers, left out unless expanded
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CropAggregateDto(
+    Long id,
+    String name,
+    Double plantedArea,
+    LocalDate plantedDate,
+    LocalDate harvestDate,
+    List<FertilizerDto> fertilizers
+) {
+
+}
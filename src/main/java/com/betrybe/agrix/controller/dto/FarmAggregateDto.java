@@ -0,0 +1,24 @@
+package com.betrybe.agrix.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+/**
+ * The type Farm aggregate dto: a farm with its expanded relations.
+ *
+ * @param id             the id
+ * @param name           the name
+ * @param size           the size
+ * @param crops          the crops, left out unless expanded
+ * @param cropsTruncated whether the farm has more crops than the expansion cap
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record FarmAggregateDto(
+    Long id,
+    String name,
+    Double size,
+    List<CropAggregateDto> crops,
+    Boolean cropsTruncated
+) {
+
+}
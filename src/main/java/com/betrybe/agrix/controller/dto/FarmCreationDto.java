@@ -1,11 +1,25 @@
 package com.betrybe.agrix.controller.dto;
 
 import com.betrybe.agrix.entity.Farm;
+import com.betrybe.agrix.entity.GeoPoint;
+import java.util.List;
 
 /**
  * The type Farm creation dto.
+ *
+ * @param name      the name
+ * @param size      the size
+ * @param latitude  the latitude, optional
+ * @param longitude the longitude, optional
+ * @param boundary  the boundary vertices, optional
  */
-public record FarmCreationDto(String name, Double size) {
+public record FarmCreationDto(
+    String name,
+    Double size,
+    Double latitude,
+    Double longitude,
+    List<GeoPoint> boundary
+) {
 
   /**
    * To entity farm.
@@ -13,6 +27,14 @@ public record FarmCreationDto(String name, Double size) {
    * @return the farm
    */
   public Farm toEntity() {
-    return new Farm(name, size);
+    Farm farm = new Farm(name, size);
+
+    if (latitude != null && longitude != null) {
+      farm.setLocation(new GeoPoint(latitude, longitude));
+    }
+
+    farm.setBoundary(boundary);
+
+    return farm;
   }
 }
@@ -0,0 +1,15 @@
+package com.betrybe.agrix.controller.dto;
+
+import com.betrybe.agrix.service.FarmDeletionMode;
+
+/**
+ * The type Farm deletion dto.
+ */
+public record FarmDeletionDto(
+    Long farmId,
+    FarmDeletionMode mode,
+    int cropsAffected,
+    int fertilizerLinksRemoved
+) {
+
+}
@@ -1,14 +1,27 @@
 package com.betrybe.agrix.controller.dto;
 
 import com.betrybe.agrix.entity.Farm;
+import com.betrybe.agrix.entity.GeoPoint;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
 
 /**
- * The type Farm dto.
+ * The type Farm dto. The location fields are left out for farms that were not located.
+ *
+ * @param id        the id
+ * @param name      the name
+ * @param size      the size
+ * @param latitude  the latitude
+ * @param longitude the longitude
+ * @param boundary  the boundary vertices
  */
 public record FarmDto(
     Long id,
     String name,
-    Double size
+    Double size,
+    @JsonInclude(JsonInclude.Include.NON_NULL) Double latitude,
+    @JsonInclude(JsonInclude.Include.NON_NULL) Double longitude,
+    @JsonInclude(JsonInclude.Include.NON_NULL) List<GeoPoint> boundary
 ) {
 
   /**
@@ -18,10 +31,15 @@ public record FarmDto(
    * @return the farm dto
    */
   public static FarmDto fromEntity(Farm farm) {
+    GeoPoint location = farm.getLocation();
+
     return new FarmDto(
         farm.getId(),
         farm.getName(),
-        farm.getSize()
+        farm.getSize(),
+        location == null ? null : location.latitude(),
+        location == null ? null : location.longitude(),
+        farm.getBoundary()
     );
   }
 }
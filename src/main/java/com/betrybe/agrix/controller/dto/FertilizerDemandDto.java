@@ -0,0 +1,18 @@
+package com.betrybe.agrix.controller.dto;
+
+/**
+ * The type Fertilizer demand dto.
+ *
+ * @param fertilizerId the fertilizer id
+ * @param name         the fertilizer name
+ * @param total        the demand over every forecast week
+ * @param weekly       the demand of each forecast week, starting at the first one
+ */
+public record FertilizerDemandDto(
+    Long fertilizerId,
+    String name,
+    double total,
+    double[] weekly
+) {
+
+}
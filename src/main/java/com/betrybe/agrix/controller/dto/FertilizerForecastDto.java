@@ -0,0 +1,19 @@
+package com.betrybe.agrix.controller.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The type Fertilizer forecast dto.
+ *
+ * @param firstWeek   the Monday starting the first forecast week
+ * @param weeks       the number of forecast weeks
+ * @param fertilizers the demand of each fertilizer in use, ordered by id
+ */
+public record FertilizerForecastDto(
+    LocalDate firstWeek,
+    int weeks,
+    List<FertilizerDemandDto> fertilizers
+) {
+
+}
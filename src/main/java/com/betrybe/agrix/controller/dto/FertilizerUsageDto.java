@@ -0,0 +1,20 @@
+package com.betrybe.agrix.controller.dto;
+
+/**
+ * The type Fertilizer usage dto.
+ *
+ * @param fertilizerId the fertilizer id
+ * @param name         the fertilizer name
+ * @param crops        the number of crops the fertilizer is applied to
+ * @param plantedArea  the planted area of those crops
+ * @param farms        the number of farms those crops belong to
+ */
+public record FertilizerUsageDto(
+    Long fertilizerId,
+    String name,
+    long crops,
+    double plantedArea,
+    long farms
+) {
+
+}
@@ -0,0 +1,11 @@
+package com.betrybe.agrix.controller.dto;
+
+/**
+ * The type Nearby farm dto.
+ *
+ * @param farm       the farm
+ * @param distanceKm the great-circle distance from the searched point, in kilometers
+ */
+public record NearbyFarmDto(FarmDto farm, double distanceKm) {
+
+}
@@ -0,0 +1,18 @@
+package com.betrybe.agrix.controller.dto;
+
+import java.util.List;
+
+/**
+ * The type Occupancy dto: the land occupancy timeline of a farm, run-length encoded.
+ *
+ * @param farmId the farm id
+ * @param size   the farm size
+ * @param runs   the runs, covering the requested window without gaps
+ */
+public record OccupancyDto(
+    Long farmId,
+    Double size,
+    List<OccupancyRunDto> runs
+) {
+
+}
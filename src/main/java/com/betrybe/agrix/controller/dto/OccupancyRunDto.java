@@ -0,0 +1,20 @@
+package com.betrybe.agrix.controller.dto;
+
+import java.time.LocalDate;
+
+/**
+ * The type Occupancy run dto: consecutive days with the same occupied area.
+ *
+ * @param start        the first day
+ * @param end          the last day, inclusive
+ * @param occupiedArea the planted area of the crops in the ground on those days
+ * @param occupancy    the occupied share of the farm size, null when the farm has no size
+ */
+public record OccupancyRunDto(
+    LocalDate start,
+    LocalDate end,
+    double occupiedArea,
+    Double occupancy
+) {
+
+}
@@ -0,0 +1,8 @@
+package com.betrybe.agrix.controller.dto;
+
+/**
+ * The type Password change dto.
+ */
+public record PasswordChangeDto(String password) {
+
+}
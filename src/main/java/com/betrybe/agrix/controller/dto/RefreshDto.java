@@ -0,0 +1,8 @@
+package com.betrybe.agrix.controller.dto;
+
+/**
+ * The type Refresh dto.
+ */
+public record RefreshDto(String refreshToken) {
+
+}
@@ -0,0 +1,20 @@
+package com.betrybe.agrix.controller.dto;
+
+/**
+ * The type Sync change dto.
+ *
+ * @param entity  the entity type
+ * @param deleted whether this change is a tombstone
+ * @param id      the entity id
+ * @param cursor  the cursor right after this change
+ * @param data    the current entity state, absent for tombstones
+ */
+public record SyncChangeDto(
+    String entity,
+    boolean deleted,
+    Long id,
+    String cursor,
+    Object data
+) {
+
+}
@@ -0,0 +1,18 @@
+package com.betrybe.agrix.controller.dto;
+
+import java.util.List;
+
+/**
+ * The type Sync page dto.
+ *
+ * @param changes    the changes, oldest first
+ * @param nextCursor the cursor to send on the next call
+ * @param hasMore    whether more changes are already available
+ */
+public record SyncPageDto(
+    List<SyncChangeDto> changes,
+    String nextCursor,
+    boolean hasMore
+) {
+
+}
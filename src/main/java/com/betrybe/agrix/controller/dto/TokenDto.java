@@ -3,6 +3,6 @@ package com.betrybe.agrix.controller.dto;
 /**
  * The type Token dto.
  */
-public record TokenDto(String token) {
+public record TokenDto(String token, String refreshToken) {
 
 }
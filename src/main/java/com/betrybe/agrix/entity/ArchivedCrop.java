@@ -0,0 +1,114 @@
+package com.betrybe.agrix.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A harvested crop moved out of the hot {@code crops} table.
+ *
+ * <p>Archived rows are read-only and keep the id they had as a crop. The fertilizer links are
+ * folded into a comma-separated column, so the archive needs no join table.
+ */
+@Entity
+@Table(
+    name = "crops_archive",
+    indexes = @Index(name = "idx_crops_archive_harvest_date", columnList = "harvest_date")
+)
+public class ArchivedCrop {
+  @Id
+  private Long id;
+
+  private String name;
+
+  private Double plantedArea;
+
+  private Long farmId;
+
+  private LocalDate plantedDate;
+
+  private LocalDate harvestDate;
+
+  @Column(name = "fertilizer_ids", length = 4000)
+  private String fertilizerIds;
+
+  private Instant archivedAt;
+
+  /**
+   * Instantiates a new Archived crop.
+   */
+  public ArchivedCrop() {}
+
+  /**
+   * Gets id.
+   *
+   * @return the id
+   */
+  public Long getId() {
+    return id;
+  }
+
+  /**
+   * Gets farm id.
+   *
+   * @return the farm id
+   */
+  public Long getFarmId() {
+    return farmId;
+  }
+
+  /**
+   * Gets harvest date.
+   *
+   * @return the harvest date
+   */
+  public LocalDate getHarvestDate() {
+    return harvestDate;
+  }
+
+  /**
+   * Gets archived at.
+   *
+   * @return the archived at
+   */
+  public Instant getArchivedAt() {
+    return archivedAt;
+  }
+
+  /**
+   * Gets the ids of the fertilizers the crop was associated with.
+   *
+   * @return the fertilizer ids
+   */
+  public List<Long> getFertilizerIds() {
+    if (fertilizerIds == null || fertilizerIds.isEmpty()) {
+      return List.of();
+    }
+
+    return Arrays.stream(fertilizerIds.split(","))
+        .map(Long::valueOf)
+        .toList();
+  }
+
+  /**
+   * Rebuilds a detached, read-only crop from the archived row.
+   *
+   * @param farm        the farm, or null if the crop had none
+   * @param fertilizers the fertilizers
+   * @return the crop
+   */
+  public Crop toCrop(Farm farm, List<Fertilizer> fertilizers) {
+    Crop crop = new Crop(id, name, plantedArea, plantedDate, harvestDate);
+
+    crop.setFarm(farm);
+    crop.setFertilizers(fertilizers);
+
+    return crop;
+  }
+}
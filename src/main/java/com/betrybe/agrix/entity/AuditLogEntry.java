@@ -0,0 +1,115 @@
+package com.betrybe.agrix.entity;
+
+import com.betrybe.agrix.service.event.ChangeType;
+import com.betrybe.agrix.service.event.ChangedEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+/**
+ * Who changed which crop, farm or fertilizer, and when.
+ *
+ * <p>Rows are appended by the audit writer with plain JDBC batches; the mapping keeps the table
+ * in the schema Hibernate validates.
+ */
+@Entity
+@Table(
+    name = "audit_log",
+    indexes = {
+        @Index(name = "idx_audit_log_event_id", columnList = "event_id", unique = true),
+        @Index(name = "idx_audit_log_entity", columnList = "entity, entity_id, occurred_at"),
+        @Index(name = "idx_audit_log_principal", columnList = "principal, occurred_at")
+    }
+)
+public class AuditLogEntry {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(length = 36)
+  private String eventId;
+
+  private Instant occurredAt;
+
+  private String principal;
+
+  @Enumerated(EnumType.STRING)
+  @Column(length = 16)
+  private ChangedEntity entity;
+
+  @Enumerated(EnumType.STRING)
+  @Column(length = 16)
+  private ChangeType changeType;
+
+  private Long entityId;
+
+  private Long farmId;
+
+  private Long relatedId;
+
+  /**
+   * Instantiates a new Audit log entry.
+   */
+  public AuditLogEntry() {}
+
+  /**
+   * Gets id.
+   *
+   * @return the id
+   */
+  public Long getId() {
+    return id;
+  }
+
+  /**
+   * Gets occurred at.
+   *
+   * @return the occurred at
+   */
+  public Instant getOccurredAt() {
+    return occurredAt;
+  }
+
+  /**
+   * Gets principal.
+   *
+   * @return the principal
+   */
+  public String getPrincipal() {
+    return principal;
+  }
+
+  /**
+   * Gets entity.
+   *
+   * @return the entity
+   */
+  public ChangedEntity getEntity() {
+    return entity;
+  }
+
+  /**
+   * Gets change type.
+   *
+   * @return the change type
+   */
+  public ChangeType getChangeType() {
+    return changeType;
+  }
+
+  /**
+   * Gets entity id.
+   *
+   * @return the entity id
+   */
+  public Long getEntityId() {
+    return entityId;
+  }
+}
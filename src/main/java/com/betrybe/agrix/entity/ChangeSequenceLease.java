@@ -0,0 +1,46 @@
+package com.betrybe.agrix.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+/**
+ * A change sequence value handed out to a transaction that has not completed yet.
+ *
+ * <p>Only read and written through SQL by the {@code ChangeSequence}; it is mapped so the
+ * schema validation covers it and Hibernate creates it wherever it owns the schema.
+ */
+@Entity
+@Table(name = "change_sequence_leases")
+public class ChangeSequenceLease {
+  @Id
+  private Long seq;
+
+  @Column(nullable = false)
+  private Instant allocatedAt;
+
+  /**
+   * Instantiates a new Change sequence lease.
+   */
+  public ChangeSequenceLease() {}
+
+  /**
+   * Gets the leased value.
+   *
+   * @return the seq
+   */
+  public Long getSeq() {
+    return seq;
+  }
+
+  /**
+   * Gets when the value was handed out.
+   *
+   * @return the allocated at
+   */
+  public Instant getAllocatedAt() {
+    return allocatedAt;
+  }
+}
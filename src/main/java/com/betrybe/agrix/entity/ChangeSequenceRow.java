@@ -0,0 +1,36 @@
+package com.betrybe.agrix.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * The single row of {@code change_sequence}, the counter behind every {@code change_seq}.
+ *
+ * <p>Only read and written through SQL by the {@code ChangeSequence}; it is mapped so the
+ * schema validation covers it and Hibernate creates it wherever it owns the schema.
+ */
+@Entity
+@Table(name = "change_sequence")
+public class ChangeSequenceRow {
+  @Id
+  private Byte id;
+
+  @Column(nullable = false)
+  private Long seq;
+
+  /**
+   * Instantiates a new Change sequence row.
+   */
+  public ChangeSequenceRow() {}
+
+  /**
+   * Gets the last value handed out.
+   *
+   * @return the seq
+   */
+  public Long getSeq() {
+    return seq;
+  }
+}
@@ -0,0 +1,77 @@
+package com.betrybe.agrix.entity;
+
+import com.betrybe.agrix.service.sync.ChangeTrackingListener;
+import jakarta.persistence.Column;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.MappedSuperclass;
+import java.time.Instant;
+
+/**
+ * Base type of the entities offline clients synchronize.
+ *
+ * <p>Every insert or update stamps the row with a new value of the global change sequence, and
+ * deletions only set {@code deleted_at}, so the row survives as a tombstone.
+ */
+@MappedSuperclass
+@EntityListeners(ChangeTrackingListener.class)
+public abstract class ChangeTrackedEntity {
+  @Column(name = "updated_at")
+  private Instant updatedAt;
+
+  @Column(name = "deleted_at")
+  private Instant deletedAt;
+
+  @Column(name = "change_seq")
+  private Long changeSeq;
+
+  /**
+   * Gets updated at.
+   *
+   * @return the updated at
+   */
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  /**
+   * Gets deleted at.
+   *
+   * @return the deleted at
+   */
+  public Instant getDeletedAt() {
+    return deletedAt;
+  }
+
+  /**
+   * Gets change seq.
+   *
+   * @return the change seq
+   */
+  public Long getChangeSeq() {
+    return changeSeq;
+  }
+
+  /**
+   * Marks the entity as changed, which forces an update even when only an association changed.
+   */
+  public void markChanged() {
+    this.updatedAt = Instant.now();
+  }
+
+  /**
+   * Marks the entity as deleted, leaving a tombstone behind.
+   */
+  public void markDeleted() {
+    this.deletedAt = Instant.now();
+  }
+
+  /**
+   * Stamps the entity with a change sequence value.
+   *
+   * @param changeSeq the change seq
+   */
+  public void stamp(long changeSeq) {
+    this.changeSeq = changeSeq;
+    this.updatedAt = Instant.now();
+  }
+}
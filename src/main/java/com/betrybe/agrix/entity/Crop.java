@@ -4,6 +4,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
@@ -11,13 +12,31 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
+import org.hibernate.annotations.Where;
 
 /**
  * The type Farm.
  */
 @Entity
-@Table(name = "crops")
-public class Crop {
+@Table(
+    name = "crops",
+    indexes = {
+        @Index(name = "idx_crops_change_seq", columnList = "change_seq"),
+        @Index(name = "idx_crops_harvest_date", columnList = "harvest_date"),
+        @Index(name = "idx_crops_farm_id_change_seq", columnList = "farm_id, change_seq"),
+        @Index(
+            name = "idx_crops_previous_farm_id_change_seq",
+            columnList = "previous_farm_id, change_seq"
+        ),
+        @Index(
+            name = "idx_crops_planted_date_usage",
+            columnList = "planted_date, farm_id, planted_area, deleted_at"
+        )
+    }
+)
+@Where(clause = "deleted_at is null")
+public class Crop extends ChangeTrackedEntity {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
@@ -34,12 +53,18 @@ public class Crop {
   @JoinColumn(name = "farm_id")
   private Farm farm;
 
+  private Long previousFarmId;
+
   @ManyToMany
   @JoinTable(
       name = "crop_fertilizers",
       joinColumns = @JoinColumn(name = "crop_id"),
-      inverseJoinColumns = @JoinColumn(name = "fertilizer_id")
+      inverseJoinColumns = @JoinColumn(name = "fertilizer_id"),
+      indexes = @Index(
+          name = "idx_crop_fertilizers_fertilizer_id", columnList = "fertilizer_id, crop_id"
+      )
   )
+  @Where(clause = "deleted_at is null")
   private List<Fertilizer> fertilizers;
 
   /**
@@ -67,6 +92,26 @@ public class Crop {
     this.harvestDate = harvestDate;
   }
 
+  /**
+   * Instantiates a detached Crop that keeps an existing id.
+   *
+   * @param id          the id
+   * @param name        the name
+   * @param plantedArea the plantedArea
+   * @param plantedDate the planted date
+   * @param harvestDate the harvest date
+   */
+  Crop(
+      Long id,
+      String name,
+      Double plantedArea,
+      LocalDate plantedDate,
+      LocalDate harvestDate
+  ) {
+    this(name, plantedArea, plantedDate, harvestDate);
+    this.id = id;
+  }
+
   /**
    * Gets id.
    *
@@ -118,15 +163,30 @@ public class Crop {
    * @return the farm id
    */
   public Long getFarmId() {
-    return farm.getId();
+    return farm == null ? null : farm.getId();
   }
 
   /**
-   * Sets farm.
+   * Gets the farm this crop last left.
+   *
+   * @return the previous farm id
+   */
+  public Long getPreviousFarmId() {
+    return previousFarmId;
+  }
+
+  /**
+   * Sets farm, remembering the farm the crop leaves so its sync feed can report the removal.
    *
    * @param farm the farm
    */
   public void setFarm(Farm farm) {
+    Long farmId = getFarmId();
+
+    if (farmId != null && !Objects.equals(farmId, farm == null ? null : farm.getId())) {
+      this.previousFarmId = farmId;
+    }
+
     this.farm = farm;
   }
 
@@ -1,20 +1,28 @@
 package com.betrybe.agrix.entity;
 
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import java.util.ArrayList;
 import java.util.List;
+import org.hibernate.annotations.Where;
 
 /**
  * The type Farm.
  */
 @Entity
-@Table(name = "farms")
-public class Farm {
+@Table(
+    name = "farms",
+    indexes = @Index(name = "idx_farms_change_seq", columnList = "change_seq")
+)
+@Where(clause = "deleted_at is null")
+public class Farm extends ChangeTrackedEntity {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
@@ -23,7 +31,16 @@ public class Farm {
 
   private Double size;
 
+  private Double latitude;
+
+  private Double longitude;
+
+  @Convert(converter = GeoPolygonConverter.class)
+  @Column(length = 8000)
+  private List<GeoPoint> boundary;
+
   @OneToMany(mappedBy = "farm")
+  @Where(clause = "deleted_at is null")
   private List<Crop> crops = new ArrayList<>();
 
   /**
@@ -104,4 +121,41 @@ public class Farm {
   public void setCrops(List<Crop> crops) {
     this.crops = crops;
   }
+
+  /**
+   * Gets the location.
+   *
+   * @return the location, or null if the farm was not located
+   */
+  public GeoPoint getLocation() {
+    return latitude == null || longitude == null ? null : new GeoPoint(latitude, longitude);
+  }
+
+  /**
+   * Sets the location.
+   *
+   * @param location the location, or null
+   */
+  public void setLocation(GeoPoint location) {
+    this.latitude = location == null ? null : location.latitude();
+    this.longitude = location == null ? null : location.longitude();
+  }
+
+  /**
+   * Gets the boundary.
+   *
+   * @return the boundary vertices, or null
+   */
+  public List<GeoPoint> getBoundary() {
+    return boundary;
+  }
+
+  /**
+   * Sets the boundary.
+   *
+   * @param boundary the boundary vertices, or null
+   */
+  public void setBoundary(List<GeoPoint> boundary) {
+    this.boundary = boundary;
+  }
 }
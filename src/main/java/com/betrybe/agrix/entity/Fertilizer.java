@@ -4,16 +4,22 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
 import java.util.List;
+import org.hibernate.annotations.Where;
 
 /**
  * The type Fertilizer.
  */
 @Entity
-@Table(name = "fertilizers")
-public class Fertilizer {
+@Table(
+    name = "fertilizers",
+    indexes = @Index(name = "idx_fertilizers_change_seq", columnList = "change_seq")
+)
+@Where(clause = "deleted_at is null")
+public class Fertilizer extends ChangeTrackedEntity {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
@@ -25,6 +31,7 @@ public class Fertilizer {
   private String composition;
 
   @ManyToMany(mappedBy = "fertilizers")
+  @Where(clause = "deleted_at is null")
   private List<Crop> crops;
 
   /**
@@ -0,0 +1,19 @@
+package com.betrybe.agrix.entity;
+
+/**
+ * A point on the WGS 84 ellipsoid, in decimal degrees.
+ *
+ * @param latitude  the latitude, from -90 to 90
+ * @param longitude the longitude, from -180 to 180
+ */
+public record GeoPoint(double latitude, double longitude) {
+
+  /**
+   * Checks whether the coordinates are in range.
+   *
+   * @return whether the point is valid
+   */
+  public boolean isValid() {
+    return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+  }
+}
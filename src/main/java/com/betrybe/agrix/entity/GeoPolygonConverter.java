@@ -0,0 +1,50 @@
+package com.betrybe.agrix.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Stores a polygon as its vertices, {@code "lat lon"} pairs separated by commas.
+ *
+ * <p>Coordinates are rounded to six decimals, about 11 cm, so a vertex takes at most 23
+ * characters and the 256 vertices a farm may have fit the 8000 characters of the column.
+ */
+@Converter
+public class GeoPolygonConverter implements AttributeConverter<List<GeoPoint>, String> {
+  private static final int DECIMALS = 6;
+
+  @Override
+  public String convertToDatabaseColumn(List<GeoPoint> polygon) {
+    if (polygon == null || polygon.isEmpty()) {
+      return null;
+    }
+
+    return polygon.stream()
+        .map(point -> format(point.latitude()) + " " + format(point.longitude()))
+        .collect(Collectors.joining(","));
+  }
+
+  @Override
+  public List<GeoPoint> convertToEntityAttribute(String column) {
+    if (column == null || column.isEmpty()) {
+      return null;
+    }
+
+    return Arrays.stream(column.split(","))
+        .map(vertex -> vertex.split(" "))
+        .map(vertex -> new GeoPoint(Double.parseDouble(vertex[0]), Double.parseDouble(vertex[1])))
+        .toList();
+  }
+
+  private static String format(double degrees) {
+    return BigDecimal.valueOf(degrees)
+        .setScale(DECIMALS, RoundingMode.HALF_UP)
+        .stripTrailingZeros()
+        .toPlainString();
+  }
+}
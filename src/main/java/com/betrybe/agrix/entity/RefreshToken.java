@@ -0,0 +1,120 @@
+package com.betrybe.agrix.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+/**
+ * An opaque refresh token, stored as the SHA-256 hash of its value.
+ *
+ * <p>Every refresh uses the presented token up and issues the next one in the same family, so a
+ * token that is presented twice was copied: the whole family is then revoked.
+ */
+@Entity
+@Table(
+    name = "refresh_tokens",
+    indexes = {
+        @Index(name = "idx_refresh_tokens_token_hash", columnList = "token_hash", unique = true),
+        @Index(name = "idx_refresh_tokens_family_id", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_username", columnList = "username"),
+        @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at")
+    }
+)
+public class RefreshToken {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(length = 64)
+  private String tokenHash;
+
+  @Column(length = 36)
+  private String familyId;
+
+  private String username;
+
+  private Instant expiresAt;
+
+  private Instant usedAt;
+
+  private Instant revokedAt;
+
+  /**
+   * Instantiates a new Refresh token.
+   */
+  public RefreshToken() {}
+
+  /**
+   * Instantiates a new Refresh token.
+   *
+   * @param tokenHash the hash of the token value
+   * @param familyId  the id shared by the tokens rotated from the same login
+   * @param username  the username
+   * @param expiresAt the expiry
+   */
+  public RefreshToken(String tokenHash, String familyId, String username, Instant expiresAt) {
+    this.tokenHash = tokenHash;
+    this.familyId = familyId;
+    this.username = username;
+    this.expiresAt = expiresAt;
+  }
+
+  /**
+   * Gets id.
+   *
+   * @return the id
+   */
+  public Long getId() {
+    return id;
+  }
+
+  /**
+   * Gets family id.
+   *
+   * @return the family id
+   */
+  public String getFamilyId() {
+    return familyId;
+  }
+
+  /**
+   * Gets username.
+   *
+   * @return the username
+   */
+  public String getUsername() {
+    return username;
+  }
+
+  /**
+   * Gets expires at.
+   *
+   * @return the expires at
+   */
+  public Instant getExpiresAt() {
+    return expiresAt;
+  }
+
+  /**
+   * Gets used at.
+   *
+   * @return the used at, or null if it was not used yet
+   */
+  public Instant getUsedAt() {
+    return usedAt;
+  }
+
+  /**
+   * Gets revoked at.
+   *
+   * @return the revoked at, or null if it was not revoked
+   */
+  public Instant getRevokedAt() {
+    return revokedAt;
+  }
+}
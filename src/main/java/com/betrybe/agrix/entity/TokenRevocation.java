@@ -0,0 +1,102 @@
+package com.betrybe.agrix.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+/**
+ * A revoked access token, or every token of a person issued before an instant.
+ *
+ * <p>A row is only needed until the tokens it revokes would have expired on their own.
+ */
+@Entity
+@Table(
+    name = "token_revocations",
+    indexes = {
+        @Index(name = "idx_token_revocations_kind_subject", columnList = "kind, subject"),
+        @Index(name = "idx_token_revocations_expires_at", columnList = "expires_at")
+    }
+)
+public class TokenRevocation {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Enumerated(EnumType.STRING)
+  @Column(length = 16)
+  private Kind kind;
+
+  private String subject;
+
+  private Instant revokedBefore;
+
+  private Instant expiresAt;
+
+  /**
+   * Instantiates a new Token revocation.
+   */
+  public TokenRevocation() {}
+
+  /**
+   * Instantiates a new Token revocation.
+   *
+   * @param kind          what is revoked
+   * @param subject       the token id, or the username
+   * @param revokedBefore for a person, the tokens issued before this instant are revoked
+   * @param expiresAt     when the revoked tokens would have expired anyway
+   */
+  public TokenRevocation(Kind kind, String subject, Instant revokedBefore, Instant expiresAt) {
+    this.kind = kind;
+    this.subject = subject;
+    this.revokedBefore = revokedBefore;
+    this.expiresAt = expiresAt;
+  }
+
+  /**
+   * Gets kind.
+   *
+   * @return the kind
+   */
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * Gets subject.
+   *
+   * @return the token id, or the username
+   */
+  public String getSubject() {
+    return subject;
+  }
+
+  /**
+   * Gets revoked before.
+   *
+   * @return the revoked before
+   */
+  public Instant getRevokedBefore() {
+    return revokedBefore;
+  }
+
+  /**
+   * What a revocation applies to.
+   */
+  public enum Kind {
+    /**
+     * A single token, by its id (jti).
+     */
+    TOKEN,
+    /**
+     * Every token of a person issued before an instant.
+     */
+    PERSON
+  }
+}
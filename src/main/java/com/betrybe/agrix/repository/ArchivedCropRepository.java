@@ -0,0 +1,32 @@
+package com.betrybe.agrix.repository;
+
+import com.betrybe.agrix.entity.ArchivedCrop;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * The interface Archived crop repository.
+ */
+@Repository
+public interface ArchivedCropRepository extends JpaRepository<ArchivedCrop, Long> {
+
+  /**
+   * Finds the archived crops harvested inside an interval, both ends included.
+   *
+   * @param start the start
+   * @param end   the end
+   * @return the archived crops
+   */
+  List<ArchivedCrop> findByHarvestDateBetween(LocalDate start, LocalDate end);
+
+  /**
+   * Finds the latest harvest date held by the archive.
+   *
+   * @return the latest harvest date, or null if the archive is empty
+   */
+  @Query("SELECT MAX(a.harvestDate) FROM ArchivedCrop a")
+  LocalDate findMaxHarvestDate();
+}
@@ -1,7 +1,15 @@
 package com.betrybe.agrix.repository;
 
 import com.betrybe.agrix.entity.Crop;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -10,4 +18,80 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface CropRepository extends JpaRepository<Crop, Long> {
 
+  /**
+   * Finds the crops harvested inside an interval, both ends included. Bounding the query on
+   * harvest_date lets the database prune to the matching partitions.
+   *
+   * @param start the start
+   * @param end   the end
+   * @return the crops
+   */
+  List<Crop> findByHarvestDateBetween(LocalDate start, LocalDate end);
+
+  /**
+   * Finds a page of the crops of a farm, ordered by id.
+   *
+   * @param farmId   the farm id
+   * @param pageable the page
+   * @return the crops
+   */
+  @Query("SELECT c FROM Crop c WHERE c.farm.id = :farmId ORDER BY c.id")
+  List<Crop> findByFarm(@Param("farmId") Long farmId, Pageable pageable);
+
+  /**
+   * Finds crops by id with their fertilizers fetched in the same query.
+   *
+   * @param ids the ids
+   * @return the crops
+   */
+  @Query("SELECT DISTINCT c FROM Crop c LEFT JOIN FETCH c.fertilizers WHERE c.id IN :ids")
+  List<Crop> findAllWithFertilizersById(@Param("ids") Collection<Long> ids);
+
+  /**
+   * Deletes the fertilizer links of every crop of a farm.
+   *
+   * @param farmId the farm id
+   * @return the number of links removed
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(value = "DELETE FROM crop_fertilizers WHERE crop_id IN "
+      + "(SELECT id FROM crops WHERE farm_id = :farmId)", nativeQuery = true)
+  int deleteFertilizerLinksByFarmId(@Param("farmId") Long farmId);
+
+  /**
+   * Marks every crop of a farm as deleted.
+   *
+   * @param farmId    the farm id
+   * @param deletedAt the deletion instant
+   * @param changeSeq the change sequence value stamped on every row
+   * @return the number of crops deleted
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(value = "UPDATE crops SET deleted_at = :deletedAt, updated_at = :deletedAt, "
+      + "change_seq = :changeSeq WHERE farm_id = :farmId AND deleted_at IS NULL",
+      nativeQuery = true)
+  int markDeletedByFarmId(
+      @Param("farmId") Long farmId,
+      @Param("deletedAt") Instant deletedAt,
+      @Param("changeSeq") long changeSeq
+  );
+
+  /**
+   * Detaches every crop from a farm, which becomes the farm they last left.
+   *
+   * @param farmId    the farm id
+   * @param updatedAt the update instant
+   * @param changeSeq the change sequence value stamped on every row
+   * @return the number of crops detached
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(value = "UPDATE crops SET farm_id = NULL, previous_farm_id = :farmId, "
+      + "updated_at = :updatedAt, "
+      + "change_seq = :changeSeq WHERE farm_id = :farmId AND deleted_at IS NULL",
+      nativeQuery = true)
+  int detachFromFarm(
+      @Param("farmId") Long farmId,
+      @Param("updatedAt") Instant updatedAt,
+      @Param("changeSeq") long changeSeq
+  );
 }
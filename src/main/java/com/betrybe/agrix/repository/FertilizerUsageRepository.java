@@ -0,0 +1,77 @@
+package com.betrybe.agrix.repository;
+
+import com.betrybe.agrix.controller.dto.FertilizerUsageDto;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Aggregates fertilizer usage in the database.
+ *
+ * <p>The associations are grouped by fertilizer before the fertilizers are joined, so the join
+ * only sees one row per fertilizer. With a date range the crops are read through the covering
+ * {@code idx_crops_planted_date_usage} index, and each link is found through the primary key of
+ * {@code crop_fertilizers}; no entity is loaded.
+ */
+@Repository
+public class FertilizerUsageRepository {
+  private static final String SELECT = "SELECT f.id, f.name, u.crops, u.planted_area, u.farms"
+      + " FROM (SELECT cf.fertilizer_id, COUNT(*) AS crops,"
+      + " COALESCE(SUM(c.planted_area), 0) AS planted_area, COUNT(DISTINCT c.farm_id) AS farms"
+      + " FROM crops c JOIN crop_fertilizers cf ON cf.crop_id = c.id"
+      + " WHERE c.deleted_at IS NULL%s GROUP BY cf.fertilizer_id) u"
+      + " JOIN fertilizers f ON f.id = u.fertilizer_id"
+      + " WHERE f.deleted_at IS NULL ORDER BY f.id";
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  /**
+   * Instantiates a new Fertilizer usage repository.
+   *
+   * @param jdbcTemplate the jdbc template
+   */
+  @Autowired
+  public FertilizerUsageRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Aggregates the usage of every fertilizer by the crops planted inside a window.
+   *
+   * @param from   the first planted date, or null for no lower bound
+   * @param to     the last planted date, or null for no upper bound
+   * @param farmId only count the crops of this farm, or null for every farm
+   * @return one row per fertilizer in use, ordered by id
+   */
+  public List<FertilizerUsageDto> findUsage(LocalDate from, LocalDate to, Long farmId) {
+    StringBuilder filters = new StringBuilder();
+    MapSqlParameterSource parameters = new MapSqlParameterSource();
+
+    if (from != null) {
+      filters.append(" AND c.planted_date >= :from");
+      parameters.addValue("from", from);
+    }
+
+    if (to != null) {
+      filters.append(" AND c.planted_date <= :to");
+      parameters.addValue("to", to);
+    }
+
+    if (farmId != null) {
+      filters.append(" AND c.farm_id = :farmId");
+      parameters.addValue("farmId", farmId);
+    }
+
+    return jdbcTemplate.query(SELECT.formatted(filters), parameters, (rs, row) ->
+        new FertilizerUsageDto(
+            rs.getLong("id"),
+            rs.getString("name"),
+            rs.getLong("crops"),
+            rs.getDouble("planted_area"),
+            rs.getLong("farms")
+        ));
+  }
+}
@@ -0,0 +1,78 @@
+package com.betrybe.agrix.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reads a subset of an entity's attributes straight into rows keyed by field name.
+ *
+ * <p>Only the selected attributes end up in the SQL select list; a to-one id such as
+ * {@code farm.id} is read from the foreign key column without a join.
+ */
+@Repository
+public class ProjectionRepository {
+  private final EntityManager entityManager;
+
+  /**
+   * Instantiates a new Projection repository.
+   *
+   * @param entityManager the entity manager
+   */
+  @Autowired
+  public ProjectionRepository(EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  /**
+   * Finds every entity of a type, ordered by id, projected onto the given attributes.
+   *
+   * @param type  the entity type
+   * @param paths the attribute path of each field, in output order
+   * @return one row per entity
+   */
+  public List<Map<String, Object>> findAll(Class<?> type, Map<String, String> paths) {
+    CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+    Root<?> root = query.from(type);
+
+    List<Selection<?>> selections = paths.entrySet().stream()
+        .<Selection<?>>map(field -> pathOf(root, field.getValue()).alias(field.getKey()))
+        .toList();
+
+    query.multiselect(selections).orderBy(criteriaBuilder.asc(root.get("id")));
+
+    return entityManager.createQuery(query).getResultStream()
+        .map(tuple -> toRow(tuple, paths))
+        .toList();
+  }
+
+  private static Path<?> pathOf(Root<?> root, String attributePath) {
+    Path<?> path = root;
+
+    for (String attribute : attributePath.split("\\.")) {
+      path = path.get(attribute);
+    }
+
+    return path;
+  }
+
+  private static Map<String, Object> toRow(Tuple tuple, Map<String, String> paths) {
+    Map<String, Object> row = new LinkedHashMap<>();
+
+    for (String field : paths.keySet()) {
+      row.put(field, tuple.get(field));
+    }
+
+    return row;
+  }
+}
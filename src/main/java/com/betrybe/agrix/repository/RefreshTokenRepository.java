@@ -0,0 +1,73 @@
+package com.betrybe.agrix.repository;
+
+import com.betrybe.agrix.entity.RefreshToken;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The interface Refresh token repository.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+  /**
+   * Finds a refresh token by the hash of its value.
+   *
+   * @param tokenHash the token hash
+   * @return the refresh token
+   */
+  Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+  /**
+   * Marks a refresh token as used, unless it already was. Two concurrent refreshes with the same
+   * token cannot both succeed.
+   *
+   * @param id  the id
+   * @param now the current instant
+   * @return 1 if this call used the token, 0 if it was used before
+   */
+  @Modifying
+  @Query("UPDATE RefreshToken t SET t.usedAt = :now WHERE t.id = :id AND t.usedAt IS NULL")
+  int markUsed(@Param("id") Long id, @Param("now") Instant now);
+
+  /**
+   * Revokes every token of a family.
+   *
+   * @param familyId the family id
+   * @param now      the current instant
+   * @return the number of rows updated
+   */
+  @Modifying
+  @Query("UPDATE RefreshToken t SET t.revokedAt = :now "
+      + "WHERE t.familyId = :familyId AND t.revokedAt IS NULL")
+  int revokeFamily(@Param("familyId") String familyId, @Param("now") Instant now);
+
+  /**
+   * Revokes every token of a person.
+   *
+   * @param username the username
+   * @param now      the current instant
+   * @return the number of rows updated
+   */
+  @Modifying
+  @Query("UPDATE RefreshToken t SET t.revokedAt = :now "
+      + "WHERE t.username = :username AND t.revokedAt IS NULL")
+  int revokeByUsername(@Param("username") String username, @Param("now") Instant now);
+
+  /**
+   * Deletes the expired tokens.
+   *
+   * @param now the current instant
+   * @return the number of rows deleted
+   */
+  @Modifying
+  @Transactional
+  @Query("DELETE FROM RefreshToken t WHERE t.expiresAt <= :now")
+  int deleteExpired(@Param("now") Instant now);
+}
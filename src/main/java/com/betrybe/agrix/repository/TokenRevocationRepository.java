@@ -0,0 +1,58 @@
+package com.betrybe.agrix.repository;
+
+import com.betrybe.agrix.entity.TokenRevocation;
+import com.betrybe.agrix.entity.TokenRevocation.Kind;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The interface Token revocation repository.
+ */
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+  /**
+   * Checks whether a revocation exists.
+   *
+   * @param kind    the kind
+   * @param subject the token id, or the username
+   * @return whether it exists
+   */
+  boolean existsByKindAndSubject(Kind kind, String subject);
+
+  /**
+   * Finds the latest instant before which the tokens of a person are revoked.
+   *
+   * @param username the username
+   * @return the instant, or null if none of their tokens were revoked
+   */
+  @Query("SELECT MAX(r.revokedBefore) FROM TokenRevocation r "
+      + "WHERE r.kind = com.betrybe.agrix.entity.TokenRevocation.Kind.PERSON "
+      + "AND r.subject = :username")
+  Instant findRevokedBefore(@Param("username") String username);
+
+  /**
+   * Finds the revocations still in effect.
+   *
+   * @param now the current instant
+   * @return the revocations
+   */
+  List<TokenRevocation> findByExpiresAtAfter(Instant now);
+
+  /**
+   * Deletes the revocations whose tokens expired on their own.
+   *
+   * @param now the current instant
+   * @return the number of rows deleted
+   */
+  @Modifying
+  @Transactional
+  @Query("DELETE FROM TokenRevocation r WHERE r.expiresAt <= :now")
+  int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,94 @@
+package com.betrybe.agrix.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over strings.
+ *
+ * <p>Answers "definitely absent" or "probably present". Bits are only ever set, so readers never
+ * need a lock while another thread adds. The k probe positions come from double hashing two
+ * 64-bit FNV-1a style hashes of the UTF-8 bytes.
+ */
+public class BloomFilter {
+  private static final long FNV_PRIME = 0x100000001b3L;
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+  private final AtomicLongArray bits;
+  private final long bitCount;
+  private final int hashCount;
+
+  /**
+   * Instantiates a new Bloom filter sized for the expected number of keys.
+   *
+   * @param expectedKeys      the number of keys it will hold
+   * @param falsePositiveRate the acceptable false positive rate, between 0 and 1
+   */
+  public BloomFilter(long expectedKeys, double falsePositiveRate) {
+    long keys = Math.max(1, expectedKeys);
+    double ln2 = Math.log(2);
+    long optimalBits = (long) Math.ceil(-keys * Math.log(falsePositiveRate) / (ln2 * ln2));
+
+    this.bitCount = Math.max(64, (optimalBits + 63) / 64 * 64);
+    this.hashCount = Math.max(1, (int) Math.round((double) bitCount / keys * ln2));
+    this.bits = new AtomicLongArray((int) (bitCount / 64));
+  }
+
+  /**
+   * Adds a key.
+   *
+   * @param key the key
+   */
+  public void add(String key) {
+    long hash1 = hash(key, FNV_OFFSET);
+    long hash2 = hash(key, hash1) | 1;
+
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+      int word = (int) (bit >>> 6);
+      long mask = 1L << bit;
+      long current = bits.get(word);
+
+      while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+        current = bits.get(word);
+      }
+    }
+  }
+
+  /**
+   * Checks whether a key may have been added.
+   *
+   * @param key the key
+   * @return false if the key was definitely never added
+   */
+  public boolean mightContain(String key) {
+    long hash1 = hash(key, FNV_OFFSET);
+    long hash2 = hash(key, hash1) | 1;
+
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+
+      if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static long hash(String key, long seed) {
+    long hash = seed;
+
+    for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b;
+      hash *= FNV_PRIME;
+    }
+
+    // Final avalanche so nearby keys spread over the whole bit array.
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+
+    return hash;
+  }
+}
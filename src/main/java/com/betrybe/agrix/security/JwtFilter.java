@@ -1,6 +1,9 @@
 package com.betrybe.agrix.security;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.betrybe.agrix.entity.Person;
 import com.betrybe.agrix.service.PersonService;
+import com.betrybe.agrix.service.TokenRevocationService;
 import com.betrybe.agrix.service.TokenService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -9,6 +12,8 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -22,17 +27,24 @@ import org.springframework.web.filter.OncePerRequestFilter;
 public class JwtFilter extends OncePerRequestFilter {
   private final TokenService tokenService;
   private final PersonService personService;
+  private final RateLimiter rateLimiter;
+  private final TokenRevocationService tokenRevocationService;
 
   /**
    * Instantiates a new Jwt filter.
    *
-   * @param tokenService  the token service
-   * @param personService the person service
+   * @param tokenService           the token service
+   * @param personService          the person service
+   * @param rateLimiter            the rate limiter
+   * @param tokenRevocationService the token revocation service
    */
   @Autowired
-  public JwtFilter(TokenService tokenService, PersonService personService) {
+  public JwtFilter(TokenService tokenService, PersonService personService,
+      RateLimiter rateLimiter, TokenRevocationService tokenRevocationService) {
     this.tokenService = tokenService;
     this.personService = personService;
+    this.rateLimiter = rateLimiter;
+    this.tokenRevocationService = tokenRevocationService;
   }
 
   @Override
@@ -44,10 +56,26 @@ public class JwtFilter extends OncePerRequestFilter {
     Optional<String> token = extractToken(request);
 
     if (token.isPresent()) {
-      String subject = tokenService.validateToken(token.get());
+      DecodedJWT jwt = tokenService.verify(token.get());
+
+      if (tokenRevocationService.isRevoked(jwt)) {
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        return;
+      }
+
+      String subject = jwt.getSubject();
 
       UserDetails userDetails = personService.loadUserByUsername(subject);
 
+      Role role = userDetails instanceof Person person ? person.getRole() : null;
+      long retryAfter = rateLimiter.tryAcquire(subject, role);
+
+      if (retryAfter > 0) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        return;
+      }
+
       UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
           userDetails, null, userDetails.getAuthorities()
       );
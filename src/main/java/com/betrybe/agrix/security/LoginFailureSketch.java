@@ -0,0 +1,141 @@
+package com.betrybe.agrix.security;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free, fixed-size count of recent login failures per key, with a per-key block deadline.
+ *
+ * <p>The window is split into slots, each a count-min sketch: a key increments one counter per
+ * row, and its estimate is the smallest row sum over the slots still inside the window, so it
+ * may overcount on collisions but never undercounts. A slot is cleared by the first thread that
+ * sees it come back around; increments racing with that clear may be lost. Block deadlines live
+ * in a sketch of the same shape that only keeps the latest deadline of each cell. The hashes are
+ * seeded per instance, so colliding keys cannot be precomputed to lock someone else out.
+ */
+public class LoginFailureSketch {
+  private static final long FNV_PRIME = 0x100000001b3L;
+  private static final int DEPTH = 4;
+
+  private final int slots;
+  private final int width;
+  private final long slotNanos;
+  private final long seed;
+  private final AtomicIntegerArray counts;
+  private final AtomicLongArray slotEpochs;
+  private final AtomicLongArray deadlines;
+
+  /**
+   * Instantiates a new Login failure sketch.
+   *
+   * @param windowNanos the window length in nanoseconds
+   * @param slots       the number of slots the window is split into
+   * @param width       the number of counters per row, rounded up to a power of two
+   * @param seed        the hash seed
+   */
+  public LoginFailureSketch(long windowNanos, int slots, int width, long seed) {
+    this.slots = slots;
+    this.width = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+    this.slotNanos = Math.max(1, windowNanos / slots);
+    this.seed = seed;
+    this.counts = new AtomicIntegerArray(slots * DEPTH * this.width);
+    this.slotEpochs = new AtomicLongArray(slots);
+    this.deadlines = new AtomicLongArray(DEPTH * this.width);
+  }
+
+  /**
+   * Records a failure.
+   *
+   * @param key      the key
+   * @param nowNanos the current time, in non-negative nanoseconds
+   * @return the estimated failures of the key inside the window, this one included
+   */
+  public int increment(String key, long nowNanos) {
+    long epoch = nowNanos / slotNanos;
+    int slot = (int) (epoch % slots);
+    long seen = slotEpochs.get(slot);
+
+    if (seen < epoch && slotEpochs.compareAndSet(slot, seen, epoch)) {
+      int base = slot * DEPTH * width;
+
+      for (int i = 0; i < DEPTH * width; i++) {
+        counts.set(base + i, 0);
+      }
+    }
+
+    long hash1 = hash(key, seed);
+    long hash2 = hash(key, hash1) | 1;
+
+    for (int row = 0; row < DEPTH; row++) {
+      counts.incrementAndGet(slot * DEPTH * width + cell(row, hash1, hash2));
+    }
+
+    return estimate(epoch, hash1, hash2);
+  }
+
+  /**
+   * Blocks a key until a deadline, unless it is already blocked for longer.
+   *
+   * @param key           the key
+   * @param deadlineNanos the deadline
+   */
+  public void blockUntil(String key, long deadlineNanos) {
+    long hash1 = hash(key, seed);
+    long hash2 = hash(key, hash1) | 1;
+
+    for (int row = 0; row < DEPTH; row++) {
+      deadlines.accumulateAndGet(cell(row, hash1, hash2), deadlineNanos, Math::max);
+    }
+  }
+
+  /**
+   * Gets the deadline a key is blocked until.
+   *
+   * @param key the key
+   * @return the deadline, in the past or zero if the key is not blocked
+   */
+  public long blockedUntil(String key) {
+    long hash1 = hash(key, seed);
+    long hash2 = hash(key, hash1) | 1;
+    long deadline = Long.MAX_VALUE;
+
+    for (int row = 0; row < DEPTH; row++) {
+      deadline = Math.min(deadline, deadlines.get(cell(row, hash1, hash2)));
+    }
+
+    return deadline;
+  }
+
+  private int estimate(long epoch, long hash1, long hash2) {
+    int estimate = Integer.MAX_VALUE;
+
+    for (int row = 0; row < DEPTH; row++) {
+      int cell = cell(row, hash1, hash2);
+      int sum = 0;
+
+      for (int slot = 0; slot < slots; slot++) {
+        if (slotEpochs.get(slot) > epoch - slots) {
+          sum += counts.get(slot * DEPTH * width + cell);
+        }
+      }
+
+      estimate = Math.min(estimate, sum);
+    }
+
+    return estimate;
+  }
+
+  private int cell(int row, long hash1, long hash2) {
+    return row * width + (int) ((hash1 + row * hash2) & (width - 1));
+  }
+
+  private static long hash(String key, long seed) {
+    long hash = seed;
+
+    for (int i = 0; i < key.length(); i++) {
+      hash = (hash ^ key.charAt(i)) * FNV_PRIME;
+    }
+
+    return hash ^ (hash >>> 29);
+  }
+}
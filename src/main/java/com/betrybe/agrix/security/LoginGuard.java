@@ -0,0 +1,149 @@
+package com.betrybe.agrix.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rejects login attempts for usernames and client addresses with too many recent failures,
+ * before any password is hashed.
+ *
+ * <p>Failures are counted over a sliding window per username and per address. Once a key
+ * reaches its threshold, every further failure blocks it for twice as long as the previous
+ * one, from the base backoff up to the maximum. A successful login does not reset the counts:
+ * the sketches cannot forget a single key, and the window does that soon enough. Checking an
+ * attempt only reads a few counters, so legitimate logins pay no measurable cost.
+ */
+@Component
+public class LoginGuard {
+  private static final int SLOTS = 6;
+
+  private final boolean enabled;
+  private final int usernameThreshold;
+  private final int addressThreshold;
+  private final long baseBackoffNanos;
+  private final long maxBackoffNanos;
+  private final long origin = System.nanoTime();
+  private final LoginFailureSketch usernames;
+  private final LoginFailureSketch addresses;
+  private final Counter failures;
+  private final Counter rejectedByUsername;
+  private final Counter rejectedByAddress;
+
+  /**
+   * Instantiates a new Login guard.
+   *
+   * @param enabled           whether the guard is enforced
+   * @param usernameThreshold the failures per username inside the window before blocking
+   * @param addressThreshold  the failures per client address inside the window before blocking
+   * @param window            the window failures are counted over
+   * @param baseBackoff       the first block
+   * @param maxBackoff        the longest block
+   * @param width             the counters per sketch row, which bounds the memory used
+   * @param meterRegistry     the meter registry
+   */
+  @Autowired
+  public LoginGuard(
+      @Value("${api.login-guard.enabled:true}") boolean enabled,
+      @Value("${api.login-guard.username-threshold:5}") int usernameThreshold,
+      @Value("${api.login-guard.address-threshold:20}") int addressThreshold,
+      @Value("${api.login-guard.window:15m}") Duration window,
+      @Value("${api.login-guard.base-backoff:1s}") Duration baseBackoff,
+      @Value("${api.login-guard.max-backoff:15m}") Duration maxBackoff,
+      @Value("${api.login-guard.width:4096}") int width,
+      MeterRegistry meterRegistry
+  ) {
+    SecureRandom random = new SecureRandom();
+
+    this.enabled = enabled;
+    this.usernameThreshold = usernameThreshold;
+    this.addressThreshold = addressThreshold;
+    this.baseBackoffNanos = baseBackoff.toNanos();
+    this.maxBackoffNanos = maxBackoff.toNanos();
+    this.usernames = new LoginFailureSketch(window.toNanos(), SLOTS, width, random.nextLong());
+    this.addresses = new LoginFailureSketch(window.toNanos(), SLOTS, width, random.nextLong());
+    this.failures = Counter.builder("agrix.login.failures")
+        .description("Login attempts that failed authentication")
+        .register(meterRegistry);
+    this.rejectedByUsername = Counter.builder("agrix.login.rejected")
+        .description("Login attempts rejected before authentication")
+        .tag("by", "username")
+        .register(meterRegistry);
+    this.rejectedByAddress = Counter.builder("agrix.login.rejected")
+        .description("Login attempts rejected before authentication")
+        .tag("by", "address")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Checks whether a login attempt may be authenticated.
+   *
+   * @param username the username
+   * @param address  the client address
+   * @return zero if the attempt may proceed, otherwise the seconds to wait before retrying
+   */
+  public long retryAfter(String username, String address) {
+    if (!enabled) {
+      return 0;
+    }
+
+    long now = now();
+    long usernameWait = usernames.blockedUntil(key(username)) - now;
+    long addressWait = addresses.blockedUntil(key(address)) - now;
+
+    if (usernameWait <= 0 && addressWait <= 0) {
+      return 0;
+    }
+
+    if (usernameWait >= addressWait) {
+      rejectedByUsername.increment();
+    } else {
+      rejectedByAddress.increment();
+    }
+
+    return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(
+        Math.max(usernameWait, addressWait) + 999_999_999L));
+  }
+
+  /**
+   * Records a failed login attempt, blocking the username or the address once over its
+   * threshold.
+   *
+   * @param username the username
+   * @param address  the client address
+   */
+  public void recordFailure(String username, String address) {
+    if (!enabled) {
+      return;
+    }
+
+    long now = now();
+
+    failures.increment();
+    record(usernames, key(username), usernameThreshold, now);
+    record(addresses, key(address), addressThreshold, now);
+  }
+
+  private void record(LoginFailureSketch sketch, String key, int threshold, long now) {
+    int count = sketch.increment(key, now);
+
+    if (count >= threshold) {
+      long backoff = baseBackoffNanos << Math.min(count - threshold, 30);
+
+      sketch.blockUntil(key, now + Math.min(maxBackoffNanos, Math.max(0, backoff)));
+    }
+  }
+
+  private long now() {
+    return System.nanoTime() - origin;
+  }
+
+  private static String key(String value) {
+    return value == null ? "" : value;
+  }
+}
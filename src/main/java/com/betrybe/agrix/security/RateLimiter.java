@@ -0,0 +1,170 @@
+package com.betrybe.agrix.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-principal rate limiter backed by one {@link TokenBucket} per subject.
+ *
+ * <p>The buckets live in a bounded table split into segments, each a small LRU map behind its
+ * own lock. A new subject always gets a bucket: when its segment is full, the least recently
+ * used bucket of the segment is dropped in constant time. Registering many accounts therefore
+ * only pushes the oldest subjects out, and never lets anyone through unthrottled. A subject
+ * pushed out comes back with a full bucket, so the table should hold every subject active
+ * within a refill period.
+ */
+@Component
+public class RateLimiter {
+  private static final int MAX_SEGMENTS = 64;
+  private static final int MIN_SEGMENT_SIZE = 1024;
+
+  private final boolean enabled;
+  private final Map<Role, Limit> limits = new EnumMap<>(Role.class);
+  private final Map<Role, Counter> throttledCounters = new EnumMap<>(Role.class);
+  private final Segment[] segments;
+  private final Counter evictedCounter;
+
+  /**
+   * Instantiates a new Rate limiter.
+   *
+   * @param enabled            whether rate limiting is enforced
+   * @param maxTrackedSubjects the maximum number of buckets kept in memory
+   * @param adminCapacity      the burst size for admins
+   * @param adminRefill        the tokens per second for admins
+   * @param managerCapacity    the burst size for managers
+   * @param managerRefill      the tokens per second for managers
+   * @param userCapacity       the burst size for users
+   * @param userRefill         the tokens per second for users
+   * @param meterRegistry      the meter registry
+   */
+  @Autowired
+  public RateLimiter(
+      @Value("${api.ratelimit.enabled:true}") boolean enabled,
+      @Value("${api.ratelimit.max-tracked-subjects:100000}") int maxTrackedSubjects,
+      @Value("${api.ratelimit.admin.capacity:200}") int adminCapacity,
+      @Value("${api.ratelimit.admin.refill-per-second:100}") double adminRefill,
+      @Value("${api.ratelimit.manager.capacity:100}") int managerCapacity,
+      @Value("${api.ratelimit.manager.refill-per-second:50}") double managerRefill,
+      @Value("${api.ratelimit.user.capacity:50}") int userCapacity,
+      @Value("${api.ratelimit.user.refill-per-second:20}") double userRefill,
+      MeterRegistry meterRegistry
+  ) {
+    this.enabled = enabled;
+
+    int segmentCount = Math.min(MAX_SEGMENTS,
+        Math.max(1, maxTrackedSubjects / MIN_SEGMENT_SIZE));
+    int segmentCapacity = Math.max(1, (maxTrackedSubjects + segmentCount - 1) / segmentCount);
+
+    this.evictedCounter = Counter.builder("agrix.ratelimit.evicted")
+        .description("Buckets dropped to make room for a new subject")
+        .register(meterRegistry);
+    this.segments = new Segment[segmentCount];
+
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment(segmentCapacity, evictedCounter);
+    }
+
+    limits.put(Role.ADMIN, new Limit(adminCapacity, adminRefill));
+    limits.put(Role.MANAGER, new Limit(managerCapacity, managerRefill));
+    limits.put(Role.USER, new Limit(userCapacity, userRefill));
+
+    for (Role role : Role.values()) {
+      throttledCounters.put(role, Counter.builder("agrix.ratelimit.throttled")
+          .description("Requests rejected by the per-principal rate limiter")
+          .tag("role", role.name())
+          .register(meterRegistry));
+    }
+
+    Gauge.builder("agrix.ratelimit.buckets", segments,
+            table -> Arrays.stream(table).mapToInt(Segment::count).sum())
+        .description("Number of token buckets held in memory")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Tries to acquire a permit for the given subject.
+   *
+   * @param subject the token subject
+   * @param role    the subject role
+   * @return zero if the request may proceed, otherwise the seconds to wait before retrying
+   */
+  public long tryAcquire(String subject, Role role) {
+    if (!enabled || role == null) {
+      return 0;
+    }
+
+    long now = System.nanoTime();
+    Limit limit = limits.get(role);
+    TokenBucket bucket = segmentOf(subject).bucket(subject,
+        () -> new TokenBucket(limit.capacity(), limit.refillPerSecond(), now));
+    long waitNanos = bucket.tryConsume(now);
+
+    if (waitNanos == 0) {
+      return 0;
+    }
+
+    throttledCounters.get(role).increment();
+
+    return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+  }
+
+  private Segment segmentOf(String subject) {
+    int hash = subject.hashCode();
+
+    return segments[Math.floorMod(hash ^ (hash >>> 16), segments.length)];
+  }
+
+  private record Limit(int capacity, double refillPerSecond) {
+
+  }
+
+  /**
+   * A bounded map of buckets in access order, guarded by its own monitor. Holding the lock only
+   * covers the lookup, not the bucket update, which stays lock-free.
+   */
+  private static final class Segment extends LinkedHashMap<String, TokenBucket> {
+    private final int capacity;
+    private final transient Counter evicted;
+
+    Segment(int capacity, Counter evicted) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+      this.evicted = evicted;
+    }
+
+    synchronized TokenBucket bucket(String subject, Supplier<TokenBucket> newBucket) {
+      TokenBucket bucket = get(subject);
+
+      if (bucket == null) {
+        bucket = newBucket.get();
+        put(subject, bucket);
+      }
+
+      return bucket;
+    }
+
+    synchronized int count() {
+      return size();
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+      if (size() <= capacity) {
+        return false;
+      }
+
+      evicted.increment();
+      return true;
+    }
+  }
+}
@@ -1,6 +1,9 @@
 package com.betrybe.agrix.security;
 
+import com.betrybe.agrix.web.AccessLogFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -24,15 +27,18 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableMethodSecurity(securedEnabled = true)
 public class SecurityConfig {
   private final JwtFilter jwtFilter;
+  private final AccessLogFilter accessLogFilter;
 
   /**
    * Instantiates a new Security config.
    *
-   * @param jwtFilter the jwt filter
+   * @param jwtFilter       the jwt filter
+   * @param accessLogFilter the access log filter
    */
   @Autowired
-  public SecurityConfig(JwtFilter jwtFilter) {
+  public SecurityConfig(JwtFilter jwtFilter, AccessLogFilter accessLogFilter) {
     this.jwtFilter = jwtFilter;
+    this.accessLogFilter = accessLogFilter;
   }
 
   /**
@@ -52,9 +58,13 @@ public class SecurityConfig {
         .authorizeHttpRequests(authorize -> authorize
             .requestMatchers(HttpMethod.POST, "/persons").permitAll()
             .requestMatchers(HttpMethod.POST, "/auth/login").permitAll()
+            .requestMatchers(HttpMethod.POST, "/auth/refresh").permitAll()
+            .requestMatchers(EndpointRequest.toAnyEndpoint().excluding(HealthEndpoint.class))
+            .hasAuthority("ROLE_ADMIN")
             .anyRequest().authenticated()
         )
         .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+        .addFilterBefore(accessLogFilter, JwtFilter.class)
         .build();
   }
 
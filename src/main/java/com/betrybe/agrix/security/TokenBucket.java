@@ -0,0 +1,62 @@
+package com.betrybe.agrix.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ *
+ * <p>The bucket is kept in its GCRA form: instead of a token count and a refill timestamp it
+ * stores a single "theoretical arrival time" that is advanced with a CAS on every accepted
+ * request, so concurrent requests from the same principal never block each other.
+ */
+public class TokenBucket {
+  private final long emissionIntervalNanos;
+  private final long burstToleranceNanos;
+  private final AtomicLong theoreticalArrival;
+
+  /**
+   * Instantiates a new Token bucket.
+   *
+   * @param capacity          the maximum number of tokens (burst size)
+   * @param refillPerSecond   the number of tokens added per second
+   * @param nowNanos          the current time in nanoseconds
+   */
+  public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+    this.emissionIntervalNanos = (long) (1_000_000_000L / refillPerSecond);
+    this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+    this.theoreticalArrival = new AtomicLong(nowNanos);
+  }
+
+  /**
+   * Tries to take one token from the bucket.
+   *
+   * @param nowNanos the current time in nanoseconds
+   * @return zero when a token was taken, otherwise the nanoseconds until one is available
+   */
+  public long tryConsume(long nowNanos) {
+    while (true) {
+      long current = theoreticalArrival.get();
+      long allowedAt = current - burstToleranceNanos;
+
+      if (nowNanos - allowedAt < 0) {
+        return allowedAt - nowNanos;
+      }
+
+      long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+
+      if (theoreticalArrival.compareAndSet(current, next)) {
+        return 0;
+      }
+    }
+  }
+
+  /**
+   * Checks whether the bucket is full, meaning dropping it would not change any decision.
+   *
+   * @param nowNanos the current time in nanoseconds
+   * @return true if the bucket is full
+   */
+  public boolean isIdle(long nowNanos) {
+    return nowNanos - theoreticalArrival.get() >= 0;
+  }
+}
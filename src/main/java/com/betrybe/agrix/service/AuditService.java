@@ -0,0 +1,350 @@
+package com.betrybe.agrix.service;
+
+import com.betrybe.agrix.service.audit.AuditDurability;
+import com.betrybe.agrix.service.audit.AuditEvent;
+import com.betrybe.agrix.service.audit.AuditJournal;
+import com.betrybe.agrix.service.event.EntityChangeEvent;
+import com.betrybe.agrix.util.concurrent.MpscRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Records who changed which crop, farm or fertilizer.
+ *
+ * <p>The audit follows the entity change events, so the services need no extra call. Depending
+ * on {@link AuditDurability}, an event is inserted in the transaction of the change, or queued
+ * after the commit, optionally behind an fsync'd journal, in a lock-free ring buffer that a
+ * single writer thread drains in JDBC batches.
+ *
+ * <p>Each batch is written in its own transaction, so a failed batch leaves no rows behind, and a
+ * retry skips the events a commit whose outcome was lost already wrote. A batch that still fails
+ * after {@code agrix.audit.max-attempts} is given up and counted in
+ * {@code agrix.audit.abandoned}, parked next to the journal in journal mode: a row the database
+ * keeps refusing must not stall the writer, nor the producers waiting for room behind it.
+ */
+@Service
+public class AuditService {
+  private static final Logger LOGGER = LoggerFactory.getLogger(AuditService.class);
+  private static final String INSERT = "INSERT INTO audit_log (event_id, occurred_at, principal,"
+      + " entity, change_type, entity_id, farm_id, related_id) VALUES (:eventId, :occurredAt,"
+      + " :principal, :entity, :changeType, :entityId, :farmId, :relatedId)";
+  private static final String SELECT_WRITTEN = "SELECT event_id FROM audit_log"
+      + " WHERE event_id IN (:eventIds)";
+  private static final String SYSTEM = "system";
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final AuditDurability durability;
+  private final int batchSize;
+  private final long idleNanos;
+  private final int maxAttempts;
+  private final MpscRingBuffer<AuditEvent> buffer;
+  private final AuditJournal journal;
+  private final Counter dropped;
+  private final Counter stalled;
+  private final Counter written;
+  private final Counter failures;
+  private final Counter abandoned;
+  private final Timer flushTimer;
+  private final Thread writer;
+  private volatile boolean running = true;
+
+  /**
+   * Instantiates a new Audit service.
+   *
+   * @param jdbcTemplate        the jdbc template
+   * @param transactionTemplate the transaction template the batches are written in
+   * @param durability          the durability mode
+   * @param capacity            the ring buffer capacity
+   * @param batchSize           the maximum number of rows per batch
+   * @param idleMillis          how long the writer sleeps when the buffer is empty
+   * @param maxAttempts         how many times a batch is tried before it is given up
+   * @param journalDirectory    the directory of the journal, in journal mode
+   * @param meterRegistry       the meter registry
+   * @throws IOException if the journal cannot be opened or replayed
+   */
+  @Autowired
+  public AuditService(
+      NamedParameterJdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate,
+      @Value("${agrix.audit.durability:ASYNC}") AuditDurability durability,
+      @Value("${agrix.audit.capacity:8192}") int capacity,
+      @Value("${agrix.audit.batch-size:500}") int batchSize,
+      @Value("${agrix.audit.idle-millis:100}") long idleMillis,
+      @Value("${agrix.audit.max-attempts:5}") int maxAttempts,
+      @Value("${agrix.audit.journal-dir:audit-journal}") Path journalDirectory,
+      MeterRegistry meterRegistry
+  ) throws IOException {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.durability = durability;
+    this.batchSize = batchSize;
+    this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.buffer = new MpscRingBuffer<>(capacity);
+
+    this.dropped = Counter.builder("agrix.audit.dropped")
+        .description("Audit events lost because the buffer was full")
+        .register(meterRegistry);
+    this.stalled = Counter.builder("agrix.audit.stalled")
+        .description("Journaled audit events that waited for room in the buffer")
+        .register(meterRegistry);
+    this.written = Counter.builder("agrix.audit.written")
+        .description("Audit events written to the database")
+        .register(meterRegistry);
+    this.failures = Counter.builder("agrix.audit.failures")
+        .description("Audit batches that failed and were retried")
+        .register(meterRegistry);
+    this.abandoned = Counter.builder("agrix.audit.abandoned")
+        .description("Audit events given up after their batch failed every attempt")
+        .register(meterRegistry);
+    this.flushTimer = Timer.builder("agrix.audit.flush")
+        .description("Time to write one audit batch")
+        .register(meterRegistry);
+
+    Gauge.builder("agrix.audit.queue.depth", buffer, MpscRingBuffer::size)
+        .description("Audit events waiting for the writer")
+        .register(meterRegistry);
+    Gauge.builder("agrix.audit.queue.capacity", buffer, MpscRingBuffer::capacity)
+        .register(meterRegistry);
+
+    if (durability == AuditDurability.JOURNAL) {
+      this.journal = new AuditJournal(journalDirectory);
+      replay();
+    } else {
+      this.journal = null;
+    }
+
+    this.writer = new Thread(this::drain, "audit-writer");
+    this.writer.setDaemon(true);
+
+    if (durability != AuditDurability.SYNC) {
+      this.writer.start();
+    }
+  }
+
+  /**
+   * Writes the audit row of a change in the transaction of the change, in sync mode, so both
+   * commit or roll back together.
+   *
+   * @param event the change event
+   */
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+  public void recordInTransaction(EntityChangeEvent event) {
+    if (durability == AuditDurability.SYNC) {
+      insert(List.of(toAuditEvent(event)));
+      written.increment();
+    }
+  }
+
+  /**
+   * Queues the audit row of a committed change, in journal and async modes.
+   *
+   * @param event the change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void recordAfterCommit(EntityChangeEvent event) {
+    if (durability == AuditDurability.ASYNC) {
+      if (!buffer.offer(toAuditEvent(event))) {
+        dropped.increment();
+      }
+    } else if (durability == AuditDurability.JOURNAL) {
+      journal.append(toAuditEvent(event), this::offerJournaled);
+    }
+  }
+
+  /**
+   * Stops the writer once the buffer is drained.
+   *
+   * @throws InterruptedException if interrupted while waiting for the writer
+   * @throws IOException          if the journal cannot be closed
+   */
+  @PreDestroy
+  public void shutdown() throws InterruptedException, IOException {
+    running = false;
+    LockSupport.unpark(writer);
+    writer.join(TimeUnit.SECONDS.toMillis(10));
+
+    if (journal != null) {
+      journal.close();
+    }
+  }
+
+  private void offerJournaled(AuditEvent event) {
+    // The journal already holds the event: wait for room rather than lose the order the
+    // checkpoint relies on.
+    if (buffer.offer(event)) {
+      return;
+    }
+
+    stalled.increment();
+
+    while (!buffer.offer(event)) {
+      LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+    }
+  }
+
+  private void drain() {
+    List<AuditEvent> batch = new ArrayList<>(batchSize);
+    int attempts = 0;
+
+    while (running || buffer.size() > 0 || !batch.isEmpty()) {
+      if (batch.isEmpty() && buffer.drainTo(batch, batchSize) == 0) {
+        LockSupport.parkNanos(idleNanos);
+        continue;
+      }
+
+      try {
+        boolean retry = attempts > 0;
+        flushTimer.record(() -> write(batch, retry));
+        checkpoint(batch);
+        batch.clear();
+        attempts = 0;
+      } catch (DataAccessException | TransactionException | IOException e) {
+        failures.increment();
+        attempts++;
+
+        if (attempts >= maxAttempts) {
+          LOGGER.error("Could not write {} audit events after {} attempts, giving up",
+              batch.size(), attempts, e);
+          abandon(batch);
+          batch.clear();
+          attempts = 0;
+          continue;
+        }
+
+        LOGGER.warn("Could not write {} audit events, retrying", batch.size(), e);
+
+        if (!running) {
+          LOGGER.error("Lost {} audit events on shutdown", batch.size() + buffer.size());
+          return;
+        }
+
+        LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+      }
+    }
+  }
+
+  private void abandon(List<AuditEvent> batch) {
+    abandoned.increment(batch.size());
+
+    if (journal == null) {
+      return;
+    }
+
+    try {
+      journal.park(batch);
+      checkpoint(batch);
+    } catch (IOException e) {
+      LOGGER.error("Could not park {} audit events", batch.size(), e);
+    }
+  }
+
+  private void checkpoint(List<AuditEvent> batch) throws IOException {
+    if (journal != null) {
+      journal.checkpoint(batch.get(batch.size() - 1).sequence());
+    }
+  }
+
+  private void replay() throws IOException {
+    List<AuditEvent> pending = journal.unflushed();
+
+    for (int from = 0; from < pending.size(); from += batchSize) {
+      List<AuditEvent> batch = pending.subList(from, Math.min(from + batchSize, pending.size()));
+
+      write(batch, true);
+      journal.checkpoint(batch.get(batch.size() - 1).sequence());
+    }
+
+    if (!pending.isEmpty()) {
+      LOGGER.info("Replayed {} journaled audit events", pending.size());
+    }
+  }
+
+  /**
+   * Writes a batch in one transaction. A retried or replayed batch first drops the events already
+   * in the table, which a commit whose outcome was lost may have written.
+   */
+  private void write(List<AuditEvent> batch, boolean skipWritten) {
+    Integer count = transactionTemplate.execute(status -> {
+      List<AuditEvent> events = skipWritten ? unwritten(batch) : batch;
+      insert(events);
+      return events.size();
+    });
+
+    written.increment(count == null ? 0 : count);
+  }
+
+  private List<AuditEvent> unwritten(List<AuditEvent> batch) {
+    Set<String> alreadyWritten = new HashSet<>(jdbcTemplate.queryForList(SELECT_WRITTEN,
+        new MapSqlParameterSource("eventIds", batch.stream().map(AuditEvent::eventId).toList()),
+        String.class));
+
+    return batch.stream()
+        .filter(event -> !alreadyWritten.contains(event.eventId()))
+        .toList();
+  }
+
+  private void insert(List<AuditEvent> events) {
+    if (events.isEmpty()) {
+      return;
+    }
+
+    jdbcTemplate.batchUpdate(INSERT, events.stream()
+        .map(event -> new MapSqlParameterSource()
+            .addValue("eventId", event.eventId())
+            .addValue("occurredAt", Timestamp.from(event.occurredAt()))
+            .addValue("principal", event.principal())
+            .addValue("entity", event.entity().name())
+            .addValue("changeType", event.changeType().name())
+            .addValue("entityId", event.entityId())
+            .addValue("farmId", event.farmId())
+            .addValue("relatedId", event.relatedId()))
+        .toArray(SqlParameterSource[]::new));
+  }
+
+  private static AuditEvent toAuditEvent(EntityChangeEvent event) {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+    return new AuditEvent(
+        0,
+        UUID.randomUUID().toString(),
+        Instant.now(),
+        authentication == null ? SYSTEM : authentication.getName(),
+        event.entity(),
+        event.type(),
+        event.id(),
+        event.farmId(),
+        event.relatedId()
+    );
+  }
+}
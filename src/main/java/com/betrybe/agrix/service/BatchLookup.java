@@ -0,0 +1,61 @@
+package com.betrybe.agrix.service;
+
+import com.betrybe.agrix.controller.dto.BatchEntryDto;
+import com.betrybe.agrix.service.exception.TooManyIdsException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves a {@code ?ids=} batch with a single lookup, reporting missing ids inline.
+ */
+public final class BatchLookup {
+  /**
+   * The maximum number of ids per request, which keeps the IN list bounded.
+   */
+  public static final int MAX_IDS = 100;
+
+  private BatchLookup() {
+  }
+
+  /**
+   * Loads every distinct id at once and answers in request order.
+   *
+   * @param <E>             the entity type
+   * @param <D>             the dto type
+   * @param ids             the requested ids
+   * @param loader          loads the entities with the given ids
+   * @param idOf            reads the id of an entity
+   * @param toDto           maps an entity to its dto
+   * @param notFoundMessage the message reported for a missing id
+   * @return one entry per requested id
+   * @throws TooManyIdsException if more than {@link #MAX_IDS} ids are requested
+   */
+  public static <E, D> List<BatchEntryDto<D>> resolve(
+      List<Long> ids,
+      Function<Collection<Long>, List<E>> loader,
+      Function<E, Long> idOf,
+      Function<E, D> toDto,
+      String notFoundMessage
+  ) throws TooManyIdsException {
+    if (ids.size() > MAX_IDS) {
+      throw new TooManyIdsException(MAX_IDS);
+    }
+
+    Set<Long> distinct = new LinkedHashSet<>(ids);
+    distinct.remove(null);
+
+    Map<Long, D> found = loader.apply(distinct).stream()
+        .collect(Collectors.toMap(idOf, toDto, (first, second) -> first));
+
+    return ids.stream()
+        .map(id -> found.containsKey(id)
+            ? new BatchEntryDto<>(id, found.get(id), null)
+            : new BatchEntryDto<D>(id, null, notFoundMessage))
+        .toList();
+  }
+}
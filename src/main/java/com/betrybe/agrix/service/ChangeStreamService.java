@@ -0,0 +1,293 @@
+package com.betrybe.agrix.service;
+
+import com.betrybe.agrix.service.event.ChangedEntity;
+import com.betrybe.agrix.service.event.EntityChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Fans committed entity changes out to server-sent event subscribers.
+ *
+ * <p>Connections are held asynchronously by the servlet container; a small shared pool drains
+ * the per-subscriber queues, so thousands of subscribers do not need thousands of threads. A
+ * subscriber whose bounded queue overflows is disconnected instead of slowing everyone down.
+ *
+ * <p>A send is a blocking servlet write, so a client that stops reading would hold a dispatcher
+ * thread until the container gives up on the socket. A watchdog writes off every send past its
+ * deadline: the subscriber is disconnected and the pool gets a replacement thread, which it
+ * gives back once the stuck send returns, so the other subscribers keep being drained. Emitters
+ * are only completed by the thread draining them, never while one of their sends is blocked.
+ */
+@Service
+public class ChangeStreamService {
+  private static final long IDLE = Long.MIN_VALUE;
+  private static final long WRITTEN_OFF = Long.MIN_VALUE + 1;
+
+  private final int bufferSize;
+  private final long timeoutMillis;
+  private final long sendTimeoutNanos;
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final ThreadPoolExecutor dispatcher;
+  private final ScheduledExecutorService watchdog;
+  private final Counter slowConsumerCounter;
+  private final Counter stalledConsumerCounter;
+
+  /**
+   * Instantiates a new Change stream service.
+   *
+   * @param bufferSize        the number of pending events each subscriber may hold
+   * @param timeoutMillis     the connection timeout, zero for none
+   * @param dispatcherThreads the number of threads writing to subscribers
+   * @param sendTimeoutMillis the longest a single send may block, zero for no limit
+   * @param meterRegistry     the meter registry
+   */
+  @Autowired
+  public ChangeStreamService(
+      @Value("${agrix.events.buffer-size:256}") int bufferSize,
+      @Value("${agrix.events.timeout-millis:1800000}") long timeoutMillis,
+      @Value("${agrix.events.dispatcher-threads:4}") int dispatcherThreads,
+      @Value("${agrix.events.send-timeout-millis:5000}") long sendTimeoutMillis,
+      MeterRegistry meterRegistry
+  ) {
+    this.bufferSize = bufferSize;
+    this.timeoutMillis = timeoutMillis;
+    this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+    this.dispatcher = new ThreadPoolExecutor(dispatcherThreads, dispatcherThreads, 0,
+        TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), daemonThreads("change-stream-"));
+
+    if (sendTimeoutMillis > 0) {
+      long period = Math.max(1, sendTimeoutMillis / 4);
+
+      this.watchdog = Executors.newSingleThreadScheduledExecutor(
+          daemonThreads("change-stream-watchdog-"));
+      this.watchdog.scheduleWithFixedDelay(this::writeOffStalledSends, period, period,
+          TimeUnit.MILLISECONDS);
+    } else {
+      this.watchdog = null;
+    }
+
+    this.slowConsumerCounter = Counter.builder("agrix.events.slow-consumers")
+        .description("Subscribers disconnected because their buffer overflowed")
+        .register(meterRegistry);
+    this.stalledConsumerCounter = Counter.builder("agrix.events.stalled-consumers")
+        .description("Subscribers disconnected because a send blocked past its deadline")
+        .register(meterRegistry);
+
+    Gauge.builder("agrix.events.subscribers", subscribers, Set::size)
+        .description("Open server-sent event connections")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Opens a new subscription.
+   *
+   * @param farmId only forward changes of this farm, or null for every change
+   * @return the emitter bound to the connection
+   */
+  public SseEmitter subscribe(Long farmId) {
+    SseEmitter emitter = new SseEmitter(timeoutMillis);
+    Subscriber subscriber = new Subscriber(emitter, farmId, new ArrayBlockingQueue<>(bufferSize));
+
+    emitter.onCompletion(() -> subscribers.remove(subscriber));
+    emitter.onTimeout(() -> subscribers.remove(subscriber));
+    emitter.onError(error -> subscribers.remove(subscriber));
+
+    subscribers.add(subscriber);
+
+    return emitter;
+  }
+
+  /**
+   * Queues a committed change for every matching subscriber.
+   *
+   * @param event the change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onEntityChange(EntityChangeEvent event) {
+    for (Subscriber subscriber : subscribers) {
+      if (!subscriber.accepts(event)) {
+        continue;
+      }
+
+      if (!subscriber.queue().offer(event)) {
+        slowConsumerCounter.increment();
+        disconnect(subscriber);
+        continue;
+      }
+
+      schedule(subscriber);
+    }
+  }
+
+  private void schedule(Subscriber subscriber) {
+    if (subscriber.draining().compareAndSet(false, true)) {
+      dispatcher.execute(() -> drain(subscriber));
+    }
+  }
+
+  private void drain(Subscriber subscriber) {
+    try {
+      BlockingQueue<EntityChangeEvent> queue = subscriber.queue();
+
+      for (EntityChangeEvent event = queue.poll();
+          event != null && subscribers.contains(subscriber); event = queue.poll()) {
+        if (!send(subscriber, event)) {
+          return;
+        }
+      }
+    } catch (IOException | IllegalStateException e) {
+      subscribers.remove(subscriber);
+    } finally {
+      subscriber.draining().set(false);
+    }
+
+    if (!subscribers.contains(subscriber)) {
+      complete(subscriber);
+      return;
+    }
+
+    // An event offered after the last poll but before the flag was cleared would be stranded.
+    if (!subscriber.queue().isEmpty()) {
+      schedule(subscriber);
+    }
+  }
+
+  /**
+   * Sends one event, publishing when the send started for the watchdog.
+   *
+   * @return false if the watchdog wrote the send off meanwhile
+   */
+  private boolean send(Subscriber subscriber, EntityChangeEvent event) throws IOException {
+    long started = System.nanoTime();
+    subscriber.sendStartedAt().set(started);
+
+    try {
+      subscriber.emitter().send(SseEmitter.event()
+          .name(event.type().name().toLowerCase())
+          .data(event));
+    } finally {
+      if (!subscriber.sendStartedAt().compareAndSet(started, IDLE)) {
+        // Written off: hand the replacement thread back and close what is left.
+        resizeDispatcher(-1);
+        complete(subscriber);
+      }
+    }
+
+    return subscriber.sendStartedAt().get() == IDLE;
+  }
+
+  private void writeOffStalledSends() {
+    long now = System.nanoTime();
+
+    for (Subscriber subscriber : subscribers) {
+      long started = subscriber.sendStartedAt().get();
+
+      if (started != IDLE && started != WRITTEN_OFF && now - started > sendTimeoutNanos
+          && subscriber.sendStartedAt().compareAndSet(started, WRITTEN_OFF)) {
+        stalledConsumerCounter.increment();
+        resizeDispatcher(1);
+        disconnect(subscriber);
+      }
+    }
+  }
+
+  private synchronized void resizeDispatcher(int delta) {
+    int size = dispatcher.getCorePoolSize() + delta;
+
+    // The maximum may never drop below the core size, so the order depends on the direction.
+    if (delta > 0) {
+      dispatcher.setMaximumPoolSize(size);
+      dispatcher.setCorePoolSize(size);
+    } else {
+      dispatcher.setCorePoolSize(size);
+      dispatcher.setMaximumPoolSize(size);
+    }
+  }
+
+  /**
+   * Drops a subscriber. Its drain completes the emitter, once no send of it is in flight.
+   */
+  private void disconnect(Subscriber subscriber) {
+    if (subscribers.remove(subscriber)) {
+      subscriber.queue().clear();
+      schedule(subscriber);
+    }
+  }
+
+  private void complete(Subscriber subscriber) {
+    if (subscriber.completed().compareAndSet(false, true)) {
+      try {
+        subscriber.emitter().complete();
+      } catch (IllegalStateException e) {
+        // Already completed by the container, after a timeout or a network error.
+      }
+    }
+  }
+
+  /**
+   * Closes every open connection on shutdown.
+   */
+  @PreDestroy
+  public void shutdown() {
+    subscribers.forEach(this::disconnect);
+
+    if (watchdog != null) {
+      watchdog.shutdownNow();
+    }
+
+    dispatcher.shutdown();
+  }
+
+  private static ThreadFactory daemonThreads(String prefix) {
+    AtomicInteger threadCount = new AtomicInteger();
+
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  private record Subscriber(
+      SseEmitter emitter,
+      Long farmId,
+      BlockingQueue<EntityChangeEvent> queue,
+      AtomicBoolean draining,
+      AtomicLong sendStartedAt,
+      AtomicBoolean completed
+  ) {
+
+    Subscriber(SseEmitter emitter, Long farmId, BlockingQueue<EntityChangeEvent> queue) {
+      this(emitter, farmId, queue, new AtomicBoolean(), new AtomicLong(IDLE), new AtomicBoolean());
+    }
+
+    boolean accepts(EntityChangeEvent event) {
+      if (farmId == null) {
+        return true;
+      }
+
+      return event.entity() != ChangedEntity.FERTILIZER && event.touchesFarm(farmId);
+    }
+  }
+}
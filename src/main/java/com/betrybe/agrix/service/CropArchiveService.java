@@ -0,0 +1,243 @@
+package com.betrybe.agrix.service;
+
+import com.betrybe.agrix.entity.ArchivedCrop;
+import com.betrybe.agrix.entity.Crop;
+import com.betrybe.agrix.entity.Farm;
+import com.betrybe.agrix.entity.Fertilizer;
+import com.betrybe.agrix.repository.ArchivedCropRepository;
+import com.betrybe.agrix.repository.FarmRepository;
+import com.betrybe.agrix.repository.FertilizerRepository;
+import com.betrybe.agrix.service.event.ChangeType;
+import com.betrybe.agrix.service.event.ChangedEntity;
+import com.betrybe.agrix.service.event.EntityChangeEvent;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves long-harvested crops out of the hot {@code crops} table and reads them back on demand.
+ *
+ * <p>Each batch is copied into {@code crops_archive}, with its fertilizer links folded into the
+ * row, and removed from {@code crops} and {@code crop_fertilizers} in the same transaction.
+ * Archived crops are read-only: they are served by id and by the harvest search, but every
+ * mutation only sees the hot table. Each archived crop is published as an {@code ARCHIVED}
+ * change once its batch commits, so caches and projections let go of it. The harvest search
+ * reads the archive boundary on every call, an index lookup, so it holds whichever instance
+ * ran the archiver.
+ */
+@Service
+public class CropArchiveService {
+  private static final Logger LOGGER = LoggerFactory.getLogger(CropArchiveService.class);
+  private static final String SELECT_BATCH = "SELECT id, farm_id FROM crops"
+      + " WHERE harvest_date < :cutoff AND deleted_at IS NULL ORDER BY id LIMIT :limit FOR UPDATE";
+  private static final String SELECT_LINKS = "SELECT crop_id, fertilizer_id FROM crop_fertilizers"
+      + " WHERE crop_id IN (:ids) ORDER BY crop_id, fertilizer_id";
+  private static final String COPY_CROPS = "INSERT INTO crops_archive (id, name, planted_area,"
+      + " farm_id, planted_date, harvest_date, archived_at) SELECT id, name, planted_area,"
+      + " farm_id, planted_date, harvest_date, :archivedAt FROM crops WHERE id IN (:ids)";
+  private static final String FOLD_LINKS = "UPDATE crops_archive SET fertilizer_ids ="
+      + " :fertilizerIds WHERE id = :id";
+  private static final String DELETE_LINKS = "DELETE FROM crop_fertilizers WHERE crop_id IN (:ids)";
+  private static final String DELETE_CROPS = "DELETE FROM crops WHERE id IN (:ids)";
+
+  private final ArchivedCropRepository archivedCropRepository;
+  private final FarmRepository farmRepository;
+  private final FertilizerRepository fertilizerRepository;
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final boolean enabled;
+  private final int afterDays;
+  private final int batchSize;
+
+  /**
+   * Instantiates a new Crop archive service.
+   *
+   * @param archivedCropRepository the archived crop repository
+   * @param farmRepository         the farm repository
+   * @param fertilizerRepository   the fertilizer repository
+   * @param jdbcTemplate           the jdbc template
+   * @param transactionTemplate    the transaction template, one transaction per batch
+   * @param eventPublisher         the event publisher
+   * @param enabled                whether the scheduled archiver runs
+   * @param afterDays              how many days after harvest a crop is archived
+   * @param batchSize              the number of crops moved per transaction
+   */
+  @Autowired
+  public CropArchiveService(
+      ArchivedCropRepository archivedCropRepository,
+      FarmRepository farmRepository,
+      FertilizerRepository fertilizerRepository,
+      NamedParameterJdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate,
+      ApplicationEventPublisher eventPublisher,
+      @Value("${agrix.crops.archive.enabled:false}") boolean enabled,
+      @Value("${agrix.crops.archive.after-days:365}") int afterDays,
+      @Value("${agrix.crops.archive.batch-size:1000}") int batchSize
+  ) {
+    this.archivedCropRepository = archivedCropRepository;
+    this.farmRepository = farmRepository;
+    this.fertilizerRepository = fertilizerRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.eventPublisher = eventPublisher;
+    this.enabled = enabled;
+    this.afterDays = afterDays;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Archives every live crop harvested before the cutoff, one batch per transaction.
+   */
+  @Scheduled(cron = "${agrix.crops.archive.cron:0 30 3 * * *}")
+  public void archiveHarvested() {
+    if (!enabled) {
+      return;
+    }
+
+    LocalDate cutoff = LocalDate.now().minusDays(afterDays);
+    long archived = 0;
+    int moved;
+
+    do {
+      moved = Objects.requireNonNull(transactionTemplate.execute(status -> archiveBatch(cutoff)));
+      archived += moved;
+    } while (moved == batchSize);
+
+    LOGGER.info("Archived {} crops harvested before {}", archived, cutoff);
+  }
+
+  /**
+   * Finds an archived crop.
+   *
+   * @param id the id
+   * @return the detached crop, if it was archived
+   */
+  @Transactional(readOnly = true)
+  public Optional<Crop> findById(Long id) {
+    return archivedCropRepository.findById(id)
+        .map(archivedCrop -> toCrops(List.of(archivedCrop)).get(0));
+  }
+
+  /**
+   * Finds archived crops by id.
+   *
+   * @param ids the ids
+   * @return the detached crops that were archived
+   */
+  @Transactional(readOnly = true)
+  public List<Crop> findAllById(Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+
+    return toCrops(archivedCropRepository.findAllById(ids));
+  }
+
+  /**
+   * Finds the archived crops harvested inside an interval. The archive is not touched when the
+   * interval starts after the latest archived harvest date.
+   *
+   * @param start the start
+   * @param end   the end
+   * @return the detached crops
+   */
+  @Transactional(readOnly = true)
+  public List<Crop> findByHarvestDateBetween(LocalDate start, LocalDate end) {
+    LocalDate latest = archivedCropRepository.findMaxHarvestDate();
+
+    if (latest == null || start.isAfter(latest)) {
+      return List.of();
+    }
+
+    return toCrops(archivedCropRepository.findByHarvestDateBetween(start, end));
+  }
+
+  private int archiveBatch(LocalDate cutoff) {
+    MapSqlParameterSource batch = new MapSqlParameterSource()
+        .addValue("cutoff", cutoff)
+        .addValue("limit", batchSize);
+    Map<Long, Long> farmIds = new LinkedHashMap<>();
+
+    jdbcTemplate.query(SELECT_BATCH, batch, rs -> {
+      farmIds.put(rs.getLong("id"), rs.getObject("farm_id", Long.class));
+    });
+
+    if (farmIds.isEmpty()) {
+      return 0;
+    }
+
+    List<Long> ids = List.copyOf(farmIds.keySet());
+
+    MapSqlParameterSource byIds = new MapSqlParameterSource("ids", ids);
+    Map<Long, StringJoiner> links = new HashMap<>();
+
+    jdbcTemplate.query(SELECT_LINKS, byIds, rs -> {
+      links.computeIfAbsent(rs.getLong("crop_id"), key -> new StringJoiner(","))
+          .add(String.valueOf(rs.getLong("fertilizer_id")));
+    });
+
+    jdbcTemplate.update(COPY_CROPS, new MapSqlParameterSource("ids", ids)
+        .addValue("archivedAt", Timestamp.from(Instant.now())));
+    jdbcTemplate.batchUpdate(FOLD_LINKS, links.entrySet().stream()
+        .map(link -> new MapSqlParameterSource()
+            .addValue("id", link.getKey())
+            .addValue("fertilizerIds", link.getValue().toString()))
+        .toArray(SqlParameterSource[]::new));
+    jdbcTemplate.update(DELETE_LINKS, byIds);
+    jdbcTemplate.update(DELETE_CROPS, byIds);
+
+    farmIds.forEach((id, farmId) -> eventPublisher.publishEvent(
+        new EntityChangeEvent(ChangedEntity.CROP, ChangeType.ARCHIVED, id, farmId, null)
+    ));
+
+    return ids.size();
+  }
+
+  private List<Crop> toCrops(List<ArchivedCrop> archivedCrops) {
+    Map<Long, Farm> farms = byId(farmRepository.findAllById(archivedCrops.stream()
+        .map(ArchivedCrop::getFarmId)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toSet())), Farm::getId);
+    Map<Long, Fertilizer> fertilizers = byId(fertilizerRepository.findAllById(archivedCrops
+        .stream()
+        .flatMap(archivedCrop -> archivedCrop.getFertilizerIds().stream())
+        .collect(Collectors.toSet())), Fertilizer::getId);
+
+    return archivedCrops.stream()
+        .map(archivedCrop -> archivedCrop.toCrop(
+            archivedCrop.getFarmId() == null ? null : farms.get(archivedCrop.getFarmId()),
+            archivedCrop.getFertilizerIds().stream()
+                .map(fertilizers::get)
+                .filter(Objects::nonNull)
+                .toList()
+        ))
+        .toList();
+  }
+
+  private static <T> Map<Long, T> byId(Collection<T> entities, Function<T, Long> id) {
+    return entities.stream().collect(Collectors.toMap(id, Function.identity()));
+  }
+}
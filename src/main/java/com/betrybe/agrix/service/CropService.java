@@ -1,70 +1,161 @@
 package com.betrybe.agrix.service;
 
+import com.betrybe.agrix.controller.dto.BatchEntryDto;
+import com.betrybe.agrix.controller.dto.CropDto;
 import com.betrybe.agrix.entity.Crop;
 import com.betrybe.agrix.entity.Farm;
 import com.betrybe.agrix.entity.Fertilizer;
 import com.betrybe.agrix.repository.CropRepository;
+import com.betrybe.agrix.repository.ProjectionRepository;
+import com.betrybe.agrix.service.event.ChangeType;
+import com.betrybe.agrix.service.event.ChangedEntity;
+import com.betrybe.agrix.service.event.EntityChangeEvent;
 import com.betrybe.agrix.service.exception.CropNotFoundException;
 import com.betrybe.agrix.service.exception.FarmNotFoundException;
 import com.betrybe.agrix.service.exception.FertilizerNotFoundException;
+import com.betrybe.agrix.service.exception.InvalidFieldsException;
+import com.betrybe.agrix.service.exception.InvalidHarvestDateException;
+import com.betrybe.agrix.service.exception.NotFoundException;
+import com.betrybe.agrix.service.exception.TooManyIdsException;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * The type Crop service.
  */
 @Service
 public class CropService {
+  private static final Map<String, String> FIELDS = Map.of(
+      "id", "id",
+      "name", "name",
+      "plantedArea", "plantedArea",
+      "farmId", "farm.id",
+      "plantedDate", "plantedDate",
+      "harvestDate", "harvestDate"
+  );
+  private static final String NOT_FOUND = new CropNotFoundException().getMessage();
+
   private final CropRepository cropRepository;
+  private final CropArchiveService cropArchiveService;
+  private final ProjectionRepository projectionRepository;
   private final FarmService farmService;
   private final FertilizerService fertilizerService;
+  private final ApplicationEventPublisher eventPublisher;
+  private final boolean partitioned;
 
   /**
    * Instantiates a new Crop service.
    *
-   * @param cropRepository    the crop repository
-   * @param farmService       the farm service
-   * @param fertilizerService the fertilizer service
+   * @param cropRepository       the crop repository
+   * @param cropArchiveService   the crop archive service
+   * @param projectionRepository the projection repository
+   * @param farmService          the farm service
+   * @param fertilizerService    the fertilizer service
+   * @param eventPublisher       the event publisher
+   * @param partitioned          whether crops are partitioned by harvest date
    */
   @Autowired
-  public CropService(CropRepository cropRepository, FarmService farmService,
-      FertilizerService fertilizerService) {
+  public CropService(CropRepository cropRepository, CropArchiveService cropArchiveService,
+      ProjectionRepository projectionRepository, FarmService farmService,
+      FertilizerService fertilizerService, ApplicationEventPublisher eventPublisher,
+      @Value("${agrix.crops.partitioned:false}") boolean partitioned) {
     this.cropRepository = cropRepository;
+    this.cropArchiveService = cropArchiveService;
+    this.projectionRepository = projectionRepository;
     this.farmService = farmService;
     this.fertilizerService = fertilizerService;
+    this.eventPublisher = eventPublisher;
+    this.partitioned = partitioned;
   }
 
   /**
-   * Find by id crop.
+   * Find by id crop, falling through to the archive when it is not in the hot table.
    *
    * @param id the id
    * @return the crop
    * @throws CropNotFoundException the crop not found exception
    */
+  @Transactional(readOnly = true)
   public Crop findById(Long id) throws CropNotFoundException {
     return cropRepository.findById(id)
+        .or(() -> cropArchiveService.findById(id))
         .orElseThrow(CropNotFoundException::new);
   }
 
+  /**
+   * Find crops by id with a single lookup, reporting missing ids inline.
+   *
+   * @param ids the ids
+   * @return one entry per requested id, in request order
+   * @throws TooManyIdsException the too many ids exception
+   */
+  @Transactional(readOnly = true)
+  public List<BatchEntryDto<CropDto>> findAllById(List<Long> ids) throws TooManyIdsException {
+    return BatchLookup.resolve(
+        ids, this::findAllWithArchived, Crop::getId, CropDto::fromEntity, NOT_FOUND
+    );
+  }
+
   /**
    * Find all list.
    *
    * @return the list
    */
+  @Transactional(readOnly = true)
   public List<Crop> findAll() {
     return cropRepository.findAll();
   }
 
   /**
-   * Create crop.
+   * Find all crops, reading only the selected fields.
+   *
+   * @param fields the fields
+   * @return one row per crop
+   * @throws InvalidFieldsException the invalid fields exception
+   */
+  @Transactional(readOnly = true)
+  public List<Map<String, Object>> findAll(List<String> fields) throws InvalidFieldsException {
+    return projectionRepository.findAll(Crop.class, FieldSelection.resolve(FIELDS, fields));
+  }
+
+  /**
+   * Create crop. The harvest date cannot precede the planted date, and is mandatory on
+   * partitioned databases, where crops are stored by it.
    *
    * @param cropToSave the crop to save
    * @return the crop
+   * @throws InvalidHarvestDateException if the harvest date is before planting, or missing on a
+   *                                     partitioned database
    */
-  public Crop create(Crop cropToSave) {
-    return cropRepository.save(cropToSave);
+  @Transactional
+  public Crop create(Crop cropToSave) throws InvalidHarvestDateException {
+    LocalDate harvestDate = cropToSave.getHarvestDate();
+    LocalDate plantedDate = cropToSave.getPlantedDate();
+
+    if (harvestDate == null && partitioned) {
+      throw new InvalidHarvestDateException();
+    }
+
+    if (harvestDate != null && plantedDate != null && harvestDate.isBefore(plantedDate)) {
+      throw new InvalidHarvestDateException();
+    }
+
+    Crop crop = cropRepository.save(cropToSave);
+
+    publish(crop, ChangeType.CREATED);
+
+    return crop;
   }
 
   /**
@@ -76,9 +167,11 @@ public class CropService {
    * @throws CropNotFoundException the crop not found exception
    * @throws FarmNotFoundException the farm not found exception
    */
+  @Transactional(rollbackFor = NotFoundException.class)
   public Crop update(Long id, Crop cropWithChanges)
       throws CropNotFoundException, FarmNotFoundException {
-    Crop cropToChange = findById(id);
+    Crop cropToChange = findActive(id);
+    Long previousFarmId = cropToChange.getFarmId();
 
     if (!cropWithChanges.getName().isEmpty() && !cropWithChanges.getName().isBlank()) {
       cropToChange.setName(cropWithChanges.getName());
@@ -93,7 +186,11 @@ public class CropService {
       cropToChange.setFarm(farmToVinculate);
     }
 
-    return cropRepository.save(cropToChange);
+    Crop crop = cropRepository.save(cropToChange);
+
+    publishUpdate(crop, previousFarmId);
+
+    return crop;
   }
 
   /**
@@ -103,10 +200,14 @@ public class CropService {
    * @return the crop
    * @throws CropNotFoundException the crop not found exception
    */
+  @Transactional(rollbackFor = NotFoundException.class)
   public Crop deleteById(Long id) throws CropNotFoundException {
-    Crop cropToExclude = findById(id);
+    Crop cropToExclude = findActive(id);
+
+    cropToExclude.markDeleted();
+    cropRepository.save(cropToExclude);
 
-    cropRepository.deleteById(id);
+    publish(cropToExclude, ChangeType.DELETED);
 
     return cropToExclude;
   }
@@ -120,16 +221,22 @@ public class CropService {
    * @throws CropNotFoundException the crop not found exception
    * @throws FarmNotFoundException the farm not found exception
    */
+  @Transactional(rollbackFor = NotFoundException.class)
   public Crop setCropFarm(
       Long cropId,
       Long farmId
   ) throws CropNotFoundException, FarmNotFoundException {
-    Crop crop = findById(cropId);
+    Crop crop = findActive(cropId);
     Farm farm = farmService.findById(farmId);
+    Long previousFarmId = crop.getFarmId();
 
     crop.setFarm(farm);
 
-    return cropRepository.save(crop);
+    Crop savedCrop = cropRepository.save(crop);
+
+    publishUpdate(savedCrop, previousFarmId);
+
+    return savedCrop;
   }
 
   /**
@@ -141,17 +248,26 @@ public class CropService {
    * @throws CropNotFoundException       the crop not found exception
    * @throws FertilizerNotFoundException the fertilizer not found exception
    */
+  @Transactional(rollbackFor = NotFoundException.class)
   public String setFertilizerCrop(
       Long cropId,
       Long fertilizerId
   ) throws CropNotFoundException, FertilizerNotFoundException {
-    Crop cropToAssociate = findById(cropId);
+    Crop cropToAssociate = findActive(cropId);
     Fertilizer fertilizerToAssociate = fertilizerService.getFertilizerById(fertilizerId);
 
-    cropToAssociate.getFertilizers().add(fertilizerToAssociate);
+    // The join table is keyed by (crop_id, fertilizer_id): associating twice is a no-op.
+    if (!cropToAssociate.getFertilizers().contains(fertilizerToAssociate)) {
+      cropToAssociate.getFertilizers().add(fertilizerToAssociate);
+    }
+
+    cropToAssociate.markChanged();
 
     cropRepository.save(cropToAssociate);
 
+    eventPublisher.publishEvent(new EntityChangeEvent(ChangedEntity.CROP, ChangeType.ASSOCIATED,
+        cropToAssociate.getId(), cropToAssociate.getFarmId(), fertilizerToAssociate.getId()));
+
     return "Fertilizante e plantação associados com sucesso!";
   }
 
@@ -162,12 +278,18 @@ public class CropService {
    * @return the crop
    * @throws CropNotFoundException the crop not found exception
    */
+  @Transactional(rollbackFor = NotFoundException.class)
   public Crop removeCropFarm(Long cropId) throws CropNotFoundException {
-    Crop crop = findById(cropId);
+    Crop crop = findActive(cropId);
 
+    Long previousFarmId = crop.getFarmId();
     crop.setFarm(null);
 
-    return cropRepository.save(crop);
+    Crop savedCrop = cropRepository.save(crop);
+
+    publishUpdate(savedCrop, previousFarmId);
+
+    return savedCrop;
   }
 
   /**
@@ -177,15 +299,16 @@ public class CropService {
    * @param end   the end
    * @return the crop by harvest date interval
    */
+  @Transactional(readOnly = true)
   public List<Crop> getCropByHarvestDateInterval(LocalDate start, LocalDate end) {
-    List<Crop> crops = findAll();
+    List<Crop> crops = cropRepository.findByHarvestDateBetween(start, end);
+    List<Crop> archived = cropArchiveService.findByHarvestDateBetween(start, end);
 
-    return crops.stream()
-        .filter(crop -> crop.getHarvestDate().isEqual(start)
-            || crop.getHarvestDate().isAfter(start))
-        .filter(crop -> crop.getHarvestDate().isBefore(end)
-            || crop.getHarvestDate().isEqual(end))
-        .toList();
+    if (archived.isEmpty()) {
+      return crops;
+    }
+
+    return Stream.concat(archived.stream(), crops.stream()).toList();
   }
 
   /**
@@ -195,7 +318,42 @@ public class CropService {
    * @return the crop fertilizers
    * @throws CropNotFoundException the crop not found exception
    */
+  @Transactional(readOnly = true)
   public List<Fertilizer> getCropFertilizers(Long id) throws CropNotFoundException {
     return findById(id).getFertilizers();
   }
+
+  private List<Crop> findAllWithArchived(Collection<Long> ids) {
+    List<Crop> crops = cropRepository.findAllById(ids);
+
+    if (crops.size() == ids.size()) {
+      return crops;
+    }
+
+    Set<Long> found = crops.stream().map(Crop::getId).collect(Collectors.toSet());
+    List<Long> missing = ids.stream().filter(id -> !found.contains(id)).toList();
+
+    return Stream.concat(crops.stream(), cropArchiveService.findAllById(missing).stream())
+        .toList();
+  }
+
+  private Crop findActive(Long id) throws CropNotFoundException {
+    return cropRepository.findById(id)
+        .orElseThrow(CropNotFoundException::new);
+  }
+
+  private void publish(Crop crop, ChangeType type) {
+    eventPublisher.publishEvent(
+        new EntityChangeEvent(ChangedEntity.CROP, type, crop.getId(), crop.getFarmId(), null)
+    );
+  }
+
+  private void publishUpdate(Crop crop, Long previousFarmId) {
+    Long farmId = crop.getFarmId();
+    Long leftFarmId = Objects.equals(farmId, previousFarmId) ? null : previousFarmId;
+
+    eventPublisher.publishEvent(new EntityChangeEvent(
+        ChangedEntity.CROP, ChangeType.UPDATED, crop.getId(), farmId, null, leftFarmId
+    ));
+  }
 }
@@ -0,0 +1,198 @@
+package com.betrybe.agrix.service;
+
+import com.betrybe.agrix.service.event.ChangedEntity;
+import com.betrybe.agrix.service.event.EntityChangeEvent;
+import com.betrybe.agrix.service.snapshot.CropColumns;
+import com.betrybe.agrix.service.snapshot.CropSnapshot;
+import com.betrybe.agrix.service.snapshot.CropSnapshot.Row;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps a columnar in-memory snapshot of every crop, archived ones included, for analytical
+ * scans.
+ *
+ * <p>The snapshot is rebuilt from the database periodically, which also picks up the writes of
+ * other instances. Between rebuilds, each committed change of a single crop is read back, from
+ * the archive once archived, and patched into the snapshot's overlay; a change to every crop of
+ * a farm, or an overlay grown past its limit, schedules a rebuild instead.
+ */
+@Service
+public class CropSnapshotService {
+  private static final Logger LOGGER = LoggerFactory.getLogger(CropSnapshotService.class);
+  private static final String COLUMNS = "id, farm_id, planted_area, planted_date, harvest_date,"
+      + " name";
+  private static final String SELECT_ALL = "SELECT " + COLUMNS + " FROM crops"
+      + " WHERE deleted_at IS NULL UNION ALL SELECT " + COLUMNS + " FROM crops_archive"
+      + " ORDER BY id";
+  private static final String SELECT_ONE = "SELECT " + COLUMNS + " FROM crops"
+      + " WHERE deleted_at IS NULL AND id = ? UNION ALL SELECT " + COLUMNS + " FROM crops_archive"
+      + " WHERE id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final int maxPatches;
+  private final Object patchLock = new Object();
+  private final Set<Long> patchedDuringRebuild = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+  private final ExecutorService rebuilder;
+  private volatile CropSnapshot snapshot = CropSnapshot.of(CropColumns.builder().build());
+  private volatile boolean rebuilding;
+
+  /**
+   * Instantiates a new Crop snapshot service.
+   *
+   * @param jdbcTemplate  the jdbc template
+   * @param maxPatches    the overlay size that triggers a rebuild
+   * @param meterRegistry the meter registry
+   */
+  @Autowired
+  public CropSnapshotService(
+      JdbcTemplate jdbcTemplate,
+      @Value("${agrix.crops.snapshot.max-patches:4096}") int maxPatches,
+      MeterRegistry meterRegistry
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.maxPatches = maxPatches;
+    this.rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "crop-snapshot");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    Gauge.builder("agrix.crops.snapshot.size", this, service -> service.snapshot.base().size())
+        .description("Crops held by the columnar snapshot base")
+        .register(meterRegistry);
+    Gauge.builder("agrix.crops.snapshot.bytes", this, service -> service.snapshot.base().bytes())
+        .description("Approximate heap bytes of the columnar snapshot base")
+        .register(meterRegistry);
+    Gauge.builder("agrix.crops.snapshot.patches", this, service -> service.snapshot.patchCount())
+        .description("Crops patched since the snapshot base was built")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Gets the current snapshot. It never changes; later changes produce new snapshots.
+   *
+   * @return the snapshot
+   */
+  public CropSnapshot snapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Rebuilds the snapshot from the database, then replays the crops changed meanwhile.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(
+      initialDelayString = "${agrix.crops.snapshot.rebuild-millis:600000}",
+      fixedDelayString = "${agrix.crops.snapshot.rebuild-millis:600000}"
+  )
+  public synchronized void rebuild() {
+    long started = System.nanoTime();
+    CropColumns.Builder builder = CropColumns.builder();
+
+    rebuildQueued.set(false);
+    rebuilding = true;
+    try {
+      jdbcTemplate.query(SELECT_ALL, rs -> {
+        builder.add(
+            rs.getLong("id"),
+            rs.getObject("farm_id", Long.class),
+            rs.getObject("planted_area", Double.class),
+            rs.getObject("planted_date", LocalDate.class),
+            rs.getObject("harvest_date", LocalDate.class),
+            rs.getString("name")
+        );
+      });
+
+      CropColumns columns = builder.build();
+
+      synchronized (patchLock) {
+        snapshot = CropSnapshot.of(columns);
+
+        for (Long id : Set.copyOf(patchedDuringRebuild)) {
+          patchedDuringRebuild.remove(id);
+          patch(id);
+        }
+      }
+
+      LOGGER.info("Built crop snapshot of {} crops, ~{} KiB, in {} ms", columns.size(),
+          columns.bytes() / 1024, (System.nanoTime() - started) / 1_000_000);
+    } finally {
+      rebuilding = false;
+    }
+  }
+
+  /**
+   * Patches a committed crop change into the snapshot.
+   *
+   * @param event the change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onEntityChange(EntityChangeEvent event) {
+    if (event.entity() != ChangedEntity.CROP) {
+      return;
+    }
+
+    if (event.id() == null) {
+      queueRebuild();
+      return;
+    }
+
+    synchronized (patchLock) {
+      if (rebuilding) {
+        patchedDuringRebuild.add(event.id());
+      }
+
+      patch(event.id());
+    }
+
+    if (snapshot.patchCount() > maxPatches) {
+      queueRebuild();
+    }
+  }
+
+  /**
+   * Stops the rebuild thread.
+   */
+  @PreDestroy
+  public void shutdown() {
+    rebuilder.shutdownNow();
+  }
+
+  private void patch(Long id) {
+    List<Row> rows = jdbcTemplate.query(SELECT_ONE, (rs, row) -> new Row(
+        rs.getObject("farm_id", Long.class),
+        rs.getObject("planted_area", Double.class),
+        rs.getObject("planted_date", LocalDate.class),
+        rs.getObject("harvest_date", LocalDate.class),
+        rs.getString("name")
+    ), id, id);
+
+    snapshot = snapshot.patch(id, rows.isEmpty() ? null : rows.get(0));
+  }
+
+  private void queueRebuild() {
+    if (rebuildQueued.compareAndSet(false, true)) {
+      rebuilder.execute(this::rebuild);
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package com.betrybe.agrix.service;
+
+import com.betrybe.agrix.controller.dto.CropAggregateDto;
+import com.betrybe.agrix.controller.dto.FarmAggregateDto;
+import com.betrybe.agrix.controller.dto.FertilizerDto;
+import com.betrybe.agrix.entity.Crop;
+import com.betrybe.agrix.entity.Farm;
+import com.betrybe.agrix.repository.CropRepository;
+import com.betrybe.agrix.service.exception.FarmNotFoundException;
+import com.betrybe.agrix.service.exception.InvalidFieldsException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Builds a farm document with its crops and their fertilizers in a bounded number of queries.
+ *
+ * <p>Whatever the farm holds, an expansion costs at most three queries: the farm, one page of
+ * its crops capped at {@code agrix.farms.expand.max-crops}, and one join fetch of the
+ * fertilizers of that page.
+ */
+@Service
+public class FarmAggregateService {
+  private static final String CROPS = "crops";
+  private static final String CROP_FERTILIZERS = "crops.fertilizers";
+  private static final Set<String> EXPANSIONS = Set.of(CROPS, CROP_FERTILIZERS);
+
+  private final FarmService farmService;
+  private final CropRepository cropRepository;
+  private final int maxCrops;
+
+  /**
+   * Instantiates a new Farm aggregate service.
+   *
+   * @param farmService    the farm service
+   * @param cropRepository the crop repository
+   * @param maxCrops       the maximum number of crops nested in a farm
+   */
+  @Autowired
+  public FarmAggregateService(
+      FarmService farmService,
+      CropRepository cropRepository,
+      @Value("${agrix.farms.expand.max-crops:500}") int maxCrops
+  ) {
+    this.farmService = farmService;
+    this.cropRepository = cropRepository;
+    this.maxCrops = maxCrops;
+  }
+
+  /**
+   * Gets a farm with the requested relations expanded.
+   *
+   * @param id     the farm id
+   * @param expand the relations to expand: crops, crops.fertilizers
+   * @return the farm aggregate
+   * @throws FarmNotFoundException  the farm not found exception
+   * @throws InvalidFieldsException if an unknown relation is requested
+   */
+  @Transactional(readOnly = true)
+  public FarmAggregateDto findById(Long id, List<String> expand)
+      throws FarmNotFoundException, InvalidFieldsException {
+    Set<String> expansions = expand.stream()
+        .map(String::trim)
+        .filter(relation -> !relation.isEmpty())
+        .collect(Collectors.toSet());
+    List<String> unknown = expansions.stream()
+        .filter(relation -> !EXPANSIONS.contains(relation))
+        .sorted()
+        .toList();
+
+    if (!unknown.isEmpty()) {
+      throw new InvalidFieldsException(unknown);
+    }
+
+    Farm farm = farmService.findById(id);
+
+    if (expansions.isEmpty()) {
+      return new FarmAggregateDto(farm.getId(), farm.getName(), farm.getSize(), null, null);
+    }
+
+    List<Crop> crops = cropRepository.findByFarm(id, PageRequest.of(0, maxCrops + 1));
+    boolean truncated = crops.size() > maxCrops;
+
+    if (truncated) {
+      crops = crops.subList(0, maxCrops);
+    }
+
+    Map<Long, List<FertilizerDto>> fertilizers = expansions.contains(CROP_FERTILIZERS)
+        ? fertilizersOf(crops)
+        : Map.of();
+
+    List<CropAggregateDto> cropDtos = crops.stream()
+        .map(crop -> new CropAggregateDto(
+            crop.getId(),
+            crop.getName(),
+            crop.getPlantedArea(),
+            crop.getPlantedDate(),
+            crop.getHarvestDate(),
+            expansions.contains(CROP_FERTILIZERS)
+                ? fertilizers.getOrDefault(crop.getId(), List.of())
+                : null
+        ))
+        .toList();
+
+    return new FarmAggregateDto(farm.getId(), farm.getName(), farm.getSize(), cropDtos, truncated);
+  }
+
+  private Map<Long, List<FertilizerDto>> fertilizersOf(List<Crop> crops) {
+    if (crops.isEmpty()) {
+      return Map.of();
+    }
+
+    return cropRepository.findAllWithFertilizersById(crops.stream().map(Crop::getId).toList())
+        .stream()
+        .collect(Collectors.toMap(Crop::getId, crop -> crop.getFertilizers().stream()
+            .map(FertilizerDto::fromEntity)
+            .toList(), (first, second) -> first));
+  }
+}
@@ -0,0 +1,16 @@
+package com.betrybe.agrix.service;
+
+/**
+ * Enum representing what happens to the crops of a deleted farm.
+ */
+public enum FarmDeletionMode {
+  /**
+   * Deletes the crops together with their fertilizer links.
+   */
+  CASCADE,
+
+  /**
+   * Keeps the crops and their fertilizer links, without a farm.
+   */
+  DETACH
+}
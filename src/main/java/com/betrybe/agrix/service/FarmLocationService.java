@@ -0,0 +1,224 @@
+package com.betrybe.agrix.service;
+
+import com.betrybe.agrix.controller.dto.FarmDto;
+import com.betrybe.agrix.controller.dto.NearbyFarmDto;
+import com.betrybe.agrix.entity.Farm;
+import com.betrybe.agrix.entity.GeoPoint;
+import com.betrybe.agrix.repository.FarmRepository;
+import com.betrybe.agrix.service.event.ChangeType;
+import com.betrybe.agrix.service.event.ChangedEntity;
+import com.betrybe.agrix.service.event.EntityChangeEvent;
+import com.betrybe.agrix.service.exception.InvalidLimitException;
+import com.betrybe.agrix.service.exception.InvalidLocationException;
+import com.betrybe.agrix.service.geo.GeoGrid;
+import com.betrybe.agrix.service.geo.GeoGrid.Hit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Finds farms by location through an in-memory {@link GeoGrid}.
+ *
+ * <p>The grid is loaded from the farms table at startup and reloaded periodically, which also
+ * picks up the writes of other instances; between reloads, committed farm changes of this
+ * instance are applied one by one. Only the located farms are indexed, and the matching farms
+ * are then read by id.
+ */
+@Service
+public class FarmLocationService {
+  private static final Logger LOGGER = LoggerFactory.getLogger(FarmLocationService.class);
+  private static final String SELECT_LOCATED = "SELECT id, latitude, longitude FROM farms"
+      + " WHERE deleted_at IS NULL AND latitude IS NOT NULL AND longitude IS NOT NULL";
+  private static final String SELECT_LOCATION = SELECT_LOCATED + " AND id = ?";
+
+  private final FarmRepository farmRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final double cellDegrees;
+  private final int maxResults;
+  private final Set<Long> changedDuringReload = ConcurrentHashMap.newKeySet();
+  private volatile GeoGrid grid;
+  private volatile boolean reloading;
+
+  /**
+   * Instantiates a new Farm location service.
+   *
+   * @param farmRepository the farm repository
+   * @param jdbcTemplate   the jdbc template
+   * @param cellDegrees    the side of a grid cell, in degrees
+   * @param maxResults     the maximum number of farms a search returns
+   * @param meterRegistry  the meter registry
+   */
+  @Autowired
+  public FarmLocationService(
+      FarmRepository farmRepository,
+      JdbcTemplate jdbcTemplate,
+      @Value("${agrix.farms.geo.cell-degrees:0.1}") double cellDegrees,
+      @Value("${agrix.farms.geo.max-results:1000}") int maxResults,
+      MeterRegistry meterRegistry
+  ) {
+    this.farmRepository = farmRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.cellDegrees = cellDegrees;
+    this.maxResults = maxResults;
+    this.grid = new GeoGrid(cellDegrees);
+
+    Gauge.builder("agrix.farms.geo.indexed", this, service -> service.grid.size())
+        .description("Located farms held by the spatial index")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Finds the farms within a distance of a point, nearest first.
+   *
+   * @param latitude  the latitude
+   * @param longitude the longitude
+   * @param radiusKm  the radius, in kilometers
+   * @param limit     the maximum number of farms, capped by the configured maximum
+   * @return the farms and their distances
+   * @throws InvalidLocationException if the point or the radius is out of range
+   * @throws InvalidLimitException    if the limit is not positive
+   */
+  @Transactional(readOnly = true)
+  public List<NearbyFarmDto> findNear(double latitude, double longitude, double radiusKm,
+      int limit) throws InvalidLocationException, InvalidLimitException {
+    if (!new GeoPoint(latitude, longitude).isValid() || !(radiusKm > 0)) {
+      throw new InvalidLocationException();
+    }
+
+    validateLimit(limit);
+
+    List<Hit> hits = grid.near(latitude, longitude, radiusKm, Math.min(limit, maxResults));
+    Map<Long, Farm> farms = load(hits);
+
+    return hits.stream()
+        .filter(hit -> farms.containsKey(hit.id()))
+        .map(hit -> new NearbyFarmDto(FarmDto.fromEntity(farms.get(hit.id())), hit.distanceKm()))
+        .toList();
+  }
+
+  /**
+   * Finds the farms inside a bounding box, by id. A box whose west edge is east of its east
+   * edge crosses the antimeridian.
+   *
+   * @param south the minimum latitude
+   * @param west  the west longitude
+   * @param north the maximum latitude
+   * @param east  the east longitude
+   * @param limit the maximum number of farms, capped by the configured maximum
+   * @return the farms
+   * @throws InvalidLocationException if a corner is out of range
+   * @throws InvalidLimitException    if the limit is not positive
+   */
+  @Transactional(readOnly = true)
+  public List<FarmDto> findWithin(double south, double west, double north, double east,
+      int limit) throws InvalidLocationException, InvalidLimitException {
+    if (!new GeoPoint(south, west).isValid() || !new GeoPoint(north, east).isValid()
+        || south > north) {
+      throw new InvalidLocationException();
+    }
+
+    validateLimit(limit);
+
+    List<Hit> hits = grid.within(south, west, north, east, Math.min(limit, maxResults));
+    Map<Long, Farm> farms = load(hits);
+
+    return hits.stream()
+        .map(hit -> farms.get(hit.id()))
+        .filter(Objects::nonNull)
+        .map(FarmDto::fromEntity)
+        .toList();
+  }
+
+  /**
+   * Reloads the grid from the farms table, then replays the farms changed meanwhile.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(
+      initialDelayString = "${agrix.farms.geo.reload-millis:300000}",
+      fixedDelayString = "${agrix.farms.geo.reload-millis:300000}"
+  )
+  public synchronized void reload() {
+    long started = System.nanoTime();
+    GeoGrid next = new GeoGrid(cellDegrees);
+
+    reloading = true;
+    try {
+      jdbcTemplate.query(SELECT_LOCATED, rs -> {
+        next.put(rs.getLong("id"), rs.getDouble("latitude"), rs.getDouble("longitude"));
+      });
+      grid = next;
+    } finally {
+      reloading = false;
+    }
+
+    for (Long id : Set.copyOf(changedDuringReload)) {
+      changedDuringReload.remove(id);
+      refresh(id);
+    }
+
+    LOGGER.info("Indexed {} located farms in {} ms", next.size(),
+        (System.nanoTime() - started) / 1_000_000);
+  }
+
+  /**
+   * Applies a committed farm change to the grid.
+   *
+   * @param event the change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onEntityChange(EntityChangeEvent event) {
+    if (event.entity() != ChangedEntity.FARM || event.id() == null) {
+      return;
+    }
+
+    if (reloading) {
+      changedDuringReload.add(event.id());
+    }
+
+    if (event.type() == ChangeType.DELETED) {
+      grid.remove(event.id());
+    } else {
+      refresh(event.id());
+    }
+  }
+
+  private void refresh(Long id) {
+    GeoGrid current = grid;
+    List<double[]> location = jdbcTemplate.query(SELECT_LOCATION, (rs, row) ->
+        new double[] {rs.getDouble("latitude"), rs.getDouble("longitude")}, id);
+
+    if (location.isEmpty()) {
+      current.remove(id);
+    } else {
+      current.put(id, location.get(0)[0], location.get(0)[1]);
+    }
+  }
+
+  private static void validateLimit(int limit) throws InvalidLimitException {
+    if (limit < 1) {
+      throw new InvalidLimitException();
+    }
+  }
+
+  private Map<Long, Farm> load(List<Hit> hits) {
+    return farmRepository.findAllById(hits.stream().map(Hit::id).toList()).stream()
+        .collect(Collectors.toMap(Farm::getId, Function.identity()));
+  }
+}
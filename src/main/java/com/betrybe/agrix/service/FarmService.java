@@ -1,28 +1,70 @@
 package com.betrybe.agrix.service;
 
+import com.betrybe.agrix.controller.dto.BatchEntryDto;
+import com.betrybe.agrix.controller.dto.FarmDeletionDto;
+import com.betrybe.agrix.controller.dto.FarmDto;
 import com.betrybe.agrix.entity.Crop;
 import com.betrybe.agrix.entity.Farm;
+import com.betrybe.agrix.entity.GeoPoint;
+import com.betrybe.agrix.repository.CropRepository;
 import com.betrybe.agrix.repository.FarmRepository;
+import com.betrybe.agrix.repository.ProjectionRepository;
+import com.betrybe.agrix.service.event.ChangeType;
+import com.betrybe.agrix.service.event.ChangedEntity;
+import com.betrybe.agrix.service.event.EntityChangeEvent;
 import com.betrybe.agrix.service.exception.FarmNotFoundException;
+import com.betrybe.agrix.service.exception.InvalidFieldsException;
+import com.betrybe.agrix.service.exception.InvalidLocationException;
+import com.betrybe.agrix.service.exception.NotFoundException;
+import com.betrybe.agrix.service.exception.TooManyIdsException;
+import com.betrybe.agrix.service.sync.ChangeSequence;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * The type Farm service.
  */
 @Service
 public class FarmService {
+  private static final Map<String, String> FIELDS = Map.of(
+      "id", "id",
+      "name", "name",
+      "size", "size",
+      "latitude", "latitude",
+      "longitude", "longitude"
+  );
+  private static final int MAX_BOUNDARY_VERTICES = 256;
+  private static final String NOT_FOUND = new FarmNotFoundException().getMessage();
+
   private final FarmRepository farmRepository;
+  private final CropRepository cropRepository;
+  private final ProjectionRepository projectionRepository;
+  private final ChangeSequence changeSequence;
+  private final ApplicationEventPublisher eventPublisher;
 
   /**
    * Instantiates a new Farm service.
    *
-   * @param farmRepository the farm repository
+   * @param farmRepository       the farm repository
+   * @param cropRepository       the crop repository
+   * @param projectionRepository the projection repository
+   * @param changeSequence       the change sequence
+   * @param eventPublisher       the event publisher
    */
   @Autowired
-  public FarmService(FarmRepository farmRepository) {
+  public FarmService(FarmRepository farmRepository, CropRepository cropRepository,
+      ProjectionRepository projectionRepository, ChangeSequence changeSequence,
+      ApplicationEventPublisher eventPublisher) {
     this.farmRepository = farmRepository;
+    this.cropRepository = cropRepository;
+    this.projectionRepository = projectionRepository;
+    this.changeSequence = changeSequence;
+    this.eventPublisher = eventPublisher;
   }
 
   /**
@@ -32,20 +74,48 @@ public class FarmService {
    * @return the farm
    * @throws FarmNotFoundException the farm not found exception
    */
+  @Transactional(readOnly = true)
   public Farm findById(Long id) throws FarmNotFoundException {
     return farmRepository.findById(id)
         .orElseThrow(FarmNotFoundException::new);
   }
 
+  /**
+   * Find farms by id with a single lookup, reporting missing ids inline.
+   *
+   * @param ids the ids
+   * @return one entry per requested id, in request order
+   * @throws TooManyIdsException the too many ids exception
+   */
+  @Transactional(readOnly = true)
+  public List<BatchEntryDto<FarmDto>> findAllById(List<Long> ids) throws TooManyIdsException {
+    return BatchLookup.resolve(
+        ids, farmRepository::findAllById, Farm::getId, FarmDto::fromEntity, NOT_FOUND
+    );
+  }
+
   /**
    * Find all list.
    *
    * @return the list
    */
+  @Transactional(readOnly = true)
   public List<Farm> findAll() {
     return farmRepository.findAll();
   }
 
+  /**
+   * Find all farms, reading only the selected fields.
+   *
+   * @param fields the fields
+   * @return one row per farm
+   * @throws InvalidFieldsException the invalid fields exception
+   */
+  @Transactional(readOnly = true)
+  public List<Map<String, Object>> findAll(List<String> fields) throws InvalidFieldsException {
+    return projectionRepository.findAll(Farm.class, FieldSelection.resolve(FIELDS, fields));
+  }
+
   /**
    * Gets crops.
    *
@@ -53,6 +123,7 @@ public class FarmService {
    * @return the crops
    * @throws FarmNotFoundException the farm not found exception
    */
+  @Transactional(readOnly = true)
   public List<Crop> getCrops(Long id) throws FarmNotFoundException {
     return findById(id).getCrops();
   }
@@ -62,9 +133,17 @@ public class FarmService {
    *
    * @param farm the farm
    * @return the farm
+   * @throws InvalidLocationException if the location or the boundary is out of range
    */
-  public Farm create(Farm farm) {
-    return farmRepository.save(farm);
+  @Transactional
+  public Farm create(Farm farm) throws InvalidLocationException {
+    validateLocation(farm);
+
+    Farm savedFarm = farmRepository.save(farm);
+
+    publish(savedFarm, ChangeType.CREATED);
+
+    return savedFarm;
   }
 
   /**
@@ -73,9 +152,13 @@ public class FarmService {
    * @param id   the id
    * @param farm the farm
    * @return the farm
-   * @throws FarmNotFoundException the farm not found exception
+   * @throws FarmNotFoundException    the farm not found exception
+   * @throws InvalidLocationException if the location or the boundary is out of range
    */
-  public Farm update(Long id, Farm farm) throws FarmNotFoundException {
+  @Transactional(rollbackFor = NotFoundException.class)
+  public Farm update(Long id, Farm farm) throws FarmNotFoundException, InvalidLocationException {
+    validateLocation(farm);
+
     Farm farmFromDb = findById(id);
 
     if (!farm.getName().isEmpty() && !farm.getName().isBlank()) {
@@ -86,21 +169,80 @@ public class FarmService {
       farmFromDb.setSize(farm.getSize());
     }
 
-    return farmRepository.save(farmFromDb);
+    if (farm.getLocation() != null) {
+      farmFromDb.setLocation(farm.getLocation());
+    }
+
+    if (farm.getBoundary() != null) {
+      farmFromDb.setBoundary(farm.getBoundary());
+    }
+
+    Farm savedFarm = farmRepository.save(farmFromDb);
+
+    publish(savedFarm, ChangeType.UPDATED);
+
+    return savedFarm;
   }
 
   /**
-   * Delete by id farm.
+   * Deletes a farm and cascades to, or detaches, its crops with set-based statements.
    *
-   * @param id the id
-   * @return the farm
+   * <p>Crops are never loaded: one statement drops their fertilizer links (cascade only) and
+   * one statement updates them all, stamped with a single change sequence value.
+   *
+   * @param id   the id
+   * @param mode what happens to the farm crops
+   * @return the deletion summary
    * @throws FarmNotFoundException the farm not found exception
    */
-  public Farm deleteById(Long id) throws FarmNotFoundException {
+  @Transactional(rollbackFor = NotFoundException.class)
+  public FarmDeletionDto deleteById(Long id, FarmDeletionMode mode)
+      throws FarmNotFoundException {
     Farm farmToDelete = findById(id);
 
-    farmRepository.deleteById(id);
+    farmToDelete.markDeleted();
+    farmRepository.saveAndFlush(farmToDelete);
+
+    Instant now = Instant.now();
+    long changeSeq = changeSequence.next();
+    int linksRemoved = 0;
+    int cropsAffected;
+
+    if (mode == FarmDeletionMode.CASCADE) {
+      linksRemoved = cropRepository.deleteFertilizerLinksByFarmId(id);
+      cropsAffected = cropRepository.markDeletedByFarmId(id, now, changeSeq);
+    } else {
+      cropsAffected = cropRepository.detachFromFarm(id, now, changeSeq);
+    }
+
+    publish(farmToDelete, ChangeType.DELETED);
+    eventPublisher.publishEvent(new EntityChangeEvent(
+        ChangedEntity.CROP,
+        mode == FarmDeletionMode.CASCADE ? ChangeType.DELETED : ChangeType.UPDATED,
+        null,
+        id,
+        null
+    ));
+
+    return new FarmDeletionDto(id, mode, cropsAffected, linksRemoved);
+  }
+
+  private static void validateLocation(Farm farm) throws InvalidLocationException {
+    List<GeoPoint> boundary = farm.getBoundary();
+
+    if (farm.getLocation() != null && !farm.getLocation().isValid()) {
+      throw new InvalidLocationException();
+    }
+
+    if (boundary != null && (boundary.size() < 3 || boundary.size() > MAX_BOUNDARY_VERTICES
+        || !boundary.stream().allMatch(point -> point != null && point.isValid()))) {
+      throw new InvalidLocationException();
+    }
+  }
 
-    return farmToDelete;
+  private void publish(Farm farm, ChangeType type) {
+    eventPublisher.publishEvent(
+        new EntityChangeEvent(ChangedEntity.FARM, type, farm.getId(), farm.getId(), null)
+    );
   }
 }
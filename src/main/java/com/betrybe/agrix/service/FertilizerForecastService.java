@@ -0,0 +1,324 @@
+package com.betrybe.agrix.service;
+
+import com.betrybe.agrix.controller.dto.FertilizerDemandDto;
+import com.betrybe.agrix.controller.dto.FertilizerForecastDto;
+import com.betrybe.agrix.service.event.ChangedEntity;
+import com.betrybe.agrix.service.event.EntityChangeEvent;
+import com.betrybe.agrix.service.exception.InvalidPeriodException;
+import com.betrybe.agrix.service.forecast.CropDemand;
+import com.betrybe.agrix.service.forecast.DemandMatrix;
+import com.betrybe.agrix.service.forecast.FertilizerSchedule;
+import jakarta.annotation.PreDestroy;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Forecasts the weekly fertilizer demand of the upcoming crops of every farm.
+ *
+ * <p>Each crop planted inside the horizon, or early enough for its schedules to reach into it,
+ * spreads its planted area over the application schedule of each of its fertilizers. The model
+ * keeps those crops and the resulting demand matrix in memory: it is built from the database
+ * with the farms split across a fork/join pool, and each committed change of a crop, or of the
+ * crops of a farm, subtracts the old contribution and adds the new one. The model is rebuilt
+ * periodically, which picks up the writes of other instances, and when the week changes.
+ */
+@Service
+public class FertilizerForecastService {
+  private static final Logger LOGGER = LoggerFactory.getLogger(FertilizerForecastService.class);
+  private static final String SELECT_CROPS = "SELECT c.id, c.farm_id, c.planted_area,"
+      + " c.planted_date, cf.fertilizer_id FROM crops c"
+      + " JOIN crop_fertilizers cf ON cf.crop_id = c.id"
+      + " WHERE c.deleted_at IS NULL AND c.farm_id IS NOT NULL AND c.planted_area IS NOT NULL"
+      + " AND c.planted_date >= ? AND c.planted_date < ?%s ORDER BY c.id, cf.fertilizer_id";
+  private static final String BY_CROP = " AND c.id = ?";
+  private static final String BY_FARM = " AND c.farm_id = ?";
+  private static final String SELECT_NAMES = "SELECT id, name FROM fertilizers"
+      + " WHERE deleted_at IS NULL";
+  private static final String SELECT_NAME = "SELECT id, name FROM fertilizers"
+      + " WHERE deleted_at IS NULL AND id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final int horizonWeeks;
+  private final FertilizerSchedule defaultSchedule;
+  private final Map<Long, FertilizerSchedule> schedules;
+  private final int lastScheduleWeek;
+  private final ForkJoinPool pool;
+  private final Object lock = new Object();
+  private final Set<Long> cropsChangedDuringRebuild = ConcurrentHashMap.newKeySet();
+  private final Set<Long> farmsChangedDuringRebuild = ConcurrentHashMap.newKeySet();
+  private Model model;
+  private volatile boolean rebuilding;
+
+  /**
+   * Instantiates a new Fertilizer forecast service.
+   *
+   * @param jdbcTemplate    the jdbc template
+   * @param horizonWeeks    the number of weeks forecast
+   * @param defaultSchedule the schedule of the fertilizers without one of their own
+   * @param schedules       the per-fertilizer schedules, e.g. {@code 1=0:2;3=0:1,6:1}
+   * @param parallelism     the fork/join parallelism of a rebuild
+   */
+  @Autowired
+  public FertilizerForecastService(
+      JdbcTemplate jdbcTemplate,
+      @Value("${agrix.forecast.horizon-weeks:52}") int horizonWeeks,
+      @Value("${agrix.forecast.default-schedule:0:1}") String defaultSchedule,
+      @Value("${agrix.forecast.schedules:}") String schedules,
+      @Value("${agrix.forecast.parallelism:0}") int parallelism
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.horizonWeeks = horizonWeeks;
+    this.defaultSchedule = FertilizerSchedule.parse(defaultSchedule);
+    this.schedules = FertilizerSchedule.parseAll(schedules);
+    this.lastScheduleWeek = Math.max(this.defaultSchedule.lastWeek(), this.schedules.values()
+        .stream()
+        .mapToInt(FertilizerSchedule::lastWeek)
+        .max()
+        .orElse(0));
+    this.pool = new ForkJoinPool(parallelism > 0
+        ? parallelism
+        : Runtime.getRuntime().availableProcessors());
+    this.model = new Model(currentWeek(), new HashMap<>(),
+        new DemandMatrix(horizonWeeks, this::schedule), new HashMap<>());
+  }
+
+  /**
+   * Gets the forecast fertilizer demand of the coming weeks, the current one first.
+   *
+   * @param weeks the number of weeks
+   * @return the forecast, with every fertilizer that has some demand
+   * @throws InvalidPeriodException if the weeks are not inside the horizon
+   */
+  public FertilizerForecastDto getForecast(int weeks) throws InvalidPeriodException {
+    if (weeks < 1 || weeks > horizonWeeks) {
+      throw new InvalidPeriodException();
+    }
+
+    if (!currentWeek().equals(currentModel().firstWeek())) {
+      rebuild();
+    }
+
+    synchronized (lock) {
+      List<FertilizerDemandDto> fertilizers = new ArrayList<>();
+
+      model.matrix().fertilizerIds().stream().sorted().forEach(fertilizerId -> {
+        double[] weekly = model.matrix().copy(fertilizerId, weeks);
+        double total = Arrays.stream(weekly).sum();
+
+        if (total > 0) {
+          fertilizers.add(new FertilizerDemandDto(fertilizerId, model.names().get(fertilizerId),
+              total, weekly));
+        }
+      });
+
+      return new FertilizerForecastDto(model.firstWeek(), weeks, fertilizers);
+    }
+  }
+
+  /**
+   * Rebuilds the model from the database, then replays the crops changed meanwhile.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(
+      initialDelayString = "${agrix.forecast.rebuild-millis:3600000}",
+      fixedDelayString = "${agrix.forecast.rebuild-millis:3600000}"
+  )
+  public synchronized void rebuild() {
+    long started = System.nanoTime();
+    LocalDate firstWeek = currentWeek();
+
+    rebuilding = true;
+    try {
+      Map<Long, String> names = new HashMap<>();
+      jdbcTemplate.query(SELECT_NAMES, rs -> {
+        names.put(rs.getLong("id"), rs.getString("name"));
+      });
+
+      Map<Long, CropDemand> crops = load(firstWeek, "");
+      Map<Long, List<CropDemand>> byFarm = crops.values().stream()
+          .collect(Collectors.groupingBy(CropDemand::farmId));
+      DemandMatrix matrix = pool.submit(() -> byFarm.values().parallelStream().collect(
+          () -> new DemandMatrix(horizonWeeks, this::schedule),
+          (partial, farmCrops) -> farmCrops.forEach(partial::add),
+          DemandMatrix::addAll
+      )).join();
+
+      synchronized (lock) {
+        model = new Model(firstWeek, crops, matrix, names);
+
+        for (Long farmId : Set.copyOf(farmsChangedDuringRebuild)) {
+          farmsChangedDuringRebuild.remove(farmId);
+          patchFarm(farmId);
+        }
+
+        for (Long cropId : Set.copyOf(cropsChangedDuringRebuild)) {
+          cropsChangedDuringRebuild.remove(cropId);
+          patchCrop(cropId);
+        }
+      }
+
+      LOGGER.info("Built fertilizer forecast of {} crops over {} farms in {} ms", crops.size(),
+          byFarm.size(), (System.nanoTime() - started) / 1_000_000);
+    } finally {
+      rebuilding = false;
+    }
+  }
+
+  /**
+   * Applies a committed crop or fertilizer change to the model.
+   *
+   * @param event the change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onEntityChange(EntityChangeEvent event) {
+    if (event.entity() == ChangedEntity.FERTILIZER && event.id() != null) {
+      synchronized (lock) {
+        loadName(event.id());
+      }
+      return;
+    }
+
+    if (event.entity() != ChangedEntity.CROP) {
+      return;
+    }
+
+    synchronized (lock) {
+      if (event.id() != null) {
+        if (rebuilding) {
+          cropsChangedDuringRebuild.add(event.id());
+        }
+
+        patchCrop(event.id());
+      } else if (event.farmId() != null) {
+        if (rebuilding) {
+          farmsChangedDuringRebuild.add(event.farmId());
+        }
+
+        patchFarm(event.farmId());
+      }
+    }
+  }
+
+  /**
+   * Shuts the fork/join pool down.
+   */
+  @PreDestroy
+  public void shutdown() {
+    pool.shutdownNow();
+  }
+
+  private void patchCrop(Long cropId) {
+    replace(cropId, load(model.firstWeek(), BY_CROP, cropId).get(cropId));
+  }
+
+  private void patchFarm(Long farmId) {
+    Map<Long, CropDemand> loaded = load(model.firstWeek(), BY_FARM, farmId);
+    List<Long> gone = model.crops().entrySet().stream()
+        .filter(entry -> entry.getValue().farmId() == farmId)
+        .map(Map.Entry::getKey)
+        .filter(cropId -> !loaded.containsKey(cropId))
+        .toList();
+
+    gone.forEach(cropId -> replace(cropId, null));
+    loaded.forEach(this::replace);
+  }
+
+  private void replace(Long cropId, CropDemand crop) {
+    CropDemand previous = crop == null
+        ? model.crops().remove(cropId)
+        : model.crops().put(cropId, crop);
+
+    if (previous != null) {
+      model.matrix().subtract(previous);
+    }
+
+    if (crop != null) {
+      model.matrix().add(crop);
+
+      for (long fertilizerId : crop.fertilizerIds()) {
+        if (!model.names().containsKey(fertilizerId)) {
+          loadName(fertilizerId);
+        }
+      }
+    }
+  }
+
+  private void loadName(Long fertilizerId) {
+    jdbcTemplate.query(SELECT_NAME, rs -> {
+      model.names().put(rs.getLong("id"), rs.getString("name"));
+    }, fertilizerId);
+  }
+
+  private Map<Long, CropDemand> load(LocalDate firstWeek, String filter, Object... args) {
+    Object[] params = new Object[args.length + 2];
+    params[0] = firstWeek.minusWeeks(lastScheduleWeek);
+    params[1] = firstWeek.plusWeeks(horizonWeeks);
+    System.arraycopy(args, 0, params, 2, args.length);
+
+    Map<Long, CropDemand> crops = new HashMap<>();
+    jdbcTemplate.query(SELECT_CROPS.formatted(filter), rs -> {
+      long cropId = rs.getLong("id");
+      long fertilizerId = rs.getLong("fertilizer_id");
+      CropDemand crop = crops.get(cropId);
+
+      crops.put(cropId, crop != null
+          ? crop.withFertilizer(fertilizerId)
+          : new CropDemand(
+              rs.getLong("farm_id"),
+              (int) Math.floorDiv(rs.getObject("planted_date", LocalDate.class).toEpochDay()
+                  - firstWeek.toEpochDay(), 7),
+              rs.getDouble("planted_area"),
+              new long[] {fertilizerId}
+          ));
+    }, params);
+
+    return crops;
+  }
+
+  private FertilizerSchedule schedule(long fertilizerId) {
+    return schedules.getOrDefault(fertilizerId, defaultSchedule);
+  }
+
+  private Model currentModel() {
+    synchronized (lock) {
+      return model;
+    }
+  }
+
+  private static LocalDate currentWeek() {
+    return LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+  }
+
+  /**
+   * The crops in the forecast, their demand and the names of their fertilizers, all guarded by
+   * the lock.
+   */
+  private record Model(
+      LocalDate firstWeek,
+      Map<Long, CropDemand> crops,
+      DemandMatrix matrix,
+      Map<Long, String> names
+  ) {
+
+  }
+}
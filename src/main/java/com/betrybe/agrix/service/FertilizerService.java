@@ -1,27 +1,53 @@
 package com.betrybe.agrix.service;
 
+import com.betrybe.agrix.controller.dto.BatchEntryDto;
+import com.betrybe.agrix.controller.dto.FertilizerDto;
 import com.betrybe.agrix.entity.Fertilizer;
 import com.betrybe.agrix.repository.FertilizerRepository;
+import com.betrybe.agrix.repository.ProjectionRepository;
+import com.betrybe.agrix.service.event.ChangeType;
+import com.betrybe.agrix.service.event.ChangedEntity;
+import com.betrybe.agrix.service.event.EntityChangeEvent;
 import com.betrybe.agrix.service.exception.FertilizerNotFoundException;
+import com.betrybe.agrix.service.exception.InvalidFieldsException;
+import com.betrybe.agrix.service.exception.TooManyIdsException;
 import java.util.List;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * The type Fertilizer service.
  */
 @Service
 public class FertilizerService {
+  private static final Map<String, String> FIELDS = Map.of(
+      "id", "id",
+      "name", "name",
+      "brand", "brand",
+      "composition", "composition"
+  );
+  private static final String NOT_FOUND = new FertilizerNotFoundException().getMessage();
+
   private final FertilizerRepository fertilizerRepository;
+  private final ProjectionRepository projectionRepository;
+  private final ApplicationEventPublisher eventPublisher;
 
   /**
    * Instantiates a new Fertilizer service.
    *
    * @param fertilizerRepository the fertilizer repository
+   * @param projectionRepository the projection repository
+   * @param eventPublisher       the event publisher
    */
   @Autowired
-  public FertilizerService(FertilizerRepository fertilizerRepository) {
+  public FertilizerService(FertilizerRepository fertilizerRepository,
+      ProjectionRepository projectionRepository, ApplicationEventPublisher eventPublisher) {
     this.fertilizerRepository = fertilizerRepository;
+    this.projectionRepository = projectionRepository;
+    this.eventPublisher = eventPublisher;
   }
 
   /**
@@ -29,10 +55,24 @@ public class FertilizerService {
    *
    * @return the all fertilizers
    */
+  @Transactional(readOnly = true)
   public List<Fertilizer> getAllFertilizers() {
     return fertilizerRepository.findAll();
   }
 
+  /**
+   * Gets all fertilizers, reading only the selected fields.
+   *
+   * @param fields the fields
+   * @return one row per fertilizer
+   * @throws InvalidFieldsException the invalid fields exception
+   */
+  @Transactional(readOnly = true)
+  public List<Map<String, Object>> getAllFertilizers(List<String> fields)
+      throws InvalidFieldsException {
+    return projectionRepository.findAll(Fertilizer.class, FieldSelection.resolve(FIELDS, fields));
+  }
+
   /**
    * Gets fertilizer by id.
    *
@@ -40,18 +80,40 @@ public class FertilizerService {
    * @return the fertilizer by id
    * @throws FertilizerNotFoundException the fertilizer not found exception
    */
+  @Transactional(readOnly = true)
   public Fertilizer getFertilizerById(Long id) throws FertilizerNotFoundException {
     return fertilizerRepository.findById(id)
         .orElseThrow(FertilizerNotFoundException::new);
   }
 
+  /**
+   * Gets fertilizers by id with a single lookup, reporting missing ids inline.
+   *
+   * @param ids the ids
+   * @return one entry per requested id, in request order
+   * @throws TooManyIdsException the too many ids exception
+   */
+  @Transactional(readOnly = true)
+  public List<BatchEntryDto<FertilizerDto>> getFertilizersById(List<Long> ids)
+      throws TooManyIdsException {
+    return BatchLookup.resolve(ids, fertilizerRepository::findAllById, Fertilizer::getId,
+        FertilizerDto::fromEntity, NOT_FOUND);
+  }
+
   /**
    * Create fertilizer fertilizer.
    *
    * @param fertilizerToSave the fertilizer to save
    * @return the fertilizer
    */
+  @Transactional
   public Fertilizer createFertilizer(Fertilizer fertilizerToSave) {
-    return fertilizerRepository.save(fertilizerToSave);
+    Fertilizer fertilizer = fertilizerRepository.save(fertilizerToSave);
+
+    eventPublisher.publishEvent(new EntityChangeEvent(
+        ChangedEntity.FERTILIZER, ChangeType.CREATED, fertilizer.getId(), null, null
+    ));
+
+    return fertilizer;
   }
 }
@@ -0,0 +1,111 @@
+package com.betrybe.agrix.service;
+
+import com.betrybe.agrix.controller.dto.FertilizerUsageDto;
+import com.betrybe.agrix.repository.FertilizerUsageRepository;
+import com.betrybe.agrix.service.event.EntityChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Reports fertilizer usage, caching one report per window.
+ *
+ * <p>Every committed change bumps a generation counter that drops every cached
+ * report; a report computed while the generation moved is not kept. Changes made by other
+ * instances, and crops moved to the archive, are picked up when an entry reaches its ttl.
+ */
+@Service
+public class FertilizerUsageService {
+  private final FertilizerUsageRepository fertilizerUsageRepository;
+  private final long ttlNanos;
+  private final int maxWindows;
+  private final Map<Window, Report> reports = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+  private final Counter hits;
+  private final Counter misses;
+
+  /**
+   * Instantiates a new Fertilizer usage service.
+   *
+   * @param fertilizerUsageRepository the fertilizer usage repository
+   * @param ttl                       how long a report is served from the cache
+   * @param maxWindows                the number of windows kept
+   * @param meterRegistry             the meter registry
+   */
+  @Autowired
+  public FertilizerUsageService(
+      FertilizerUsageRepository fertilizerUsageRepository,
+      @Value("${agrix.fertilizers.usage.cache-ttl:5m}") Duration ttl,
+      @Value("${agrix.fertilizers.usage.max-windows:256}") int maxWindows,
+      MeterRegistry meterRegistry
+  ) {
+    this.fertilizerUsageRepository = fertilizerUsageRepository;
+    this.ttlNanos = ttl.toNanos();
+    this.maxWindows = maxWindows;
+    this.hits = meterRegistry.counter("agrix.fertilizers.usage.requests", "result", "hit");
+    this.misses = meterRegistry.counter("agrix.fertilizers.usage.requests", "result", "miss");
+  }
+
+  /**
+   * Gets the usage of every fertilizer by the crops planted inside a window.
+   *
+   * @param from   the first planted date, or null for no lower bound
+   * @param to     the last planted date, or null for no upper bound
+   * @param farmId only count the crops of this farm, or null for every farm
+   * @return one row per fertilizer in use, ordered by id
+   */
+  @Transactional(readOnly = true)
+  public List<FertilizerUsageDto> getUsage(LocalDate from, LocalDate to, Long farmId) {
+    Window window = new Window(from, to, farmId);
+    Report cached = reports.get(window);
+    long now = System.nanoTime();
+
+    if (cached != null && now - cached.computedAt() < ttlNanos) {
+      hits.increment();
+      return cached.usage();
+    }
+
+    misses.increment();
+
+    long started = generation.get();
+    List<FertilizerUsageDto> usage = fertilizerUsageRepository.findUsage(from, to, farmId);
+
+    if (reports.size() >= maxWindows) {
+      reports.clear();
+    }
+
+    Report report = new Report(usage, now);
+    reports.put(window, report);
+
+    if (generation.get() != started) {
+      reports.remove(window, report);
+    }
+
+    return usage;
+  }
+
+  /**
+   * Drops the cached reports once a change is committed.
+   *
+   * @param event the change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onEntityChange(EntityChangeEvent event) {
+    generation.incrementAndGet();
+    reports.clear();
+  }
+
+  private record Window(LocalDate from, LocalDate to, Long farmId) {}
+
+  private record Report(List<FertilizerUsageDto> usage, long computedAt) {}
+}
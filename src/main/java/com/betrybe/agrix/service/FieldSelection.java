@@ -0,0 +1,49 @@
+package com.betrybe.agrix.service;
+
+import com.betrybe.agrix.service.exception.InvalidFieldsException;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves a {@code ?fields=} selection against the fields an entity exposes.
+ */
+public final class FieldSelection {
+
+  private FieldSelection() {
+  }
+
+  /**
+   * Maps the requested fields to their attribute paths, keeping request order.
+   *
+   * @param exposed the exposed fields and their attribute paths
+   * @param fields  the requested fields
+   * @return the attribute path of each requested field
+   * @throws InvalidFieldsException if no field or an unknown field is requested
+   */
+  public static Map<String, String> resolve(Map<String, String> exposed, List<String> fields)
+      throws InvalidFieldsException {
+    Set<String> requested = new LinkedHashSet<>();
+
+    for (String field : fields) {
+      if (!field.isBlank()) {
+        requested.add(field.trim());
+      }
+    }
+
+    List<String> unknown = requested.stream()
+        .filter(field -> !exposed.containsKey(field))
+        .toList();
+
+    if (requested.isEmpty() || !unknown.isEmpty()) {
+      throw new InvalidFieldsException(unknown);
+    }
+
+    Map<String, String> paths = new LinkedHashMap<>();
+    requested.forEach(field -> paths.put(field, exposed.get(field)));
+
+    return paths;
+  }
+}
@@ -0,0 +1,214 @@
+package com.betrybe.agrix.service;
+
+import com.betrybe.agrix.controller.dto.OccupancyDto;
+import com.betrybe.agrix.entity.Farm;
+import com.betrybe.agrix.service.exception.FarmNotFoundException;
+import com.betrybe.agrix.service.exception.InvalidPeriodException;
+import com.betrybe.agrix.service.occupancy.OccupancySweep;
+import com.betrybe.agrix.service.snapshot.CropColumns;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Computes how much of each farm is occupied by crops, day by day.
+ *
+ * <p>The timeline of one farm reads the crops overlapping the window, archived ones included,
+ * in one query without loading entities. The fleet-wide report scans the columnar crop snapshot
+ * instead, then splits the farms across a fork/join pool.
+ */
+@Service
+public class OccupancyService {
+  private static final String CROPS = "SELECT farm_id, planted_date, harvest_date, planted_area"
+      + " FROM crops WHERE deleted_at IS NULL AND farm_id IS NOT NULL%1$s"
+      + " AND planted_date <= :to AND (harvest_date IS NULL OR harvest_date > :from)"
+      + " UNION ALL SELECT farm_id, planted_date, harvest_date, planted_area"
+      + " FROM crops_archive WHERE farm_id IS NOT NULL%1$s"
+      + " AND planted_date <= :to AND harvest_date > :from";
+  private static final String FARM_FILTER = " AND farm_id = :farmId";
+  private static final String FARMS = "SELECT id, size FROM farms WHERE deleted_at IS NULL"
+      + " ORDER BY id";
+  private static final int FARMS_PER_TASK = 64;
+
+  private final FarmService farmService;
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  private final CropSnapshotService cropSnapshotService;
+  private final long maxDays;
+  private final ForkJoinPool pool;
+
+  /**
+   * Instantiates a new Occupancy service.
+   *
+   * @param farmService         the farm service
+   * @param jdbcTemplate        the jdbc template
+   * @param cropSnapshotService the crop snapshot service
+   * @param maxDays             the longest window accepted, in days
+   * @param parallelism         the fork/join parallelism of the fleet-wide report
+   */
+  @Autowired
+  public OccupancyService(
+      FarmService farmService,
+      NamedParameterJdbcTemplate jdbcTemplate,
+      CropSnapshotService cropSnapshotService,
+      @Value("${agrix.farms.occupancy.max-days:1096}") long maxDays,
+      @Value("${agrix.farms.occupancy.parallelism:0}") int parallelism
+  ) {
+    this.farmService = farmService;
+    this.jdbcTemplate = jdbcTemplate;
+    this.cropSnapshotService = cropSnapshotService;
+    this.maxDays = maxDays;
+    this.pool = new ForkJoinPool(parallelism > 0
+        ? parallelism
+        : Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Computes the occupancy timeline of a farm.
+   *
+   * @param farmId the farm id
+   * @param from   the first day
+   * @param to     the last day, inclusive
+   * @return the timeline
+   * @throws FarmNotFoundException  the farm not found exception
+   * @throws InvalidPeriodException if the window is empty or too long
+   */
+  @Transactional(readOnly = true)
+  public OccupancyDto getOccupancy(Long farmId, LocalDate from, LocalDate to)
+      throws FarmNotFoundException, InvalidPeriodException {
+    validate(from, to);
+
+    Farm farm = farmService.findById(farmId);
+    OccupancySweep sweep = new OccupancySweep(from, to);
+
+    jdbcTemplate.query(CROPS.formatted(FARM_FILTER), window(from, to).addValue("farmId", farmId),
+        rs -> {
+          sweep.add(
+              rs.getObject("planted_date", LocalDate.class),
+              rs.getObject("harvest_date", LocalDate.class),
+              rs.getObject("planted_area", Double.class)
+          );
+        });
+
+    return new OccupancyDto(farm.getId(), farm.getSize(), sweep.sweep(farm.getSize()));
+  }
+
+  /**
+   * Computes the occupancy timeline of every farm, sweeping the farms in parallel.
+   *
+   * @param from the first day
+   * @param to   the last day, inclusive
+   * @return the timelines, by farm id
+   * @throws InvalidPeriodException if the window is empty or too long
+   */
+  @Transactional(readOnly = true)
+  public List<OccupancyDto> getFleetOccupancy(LocalDate from, LocalDate to)
+      throws InvalidPeriodException {
+    validate(from, to);
+
+    List<Long> farmIds = new ArrayList<>();
+    List<Double> sizes = new ArrayList<>();
+    Map<Long, OccupancySweep> sweeps = new HashMap<>();
+
+    jdbcTemplate.query(FARMS, rs -> {
+      farmIds.add(rs.getLong("id"));
+      sizes.add(rs.getObject("size", Double.class));
+    });
+
+    int first = CropColumns.epochDay(from);
+    int last = CropColumns.epochDay(to);
+
+    cropSnapshotService.snapshot().forEach((id, farmId, area, plantedDay, harvestDay, name) -> {
+      if (farmId != CropColumns.NO_FARM && plantedDay != CropColumns.NO_DATE
+          && plantedDay <= last && (harvestDay == CropColumns.NO_DATE || harvestDay > first)) {
+        sweeps.computeIfAbsent(farmId, key -> new OccupancySweep(from, to))
+            .add(plantedDay, harvestDay, area);
+      }
+    });
+
+    OccupancyDto[] timelines = new OccupancyDto[farmIds.size()];
+    pool.invoke(new SweepTask(farmIds, sizes, sweeps, timelines, from, to, 0, farmIds.size()));
+
+    return Arrays.asList(timelines);
+  }
+
+  /**
+   * Shuts the fork/join pool down.
+   */
+  @PreDestroy
+  public void shutdown() {
+    pool.shutdownNow();
+  }
+
+  private void validate(LocalDate from, LocalDate to) throws InvalidPeriodException {
+    if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= maxDays) {
+      throw new InvalidPeriodException();
+    }
+  }
+
+  private static MapSqlParameterSource window(LocalDate from, LocalDate to) {
+    return new MapSqlParameterSource()
+        .addValue("from", from)
+        .addValue("to", to);
+  }
+
+  /**
+   * Sweeps a range of farms into its slots of the result, splitting it in halves until it is
+   * small enough.
+   */
+  private static final class SweepTask extends RecursiveAction {
+    private final List<Long> farmIds;
+    private final List<Double> sizes;
+    private final Map<Long, OccupancySweep> sweeps;
+    private final OccupancyDto[] timelines;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final int start;
+    private final int end;
+
+    SweepTask(List<Long> farmIds, List<Double> sizes, Map<Long, OccupancySweep> sweeps,
+        OccupancyDto[] timelines, LocalDate from, LocalDate to, int start, int end) {
+      this.farmIds = farmIds;
+      this.sizes = sizes;
+      this.sweeps = sweeps;
+      this.timelines = timelines;
+      this.from = from;
+      this.to = to;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start <= FARMS_PER_TASK) {
+        for (int i = start; i < end; i++) {
+          Long farmId = farmIds.get(i);
+          OccupancySweep sweep = sweeps.getOrDefault(farmId, new OccupancySweep(from, to));
+
+          timelines[i] = new OccupancyDto(farmId, sizes.get(i), sweep.sweep(sizes.get(i)));
+        }
+
+        return;
+      }
+
+      int middle = (start + end) >>> 1;
+
+      invokeAll(
+          new SweepTask(farmIds, sizes, sweeps, timelines, from, to, start, middle),
+          new SweepTask(farmIds, sizes, sweeps, timelines, from, to, middle, end)
+      );
+    }
+  }
+}
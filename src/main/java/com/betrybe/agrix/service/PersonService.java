@@ -1,5 +1,6 @@
 package com.betrybe.agrix.service;
 
+import com.betrybe.agrix.config.PrimaryReads;
 import com.betrybe.agrix.entity.Person;
 import com.betrybe.agrix.repository.PersonRepository;
 import com.betrybe.agrix.service.exception.PersonNotFoundException;
@@ -10,6 +11,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service layer class for handling persons business logic.
@@ -18,16 +20,24 @@ import org.springframework.stereotype.Service;
 public class PersonService implements UserDetailsService {
 
   private final PersonRepository personRepository;
+  private final TokenRevocationService tokenRevocationService;
+  private final RefreshTokenService refreshTokenService;
 
   /**
    * Instantiates a new Person service.
    *
-   * @param personRepository the person repository
+   * @param personRepository       the person repository
+   * @param tokenRevocationService the token revocation service
+   * @param refreshTokenService    the refresh token service
    */
   @Autowired
   public PersonService(
-      PersonRepository personRepository) {
+      PersonRepository personRepository,
+      TokenRevocationService tokenRevocationService,
+      RefreshTokenService refreshTokenService) {
     this.personRepository = personRepository;
+    this.tokenRevocationService = tokenRevocationService;
+    this.refreshTokenService = refreshTokenService;
   }
 
   /**
@@ -36,6 +46,7 @@ public class PersonService implements UserDetailsService {
    * @param id the id
    * @return the person by id
    */
+  @Transactional(readOnly = true)
   public Person getPersonById(Long id) {
     Optional<Person> person = personRepository.findById(id);
 
@@ -52,6 +63,7 @@ public class PersonService implements UserDetailsService {
    * @param username the username
    * @return the person by username
    */
+  @Transactional(readOnly = true)
   public Person getPersonByUsername(String username) {
     Optional<Person> person = personRepository.findByUsername(username);
 
@@ -68,6 +80,7 @@ public class PersonService implements UserDetailsService {
    * @param person the person
    * @return the person
    */
+  @Transactional
   public Person create(Person person) {
     String hashedPassword = new BCryptPasswordEncoder()
         .encode(person.getPassword());
@@ -77,9 +90,35 @@ public class PersonService implements UserDetailsService {
     return personRepository.save(person);
   }
 
+  /**
+   * Changes the password of a person and revokes every access and refresh token issued
+   * to them until now.
+   *
+   * @param username the username
+   * @param password the new password
+   */
+  @Transactional
+  public void changePassword(String username, String password) {
+    Person person = getPersonByUsername(username);
+
+    person.setPassword(new BCryptPasswordEncoder().encode(password));
+    personRepository.save(person);
+    tokenRevocationService.revokePerson(username);
+    refreshTokenService.revokeAll(username);
+  }
+
+  /**
+   * Loads the person authenticating, from the primary: a person who just signed up must be able
+   * to log in, and a changed password must take effect at once.
+   *
+   * @param username the username
+   * @return the person
+   * @throws UsernameNotFoundException if no person has the username
+   */
   @Override
+  @Transactional(readOnly = true)
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-    return  personRepository.findByUsername(username)
+    return PrimaryReads.call(() -> personRepository.findByUsername(username))
         .orElseThrow(() -> new UsernameNotFoundException(username));
   }
 }
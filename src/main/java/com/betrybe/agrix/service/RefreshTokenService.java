@@ -0,0 +1,158 @@
+package com.betrybe.agrix.service;
+
+import com.betrybe.agrix.entity.RefreshToken;
+import com.betrybe.agrix.repository.RefreshTokenRepository;
+import com.betrybe.agrix.service.exception.InvalidRefreshTokenException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Issues and rotates opaque refresh tokens.
+ *
+ * <p>Refreshing mints a new access token without checking the password again, so the BCrypt
+ * cost is paid once per login. The values are 256-bit random strings: only their SHA-256 hash is
+ * stored, which is enough for values that cannot be guessed and costs nothing to check.
+ */
+@Service
+public class RefreshTokenService {
+  private static final Logger LOGGER = LoggerFactory.getLogger(RefreshTokenService.class);
+  private static final int TOKEN_BYTES = 32;
+
+  private final RefreshTokenRepository refreshTokenRepository;
+  private final Duration ttl;
+  private final SecureRandom random = new SecureRandom();
+
+  /**
+   * Instantiates a new Refresh token service.
+   *
+   * @param refreshTokenRepository the refresh token repository
+   * @param ttl                    how long a refresh token stays valid
+   */
+  @Autowired
+  public RefreshTokenService(
+      RefreshTokenRepository refreshTokenRepository,
+      @Value("${api.security.refresh-token.ttl:14d}") Duration ttl
+  ) {
+    this.refreshTokenRepository = refreshTokenRepository;
+    this.ttl = ttl;
+  }
+
+  /**
+   * Issues the first refresh token of a login.
+   *
+   * @param username the username
+   * @return the token value
+   */
+  @Transactional
+  public String issue(String username) {
+    return issue(username, UUID.randomUUID().toString());
+  }
+
+  /**
+   * Uses a refresh token up and issues the next one of its family. Presenting a token that was
+   * already used revokes the whole family.
+   *
+   * @param value the token value
+   * @return the username and the next token value
+   * @throws InvalidRefreshTokenException if the token is unknown, expired, revoked or reused
+   */
+  @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+  public Rotation rotate(String value) throws InvalidRefreshTokenException {
+    Optional<RefreshToken> stored = Optional.ofNullable(value)
+        .flatMap(token -> refreshTokenRepository.findByTokenHash(hash(token)));
+    Instant now = Instant.now();
+
+    if (stored.isEmpty() || stored.get().getRevokedAt() != null
+        || !stored.get().getExpiresAt().isAfter(now)) {
+      throw new InvalidRefreshTokenException();
+    }
+
+    RefreshToken refreshToken = stored.get();
+
+    if (refreshTokenRepository.markUsed(refreshToken.getId(), now) == 0) {
+      refreshTokenRepository.revokeFamily(refreshToken.getFamilyId(), now);
+      LOGGER.warn("Refresh token reused, revoked family {} of {}",
+          refreshToken.getFamilyId(), refreshToken.getUsername());
+      throw new InvalidRefreshTokenException();
+    }
+
+    String username = refreshToken.getUsername();
+
+    return new Rotation(username, issue(username, refreshToken.getFamilyId()));
+  }
+
+  /**
+   * Revokes the family of a refresh token, e.g. on logout. Unknown values are ignored.
+   *
+   * @param value the token value
+   */
+  @Transactional
+  public void revoke(String value) {
+    refreshTokenRepository.findByTokenHash(hash(value))
+        .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(),
+            Instant.now()));
+  }
+
+  /**
+   * Revokes every refresh token of a person.
+   *
+   * @param username the username
+   */
+  @Transactional
+  public void revokeAll(String username) {
+    refreshTokenRepository.revokeByUsername(username, Instant.now());
+  }
+
+  /**
+   * Deletes the expired tokens.
+   */
+  @Scheduled(cron = "${api.security.refresh-token.purge-cron:0 15 * * * *}")
+  public void purgeExpired() {
+    refreshTokenRepository.deleteExpired(Instant.now());
+  }
+
+  private String issue(String username, String familyId) {
+    byte[] bytes = new byte[TOKEN_BYTES];
+    random.nextBytes(bytes);
+
+    String value = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+    refreshTokenRepository.save(new RefreshToken(
+        hash(value), familyId, username, Instant.now().plus(ttl)
+    ));
+
+    return value;
+  }
+
+  private static String hash(String value) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+          .digest(value.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * The outcome of a refresh.
+   *
+   * @param username     the username
+   * @param refreshToken the next refresh token value
+   */
+  public record Rotation(String username, String refreshToken) {}
+}
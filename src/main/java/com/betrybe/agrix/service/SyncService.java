@@ -0,0 +1,159 @@
+package com.betrybe.agrix.service;
+
+import com.betrybe.agrix.config.PrimaryReads;
+import com.betrybe.agrix.controller.dto.CropDto;
+import com.betrybe.agrix.controller.dto.FarmDto;
+import com.betrybe.agrix.controller.dto.FertilizerDto;
+import com.betrybe.agrix.controller.dto.SyncChangeDto;
+import com.betrybe.agrix.controller.dto.SyncPageDto;
+import com.betrybe.agrix.entity.GeoPolygonConverter;
+import com.betrybe.agrix.service.event.ChangedEntity;
+import com.betrybe.agrix.service.sync.ChangeSequence;
+import com.betrybe.agrix.service.sync.SyncCursor;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Serves the delta sync feed: rows changed after a cursor, tombstones included.
+ *
+ * <p>Each table is read through its change sequence index, so the cost of a call depends on
+ * how much changed since the cursor and not on how many rows the farm holds. Pages are read
+ * from the primary: a lagging replica would hand out cursors past rows it has not received yet.
+ * For the same reason they stop at the change sequence watermark, below the writes that may
+ * still commit.
+ */
+@Service
+public class SyncService {
+  private static final String CHANGE_WINDOW =
+      " WHERE (change_seq > :seq OR (change_seq = :seq AND id > :idBound))"
+          + " AND change_seq <= :watermark";
+  private static final String PAGE = " ORDER BY change_seq, id LIMIT :limit";
+  private static final GeoPolygonConverter BOUNDARY = new GeoPolygonConverter();
+
+  private static final Map<ChangedEntity, String> QUERIES = Map.of(
+      ChangedEntity.CROP,
+      "SELECT id, name, planted_area, farm_id, planted_date, harvest_date, deleted_at,"
+          + " change_seq FROM crops" + CHANGE_WINDOW,
+      ChangedEntity.FARM,
+      "SELECT id, name, size, latitude, longitude, boundary, deleted_at, change_seq FROM farms"
+          + CHANGE_WINDOW,
+      ChangedEntity.FERTILIZER,
+      "SELECT id, name, brand, composition, deleted_at, change_seq FROM fertilizers"
+          + CHANGE_WINDOW
+  );
+
+  private static final Map<ChangedEntity, String> FARM_FILTERS = Map.of(
+      ChangedEntity.CROP, " AND (farm_id = :farmId OR previous_farm_id = :farmId)",
+      ChangedEntity.FARM, " AND id = :farmId",
+      ChangedEntity.FERTILIZER, ""
+  );
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  private final ChangeSequence changeSequence;
+
+  /**
+   * Instantiates a new Sync service.
+   *
+   * @param jdbcTemplate   the jdbc template
+   * @param changeSequence the change sequence
+   */
+  @Autowired
+  public SyncService(NamedParameterJdbcTemplate jdbcTemplate, ChangeSequence changeSequence) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.changeSequence = changeSequence;
+  }
+
+  /**
+   * Gets the changes after a cursor.
+   *
+   * @param since  the cursor returned by the previous call
+   * @param farmId only include crops of this farm and the farm itself, if set; crops that left
+   *               the farm come as tombstones
+   * @param limit  the maximum number of changes
+   * @return the sync page
+   */
+  @Transactional(readOnly = true)
+  public SyncPageDto getChanges(SyncCursor since, Long farmId, int limit) {
+    List<Change> changes = PrimaryReads.call(() -> readChanges(since, farmId, limit));
+
+    changes.sort(Comparator.comparing(Change::cursor));
+
+    boolean hasMore = changes.size() > limit;
+    List<SyncChangeDto> page = changes.stream()
+        .limit(limit)
+        .map(Change::dto)
+        .toList();
+    String nextCursor = page.isEmpty() ? since.toString() : page.get(page.size() - 1).cursor();
+
+    return new SyncPageDto(page, nextCursor, hasMore);
+  }
+
+  private List<Change> readChanges(SyncCursor since, Long farmId, int limit) {
+    List<Change> changes = new ArrayList<>();
+    long watermark = changeSequence.watermark();
+
+    for (ChangedEntity entity : ChangedEntity.values()) {
+      MapSqlParameterSource params = new MapSqlParameterSource()
+          .addValue("seq", since.seq())
+          .addValue("idBound", since.idBoundFor(entity.ordinal()))
+          .addValue("watermark", watermark)
+          .addValue("farmId", farmId)
+          .addValue("limit", limit + 1);
+      String sql = QUERIES.get(entity) + (farmId == null ? "" : FARM_FILTERS.get(entity)) + PAGE;
+
+      changes.addAll(jdbcTemplate.query(sql, params, (rs, rowNum) -> toChange(entity, farmId, rs)));
+    }
+
+    return changes;
+  }
+
+  private Change toChange(ChangedEntity entity, Long farmId, ResultSet rs)
+      throws SQLException {
+    long id = rs.getLong("id");
+    SyncCursor cursor = new SyncCursor(rs.getLong("change_seq"), entity.ordinal(), id);
+    // A crop read through previous_farm_id has left the farm: for its clients it is gone.
+    boolean deleted = rs.getTimestamp("deleted_at") != null
+        || entity == ChangedEntity.CROP && farmId != null
+        && !farmId.equals(rs.getObject("farm_id", Long.class));
+    Object data = deleted ? null : switch (entity) {
+      case CROP -> new CropDto(
+          id,
+          rs.getString("name"),
+          rs.getObject("planted_area", Double.class),
+          rs.getObject("farm_id", Long.class),
+          rs.getObject("planted_date", LocalDate.class),
+          rs.getObject("harvest_date", LocalDate.class)
+      );
+      case FARM -> new FarmDto(
+          id,
+          rs.getString("name"),
+          rs.getObject("size", Double.class),
+          rs.getObject("latitude", Double.class),
+          rs.getObject("longitude", Double.class),
+          BOUNDARY.convertToEntityAttribute(rs.getString("boundary"))
+      );
+      case FERTILIZER -> new FertilizerDto(
+          id, rs.getString("name"), rs.getString("brand"), rs.getString("composition")
+      );
+    };
+
+    return new Change(
+        cursor,
+        new SyncChangeDto(entity.name(), deleted, id, cursor.toString(), data)
+    );
+  }
+
+  private record Change(SyncCursor cursor, SyncChangeDto dto) {
+
+  }
+}
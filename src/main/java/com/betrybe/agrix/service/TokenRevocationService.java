@@ -0,0 +1,198 @@
+package com.betrybe.agrix.service;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.betrybe.agrix.config.PrimaryReads;
+import com.betrybe.agrix.entity.TokenRevocation;
+import com.betrybe.agrix.entity.TokenRevocation.Kind;
+import com.betrybe.agrix.repository.TokenRevocationRepository;
+import com.betrybe.agrix.security.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Revokes access tokens and tells whether a token was revoked.
+ *
+ * <p>The {@code token_revocations} table is the source of truth. In front of it sits a Bloom
+ * filter holding every revocation in effect, rebuilt periodically, so the common case of a token
+ * that was never revoked costs a few hash probes and no query; only a probable hit reads the
+ * table. Revocations made by this instance are added to the filter at once, those made by other
+ * instances show up at the next rebuild. The table is always read from the primary: a lagging
+ * replica would still accept a token right after its logout.
+ */
+@Service
+public class TokenRevocationService {
+  private static final String TOKEN_KEY = "token:";
+  private static final String PERSON_KEY = "person:";
+
+  private final TokenRevocationRepository tokenRevocationRepository;
+  private final TokenService tokenService;
+  private final long expectedRevocations;
+  private final double falsePositiveRate;
+  private final Map<String, Instant> recentKeys = new ConcurrentHashMap<>();
+  private final Counter negatives;
+  private final Counter falsePositives;
+  private final Counter revoked;
+  private volatile BloomFilter filter;
+  private volatile Instant lastRebuild = Instant.EPOCH;
+
+  /**
+   * Instantiates a new Token revocation service.
+   *
+   * @param tokenRevocationRepository the token revocation repository
+   * @param tokenService              the token service
+   * @param expectedRevocations       the number of revocations the filter is sized for
+   * @param falsePositiveRate         the false positive rate the filter is sized for
+   * @param meterRegistry             the meter registry
+   */
+  @Autowired
+  public TokenRevocationService(
+      TokenRevocationRepository tokenRevocationRepository,
+      TokenService tokenService,
+      @Value("${agrix.revocation.expected-revocations:10000}") long expectedRevocations,
+      @Value("${agrix.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+      MeterRegistry meterRegistry
+  ) {
+    this.tokenRevocationRepository = tokenRevocationRepository;
+    this.tokenService = tokenService;
+    this.expectedRevocations = expectedRevocations;
+    this.falsePositiveRate = falsePositiveRate;
+    this.negatives = meterRegistry.counter("agrix.revocation.checks", "result", "negative");
+    this.falsePositives = meterRegistry.counter(
+        "agrix.revocation.checks", "result", "false-positive"
+    );
+    this.revoked = meterRegistry.counter("agrix.revocation.checks", "result", "revoked");
+  }
+
+  /**
+   * Revokes a single token, e.g. on logout.
+   *
+   * @param token the token
+   */
+  @Transactional
+  public void revokeToken(DecodedJWT token) {
+    if (token.getId() == null) {
+      return;
+    }
+
+    tokenRevocationRepository.save(new TokenRevocation(
+        Kind.TOKEN, token.getId(), null, token.getExpiresAtAsInstant()
+    ));
+    remember(TOKEN_KEY + token.getId());
+  }
+
+  /**
+   * Revokes every token of a person issued until now, e.g. on password change.
+   *
+   * @param username the username
+   */
+  @Transactional
+  public void revokePerson(String username) {
+    Instant now = Instant.now();
+    // Tokens carry their issue time in whole seconds: a token issued later in the current
+    // second cannot be told apart, so it is revoked as well.
+    Instant revokedBefore = now.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+
+    tokenRevocationRepository.save(new TokenRevocation(
+        Kind.PERSON, username, revokedBefore, revokedBefore.plus(tokenService.getTtl())
+    ));
+    remember(PERSON_KEY + username);
+  }
+
+  /**
+   * Checks whether a verified token was revoked.
+   *
+   * @param token the token
+   * @return whether it was revoked
+   */
+  public boolean isRevoked(DecodedJWT token) {
+    BloomFilter current = filter();
+    boolean tokenHit = token.getId() != null && current.mightContain(TOKEN_KEY + token.getId());
+    boolean personHit = current.mightContain(PERSON_KEY + token.getSubject());
+
+    if (!tokenHit && !personHit) {
+      negatives.increment();
+      return false;
+    }
+
+    boolean isRevoked = PrimaryReads.call(() -> lookUp(token, tokenHit, personHit));
+
+    (isRevoked ? revoked : falsePositives).increment();
+
+    return isRevoked;
+  }
+
+  /**
+   * Rebuilds the filter from the table, dropping the revocations that expired.
+   */
+  @Scheduled(
+      initialDelayString = "${agrix.revocation.rebuild-millis:60000}",
+      fixedDelayString = "${agrix.revocation.rebuild-millis:60000}"
+  )
+  public synchronized void rebuild() {
+    Instant started = Instant.now();
+
+    tokenRevocationRepository.deleteExpired(started);
+
+    List<TokenRevocation> active = PrimaryReads.call(
+        () -> tokenRevocationRepository.findByExpiresAtAfter(started)
+    );
+    BloomFilter next = new BloomFilter(
+        Math.max(expectedRevocations, 2L * active.size()), falsePositiveRate
+    );
+
+    active.forEach(revocation -> next.add(keyOf(revocation)));
+    filter = next;
+
+    // Revocations saved while the table was read may be missing from it: keep every local one
+    // made since the previous rebuild started.
+    Instant keepSince = lastRebuild;
+    recentKeys.values().removeIf(at -> at.isBefore(keepSince));
+    recentKeys.keySet().forEach(next::add);
+    lastRebuild = started;
+  }
+
+  private boolean lookUp(DecodedJWT token, boolean tokenHit, boolean personHit) {
+    if (tokenHit && tokenRevocationRepository.existsByKindAndSubject(Kind.TOKEN, token.getId())) {
+      return true;
+    }
+
+    if (!personHit) {
+      return false;
+    }
+
+    Instant revokedBefore = tokenRevocationRepository.findRevokedBefore(token.getSubject());
+    Instant issuedAt = token.getIssuedAtAsInstant();
+
+    return revokedBefore != null && (issuedAt == null || issuedAt.isBefore(revokedBefore));
+  }
+
+  private BloomFilter filter() {
+    BloomFilter current = filter;
+
+    if (current == null) {
+      rebuild();
+      current = filter;
+    }
+
+    return current;
+  }
+
+  private void remember(String key) {
+    recentKeys.put(key, Instant.now());
+    filter().add(key);
+  }
+
+  private static String keyOf(TokenRevocation revocation) {
+    return (revocation.getKind() == Kind.TOKEN ? TOKEN_KEY : PERSON_KEY) + revocation.getSubject();
+  }
+}
@@ -2,8 +2,10 @@ package com.betrybe.agrix.service;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.util.UUID;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -13,15 +15,20 @@ import org.springframework.stereotype.Service;
 @Service
 public class TokenService {
   private final Algorithm algorithm;
-
+  private final Duration ttl;
 
   /**
    * Instantiates a new Token service.
    *
    * @param secret the secret
+   * @param ttl    how long a token stays valid
    */
-  public TokenService(@Value("${api.security.token.secret}") String secret) {
+  public TokenService(
+      @Value("${api.security.token.secret}") String secret,
+      @Value("${api.security.token.ttl:2h}") Duration ttl
+  ) {
     this.algorithm = Algorithm.HMAC256(secret);
+    this.ttl = ttl;
   }
 
   /**
@@ -31,17 +38,16 @@ public class TokenService {
    * @return the string
    */
   public String generateToken(String username) {
+    Instant now = Instant.now();
+
     return JWT.create()
         .withSubject(username)
-        .withExpiresAt(generateExpiration())
+        .withJWTId(UUID.randomUUID().toString())
+        .withIssuedAt(now)
+        .withExpiresAt(now.plus(ttl))
         .sign(algorithm);
   }
 
-  private Instant generateExpiration() {
-    return Instant.now()
-        .plus(2, ChronoUnit.HOURS);
-  }
-
   /**
    * Validate token string.
    *
@@ -49,9 +55,27 @@ public class TokenService {
    * @return the string
    */
   public String validateToken(String token) {
+    return verify(token).getSubject();
+  }
+
+  /**
+   * Verifies the signature and expiry of a token.
+   *
+   * @param token the token
+   * @return the decoded token
+   */
+  public DecodedJWT verify(String token) {
     return JWT.require(algorithm)
         .build()
-        .verify(token)
-        .getSubject();
+        .verify(token);
+  }
+
+  /**
+   * Gets how long a token stays valid.
+   *
+   * @return the ttl
+   */
+  public Duration getTtl() {
+    return ttl;
   }
 }
@@ -0,0 +1,23 @@
+package com.betrybe.agrix.service.audit;
+
+/**
+ * How far an audit event is persisted before the mutation returns.
+ */
+public enum AuditDurability {
+  /**
+   * Written in the transaction of the mutation: committed together, or not at all.
+   */
+  SYNC,
+
+  /**
+   * Appended and fsync'd to a local journal after the commit, then written in a batch. The
+   * journal is replayed on startup, so a crash loses nothing the journal acknowledged.
+   */
+  JOURNAL,
+
+  /**
+   * Queued in memory after the commit and written in a batch. A crash, or a full buffer, loses
+   * the events not yet written.
+   */
+  ASYNC
+}
@@ -0,0 +1,42 @@
+package com.betrybe.agrix.service.audit;
+
+import com.betrybe.agrix.service.event.ChangeType;
+import com.betrybe.agrix.service.event.ChangedEntity;
+import java.time.Instant;
+
+/**
+ * An audited mutation waiting to be written.
+ *
+ * @param sequence   the position in the local journal, zero when not journaled
+ * @param eventId    the unique id, used to skip rows already written when the journal is replayed
+ * @param occurredAt when the change was made
+ * @param principal  who made it
+ * @param entity     the changed entity type
+ * @param changeType the kind of change
+ * @param entityId   the changed entity id
+ * @param farmId     the farm the entity belongs to, if any
+ * @param relatedId  the other side of an association, if any
+ */
+public record AuditEvent(
+    long sequence,
+    String eventId,
+    Instant occurredAt,
+    String principal,
+    ChangedEntity entity,
+    ChangeType changeType,
+    Long entityId,
+    Long farmId,
+    Long relatedId
+) {
+
+  /**
+   * Returns a copy of the event at a journal position.
+   *
+   * @param sequence the journal position
+   * @return the event
+   */
+  public AuditEvent withSequence(long sequence) {
+    return new AuditEvent(sequence, eventId, occurredAt, principal, entity, changeType, entityId,
+        farmId, relatedId);
+  }
+}
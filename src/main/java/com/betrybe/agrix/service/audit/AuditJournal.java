@@ -0,0 +1,233 @@
+package com.betrybe.agrix.service.audit;
+
+import com.betrybe.agrix.service.event.ChangeType;
+import com.betrybe.agrix.service.event.ChangedEntity;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * An append-only local file holding the audit events not yet known to be in the database.
+ *
+ * <p>Each event is one tab-separated line, fsync'd before {@link #append} returns. A separate
+ * checkpoint file records the last sequence written to the database; the journal is emptied
+ * whenever everything appended has been checkpointed, so it only grows while the database lags.
+ * Events the database kept refusing are moved to a parked file, in the same format, for an
+ * operator to look into.
+ */
+public class AuditJournal implements Closeable {
+  private static final String NONE = "-";
+
+  private final FileChannel journal;
+  private final FileChannel checkpoint;
+  private final Path parked;
+  private final ReentrantLock lock = new ReentrantLock();
+  private long lastSequence;
+
+  /**
+   * Opens, or creates, the journal in a directory.
+   *
+   * @param directory the directory
+   * @throws IOException if the files cannot be opened
+   */
+  public AuditJournal(Path directory) throws IOException {
+    Files.createDirectories(directory);
+
+    this.journal = FileChannel.open(directory.resolve("audit.journal"),
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    this.checkpoint = FileChannel.open(directory.resolve("audit.checkpoint"),
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    this.parked = directory.resolve("audit.parked");
+    this.lastSequence = readCheckpoint();
+    journal.position(journal.size());
+  }
+
+  /**
+   * Reads the events appended after the checkpoint, e.g. those a crash kept from the database.
+   *
+   * @return the events, in journal order
+   * @throws IOException if the journal cannot be read
+   */
+  public List<AuditEvent> unflushed() throws IOException {
+    long flushed = readCheckpoint();
+    List<AuditEvent> events = new ArrayList<>();
+
+    lock.lock();
+    try {
+      ByteBuffer content = ByteBuffer.allocate(Math.toIntExact(journal.size()));
+      while (content.hasRemaining()) {
+        if (journal.read(content, content.position()) < 0) {
+          break;
+        }
+      }
+
+      // A torn last line, without its newline, was never acknowledged.
+      int end = content.limit();
+      while (end > 0 && content.get(end - 1) != '\n') {
+        end--;
+      }
+
+      for (String line : new String(content.array(), 0, end, StandardCharsets.UTF_8).split("\n")) {
+        if (line.isEmpty()) {
+          continue;
+        }
+
+        AuditEvent event = parse(line);
+        lastSequence = Math.max(lastSequence, event.sequence());
+
+        if (event.sequence() > flushed) {
+          events.add(event);
+        }
+      }
+
+      journal.truncate(end);
+      journal.position(journal.size());
+    } finally {
+      lock.unlock();
+    }
+
+    return events;
+  }
+
+  /**
+   * Appends an event and forces it to disk, then hands the sequenced event to the caller while
+   * still holding the journal, so the events reach the caller in sequence order.
+   *
+   * @param event    the event
+   * @param appended receives the event with its sequence
+   */
+  public void append(AuditEvent event, Consumer<AuditEvent> appended) {
+    lock.lock();
+    try {
+      AuditEvent sequenced = event.withSequence(lastSequence + 1);
+
+      ByteBuffer line = ByteBuffer.wrap(format(sequenced).getBytes(StandardCharsets.UTF_8));
+      while (line.hasRemaining()) {
+        journal.write(line);
+      }
+      journal.force(false);
+
+      lastSequence = sequenced.sequence();
+      appended.accept(sequenced);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Records that every event up to a sequence is in the database, and empties the journal when
+   * nothing else is pending. Producers are never waited for: the journal is left as it is if one
+   * is appending.
+   *
+   * @param sequence the last sequence written to the database
+   * @throws IOException if the checkpoint cannot be written
+   */
+  public void checkpoint(long sequence) throws IOException {
+    ByteBuffer value = ByteBuffer.allocate(Long.BYTES).putLong(0, sequence);
+    checkpoint.write(value, 0);
+    checkpoint.force(false);
+
+    if (lock.tryLock()) {
+      try {
+        if (lastSequence == sequence) {
+          journal.truncate(0);
+          journal.force(false);
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Appends events that could not be written to the parked file, and forces it to disk.
+   *
+   * @param events the events
+   * @throws IOException if the parked file cannot be written
+   */
+  public void park(List<AuditEvent> events) throws IOException {
+    StringBuilder lines = new StringBuilder();
+    events.forEach(event -> lines.append(format(event)));
+
+    try (FileChannel channel = FileChannel.open(parked, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+      ByteBuffer content = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+      while (content.hasRemaining()) {
+        channel.write(content);
+      }
+      channel.force(false);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    journal.close();
+    checkpoint.close();
+  }
+
+  private long readCheckpoint() throws IOException {
+    if (checkpoint.size() < Long.BYTES) {
+      return 0;
+    }
+
+    ByteBuffer value = ByteBuffer.allocate(Long.BYTES);
+    checkpoint.read(value, 0);
+
+    return value.getLong(0);
+  }
+
+  private static String format(AuditEvent event) {
+    return String.join("\t",
+        String.valueOf(event.sequence()),
+        event.eventId(),
+        event.occurredAt().toString(),
+        event.principal() == null
+            ? NONE
+            : URLEncoder.encode(event.principal(), StandardCharsets.UTF_8),
+        event.entity().name(),
+        event.changeType().name(),
+        valueOf(event.entityId()),
+        valueOf(event.farmId()),
+        valueOf(event.relatedId())
+    ) + "\n";
+  }
+
+  private static AuditEvent parse(String line) {
+    String[] fields = line.split("\t");
+
+    return new AuditEvent(
+        Long.parseLong(fields[0]),
+        fields[1],
+        Instant.parse(fields[2]),
+        NONE.equals(fields[3]) ? null : URLDecoder.decode(fields[3], StandardCharsets.UTF_8),
+        ChangedEntity.valueOf(fields[4]),
+        ChangeType.valueOf(fields[5]),
+        longOf(fields[6]),
+        longOf(fields[7]),
+        longOf(fields[8])
+    );
+  }
+
+  private static String valueOf(Long value) {
+    return value == null ? NONE : value.toString();
+  }
+
+  private static Long longOf(String value) {
+    return NONE.equals(value) ? null : Long.valueOf(value);
+  }
+}
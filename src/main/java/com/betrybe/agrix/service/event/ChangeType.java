@@ -0,0 +1,12 @@
+package com.betrybe.agrix.service.event;
+
+/**
+ * Enum representing the kind of change an entity went through.
+ */
+public enum ChangeType {
+  CREATED,
+  UPDATED,
+  DELETED,
+  ASSOCIATED,
+  ARCHIVED
+}
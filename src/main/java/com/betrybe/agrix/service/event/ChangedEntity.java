@@ -0,0 +1,25 @@
+package com.betrybe.agrix.service.event;
+
+/**
+ * Enum representing the entities that publish change events.
+ */
+public enum ChangedEntity {
+  CROP("/crops"),
+  FARM("/farms"),
+  FERTILIZER("/fertilizers");
+
+  private final String route;
+
+  ChangedEntity(String route) {
+    this.route = route;
+  }
+
+  /**
+   * Gets the route prefix serving this entity.
+   *
+   * @return the route
+   */
+  public String getRoute() {
+    return route;
+  }
+}
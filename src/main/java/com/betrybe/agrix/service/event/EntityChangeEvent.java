@@ -0,0 +1,49 @@
+package com.betrybe.agrix.service.event;
+
+/**
+ * Published by the services after every mutation of a crop, farm or fertilizer.
+ *
+ * <p>A crop event without an id stands for a set-based change to every crop of the farm. A
+ * crop moved to another farm, or detached from one, carries the farm it left in
+ * {@code previousFarmId}, so watchers of either farm hear about it.
+ *
+ * @param entity         the changed entity type
+ * @param type           the kind of change
+ * @param id             the changed entity id
+ * @param farmId         the farm the entity belongs to, if any
+ * @param relatedId      the other side of an association, if any
+ * @param previousFarmId the farm a crop belonged to before this change, if it moved
+ */
+public record EntityChangeEvent(
+    ChangedEntity entity,
+    ChangeType type,
+    Long id,
+    Long farmId,
+    Long relatedId,
+    Long previousFarmId
+) {
+
+  /**
+   * Instantiates an event for a change that kept the entity in its farm.
+   *
+   * @param entity    the changed entity type
+   * @param type      the kind of change
+   * @param id        the changed entity id
+   * @param farmId    the farm the entity belongs to, if any
+   * @param relatedId the other side of an association, if any
+   */
+  public EntityChangeEvent(ChangedEntity entity, ChangeType type, Long id, Long farmId,
+      Long relatedId) {
+    this(entity, type, id, farmId, relatedId, null);
+  }
+
+  /**
+   * Checks whether the change concerns a farm, as the farm of the entity or the one it left.
+   *
+   * @param farmId the farm id
+   * @return true if the entity belongs or belonged to the farm
+   */
+  public boolean touchesFarm(Long farmId) {
+    return farmId.equals(this.farmId) || farmId.equals(previousFarmId);
+  }
+}
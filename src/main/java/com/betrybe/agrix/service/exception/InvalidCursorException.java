@@ -0,0 +1,14 @@
+package com.betrybe.agrix.service.exception;
+
+/**
+ * The type Invalid cursor exception.
+ */
+public class InvalidCursorException extends Exception {
+
+  /**
+   * Instantiates a new Invalid cursor exception.
+   */
+  public InvalidCursorException() {
+    super("Cursor de sincronização inválido!");
+  }
+}
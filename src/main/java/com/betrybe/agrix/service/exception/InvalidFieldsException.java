@@ -0,0 +1,20 @@
+package com.betrybe.agrix.service.exception;
+
+import java.util.Collection;
+
+/**
+ * The type Invalid fields exception.
+ */
+public class InvalidFieldsException extends Exception {
+
+  /**
+   * Instantiates a new Invalid fields exception.
+   *
+   * @param fields the fields that cannot be selected
+   */
+  public InvalidFieldsException(Collection<String> fields) {
+    super(fields.isEmpty()
+        ? "Campos inválidos!"
+        : "Campos inválidos: " + String.join(", ", fields) + "!");
+  }
+}
@@ -0,0 +1,14 @@
+package com.betrybe.agrix.service.exception;
+
+/**
+ * The type Invalid harvest date exception.
+ */
+public class InvalidHarvestDateException extends Exception {
+
+  /**
+   * Instantiates a new Invalid harvest date exception.
+   */
+  public InvalidHarvestDateException() {
+    super("Data de colheita inválida!");
+  }
+}
@@ -0,0 +1,14 @@
+package com.betrybe.agrix.service.exception;
+
+/**
+ * The type Invalid limit exception.
+ */
+public class InvalidLimitException extends Exception {
+
+  /**
+   * Instantiates a new Invalid limit exception.
+   */
+  public InvalidLimitException() {
+    super("Limite inválido!");
+  }
+}
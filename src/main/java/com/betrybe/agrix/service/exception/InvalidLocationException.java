@@ -0,0 +1,14 @@
+package com.betrybe.agrix.service.exception;
+
+/**
+ * The type Invalid location exception.
+ */
+public class InvalidLocationException extends Exception {
+
+  /**
+   * Instantiates a new Invalid location exception.
+   */
+  public InvalidLocationException() {
+    super("Localização inválida!");
+  }
+}
@@ -0,0 +1,14 @@
+package com.betrybe.agrix.service.exception;
+
+/**
+ * The type Invalid period exception.
+ */
+public class InvalidPeriodException extends Exception {
+
+  /**
+   * Instantiates a new Invalid period exception.
+   */
+  public InvalidPeriodException() {
+    super("Período inválido!");
+  }
+}
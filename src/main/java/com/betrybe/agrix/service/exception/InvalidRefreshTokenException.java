@@ -0,0 +1,14 @@
+package com.betrybe.agrix.service.exception;
+
+/**
+ * The type Invalid refresh token exception.
+ */
+public class InvalidRefreshTokenException extends Exception {
+
+  /**
+   * Instantiates a new Invalid refresh token exception.
+   */
+  public InvalidRefreshTokenException() {
+    super("Refresh token inválido!");
+  }
+}
@@ -0,0 +1,16 @@
+package com.betrybe.agrix.service.exception;
+
+/**
+ * The type Too many ids exception.
+ */
+public class TooManyIdsException extends Exception {
+
+  /**
+   * Instantiates a new Too many ids exception.
+   *
+   * @param max the maximum number of ids per request
+   */
+  public TooManyIdsException(int max) {
+    super("Informe no máximo " + max + " ids por requisição!");
+  }
+}
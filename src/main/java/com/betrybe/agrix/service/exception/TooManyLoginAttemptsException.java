@@ -0,0 +1,27 @@
+package com.betrybe.agrix.service.exception;
+
+/**
+ * The type Too many login attempts exception.
+ */
+public class TooManyLoginAttemptsException extends Exception {
+  private final long retryAfter;
+
+  /**
+   * Instantiates a new Too many login attempts exception.
+   *
+   * @param retryAfter the seconds to wait before retrying
+   */
+  public TooManyLoginAttemptsException(long retryAfter) {
+    super("Muitas tentativas de login! Tente novamente mais tarde.");
+    this.retryAfter = retryAfter;
+  }
+
+  /**
+   * Gets the seconds to wait before retrying.
+   *
+   * @return the retry after
+   */
+  public long getRetryAfter() {
+    return retryAfter;
+  }
+}
@@ -0,0 +1,32 @@
+package com.betrybe.agrix.service.forecast;
+
+import java.util.Arrays;
+
+/**
+ * The part of a crop the forecast needs.
+ *
+ * @param farmId        the farm id
+ * @param plantedWeek   the planting week, relative to the first forecast week; may be negative
+ * @param plantedArea   the planted area
+ * @param fertilizerIds the ids of the fertilizers associated with the crop
+ */
+public record CropDemand(
+    long farmId,
+    int plantedWeek,
+    double plantedArea,
+    long[] fertilizerIds
+) {
+
+  /**
+   * Returns a copy of the crop associated with one more fertilizer.
+   *
+   * @param fertilizerId the fertilizer id
+   * @return the crop
+   */
+  public CropDemand withFertilizer(long fertilizerId) {
+    long[] ids = Arrays.copyOf(fertilizerIds, fertilizerIds.length + 1);
+    ids[fertilizerIds.length] = fertilizerId;
+
+    return new CropDemand(farmId, plantedWeek, plantedArea, ids);
+  }
+}
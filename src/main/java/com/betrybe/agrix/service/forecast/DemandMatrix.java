@@ -0,0 +1,119 @@
+package com.betrybe.agrix.service.forecast;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+/**
+ * Weekly fertilizer demand: one row of weeks per fertilizer.
+ *
+ * <p>Crops are added, and subtracted, by spreading their planted area over the schedule of
+ * each of their fertilizers; the weeks outside the horizon are dropped. Not thread-safe.
+ */
+public final class DemandMatrix {
+  private static final double EPSILON = 1e-9;
+
+  private final int weeks;
+  private final LongFunction<FertilizerSchedule> schedules;
+  private final Map<Long, double[]> rows = new HashMap<>();
+
+  /**
+   * Instantiates a new, empty, demand matrix.
+   *
+   * @param weeks     the number of weeks
+   * @param schedules the schedule of each fertilizer
+   */
+  public DemandMatrix(int weeks, LongFunction<FertilizerSchedule> schedules) {
+    this.weeks = weeks;
+    this.schedules = schedules;
+  }
+
+  /**
+   * Adds the demand of a crop.
+   *
+   * @param crop the crop
+   */
+  public void add(CropDemand crop) {
+    apply(crop, 1);
+  }
+
+  /**
+   * Removes the demand of a crop previously added.
+   *
+   * @param crop the crop
+   */
+  public void subtract(CropDemand crop) {
+    apply(crop, -1);
+  }
+
+  /**
+   * Adds every row of another matrix over the same weeks.
+   *
+   * @param other the other matrix
+   */
+  public void addAll(DemandMatrix other) {
+    other.rows.forEach((fertilizerId, row) -> {
+      double[] target = row(fertilizerId);
+
+      for (int week = 0; week < weeks; week++) {
+        target[week] += row[week];
+      }
+    });
+  }
+
+  /**
+   * Gets the fertilizers with a row.
+   *
+   * @return the fertilizer ids
+   */
+  public Set<Long> fertilizerIds() {
+    return rows.keySet();
+  }
+
+  /**
+   * Copies the first weeks of a fertilizer's row.
+   *
+   * @param fertilizerId the fertilizer id
+   * @param length       the number of weeks
+   * @return the demand per week, zero where there is none
+   */
+  public double[] copy(long fertilizerId, int length) {
+    double[] row = rows.get(fertilizerId);
+    double[] copy = new double[length];
+
+    if (row != null) {
+      for (int week = 0; week < length; week++) {
+        // Subtracting crops leaves rounding residue where the demand went back to zero.
+        copy[week] = row[week] < EPSILON ? 0 : row[week];
+      }
+    }
+
+    return copy;
+  }
+
+  private void apply(CropDemand crop, int sign) {
+    for (long fertilizerId : crop.fertilizerIds()) {
+      FertilizerSchedule schedule = schedules.apply(fertilizerId);
+      double[] row = null;
+
+      for (int step = 0; step < schedule.size(); step++) {
+        int week = crop.plantedWeek() + schedule.week(step);
+
+        if (week < 0 || week >= weeks) {
+          continue;
+        }
+
+        if (row == null) {
+          row = row(fertilizerId);
+        }
+
+        row[week] += sign * schedule.rate(step) * crop.plantedArea();
+      }
+    }
+  }
+
+  private double[] row(long fertilizerId) {
+    return rows.computeIfAbsent(fertilizerId, key -> new double[weeks]);
+  }
+}
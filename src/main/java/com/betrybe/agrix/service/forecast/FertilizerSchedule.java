@@ -0,0 +1,117 @@
+package com.betrybe.agrix.service.forecast;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * When, and how much of, a fertilizer is applied to a crop, relative to its planting week.
+ *
+ * <p>A schedule is written as comma-separated {@code week:rate} steps, e.g. {@code 0:2,4:1.5}:
+ * the rate is the quantity applied per unit of planted area during that many weeks after the
+ * planting week.
+ */
+public final class FertilizerSchedule {
+  private final int[] weeks;
+  private final double[] rates;
+
+  private FertilizerSchedule(int[] weeks, double[] rates) {
+    this.weeks = weeks;
+    this.rates = rates;
+  }
+
+  /**
+   * Parses a schedule.
+   *
+   * @param steps the steps, e.g. {@code 0:2,4:1.5}
+   * @return the schedule
+   * @throws IllegalArgumentException if a step is malformed or negative
+   */
+  public static FertilizerSchedule parse(String steps) {
+    String[] parts = steps.trim().split("\\s*,\\s*");
+    int[] weeks = new int[parts.length];
+    double[] rates = new double[parts.length];
+
+    for (int i = 0; i < parts.length; i++) {
+      String[] step = parts[i].split("\\s*:\\s*");
+
+      if (step.length != 2) {
+        throw new IllegalArgumentException("Malformed schedule step: " + parts[i]);
+      }
+
+      weeks[i] = Integer.parseInt(step[0]);
+      rates[i] = Double.parseDouble(step[1]);
+
+      if (weeks[i] < 0 || rates[i] < 0) {
+        throw new IllegalArgumentException("Negative schedule step: " + parts[i]);
+      }
+    }
+
+    return new FertilizerSchedule(weeks, rates);
+  }
+
+  /**
+   * Parses the per-fertilizer schedules.
+   *
+   * @param schedules semicolon-separated {@code fertilizerId=steps}, e.g. {@code 1=0:2;3=0:1,6:1}
+   * @return the schedules, by fertilizer id
+   * @throws IllegalArgumentException if an entry is malformed
+   */
+  public static Map<Long, FertilizerSchedule> parseAll(String schedules) {
+    Map<Long, FertilizerSchedule> parsed = new HashMap<>();
+
+    for (String entry : schedules.split(";")) {
+      if (entry.isBlank()) {
+        continue;
+      }
+
+      String[] parts = entry.split("=", 2);
+
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Malformed fertilizer schedule: " + entry);
+      }
+
+      parsed.put(Long.valueOf(parts[0].trim()), parse(parts[1]));
+    }
+
+    return parsed;
+  }
+
+  /**
+   * Gets the number of steps.
+   *
+   * @return the number of steps
+   */
+  public int size() {
+    return weeks.length;
+  }
+
+  /**
+   * Gets the week of a step, relative to the planting week.
+   *
+   * @param step the step
+   * @return the week
+   */
+  public int week(int step) {
+    return weeks[step];
+  }
+
+  /**
+   * Gets the rate of a step, per unit of planted area.
+   *
+   * @param step the step
+   * @return the rate
+   */
+  public double rate(int step) {
+    return rates[step];
+  }
+
+  /**
+   * Gets the last week of the schedule, relative to the planting week.
+   *
+   * @return the last week
+   */
+  public int lastWeek() {
+    return Arrays.stream(weeks).max().orElse(0);
+  }
+}
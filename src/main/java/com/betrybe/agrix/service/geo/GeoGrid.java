@@ -0,0 +1,318 @@
+package com.betrybe.agrix.service.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory spatial index of points on a fixed latitude/longitude grid.
+ *
+ * <p>Only non-empty cells are stored, each holding its points in parallel primitive arrays. A
+ * query visits the cells overlapping its bounding box, or every stored cell when that is fewer,
+ * so its cost follows the points near the searched area rather than the total. Readers share a
+ * lock; writers take it exclusively.
+ */
+public class GeoGrid {
+  /**
+   * The mean Earth radius, in kilometers.
+   */
+  public static final double EARTH_RADIUS_KM = 6371.0088;
+
+  private final double cellDegrees;
+  private final int latCells;
+  private final int lonCells;
+  private final Map<Integer, Cell> cells = new HashMap<>();
+  private final Map<Long, Integer> cellById = new HashMap<>();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /**
+   * Instantiates a new grid.
+   *
+   * @param cellDegrees the side of a cell, in degrees
+   */
+  public GeoGrid(double cellDegrees) {
+    this.cellDegrees = cellDegrees;
+    this.latCells = (int) Math.ceil(180 / cellDegrees);
+    this.lonCells = (int) Math.ceil(360 / cellDegrees);
+  }
+
+  /**
+   * Adds a point, or moves it if its id is already indexed.
+   *
+   * @param id        the id
+   * @param latitude  the latitude
+   * @param longitude the longitude
+   */
+  public void put(long id, double latitude, double longitude) {
+    int key = cellOf(latitude, longitude);
+
+    lock.writeLock().lock();
+    try {
+      Integer previous = cellById.put(id, key);
+
+      if (previous != null) {
+        removeFromCell(previous, id);
+      }
+
+      cells.computeIfAbsent(key, k -> new Cell()).add(id, latitude, longitude);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes a point, if indexed.
+   *
+   * @param id the id
+   */
+  public void remove(long id) {
+    lock.writeLock().lock();
+    try {
+      Integer previous = cellById.remove(id);
+
+      if (previous != null) {
+        removeFromCell(previous, id);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Gets the number of indexed points.
+   *
+   * @return the size
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return cellById.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Finds the points within a great-circle distance of a center, nearest first.
+   *
+   * @param latitude  the center latitude
+   * @param longitude the center longitude
+   * @param radiusKm  the radius, in kilometers
+   * @param limit     the maximum number of points returned
+   * @return the points and their distances
+   */
+  public List<Hit> near(double latitude, double longitude, double radiusKm, int limit) {
+    double angularRadius = radiusKm / EARTH_RADIUS_KM;
+    double deltaLat = Math.toDegrees(angularRadius);
+    double minLat = latitude - deltaLat;
+    double maxLat = latitude + deltaLat;
+    double deltaLon = 180;
+
+    // The widest longitude span of a spherical cap; a cap over a pole spans every longitude.
+    if (minLat > -90 && maxLat < 90) {
+      double ratio = Math.sin(angularRadius) / Math.cos(Math.toRadians(latitude));
+      deltaLon = ratio >= 1 ? 180 : Math.toDegrees(Math.asin(ratio));
+    }
+
+    List<Hit> hits = new ArrayList<>();
+
+    lock.readLock().lock();
+    try {
+      for (double[] lonRange : lonRanges(longitude - deltaLon, longitude + deltaLon)) {
+        visit(Math.max(-90, minLat), Math.min(90, maxLat), lonRange[0], lonRange[1],
+            (id, lat, lon) -> {
+              double distance = distanceKm(latitude, longitude, lat, lon);
+
+              if (distance <= radiusKm) {
+                hits.add(new Hit(id, lat, lon, distance));
+              }
+            });
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    hits.sort(Comparator.comparingDouble(Hit::distanceKm));
+
+    return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+  }
+
+  /**
+   * Finds the points inside a bounding box. A box whose west edge is east of its east edge
+   * crosses the antimeridian.
+   *
+   * @param south the minimum latitude
+   * @param west  the west longitude
+   * @param north the maximum latitude
+   * @param east  the east longitude
+   * @param limit the maximum number of points returned
+   * @return the points, by id
+   */
+  public List<Hit> within(double south, double west, double north, double east, int limit) {
+    List<Hit> hits = new ArrayList<>();
+    double[][] lonRanges = west <= east
+        ? new double[][] {{west, east}}
+        : new double[][] {{west, 180}, {-180, east}};
+
+    lock.readLock().lock();
+    try {
+      for (double[] lonRange : lonRanges) {
+        visit(south, north, lonRange[0], lonRange[1], (id, lat, lon) -> {
+          if (lat >= south && lat <= north && lon >= lonRange[0] && lon <= lonRange[1]) {
+            hits.add(new Hit(id, lat, lon, 0));
+          }
+        });
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    hits.sort(Comparator.comparingLong(Hit::id));
+
+    return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+  }
+
+  /**
+   * Computes the great-circle distance between two points with the haversine formula.
+   *
+   * @param lat1 the first latitude
+   * @param lon1 the first longitude
+   * @param lat2 the second latitude
+   * @param lon2 the second longitude
+   * @return the distance, in kilometers
+   */
+  public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+    double sinLat = Math.sin(Math.toRadians(lat2 - lat1) / 2);
+    double sinLon = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+    double a = sinLat * sinLat
+        + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLon * sinLon;
+
+    return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+  }
+
+  private static List<double[]> lonRanges(double west, double east) {
+    if (east - west >= 360) {
+      return List.of(new double[] {-180, 180});
+    }
+
+    if (west < -180) {
+      return List.of(new double[] {west + 360, 180}, new double[] {-180, east});
+    }
+
+    if (east > 180) {
+      return List.of(new double[] {west, 180}, new double[] {-180, east - 360});
+    }
+
+    return List.of(new double[] {west, east});
+  }
+
+  private void visit(double south, double north, double west, double east, PointVisitor visitor) {
+    int minLatCell = latCell(south);
+    int maxLatCell = latCell(north);
+    int minLonCell = lonCell(west);
+    int maxLonCell = lonCell(east);
+    long boxCells = (long) (maxLatCell - minLatCell + 1) * (maxLonCell - minLonCell + 1);
+
+    if (boxCells > cells.size()) {
+      cells.forEach((key, cell) -> {
+        int lat = key / lonCells;
+        int lon = key % lonCells;
+
+        if (lat >= minLatCell && lat <= maxLatCell && lon >= minLonCell && lon <= maxLonCell) {
+          cell.forEach(visitor);
+        }
+      });
+      return;
+    }
+
+    for (int lat = minLatCell; lat <= maxLatCell; lat++) {
+      for (int lon = minLonCell; lon <= maxLonCell; lon++) {
+        Cell cell = cells.get(lat * lonCells + lon);
+
+        if (cell != null) {
+          cell.forEach(visitor);
+        }
+      }
+    }
+  }
+
+  private void removeFromCell(int key, long id) {
+    Cell cell = cells.get(key);
+
+    if (cell != null && cell.remove(id) && cell.size == 0) {
+      cells.remove(key);
+    }
+  }
+
+  private int cellOf(double latitude, double longitude) {
+    return latCell(latitude) * lonCells + lonCell(longitude);
+  }
+
+  private int latCell(double latitude) {
+    return Math.min(latCells - 1, Math.max(0, (int) Math.floor((latitude + 90) / cellDegrees)));
+  }
+
+  private int lonCell(double longitude) {
+    return Math.min(lonCells - 1, Math.max(0, (int) Math.floor((longitude + 180) / cellDegrees)));
+  }
+
+  /**
+   * An indexed point.
+   *
+   * @param id         the id
+   * @param latitude   the latitude
+   * @param longitude  the longitude
+   * @param distanceKm the distance from the searched center, zero for box queries
+   */
+  public record Hit(long id, double latitude, double longitude, double distanceKm) {}
+
+  @FunctionalInterface
+  private interface PointVisitor {
+    void visit(long id, double latitude, double longitude);
+  }
+
+  private static final class Cell {
+    private long[] ids = new long[4];
+    private double[] lats = new double[4];
+    private double[] lons = new double[4];
+    private int size;
+
+    void add(long id, double latitude, double longitude) {
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+        lats = Arrays.copyOf(lats, size * 2);
+        lons = Arrays.copyOf(lons, size * 2);
+      }
+
+      ids[size] = id;
+      lats[size] = latitude;
+      lons[size] = longitude;
+      size++;
+    }
+
+    boolean remove(long id) {
+      for (int i = 0; i < size; i++) {
+        if (ids[i] == id) {
+          size--;
+          ids[i] = ids[size];
+          lats[i] = lats[size];
+          lons[i] = lons[size];
+          return true;
+        }
+      }
+
+      return false;
+    }
+
+    void forEach(PointVisitor visitor) {
+      for (int i = 0; i < size; i++) {
+        visitor.visit(ids[i], lats[i], lons[i]);
+      }
+    }
+  }
+}
@@ -0,0 +1,143 @@
+package com.betrybe.agrix.service.occupancy;
+
+import com.betrybe.agrix.controller.dto.OccupancyRunDto;
+import com.betrybe.agrix.service.snapshot.CropColumns;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects the crops of one farm and sweeps them into an occupancy step function.
+ *
+ * <p>A crop occupies its planted area from its planted date up to, but not including, its
+ * harvest date; a crop without a harvest date occupies it until the end of the window. Each
+ * crop contributes a planting and a harvest event; the events are sorted once, O(n log n), and
+ * a single pass accumulates the occupied area, emitting a run only when the area changes.
+ */
+public class OccupancySweep {
+  private static final double EPSILON = 1e-9;
+
+  private final long from;
+  private final long to;
+  private long[] starts = new long[8];
+  private long[] ends = new long[8];
+  private double[] areas = new double[8];
+  private int size;
+
+  /**
+   * Instantiates a new sweep over a window.
+   *
+   * @param from the first day
+   * @param to   the last day, inclusive
+   */
+  public OccupancySweep(LocalDate from, LocalDate to) {
+    this.from = from.toEpochDay();
+    this.to = to.toEpochDay();
+  }
+
+  /**
+   * Adds a crop. Crops without a planted date or area, or outside the window, are ignored.
+   *
+   * @param plantedDate the planted date
+   * @param harvestDate the harvest date, or null if not harvested yet
+   * @param plantedArea the planted area
+   */
+  public void add(LocalDate plantedDate, LocalDate harvestDate, Double plantedArea) {
+    add(CropColumns.epochDay(plantedDate), CropColumns.epochDay(harvestDate),
+        plantedArea == null ? Double.NaN : plantedArea);
+  }
+
+  /**
+   * Adds a crop read from a columnar snapshot.
+   *
+   * @param plantedDay  the planted date as an epoch day, or {@link CropColumns#NO_DATE}
+   * @param harvestDay  the harvest date as an epoch day, or {@link CropColumns#NO_DATE}
+   * @param plantedArea the planted area, or NaN
+   */
+  public void add(int plantedDay, int harvestDay, double plantedArea) {
+    if (plantedDay == CropColumns.NO_DATE || Double.isNaN(plantedArea) || plantedArea == 0) {
+      return;
+    }
+
+    long start = Math.max(plantedDay, from);
+    long end = harvestDay == CropColumns.NO_DATE ? to + 1 : Math.min(harvestDay, to + 1);
+
+    if (start >= end) {
+      return;
+    }
+
+    if (size == starts.length) {
+      starts = Arrays.copyOf(starts, size * 2);
+      ends = Arrays.copyOf(ends, size * 2);
+      areas = Arrays.copyOf(areas, size * 2);
+    }
+
+    starts[size] = start;
+    ends[size] = end;
+    areas[size] = plantedArea;
+    size++;
+  }
+
+  /**
+   * Sweeps the crops into runs covering the whole window.
+   *
+   * @param farmSize the farm size, to compute the occupied share
+   * @return the runs, in day order
+   */
+  public List<OccupancyRunDto> sweep(Double farmSize) {
+    // Each event packs its day offset in the high bits and its index in the low bits, so one
+    // primitive sort orders them by day. Indexes below size are plantings, the others harvests.
+    long[] events = new long[2 * size];
+
+    for (int i = 0; i < size; i++) {
+      events[i] = (starts[i] - from) << 32 | i;
+      events[size + i] = (ends[i] - from) << 32 | (size + i);
+    }
+
+    Arrays.sort(events);
+
+    List<OccupancyRunDto> runs = new ArrayList<>();
+    long runStart = from;
+    double level = 0;
+    int next = 0;
+
+    while (next < events.length) {
+      long day = from + (events[next] >>> 32);
+      double changed = level;
+
+      for (; next < events.length && from + (events[next] >>> 32) == day; next++) {
+        int index = (int) events[next];
+        changed += index < size ? areas[index] : -areas[index - size];
+      }
+
+      if (day > to) {
+        break;
+      }
+
+      if (Math.abs(changed - level) < EPSILON) {
+        continue;
+      }
+
+      if (day > runStart) {
+        runs.add(run(runStart, day - 1, level, farmSize));
+        runStart = day;
+      }
+
+      level = Math.abs(changed) < EPSILON ? 0 : changed;
+    }
+
+    runs.add(run(runStart, to, level, farmSize));
+
+    return runs;
+  }
+
+  private static OccupancyRunDto run(long start, long end, double level, Double farmSize) {
+    return new OccupancyRunDto(
+        LocalDate.ofEpochDay(start),
+        LocalDate.ofEpochDay(end),
+        level,
+        farmSize == null || farmSize == 0 ? null : level / farmSize
+    );
+  }
+}
@@ -0,0 +1,173 @@
+package com.betrybe.agrix.service.snapshot;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Crops stored column by column in primitive arrays, sorted by id.
+ *
+ * <p>A crop takes 8 bytes of id, 8 of farm id, 8 of area and 4 for each date and for its name
+ * code: 36 bytes, against several hundred for an entity with its boxed values, dates, farm
+ * proxy and fertilizer list. Names are dictionary-encoded, each distinct name stored once.
+ * Instances are immutable once built.
+ */
+public final class CropColumns {
+  /**
+   * The farm id of a crop without a farm.
+   */
+  public static final long NO_FARM = 0;
+
+  /**
+   * The epoch day of a missing date.
+   */
+  public static final int NO_DATE = Integer.MIN_VALUE;
+
+  private final long[] ids;
+  private final long[] farmIds;
+  private final double[] areas;
+  private final int[] plantedDays;
+  private final int[] harvestDays;
+  private final int[] nameCodes;
+  private final String[] names;
+  private final int size;
+
+  private CropColumns(Builder builder) {
+    this.size = builder.size;
+    this.ids = Arrays.copyOf(builder.ids, size);
+    this.farmIds = Arrays.copyOf(builder.farmIds, size);
+    this.areas = Arrays.copyOf(builder.areas, size);
+    this.plantedDays = Arrays.copyOf(builder.plantedDays, size);
+    this.harvestDays = Arrays.copyOf(builder.harvestDays, size);
+    this.nameCodes = Arrays.copyOf(builder.nameCodes, size);
+    this.names = builder.names.toArray(String[]::new);
+  }
+
+  /**
+   * Starts an empty set of columns; crops must be added in increasing id order.
+   *
+   * @return the builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Gets the number of crops.
+   *
+   * @return the size
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the id at an index.
+   *
+   * @param index the index
+   * @return the id
+   */
+  public long id(int index) {
+    return ids[index];
+  }
+
+  /**
+   * Gets the approximate heap footprint of the columns.
+   *
+   * @return the bytes
+   */
+  public long bytes() {
+    long dictionary = Arrays.stream(names)
+        .mapToLong(name -> 48L + 2L * (name == null ? 0 : name.length()))
+        .sum();
+
+    return 36L * size + dictionary;
+  }
+
+  /**
+   * Visits the crop at an index.
+   *
+   * @param index   the index
+   * @param visitor the visitor
+   */
+  public void visit(int index, CropVisitor visitor) {
+    visitor.visit(ids[index], farmIds[index], areas[index], plantedDays[index],
+        harvestDays[index], names[nameCodes[index]]);
+  }
+
+  /**
+   * Encodes a date as an epoch day.
+   *
+   * @param date the date, or null
+   * @return the epoch day, or {@link #NO_DATE}
+   */
+  public static int epochDay(LocalDate date) {
+    return date == null ? NO_DATE : Math.toIntExact(date.toEpochDay());
+  }
+
+  /**
+   * Builds {@link CropColumns}, growing the arrays as crops are added.
+   */
+  public static final class Builder {
+    private long[] ids = new long[1024];
+    private long[] farmIds = new long[1024];
+    private double[] areas = new double[1024];
+    private int[] plantedDays = new int[1024];
+    private int[] harvestDays = new int[1024];
+    private int[] nameCodes = new int[1024];
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> codes = new HashMap<>();
+    private int size;
+
+    private Builder() {}
+
+    /**
+     * Adds a crop.
+     *
+     * @param id          the id, greater than the previous one
+     * @param farmId      the farm id, or null
+     * @param plantedArea the planted area, or null
+     * @param plantedDate the planted date, or null
+     * @param harvestDate the harvest date, or null
+     * @param name        the name
+     * @return the builder
+     */
+    public Builder add(long id, Long farmId, Double plantedArea, LocalDate plantedDate,
+        LocalDate harvestDate, String name) {
+      if (size == ids.length) {
+        int capacity = size + (size >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        farmIds = Arrays.copyOf(farmIds, capacity);
+        areas = Arrays.copyOf(areas, capacity);
+        plantedDays = Arrays.copyOf(plantedDays, capacity);
+        harvestDays = Arrays.copyOf(harvestDays, capacity);
+        nameCodes = Arrays.copyOf(nameCodes, capacity);
+      }
+
+      ids[size] = id;
+      farmIds[size] = farmId == null ? NO_FARM : farmId;
+      areas[size] = plantedArea == null ? Double.NaN : plantedArea;
+      plantedDays[size] = epochDay(plantedDate);
+      harvestDays[size] = epochDay(harvestDate);
+      nameCodes[size] = codes.computeIfAbsent(name, key -> {
+        names.add(key);
+        return names.size() - 1;
+      });
+      size++;
+
+      return this;
+    }
+
+    /**
+     * Builds the columns, trimmed to their size.
+     *
+     * @return the columns
+     */
+    public CropColumns build() {
+      return new CropColumns(this);
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package com.betrybe.agrix.service.snapshot;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * An immutable view of every crop: columnar base data plus a small overlay of the crops changed
+ * since the base was built.
+ *
+ * <p>The overlay is kept sorted by id, so a scan merges it with the base in a single pass
+ * without any lookup per crop. Patching copies only the overlay; the base is rebuilt when the
+ * overlay grows too large.
+ */
+public final class CropSnapshot {
+  private static final long[] NO_IDS = new long[0];
+  private static final Row[] NO_ROWS = new Row[0];
+
+  private final CropColumns base;
+  private final long[] patchedIds;
+  private final Row[] patchedRows;
+
+  private CropSnapshot(CropColumns base, long[] patchedIds, Row[] patchedRows) {
+    this.base = base;
+    this.patchedIds = patchedIds;
+    this.patchedRows = patchedRows;
+  }
+
+  /**
+   * Wraps freshly built columns.
+   *
+   * @param base the columns
+   * @return the snapshot
+   */
+  public static CropSnapshot of(CropColumns base) {
+    return new CropSnapshot(base, NO_IDS, NO_ROWS);
+  }
+
+  /**
+   * Returns a snapshot where a crop is replaced, added or, with a null row, removed.
+   *
+   * @param id  the id
+   * @param row the current state of the crop, or null if it no longer exists
+   * @return the patched snapshot
+   */
+  public CropSnapshot patch(long id, Row row) {
+    Row patched = row == null ? Row.REMOVED : row;
+    int index = Arrays.binarySearch(patchedIds, id);
+
+    if (index >= 0) {
+      Row[] rows = patchedRows.clone();
+      rows[index] = patched;
+      return new CropSnapshot(base, patchedIds, rows);
+    }
+
+    int insertAt = -index - 1;
+    long[] ids = new long[patchedIds.length + 1];
+    Row[] rows = new Row[patchedRows.length + 1];
+
+    System.arraycopy(patchedIds, 0, ids, 0, insertAt);
+    System.arraycopy(patchedRows, 0, rows, 0, insertAt);
+    ids[insertAt] = id;
+    rows[insertAt] = patched;
+    System.arraycopy(patchedIds, insertAt, ids, insertAt + 1, patchedIds.length - insertAt);
+    System.arraycopy(patchedRows, insertAt, rows, insertAt + 1, patchedRows.length - insertAt);
+
+    return new CropSnapshot(base, ids, rows);
+  }
+
+  /**
+   * Visits every crop, in id order.
+   *
+   * @param visitor the visitor
+   */
+  public void forEach(CropVisitor visitor) {
+    int patch = 0;
+
+    for (int i = 0; i < base.size(); i++) {
+      long id = base.id(i);
+
+      while (patch < patchedIds.length && patchedIds[patch] < id) {
+        visitPatched(patch++, visitor);
+      }
+
+      if (patch < patchedIds.length && patchedIds[patch] == id) {
+        visitPatched(patch++, visitor);
+      } else {
+        base.visit(i, visitor);
+      }
+    }
+
+    while (patch < patchedIds.length) {
+      visitPatched(patch++, visitor);
+    }
+  }
+
+  /**
+   * Gets the number of crops patched since the base was built.
+   *
+   * @return the overlay size
+   */
+  public int patchCount() {
+    return patchedIds.length;
+  }
+
+  /**
+   * Gets the base columns.
+   *
+   * @return the columns
+   */
+  public CropColumns base() {
+    return base;
+  }
+
+  private void visitPatched(int index, CropVisitor visitor) {
+    Row row = patchedRows[index];
+
+    if (row != Row.REMOVED) {
+      visitor.visit(patchedIds[index], row.farmId() == null ? CropColumns.NO_FARM : row.farmId(),
+          row.plantedArea() == null ? Double.NaN : row.plantedArea(),
+          CropColumns.epochDay(row.plantedDate()), CropColumns.epochDay(row.harvestDate()),
+          row.name());
+    }
+  }
+
+  /**
+   * The state of a patched crop.
+   *
+   * @param farmId      the farm id
+   * @param plantedArea the planted area
+   * @param plantedDate the planted date
+   * @param harvestDate the harvest date
+   * @param name        the name
+   */
+  public record Row(Long farmId, Double plantedArea, LocalDate plantedDate,
+      LocalDate harvestDate, String name) {
+    private static final Row REMOVED = new Row(null, null, null, null, null);
+  }
+}
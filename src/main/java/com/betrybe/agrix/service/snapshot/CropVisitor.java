@@ -0,0 +1,21 @@
+package com.betrybe.agrix.service.snapshot;
+
+/**
+ * Receives the crops of a snapshot, one call per crop, in id order.
+ */
+@FunctionalInterface
+public interface CropVisitor {
+
+  /**
+   * Visits a crop.
+   *
+   * @param id          the id
+   * @param farmId      the farm id, or {@link CropColumns#NO_FARM}
+   * @param plantedArea the planted area, or NaN
+   * @param plantedDay  the planted date as an epoch day, or {@link CropColumns#NO_DATE}
+   * @param harvestDay  the harvest date as an epoch day, or {@link CropColumns#NO_DATE}
+   * @param name        the name, shared by every crop with the same name
+   */
+  void visit(long id, long farmId, double plantedArea, int plantedDay, int harvestDay,
+      String name);
+}
@@ -0,0 +1,132 @@
+package com.betrybe.agrix.service.sync;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Monotonically increasing change sequence shared by crops, farms and fertilizers.
+ *
+ * <p>Values come from the one-row {@code change_sequence} table, incremented in a short
+ * transaction of its own rather than in the writing one, so writers only contend on the counter
+ * for that statement. Values may then commit out of order: each one is leased in
+ * {@code change_sequence_leases} until its writing transaction completes, and readers stop at
+ * the {@link #watermark()}, below the lowest value still leased. A cursor can therefore never
+ * skip a row that commits late. A lease older than the lease timeout is taken for a writer that
+ * died and no longer holds the watermark back. Allocating takes a second pooled connection for
+ * a moment, so the pool needs some headroom above the concurrent writers.
+ */
+@Component
+public class ChangeSequence {
+  private static final String INCREMENT = "UPDATE change_sequence SET seq = seq + 1 WHERE id = 1";
+  private static final String CURRENT = "SELECT seq FROM change_sequence WHERE id = 1";
+  private static final String SEED = "INSERT INTO change_sequence (id, seq) SELECT 1, GREATEST("
+      + "(SELECT COALESCE(MAX(change_seq), 0) FROM crops), "
+      + "(SELECT COALESCE(MAX(change_seq), 0) FROM farms), "
+      + "(SELECT COALESCE(MAX(change_seq), 0) FROM fertilizers))";
+  private static final String LEASE =
+      "INSERT INTO change_sequence_leases (seq, allocated_at) VALUES (?, ?)";
+  private static final String RELEASE =
+      "DELETE FROM change_sequence_leases WHERE seq = ? OR allocated_at < ?";
+  private static final String WATERMARK = "SELECT COALESCE((SELECT MIN(seq) - 1"
+      + " FROM change_sequence_leases WHERE allocated_at >= ?), seq)"
+      + " FROM change_sequence WHERE id = 1";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate ownTransaction;
+  private final Duration leaseTimeout;
+
+  /**
+   * Instantiates a new Change sequence.
+   *
+   * @param dataSource   the data source
+   * @param leaseTimeout how long a value may stay leased, longer than any writing transaction
+   */
+  @Autowired
+  public ChangeSequence(
+      DataSource dataSource,
+      @Value("${agrix.sync.lease-timeout:5m}") Duration leaseTimeout
+  ) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.ownTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.leaseTimeout = leaseTimeout;
+  }
+
+  /**
+   * Allocates the next value for the current transaction, leased until it commits or rolls
+   * back. A value allocated by a transaction that rolls back is never used.
+   *
+   * @return the value
+   */
+  public long next() {
+    Assert.state(TransactionSynchronizationManager.isActualTransactionActive(),
+        "Change sequence values must be allocated inside the writing transaction");
+
+    long seq = ownTransaction.execute(status -> allocate());
+
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        // The writing transaction resources are still bound here: release in a new one.
+        ownTransaction.executeWithoutResult(release -> jdbcTemplate.update(
+            RELEASE, seq, Timestamp.from(Instant.now().minus(leaseTimeout))));
+      }
+    });
+
+    return seq;
+  }
+
+  /**
+   * Gets the highest value below which every row is committed: the one before the lowest value
+   * still leased, or the last value handed out when none is.
+   *
+   * @return the watermark, 0 before the first value is handed out
+   */
+  public long watermark() {
+    List<Long> watermark = jdbcTemplate.queryForList(
+        WATERMARK, Long.class, Timestamp.from(Instant.now().minus(leaseTimeout)));
+
+    // Without the counter row no value was handed out yet, so no row is stamped.
+    return watermark.isEmpty() ? 0 : watermark.get(0);
+  }
+
+  private long allocate() {
+    if (jdbcTemplate.update(INCREMENT) == 0) {
+      seed();
+      jdbcTemplate.update(INCREMENT);
+    }
+
+    long seq = jdbcTemplate.queryForObject(CURRENT, Long.class);
+
+    // Committed together with the increment: a reader that sees the counter sees the lease.
+    jdbcTemplate.update(LEASE, seq, Timestamp.from(Instant.now()));
+
+    return seq;
+  }
+
+  /**
+   * Creates the counter row where the schema came without it, starting after the rows already
+   * stamped; another instance may win the race, which is just as good.
+   */
+  private void seed() {
+    try {
+      jdbcTemplate.update(SEED);
+    } catch (DuplicateKeyException e) {
+      // Seeded concurrently.
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package com.betrybe.agrix.service.sync;
+
+import com.betrybe.agrix.entity.ChangeTrackedEntity;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA listener stamping tracked entities with the next change sequence value.
+ */
+public class ChangeTrackingListener {
+  private final ChangeSequence changeSequence;
+
+  /**
+   * Instantiates a new Change tracking listener.
+   *
+   * @param changeSequence the change sequence
+   */
+  @Autowired
+  public ChangeTrackingListener(ChangeSequence changeSequence) {
+    this.changeSequence = changeSequence;
+  }
+
+  /**
+   * Stamps the entity before it is written.
+   *
+   * @param entity the entity
+   */
+  @PrePersist
+  @PreUpdate
+  public void stamp(ChangeTrackedEntity entity) {
+    entity.stamp(changeSequence.next());
+  }
+}
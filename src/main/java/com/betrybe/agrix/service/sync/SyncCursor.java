@@ -0,0 +1,71 @@
+package com.betrybe.agrix.service.sync;
+
+import com.betrybe.agrix.service.exception.InvalidCursorException;
+
+/**
+ * Position in the change feed, ordered by change sequence, entity kind and id.
+ *
+ * <p>Several rows may share a change sequence value, so the sequence alone is not enough to
+ * resume a page in the middle of them.
+ *
+ * @param seq  the change sequence
+ * @param kind the entity kind ordinal
+ * @param id   the entity id
+ */
+public record SyncCursor(long seq, int kind, long id) implements Comparable<SyncCursor> {
+
+  /**
+   * Parses a cursor; a bare number means everything after that change sequence.
+   *
+   * @param value the cursor value
+   * @return the sync cursor
+   * @throws InvalidCursorException the invalid cursor exception
+   */
+  public static SyncCursor parse(String value) throws InvalidCursorException {
+    try {
+      String[] parts = value.split("-");
+
+      if (parts.length == 1) {
+        return new SyncCursor(Long.parseLong(parts[0]), Integer.MAX_VALUE, Long.MAX_VALUE);
+      }
+
+      if (parts.length == 3) {
+        return new SyncCursor(
+            Long.parseLong(parts[0]), Integer.parseInt(parts[1]), Long.parseLong(parts[2])
+        );
+      }
+    } catch (NumberFormatException e) {
+      throw new InvalidCursorException();
+    }
+
+    throw new InvalidCursorException();
+  }
+
+  /**
+   * Gets the lowest id of the given kind, at this cursor's sequence, still after the cursor.
+   *
+   * @param otherKind the entity kind ordinal
+   * @return the exclusive id bound
+   */
+  public long idBoundFor(int otherKind) {
+    if (otherKind < kind) {
+      return Long.MAX_VALUE;
+    }
+
+    return otherKind == kind ? id : 0;
+  }
+
+  @Override
+  public int compareTo(SyncCursor other) {
+    if (seq != other.seq) {
+      return Long.compare(seq, other.seq);
+    }
+
+    return kind != other.kind ? Integer.compare(kind, other.kind) : Long.compare(id, other.id);
+  }
+
+  @Override
+  public String toString() {
+    return seq + "-" + kind + "-" + id;
+  }
+}
@@ -0,0 +1,121 @@
+package com.betrybe.agrix.util.concurrent;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free queue for many producers and a single consumer.
+ *
+ * <p>Every slot carries a sequence number telling whose turn it is: a producer claims the next
+ * position with a CAS on the tail once the slot's sequence says it is free, stores the element
+ * and publishes it by advancing the sequence; the consumer takes it back the same way. Producers
+ * never wait on each other for longer than a failed CAS, and a full buffer is reported instead
+ * of blocking.
+ *
+ * @param <E> the element type
+ */
+public class MpscRingBuffer<E> {
+  private final int mask;
+  private final AtomicReferenceArray<E> slots;
+  private final AtomicLongArray sequences;
+  private final AtomicLong tail = new AtomicLong();
+  private final AtomicLong head = new AtomicLong();
+
+  /**
+   * Instantiates a new ring buffer.
+   *
+   * @param capacity the capacity, rounded up to a power of two
+   */
+  public MpscRingBuffer(int capacity) {
+    int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+
+    this.mask = size - 1;
+    this.slots = new AtomicReferenceArray<>(size);
+    this.sequences = new AtomicLongArray(size);
+
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  /**
+   * Adds an element, from any thread.
+   *
+   * @param element the element
+   * @return false if the buffer is full
+   */
+  public boolean offer(E element) {
+    long position = tail.get();
+
+    while (true) {
+      int index = (int) (position & mask);
+      long distance = sequences.get(index) - position;
+
+      if (distance == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          slots.lazySet(index, element);
+          sequences.set(index, position + 1);
+          return true;
+        }
+
+        position = tail.get();
+      } else if (distance < 0) {
+        return false;
+      } else {
+        position = tail.get();
+      }
+    }
+  }
+
+  /**
+   * Moves the published elements to a list, from the consumer thread only.
+   *
+   * @param target the list
+   * @param max    the maximum number of elements moved
+   * @return the number of elements moved
+   */
+  public int drainTo(List<E> target, int max) {
+    long position = head.get();
+    int drained = 0;
+
+    while (drained < max) {
+      int index = (int) (position & mask);
+
+      if (sequences.get(index) != position + 1) {
+        break;
+      }
+
+      target.add(slots.get(index));
+      slots.lazySet(index, null);
+      sequences.set(index, position + mask + 1);
+      position++;
+      drained++;
+    }
+
+    head.lazySet(position);
+
+    return drained;
+  }
+
+  /**
+   * Gets the approximate number of queued elements.
+   *
+   * @return the size
+   */
+  public int size() {
+    long size = tail.get() - head.get();
+
+    return (int) Math.max(0, Math.min(size, mask + 1L));
+  }
+
+  /**
+   * Gets the capacity.
+   *
+   * @return the capacity
+   */
+  public int capacity() {
+    return mask + 1;
+  }
+}
@@ -0,0 +1,81 @@
+package com.betrybe.agrix.web;
+
+import com.betrybe.agrix.config.DbTimeListener;
+import com.betrybe.agrix.web.accesslog.AccessLogRecord;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Logs every request going through the security chain: route, principal, status, latency and
+ * database time.
+ *
+ * <p>Runs just ahead of the {@code JwtFilter}, so requests it rejects are logged too, and the
+ * principal it authenticates is still in the security context when the chain returns. The
+ * route is the matched handler pattern, which keeps the histograms to one series per endpoint.
+ * Building the record is the only work done on the request thread; the
+ * {@link AccessLogWriter} does the rest.
+ */
+@Component
+public class AccessLogFilter extends OncePerRequestFilter {
+  private static final String UNMATCHED = "unmatched";
+  private static final String ANONYMOUS = "-";
+
+  private final AccessLogWriter accessLogWriter;
+
+  /**
+   * Instantiates a new Access log filter.
+   *
+   * @param accessLogWriter the access log writer
+   */
+  @Autowired
+  public AccessLogFilter(AccessLogWriter accessLogWriter) {
+    this.accessLogWriter = accessLogWriter;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !accessLogWriter.isEnabled();
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      FilterChain filterChain
+  ) throws ServletException, IOException {
+    long timestamp = System.currentTimeMillis();
+    long dbBefore = DbTimeListener.threadTotalNanos();
+    long start = System.nanoTime();
+    boolean failed = true;
+
+    try {
+      filterChain.doFilter(request, response);
+      failed = false;
+    } finally {
+      long latency = System.nanoTime() - start;
+      Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+      String method = request.getMethod();
+
+      accessLogWriter.write(new AccessLogRecord(
+          timestamp,
+          latency,
+          DbTimeListener.threadTotalNanos() - dbBefore,
+          failed ? HttpStatus.INTERNAL_SERVER_ERROR.value() : response.getStatus(),
+          AccessLogRecord.METHODS.contains(method) ? method : "OTHER",
+          route == null ? UNMATCHED : route.toString(),
+          authentication == null ? ANONYMOUS : authentication.getName()
+      ));
+    }
+  }
+}
@@ -0,0 +1,172 @@
+package com.betrybe.agrix.web;
+
+import com.betrybe.agrix.util.concurrent.MpscRingBuffer;
+import com.betrybe.agrix.web.accesslog.AccessLogFile;
+import com.betrybe.agrix.web.accesslog.AccessLogRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the access log and the per-route latency histograms off the request path.
+ *
+ * <p>Request threads only offer a record to a lock-free ring buffer; a full buffer drops the
+ * record rather than slowing the request down. A single writer thread drains it into the
+ * memory-mapped {@link AccessLogFile} and records the latency and database time of each route
+ * into {@code agrix.access.latency} and {@code agrix.access.db-time}, published as percentile
+ * histograms.
+ */
+@Component
+public class AccessLogWriter {
+  private static final Logger LOGGER = LoggerFactory.getLogger(AccessLogWriter.class);
+  private static final int BATCH_SIZE = 512;
+
+  private final boolean enabled;
+  private final long idleNanos;
+  private final MpscRingBuffer<AccessLogRecord> buffer;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, Timer[]> timers = new HashMap<>();
+  private final Counter dropped;
+  private final AccessLogFile file;
+  private final Thread writer;
+  private volatile boolean running = true;
+
+  /**
+   * Instantiates a new Access log writer.
+   *
+   * @param enabled        whether requests are logged
+   * @param directory      the directory of the log files
+   * @param recordsPerFile the records a file holds before rotating
+   * @param maxFiles       the files kept
+   * @param capacity       the records buffered for the writer
+   * @param idleMillis     how long the writer sleeps when the buffer is empty
+   * @param meterRegistry  the meter registry
+   * @throws IOException if the first log file cannot be created
+   */
+  @Autowired
+  public AccessLogWriter(
+      @Value("${agrix.access-log.enabled:true}") boolean enabled,
+      @Value("${agrix.access-log.directory:access-log}") Path directory,
+      @Value("${agrix.access-log.records-per-file:1048576}") int recordsPerFile,
+      @Value("${agrix.access-log.max-files:8}") int maxFiles,
+      @Value("${agrix.access-log.capacity:16384}") int capacity,
+      @Value("${agrix.access-log.idle-millis:20}") long idleMillis,
+      MeterRegistry meterRegistry
+  ) throws IOException {
+    this.enabled = enabled;
+    this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+    this.buffer = new MpscRingBuffer<>(capacity);
+    this.meterRegistry = meterRegistry;
+    this.dropped = Counter.builder("agrix.access.dropped")
+        .description("Access log records dropped because the buffer was full")
+        .register(meterRegistry);
+
+    Gauge.builder("agrix.access.queue.depth", buffer, MpscRingBuffer::size)
+        .description("Access log records waiting for the writer")
+        .register(meterRegistry);
+
+    this.file = enabled ? new AccessLogFile(directory, recordsPerFile, maxFiles) : null;
+    this.writer = new Thread(this::drain, "access-log-writer");
+    this.writer.setDaemon(true);
+
+    if (enabled) {
+      this.writer.start();
+    }
+  }
+
+  /**
+   * Gets whether requests are logged.
+   *
+   * @return true if enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Queues a record, from any thread.
+   *
+   * @param record the record
+   */
+  public void write(AccessLogRecord record) {
+    if (!buffer.offer(record)) {
+      dropped.increment();
+    }
+  }
+
+  /**
+   * Stops the writer once the buffer is drained and flushes the current file.
+   *
+   * @throws InterruptedException if interrupted while waiting for the writer
+   */
+  @PreDestroy
+  public void shutdown() throws InterruptedException {
+    running = false;
+    LockSupport.unpark(writer);
+
+    if (file != null) {
+      writer.join(TimeUnit.SECONDS.toMillis(10));
+      file.close();
+    }
+  }
+
+  private void drain() {
+    List<AccessLogRecord> batch = new ArrayList<>(BATCH_SIZE);
+
+    while (running || buffer.size() > 0) {
+      if (buffer.drainTo(batch, BATCH_SIZE) == 0) {
+        LockSupport.parkNanos(idleNanos);
+        continue;
+      }
+
+      for (AccessLogRecord record : batch) {
+        Timer[] routeTimers = timers.computeIfAbsent(record.method() + " " + record.route(),
+            key -> routeTimers(record.method(), record.route()));
+
+        routeTimers[0].record(record.latencyNanos(), TimeUnit.NANOSECONDS);
+        routeTimers[1].record(record.dbNanos(), TimeUnit.NANOSECONDS);
+
+        try {
+          file.append(record);
+        } catch (IOException e) {
+          dropped.increment();
+          LOGGER.warn("Could not append to the access log", e);
+        }
+      }
+
+      batch.clear();
+    }
+  }
+
+  private Timer[] routeTimers(String method, String route) {
+    return new Timer[] {
+        Timer.builder("agrix.access.latency")
+            .description("Time spent serving requests, per route")
+            .tag("method", method)
+            .tag("route", route)
+            .publishPercentileHistogram()
+            .register(meterRegistry),
+        Timer.builder("agrix.access.db-time")
+            .description("Time requests spent executing statements through Hibernate, per route")
+            .tag("method", method)
+            .tag("route", route)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+    };
+  }
+}
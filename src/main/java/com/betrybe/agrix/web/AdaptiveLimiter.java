@@ -0,0 +1,112 @@
+package com.betrybe.agrix.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient based concurrency limit.
+ *
+ * <p>Compares a short-term latency average against a long-term one: while they match the limit
+ * grows by a small queue allowance, and once recent requests get slower than the baseline the
+ * limit shrinks proportionally, so queueing happens at the door instead of in the database.
+ */
+public class AdaptiveLimiter {
+  private static final double SHORT_SMOOTHING = 0.2;
+  private static final double LONG_SMOOTHING = 0.002;
+  private static final double LIMIT_SMOOTHING = 0.2;
+  private static final double TOLERANCE = 1.5;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile double estimatedLimit;
+  private double shortRttNanos;
+  private double longRttNanos;
+
+  /**
+   * Instantiates a new Adaptive limiter.
+   *
+   * @param initialLimit the initial limit
+   * @param minLimit     the minimum limit
+   * @param maxLimit     the maximum limit
+   */
+  public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit) {
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.estimatedLimit = initialLimit;
+  }
+
+  /**
+   * Tries to take an in-flight slot.
+   *
+   * @return true if the request may proceed
+   */
+  public boolean tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+
+      if (current >= (int) estimatedLimit) {
+        return false;
+      }
+
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Releases a slot taken by {@link #tryAcquire()} and feeds its latency into the limit.
+   *
+   * @param rttNanos the request latency in nanoseconds
+   */
+  public void release(long rttNanos) {
+    int inFlightAtCompletion = inFlight.getAndDecrement();
+
+    update(rttNanos, inFlightAtCompletion);
+  }
+
+  private synchronized void update(long rttNanos, int inFlightAtCompletion) {
+    if (longRttNanos == 0) {
+      shortRttNanos = rttNanos;
+      longRttNanos = rttNanos;
+      return;
+    }
+
+    shortRttNanos += (rttNanos - shortRttNanos) * SHORT_SMOOTHING;
+    longRttNanos += (rttNanos - longRttNanos) * LONG_SMOOTHING;
+
+    // A long-term baseline far above recent samples means load went away: let it recover fast.
+    if (longRttNanos / shortRttNanos > 2) {
+      longRttNanos *= 0.95;
+    }
+
+    // Do not grow a limit the traffic is not even using.
+    if (inFlightAtCompletion < estimatedLimit / 2) {
+      return;
+    }
+
+    double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRttNanos));
+    double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+    newLimit = estimatedLimit * (1 - LIMIT_SMOOTHING) + newLimit * LIMIT_SMOOTHING;
+
+    estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+  }
+
+  /**
+   * Gets the current limit.
+   *
+   * @return the limit
+   */
+  public int getLimit() {
+    return (int) estimatedLimit;
+  }
+
+  /**
+   * Gets the number of requests in flight.
+   *
+   * @return the in flight count
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+}
@@ -0,0 +1,129 @@
+package com.betrybe.agrix.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Sheds load with a fast 503 once a route group reaches its adaptive concurrency limit.
+ *
+ * <p>Runs ahead of the security chain so rejected requests cost neither a JWT verification nor
+ * a database lookup. Each configured route prefix has its own {@link AdaptiveLimiter}, tuned by
+ * {@code agrix.limiter.<group>.initial-limit}, {@code min-limit} and {@code max-limit}.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 10)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+  private final boolean enabled;
+  private final Map<String, AdaptiveLimiter> limiters = new LinkedHashMap<>();
+  private final Map<String, Counter> rejectedCounters = new LinkedHashMap<>();
+
+  /**
+   * Instantiates a new Concurrency limit filter.
+   *
+   * @param enabled       whether load shedding is active
+   * @param routes        the route prefixes to guard
+   * @param environment   the environment holding per-group overrides
+   * @param meterRegistry the meter registry
+   */
+  @Autowired
+  public ConcurrencyLimitFilter(
+      @Value("${agrix.limiter.enabled:true}") boolean enabled,
+      @Value("${agrix.limiter.routes:/crops,/farms,/fertilizers,/auth}") List<String> routes,
+      Environment environment,
+      MeterRegistry meterRegistry
+  ) {
+    this.enabled = enabled;
+
+    for (String route : routes) {
+      String group = route.replace("/", "");
+      AdaptiveLimiter limiter = new AdaptiveLimiter(
+          limitProperty(environment, group, "initial-limit", 20),
+          limitProperty(environment, group, "min-limit", 4),
+          limitProperty(environment, group, "max-limit", 200)
+      );
+
+      limiters.put(route, limiter);
+      rejectedCounters.put(route, Counter.builder("agrix.limiter.rejected")
+          .description("Requests shed by the adaptive concurrency limiter")
+          .tag("route", route)
+          .register(meterRegistry));
+      Gauge.builder("agrix.limiter.limit", limiter, AdaptiveLimiter::getLimit)
+          .tag("route", route)
+          .register(meterRegistry);
+      Gauge.builder("agrix.limiter.inflight", limiter, AdaptiveLimiter::getInFlight)
+          .tag("route", route)
+          .register(meterRegistry);
+    }
+  }
+
+  private static int limitProperty(Environment environment, String group, String name,
+      int defaultValue) {
+    Integer shared = environment.getProperty("agrix.limiter." + name, Integer.class);
+
+    return environment.getProperty(
+        "agrix.limiter." + group + "." + name,
+        Integer.class,
+        shared == null ? defaultValue : shared
+    );
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !enabled || routeOf(request) == null;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      FilterChain filterChain
+  ) throws ServletException, IOException {
+    String route = routeOf(request);
+    AdaptiveLimiter limiter = limiters.get(route);
+
+    if (!limiter.tryAcquire()) {
+      rejectedCounters.get(route).increment();
+      response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+      response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+      return;
+    }
+
+    long start = System.nanoTime();
+
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      limiter.release(System.nanoTime() - start);
+    }
+  }
+
+  private String routeOf(HttpServletRequest request) {
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+
+    for (String route : limiters.keySet()) {
+      if (path.equals(route) || path.startsWith(route + "/")) {
+        return route;
+      }
+    }
+
+    return null;
+  }
+}
@@ -0,0 +1,247 @@
+package com.betrybe.agrix.web;
+
+import com.betrybe.agrix.service.event.EntityChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Holds fully serialized responses in direct (off-heap) buffers.
+ *
+ * <p>Every route has a generation counter bumped on invalidation; a response is only kept if
+ * the generation did not move while it was being produced, so a write racing a read can never
+ * leave stale bytes behind.
+ *
+ * <p>Once the budget is reached, storing a response evicts others with the clock algorithm: a
+ * hand sweeps the entries, sparing those read since it last passed, so the routes and filters
+ * actually requested stay cached while one-off keys age out.
+ */
+@Component
+public class ResponseCache {
+  private final boolean gzip;
+  private final int gzipMinBytes;
+  private final long maxBytes;
+  private final Map<String, Slot> entries = new ConcurrentHashMap<>();
+  private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+  private final AtomicLong storedBytes = new AtomicLong();
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter evictions;
+  private Iterator<Map.Entry<String, Slot>> hand;
+
+  /**
+   * Instantiates a new Response cache.
+   *
+   * @param gzip          whether bodies are stored gzip-compressed
+   * @param gzipMinBytes  the smallest body worth compressing
+   * @param maxBytes      the off-heap budget for all entries
+   * @param meterRegistry the meter registry
+   */
+  @Autowired
+  public ResponseCache(
+      @Value("${agrix.response-cache.gzip:true}") boolean gzip,
+      @Value("${agrix.response-cache.gzip-min-bytes:1024}") int gzipMinBytes,
+      @Value("${agrix.response-cache.max-bytes:67108864}") long maxBytes,
+      MeterRegistry meterRegistry
+  ) {
+    this.gzip = gzip;
+    this.gzipMinBytes = gzipMinBytes;
+    this.maxBytes = maxBytes;
+    this.hits = meterRegistry.counter("agrix.response-cache.requests", "result", "hit");
+    this.misses = meterRegistry.counter("agrix.response-cache.requests", "result", "miss");
+    this.evictions = Counter.builder("agrix.response-cache.evictions")
+        .description("Cached responses evicted to make room for new ones")
+        .register(meterRegistry);
+
+    Gauge.builder("agrix.response-cache.bytes", storedBytes, AtomicLong::get)
+        .description("Off-heap bytes held by cached responses")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Gets a cached response.
+   *
+   * @param key the cache key
+   * @return the cached response, or null on a miss
+   */
+  public CachedResponse get(String key) {
+    Slot slot = entries.get(key);
+
+    if (slot == null) {
+      misses.increment();
+      return null;
+    }
+
+    slot.referenced = true;
+    hits.increment();
+
+    return slot.response;
+  }
+
+  /**
+   * Gets the current generation of a route; capture it before producing a response.
+   *
+   * @param route the route
+   * @return the generation
+   */
+  public long generation(String route) {
+    return generations.computeIfAbsent(route, key -> new AtomicLong()).get();
+  }
+
+  /**
+   * Stores a response body produced while the route was at the given generation.
+   *
+   * @param key         the cache key
+   * @param route       the route
+   * @param generation  the generation captured before the response was produced
+   * @param contentType the content type
+   * @param body        the serialized body
+   */
+  public void put(String key, String route, long generation, String contentType, byte[] body) {
+    boolean compress = gzip && body.length >= gzipMinBytes;
+    byte[] stored = compress ? compress(body) : body;
+
+    if (stored.length > maxBytes) {
+      return;
+    }
+
+    long overBudget = storedBytes.addAndGet(stored.length) - maxBytes;
+
+    if (overBudget > 0 && evict(overBudget) < overBudget) {
+      storedBytes.addAndGet(-stored.length);
+      return;
+    }
+
+    ByteBuffer buffer = ByteBuffer.allocateDirect(stored.length).put(stored).flip();
+    Slot slot = new Slot(new CachedResponse(
+        route, contentType, compress, buffer.asReadOnlyBuffer()
+    ));
+
+    Slot previous = entries.put(key, slot);
+
+    if (previous != null) {
+      storedBytes.addAndGet(-previous.response.length());
+    }
+
+    if (generation(route) != generation && entries.remove(key, slot)) {
+      storedBytes.addAndGet(-slot.response.length());
+    }
+  }
+
+  /**
+   * Drops every cached response of a route.
+   *
+   * @param route the route
+   */
+  public void invalidate(String route) {
+    generations.computeIfAbsent(route, key -> new AtomicLong()).incrementAndGet();
+
+    entries.entrySet().removeIf(entry -> {
+      CachedResponse cached = entry.getValue().response;
+
+      if (!cached.route().equals(route)) {
+        return false;
+      }
+
+      storedBytes.addAndGet(-cached.length());
+      return true;
+    });
+  }
+
+  /**
+   * Invalidates the route of an entity once its change is committed.
+   *
+   * @param event the change event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onEntityChange(EntityChangeEvent event) {
+    invalidate(event.entity().getRoute());
+  }
+
+  /**
+   * Advances the clock hand until enough bytes are freed or every entry was visited twice: the
+   * first visit only clears the referenced bit of entries read since the last sweep.
+   */
+  private synchronized long evict(long bytes) {
+    long freed = 0;
+    int budget = 2 * entries.size();
+
+    for (int visited = 0; freed < bytes && visited < budget; visited++) {
+      if (hand == null || !hand.hasNext()) {
+        hand = entries.entrySet().iterator();
+
+        if (!hand.hasNext()) {
+          break;
+        }
+      }
+
+      Map.Entry<String, Slot> entry = hand.next();
+      Slot slot = entry.getValue();
+
+      if (slot.referenced) {
+        slot.referenced = false;
+      } else if (entries.remove(entry.getKey(), slot)) {
+        storedBytes.addAndGet(-slot.response.length());
+        freed += slot.response.length();
+        evictions.increment();
+      }
+    }
+
+    return freed;
+  }
+
+  private static byte[] compress(byte[] body) {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+
+    try (GZIPOutputStream gzipStream = new GZIPOutputStream(compressed)) {
+      gzipStream.write(body);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return compressed.toByteArray();
+  }
+
+  /**
+   * A serialized response kept off-heap.
+   *
+   * @param route       the route it belongs to
+   * @param contentType the content type
+   * @param gzipped     whether the body is gzip-compressed
+   * @param body        the read-only direct buffer holding the body
+   */
+  public record CachedResponse(String route, String contentType, boolean gzipped,
+      ByteBuffer body) {
+
+    /**
+     * Gets the stored length.
+     *
+     * @return the length in bytes
+     */
+    public int length() {
+      return body.capacity();
+    }
+  }
+
+  private static final class Slot {
+    private final CachedResponse response;
+    private volatile boolean referenced;
+
+    private Slot(CachedResponse response) {
+      this.response = response;
+    }
+  }
+}
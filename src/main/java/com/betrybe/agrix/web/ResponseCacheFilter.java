@@ -0,0 +1,153 @@
+package com.betrybe.agrix.web;
+
+import com.betrybe.agrix.web.ResponseCache.CachedResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Serves read-mostly GET routes straight from the {@link ResponseCache}.
+ *
+ * <p>Runs after the security chain, so the key can include the caller's roles: a role that the
+ * controller would reject never gets a 200 stored under its key. Only the query parameters the
+ * routes understand are part of the key, in a canonical order; a request carrying any other
+ * parameter bypasses the cache, so made-up parameters cannot push useful entries out.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 10)
+public class ResponseCacheFilter extends OncePerRequestFilter {
+  private final boolean enabled;
+  private final List<String> routes;
+  private final List<String> queryParams;
+  private final ResponseCache responseCache;
+
+  /**
+   * Instantiates a new Response cache filter.
+   *
+   * @param enabled       whether the cache is active
+   * @param routes        the cached routes
+   * @param queryParams   the query parameters a cached request may carry
+   * @param responseCache the response cache
+   */
+  @Autowired
+  public ResponseCacheFilter(
+      @Value("${agrix.response-cache.enabled:true}") boolean enabled,
+      @Value("${agrix.response-cache.routes:/farms,/fertilizers}") List<String> routes,
+      @Value("${agrix.response-cache.query-params:fields,ids}") List<String> queryParams,
+      ResponseCache responseCache
+  ) {
+    this.enabled = enabled;
+    this.routes = routes;
+    this.queryParams = queryParams;
+    this.responseCache = responseCache;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !enabled
+        || !HttpMethod.GET.matches(request.getMethod())
+        || !routes.contains(pathOf(request))
+        || !queryParams.containsAll(request.getParameterMap().keySet())
+        || SecurityContextHolder.getContext().getAuthentication() == null;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      FilterChain filterChain
+  ) throws ServletException, IOException {
+    String route = pathOf(request);
+    String key = keyOf(route, request);
+    CachedResponse cached = responseCache.get(key);
+
+    if (cached != null) {
+      writeCached(cached, request, response);
+      return;
+    }
+
+    long generation = responseCache.generation(route);
+    ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+
+    filterChain.doFilter(request, wrapper);
+
+    if (wrapper.getStatus() == HttpStatus.OK.value()) {
+      responseCache.put(
+          key, route, generation, wrapper.getContentType(), wrapper.getContentAsByteArray()
+      );
+    }
+
+    wrapper.copyBodyToResponse();
+  }
+
+  private void writeCached(CachedResponse cached, HttpServletRequest request,
+      HttpServletResponse response) throws IOException {
+    response.setStatus(HttpStatus.OK.value());
+    response.setContentType(cached.contentType());
+    response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+    String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+    OutputStream out = response.getOutputStream();
+
+    if (cached.gzipped() && (acceptEncoding == null || !acceptEncoding.contains("gzip"))) {
+      byte[] compressed = new byte[cached.length()];
+      cached.body().duplicate().get(compressed);
+
+      try (GZIPInputStream gzipStream =
+          new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+        gzipStream.transferTo(out);
+      }
+
+      return;
+    }
+
+    if (cached.gzipped()) {
+      response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+
+    response.setContentLength(cached.length());
+
+    ByteBuffer body = cached.body().duplicate();
+    Channels.newChannel(out).write(body);
+  }
+
+  private String keyOf(String route, HttpServletRequest request) {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    String roles = authentication.getAuthorities().stream()
+        .map(GrantedAuthority::getAuthority)
+        .sorted()
+        .collect(Collectors.joining(","));
+    String query = new TreeMap<>(request.getParameterMap()).entrySet().stream()
+        .map(param -> param.getKey() + "=" + String.join(",", param.getValue()))
+        .collect(Collectors.joining("&"));
+
+    return route + "?" + query + "|" + roles;
+  }
+
+  private String pathOf(HttpServletRequest request) {
+    return request.getRequestURI().substring(request.getContextPath().length());
+  }
+}
@@ -0,0 +1,162 @@
+package com.betrybe.agrix.web.accesslog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Rotating, memory-mapped binary files of {@link AccessLogRecord}s.
+ *
+ * <p>Each file is created at its full size and mapped once, so appending a record is a few
+ * stores into the page cache and the kernel writes the pages back on its own schedule. A file
+ * starts with a 16-byte header: the magic {@code AGRXALOG}, the format version
+ * and the record size. When a file is full the next one is created, named after the time it
+ * was opened, and the oldest files beyond the limit are deleted. Appends must come from a single
+ * thread.
+ */
+public class AccessLogFile implements Closeable {
+  private static final int HEADER_SIZE = 16;
+  private static final byte[] MAGIC = "AGRXALOG".getBytes(StandardCharsets.US_ASCII);
+  private static final int VERSION = 1;
+  private static final String PREFIX = "access-";
+  private static final String SUFFIX = ".bin";
+
+  private final Path directory;
+  private final int recordsPerFile;
+  private final int maxFiles;
+  private MappedByteBuffer mapped;
+  private int written;
+
+  /**
+   * Opens a new file in a directory.
+   *
+   * @param directory      the directory
+   * @param recordsPerFile the records a file holds before rotating, at most 16M
+   * @param maxFiles       the files kept, the current one included
+   * @throws IOException if the file cannot be created
+   */
+  public AccessLogFile(Path directory, int recordsPerFile, int maxFiles) throws IOException {
+    this.directory = directory;
+    this.recordsPerFile = Math.min(Math.max(1, recordsPerFile),
+        (Integer.MAX_VALUE - HEADER_SIZE) / AccessLogRecord.SIZE);
+    this.maxFiles = Math.max(1, maxFiles);
+
+    Files.createDirectories(directory);
+    rotate();
+  }
+
+  /**
+   * Appends a record, rotating first if the current file is full.
+   *
+   * @param record the record
+   * @throws IOException if the next file cannot be created
+   */
+  public void append(AccessLogRecord record) throws IOException {
+    if (written == recordsPerFile) {
+      rotate();
+    }
+
+    record.writeTo(mapped, HEADER_SIZE + written * AccessLogRecord.SIZE);
+    written++;
+  }
+
+  /**
+   * Forces the written records to the storage device.
+   */
+  public void force() {
+    mapped.force();
+  }
+
+  @Override
+  public void close() {
+    force();
+  }
+
+  /**
+   * Lists the log files of a directory, oldest first.
+   *
+   * @param directory the directory
+   * @return the files
+   * @throws IOException if the directory cannot be listed
+   */
+  public static List<Path> list(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(file -> file.getFileName().toString().startsWith(PREFIX))
+          .filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+          .sorted()
+          .toList();
+    }
+  }
+
+  /**
+   * Reads the records of a file, in order.
+   *
+   * @param file     the file
+   * @param consumer receives each record
+   * @throws IOException if the file cannot be read or is not an access log
+   */
+  public static void read(Path file, Consumer<AccessLogRecord> consumer) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      byte[] magic = new byte[MAGIC.length];
+
+      if (size >= HEADER_SIZE) {
+        buffer.get(0, magic);
+      }
+
+      if (!Arrays.equals(magic, MAGIC) || buffer.getInt(8) != VERSION
+          || buffer.getInt(12) != AccessLogRecord.SIZE) {
+        throw new IOException("Not an access log: " + file);
+      }
+
+      for (long offset = HEADER_SIZE; offset + AccessLogRecord.SIZE <= size;
+          offset += AccessLogRecord.SIZE) {
+        AccessLogRecord record = AccessLogRecord.readFrom(buffer, (int) offset);
+
+        if (record == null) {
+          break;
+        }
+
+        consumer.accept(record);
+      }
+    }
+  }
+
+  private void rotate() throws IOException {
+    if (mapped != null) {
+      mapped.force();
+    }
+
+    Path file = directory.resolve(String.format("%s%013d%s", PREFIX, System.currentTimeMillis(),
+        SUFFIX));
+    long size = HEADER_SIZE + (long) recordsPerFile * AccessLogRecord.SIZE;
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      // The mapping outlives the channel; the file is zero-filled as it grows.
+      mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    ByteBuffer header = mapped.duplicate();
+    header.put(MAGIC).putInt(VERSION).putInt(AccessLogRecord.SIZE);
+    written = 0;
+
+    List<Path> files = list(directory);
+
+    for (int i = 0; i < files.size() - maxFiles; i++) {
+      Files.deleteIfExists(files.get(i));
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package com.betrybe.agrix.web.accesslog;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Converts binary access log files to CSV, or to JSON with one object per line.
+ *
+ * <p>Runs offline, against the files of a directory or single files, without starting the
+ * application:
+ *
+ * <pre>
+ * java -cp target/classes com.betrybe.agrix.web.accesslog.AccessLogReader access-log
+ * java -cp target/classes com.betrybe.agrix.web.accesslog.AccessLogReader --json \
+ *     access-log/access-1760000000000.bin
+ * java -cp agrix.jar -Dloader.main=com.betrybe.agrix.web.accesslog.AccessLogReader \
+ *     org.springframework.boot.loader.PropertiesLauncher --json access-log
+ * </pre>
+ */
+public class AccessLogReader {
+
+  private AccessLogReader() {}
+
+  /**
+   * Prints the records of the given files and directories to the standard output.
+   *
+   * @param args {@code --json} or {@code --csv} (the default), then the files or directories
+   * @throws IOException if a file cannot be read
+   */
+  public static void main(String[] args) throws IOException {
+    boolean json = false;
+    List<Path> files = new ArrayList<>();
+
+    for (String arg : args) {
+      if (arg.equals("--json")) {
+        json = true;
+      } else if (arg.equals("--csv")) {
+        json = false;
+      } else if (Files.isDirectory(Path.of(arg))) {
+        files.addAll(AccessLogFile.list(Path.of(arg)));
+      } else {
+        files.add(Path.of(arg));
+      }
+    }
+
+    if (files.isEmpty()) {
+      System.err.println("Usage: AccessLogReader [--csv|--json] <file or directory>...");
+      System.exit(1);
+    }
+
+    Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+
+    if (!json) {
+      out.write("timestamp,method,route,status,latency_ms,db_ms,principal\n");
+    }
+
+    for (Path file : files) {
+      boolean asJson = json;
+
+      try {
+        AccessLogFile.read(file, record -> write(out, record, asJson));
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+    }
+
+    out.flush();
+  }
+
+  private static void write(Writer out, AccessLogRecord record, boolean json) {
+    String timestamp = Instant.ofEpochMilli(record.timestamp()).toString();
+    String latency = millis(record.latencyNanos());
+    String db = millis(record.dbNanos());
+
+    try {
+      if (json) {
+        out.write("{\"timestamp\":\"" + timestamp
+            + "\",\"method\":\"" + record.method()
+            + "\",\"route\":" + jsonString(record.route())
+            + ",\"status\":" + record.status()
+            + ",\"latencyMs\":" + latency
+            + ",\"dbMs\":" + db
+            + ",\"principal\":" + jsonString(record.principal()) + "}\n");
+      } else {
+        out.write(timestamp + "," + record.method() + "," + csvField(record.route()) + ","
+            + record.status() + "," + latency + "," + db + "," + csvField(record.principal())
+            + "\n");
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static String millis(long nanos) {
+    return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+  }
+
+  private static String csvField(String value) {
+    if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+      return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    return value;
+  }
+
+  private static String jsonString(String value) {
+    StringBuilder json = new StringBuilder("\"");
+
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+
+      if (c == '"' || c == '\\') {
+        json.append('\\').append(c);
+      } else if (c < 0x20) {
+        json.append(String.format("\\u%04x", (int) c));
+      } else {
+        json.append(c);
+      }
+    }
+
+    return json.append('"').toString();
+  }
+}
@@ -0,0 +1,120 @@
+package com.betrybe.agrix.web.accesslog;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One request of the access log, and its fixed-size binary layout.
+ *
+ * <p>Each record takes {@link #SIZE} bytes: the timestamp, latency and database time as longs,
+ * the status as a short, the method as an index into {@link #METHODS}, then the route and the
+ * principal as length-prefixed UTF-8, truncated to 64 and 32 bytes. A record whose timestamp
+ * is zero marks the end of a file.
+ *
+ * @param timestamp    the epoch millisecond the request started
+ * @param latencyNanos the time spent in the filter chain
+ * @param dbNanos      the time spent executing statements through Hibernate
+ * @param status       the response status
+ * @param method       the request method
+ * @param route        the matched route pattern, or {@code unmatched}
+ * @param principal    the authenticated principal, or {@code -}
+ */
+public record AccessLogRecord(
+    long timestamp,
+    long latencyNanos,
+    long dbNanos,
+    int status,
+    String method,
+    String route,
+    String principal
+) {
+  /**
+   * The size of a record, in bytes.
+   */
+  public static final int SIZE = 128;
+
+  /**
+   * The methods a record can hold; anything else is stored as {@code OTHER}.
+   */
+  public static final List<String> METHODS = List.of(
+      "GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS", "TRACE", "OTHER"
+  );
+
+  private static final int ROUTE_BYTES = 64;
+  private static final int PRINCIPAL_BYTES = 32;
+  private static final int ROUTE_OFFSET = 32;
+  private static final int PRINCIPAL_OFFSET = ROUTE_OFFSET + ROUTE_BYTES;
+
+  /**
+   * Writes the record at an absolute position of a zero-filled buffer.
+   *
+   * @param buffer the buffer
+   * @param offset the position of the record
+   */
+  public void writeTo(ByteBuffer buffer, int offset) {
+    int methodIndex = METHODS.indexOf(method);
+    byte[] routeBytes = truncate(route, ROUTE_BYTES);
+    byte[] principalBytes = truncate(principal, PRINCIPAL_BYTES);
+
+    buffer.put(offset + ROUTE_OFFSET, routeBytes);
+    buffer.put(offset + PRINCIPAL_OFFSET, principalBytes);
+    buffer.putLong(offset + 8, latencyNanos);
+    buffer.putLong(offset + 16, dbNanos);
+    buffer.putShort(offset + 24, (short) status);
+    buffer.put(offset + 26, (byte) (methodIndex < 0 ? METHODS.size() - 1 : methodIndex));
+    buffer.put(offset + 27, (byte) routeBytes.length);
+    buffer.put(offset + 28, (byte) principalBytes.length);
+    // The timestamp goes last, so a reader of the live file stops before a partial record.
+    buffer.putLong(offset, timestamp);
+  }
+
+  /**
+   * Reads the record at an absolute position.
+   *
+   * @param buffer the buffer
+   * @param offset the position of the record
+   * @return the record, or null past the last record of the file
+   */
+  public static AccessLogRecord readFrom(ByteBuffer buffer, int offset) {
+    long timestamp = buffer.getLong(offset);
+
+    if (timestamp == 0) {
+      return null;
+    }
+
+    byte[] route = new byte[Math.min(ROUTE_BYTES, buffer.get(offset + 27) & 0xff)];
+    byte[] principal = new byte[Math.min(PRINCIPAL_BYTES, buffer.get(offset + 28) & 0xff)];
+
+    buffer.get(offset + ROUTE_OFFSET, route);
+    buffer.get(offset + PRINCIPAL_OFFSET, principal);
+
+    return new AccessLogRecord(
+        timestamp,
+        buffer.getLong(offset + 8),
+        buffer.getLong(offset + 16),
+        buffer.getShort(offset + 24) & 0xffff,
+        METHODS.get(Math.min(buffer.get(offset + 26) & 0xff, METHODS.size() - 1)),
+        new String(route, StandardCharsets.UTF_8),
+        new String(principal, StandardCharsets.UTF_8)
+    );
+  }
+
+  private static byte[] truncate(String value, int max) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+    if (bytes.length <= max) {
+      return bytes;
+    }
+
+    int length = max;
+
+    // Never cut a multi-byte character in half.
+    while (length > 0 && (bytes[length] & 0xc0) == 0x80) {
+      length--;
+    }
+
+    return Arrays.copyOf(bytes, length);
+  }
+}
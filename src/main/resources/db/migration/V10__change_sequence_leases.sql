@@ -0,0 +1,8 @@
+-- change_sequence is no longer incremented inside the writing transaction: each value is taken
+-- in a short transaction of its own, together with a lease row here that the writer drops once
+-- it commits or rolls back. Sync readers stop below the lowest leased value, so a cursor never
+-- passes a value whose rows may still commit.
+CREATE TABLE change_sequence_leases (
+  seq BIGINT NOT NULL PRIMARY KEY,
+  allocated_at DATETIME(6) NOT NULL
+) ENGINE = InnoDB;
@@ -0,0 +1,30 @@
+-- Soft deletes and change tracking for the sync feed, and the cold archive of old crops.
+
+ALTER TABLE farms ADD COLUMN updated_at DATETIME(6);
+ALTER TABLE farms ADD COLUMN deleted_at DATETIME(6);
+ALTER TABLE farms ADD COLUMN change_seq BIGINT;
+CREATE INDEX idx_farms_change_seq ON farms (change_seq);
+
+ALTER TABLE crops ADD COLUMN updated_at DATETIME(6);
+ALTER TABLE crops ADD COLUMN deleted_at DATETIME(6);
+ALTER TABLE crops ADD COLUMN change_seq BIGINT;
+CREATE INDEX idx_crops_change_seq ON crops (change_seq);
+CREATE INDEX idx_crops_harvest_date ON crops (harvest_date);
+
+ALTER TABLE fertilizers ADD COLUMN updated_at DATETIME(6);
+ALTER TABLE fertilizers ADD COLUMN deleted_at DATETIME(6);
+ALTER TABLE fertilizers ADD COLUMN change_seq BIGINT;
+CREATE INDEX idx_fertilizers_change_seq ON fertilizers (change_seq);
+
+CREATE TABLE crops_archive (
+  id BIGINT NOT NULL,
+  name VARCHAR(255),
+  planted_area FLOAT(53),
+  farm_id BIGINT,
+  planted_date DATE,
+  harvest_date DATE,
+  fertilizer_ids VARCHAR(4000),
+  archived_at DATETIME(6),
+  PRIMARY KEY (id),
+  INDEX idx_crops_archive_harvest_date (harvest_date)
+) ENGINE = InnoDB;
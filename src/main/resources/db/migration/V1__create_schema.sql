@@ -0,0 +1,46 @@
+-- Schema as Hibernate generated it before migrations existed. Databases created that way are
+-- baselined at version 0 (spring.flyway.baseline-on-migrate), so this runs on them too and
+-- only creates what they lack.
+
+CREATE TABLE IF NOT EXISTS farms (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  name VARCHAR(255),
+  size FLOAT(53),
+  PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS crops (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  name VARCHAR(255),
+  planted_area FLOAT(53),
+  planted_date DATE,
+  harvest_date DATE,
+  farm_id BIGINT,
+  PRIMARY KEY (id),
+  CONSTRAINT fk_crops_farm FOREIGN KEY (farm_id) REFERENCES farms (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS fertilizers (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  name VARCHAR(255),
+  brand VARCHAR(255),
+  composition VARCHAR(255),
+  PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS crop_fertilizers (
+  crop_id BIGINT NOT NULL,
+  fertilizer_id BIGINT NOT NULL,
+  CONSTRAINT fk_crop_fertilizers_crop FOREIGN KEY (crop_id) REFERENCES crops (id),
+  CONSTRAINT fk_crop_fertilizers_fertilizer FOREIGN KEY (fertilizer_id)
+    REFERENCES fertilizers (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS persons (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  username VARCHAR(255),
+  password VARCHAR(255),
+  role TINYINT,
+  PRIMARY KEY (id),
+  CONSTRAINT uk_persons_username UNIQUE (username)
+) ENGINE = InnoDB;
@@ -0,0 +1,25 @@
+-- Crops of a farm: farm screens, farm deletion and the farm-filtered sync feed.
+CREATE INDEX idx_crops_farm_id_change_seq ON crops (farm_id, change_seq);
+
+-- The join table had no key, so a link could be stored twice. Rebuild it with one row per
+-- link, keyed by (crop_id, fertilizer_id) and indexed the other way round for the
+-- crops-of-a-fertilizer side.
+CREATE TABLE crop_fertilizers_keyed (
+  crop_id BIGINT NOT NULL,
+  fertilizer_id BIGINT NOT NULL,
+  PRIMARY KEY (crop_id, fertilizer_id),
+  INDEX idx_crop_fertilizers_fertilizer_id (fertilizer_id, crop_id)
+) ENGINE = InnoDB;
+
+INSERT INTO crop_fertilizers_keyed (crop_id, fertilizer_id)
+SELECT DISTINCT crop_id, fertilizer_id FROM crop_fertilizers;
+
+DROP TABLE crop_fertilizers;
+
+ALTER TABLE crop_fertilizers_keyed RENAME TO crop_fertilizers;
+
+ALTER TABLE crop_fertilizers
+  ADD CONSTRAINT fk_crop_fertilizers_crop FOREIGN KEY (crop_id) REFERENCES crops (id);
+ALTER TABLE crop_fertilizers
+  ADD CONSTRAINT fk_crop_fertilizers_fertilizer FOREIGN KEY (fertilizer_id)
+    REFERENCES fertilizers (id);
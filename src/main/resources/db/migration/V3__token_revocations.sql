@@ -0,0 +1,12 @@
+-- Revoked tokens (kind TOKEN, subject = jti) and persons whose earlier tokens are all revoked
+-- (kind PERSON, subject = username). Rows are purged once the tokens they revoke have expired.
+CREATE TABLE token_revocations (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  kind VARCHAR(16),
+  subject VARCHAR(255),
+  revoked_before DATETIME(6),
+  expires_at DATETIME(6),
+  PRIMARY KEY (id),
+  INDEX idx_token_revocations_kind_subject (kind, subject),
+  INDEX idx_token_revocations_expires_at (expires_at)
+) ENGINE = InnoDB;
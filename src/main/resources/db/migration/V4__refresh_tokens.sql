@@ -0,0 +1,16 @@
+-- Refresh tokens, stored as the SHA-256 hash of their value. Rotated tokens of one login share
+-- a family_id, so a reused token can revoke its whole family.
+CREATE TABLE refresh_tokens (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  token_hash VARCHAR(64),
+  family_id VARCHAR(36),
+  username VARCHAR(255),
+  expires_at DATETIME(6),
+  used_at DATETIME(6),
+  revoked_at DATETIME(6),
+  PRIMARY KEY (id),
+  UNIQUE INDEX idx_refresh_tokens_token_hash (token_hash),
+  INDEX idx_refresh_tokens_family_id (family_id),
+  INDEX idx_refresh_tokens_username (username),
+  INDEX idx_refresh_tokens_expires_at (expires_at)
+) ENGINE = InnoDB;
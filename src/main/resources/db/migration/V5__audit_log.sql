@@ -0,0 +1,17 @@
+-- Who changed which crop, farm or fertilizer. event_id is unique so that replaying the local
+-- audit journal after a crash cannot write a row twice.
+CREATE TABLE audit_log (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  event_id VARCHAR(36),
+  occurred_at DATETIME(6),
+  principal VARCHAR(255),
+  entity VARCHAR(16),
+  change_type VARCHAR(16),
+  entity_id BIGINT,
+  farm_id BIGINT,
+  related_id BIGINT,
+  PRIMARY KEY (id),
+  UNIQUE INDEX idx_audit_log_event_id (event_id),
+  INDEX idx_audit_log_entity (entity, entity_id, occurred_at),
+  INDEX idx_audit_log_principal (principal, occurred_at)
+) ENGINE = InnoDB;
@@ -0,0 +1,4 @@
+-- Fertilizer usage by planting window: covers the date range, the farm filter, the summed
+-- area and the soft-delete check, so the crops side of the report never reads a row.
+CREATE INDEX idx_crops_planted_date_usage
+  ON crops (planted_date, farm_id, planted_area, deleted_at);
@@ -0,0 +1,5 @@
+-- Optional farm location and boundary ("lat lon" vertices separated by commas). Searches go
+-- through the in-memory grid loaded from these columns, so no spatial index is needed here.
+ALTER TABLE farms ADD COLUMN latitude FLOAT(53);
+ALTER TABLE farms ADD COLUMN longitude FLOAT(53);
+ALTER TABLE farms ADD COLUMN boundary VARCHAR(8000);
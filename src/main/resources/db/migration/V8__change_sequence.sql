@@ -0,0 +1,22 @@
+-- Counter behind change_seq. Writers increment its single row inside their transaction, so
+-- values are allocated and committed in order across every instance.
+CREATE TABLE change_sequence (
+  id TINYINT NOT NULL PRIMARY KEY,
+  seq BIGINT NOT NULL
+) ENGINE = InnoDB;
+
+INSERT INTO change_sequence (id, seq)
+SELECT 1, GREATEST(
+  (SELECT COALESCE(MAX(change_seq), 0) FROM farms),
+  (SELECT COALESCE(MAX(change_seq), 0) FROM crops),
+  (SELECT COALESCE(MAX(change_seq), 0) FROM fertilizers)
+) + 1;
+
+-- Rows written before change tracking have no change_seq and would never reach a sync client:
+-- stamp them all with one fresh value, above every cursor already handed out.
+UPDATE farms SET change_seq = (SELECT seq FROM change_sequence WHERE id = 1)
+WHERE change_seq IS NULL;
+UPDATE crops SET change_seq = (SELECT seq FROM change_sequence WHERE id = 1)
+WHERE change_seq IS NULL;
+UPDATE fertilizers SET change_seq = (SELECT seq FROM change_sequence WHERE id = 1)
+WHERE change_seq IS NULL;
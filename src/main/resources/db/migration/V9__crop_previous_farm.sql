@@ -0,0 +1,5 @@
+-- The farm a crop last left, set when it is moved or detached, so the sync feed of that farm
+-- still reads the crop and hands its clients a removal. Only the last farm left is kept.
+ALTER TABLE crops ADD COLUMN previous_farm_id BIGINT;
+
+CREATE INDEX idx_crops_previous_farm_id_change_seq ON crops (previous_farm_id, change_seq);
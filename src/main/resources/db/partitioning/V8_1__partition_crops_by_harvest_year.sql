@@ -0,0 +1,63 @@
+-- Opt-in, MySQL only: range-partitions crops by harvest year, so date-bounded searches only
+-- read the partitions of the seasons they ask for. Enabled by adding classpath:db/partitioning
+-- to spring.flyway.locations; on a database already migrated past V8, also set
+-- spring.flyway.out-of-order=true for the first run.
+--
+-- MySQL needs the partitioning column in every unique key and allows no foreign keys on a
+-- partitioned table in either direction, so the key becomes (id, harvest_date), harvest_date
+-- becomes mandatory and the foreign keys touching crops are dropped; the services keep those
+-- references consistent. Seasons past 2040 land in pmax until a later migration here splits it.
+
+ALTER TABLE crop_fertilizers DROP FOREIGN KEY fk_crop_fertilizers_crop;
+
+-- The farm key of databases baselined from the Hibernate schema has a generated name.
+SET @farm_fk = (
+  SELECT CONSTRAINT_NAME FROM information_schema.REFERENTIAL_CONSTRAINTS
+  WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'crops'
+    AND REFERENCED_TABLE_NAME = 'farms'
+  LIMIT 1
+);
+SET @drop_farm_fk = IF(@farm_fk IS NULL, 'DO 0',
+  CONCAT('ALTER TABLE crops DROP FOREIGN KEY ', @farm_fk));
+PREPARE drop_farm_fk FROM @drop_farm_fk;
+EXECUTE drop_farm_fk;
+DEALLOCATE PREPARE drop_farm_fk;
+
+-- Crops created before the harvest date was mandatory are filed under their planting season.
+UPDATE crops SET harvest_date = COALESCE(planted_date, '1970-01-01') WHERE harvest_date IS NULL;
+
+ALTER TABLE crops
+  MODIFY harvest_date DATE NOT NULL,
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (id, harvest_date);
+
+ALTER TABLE crops PARTITION BY RANGE (YEAR(harvest_date)) (
+  PARTITION pold VALUES LESS THAN (2015),
+  PARTITION p2015 VALUES LESS THAN (2016),
+  PARTITION p2016 VALUES LESS THAN (2017),
+  PARTITION p2017 VALUES LESS THAN (2018),
+  PARTITION p2018 VALUES LESS THAN (2019),
+  PARTITION p2019 VALUES LESS THAN (2020),
+  PARTITION p2020 VALUES LESS THAN (2021),
+  PARTITION p2021 VALUES LESS THAN (2022),
+  PARTITION p2022 VALUES LESS THAN (2023),
+  PARTITION p2023 VALUES LESS THAN (2024),
+  PARTITION p2024 VALUES LESS THAN (2025),
+  PARTITION p2025 VALUES LESS THAN (2026),
+  PARTITION p2026 VALUES LESS THAN (2027),
+  PARTITION p2027 VALUES LESS THAN (2028),
+  PARTITION p2028 VALUES LESS THAN (2029),
+  PARTITION p2029 VALUES LESS THAN (2030),
+  PARTITION p2030 VALUES LESS THAN (2031),
+  PARTITION p2031 VALUES LESS THAN (2032),
+  PARTITION p2032 VALUES LESS THAN (2033),
+  PARTITION p2033 VALUES LESS THAN (2034),
+  PARTITION p2034 VALUES LESS THAN (2035),
+  PARTITION p2035 VALUES LESS THAN (2036),
+  PARTITION p2036 VALUES LESS THAN (2037),
+  PARTITION p2037 VALUES LESS THAN (2038),
+  PARTITION p2038 VALUES LESS THAN (2039),
+  PARTITION p2039 VALUES LESS THAN (2040),
+  PARTITION p2040 VALUES LESS THAN (2041),
+  PARTITION pmax VALUES LESS THAN MAXVALUE
+);
@@ -0,0 +1,184 @@
+package com.betrybe.agrix.benchmark;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the harvest search latency on an unpartitioned and a partitioned {@code crops} layout
+ * while historical seasons pile up.
+ *
+ * <p>Not part of the test suite. It only needs a MySQL server: both layouts are created in a
+ * throwaway schema, dropped at the end, so no application database is touched.
+ *
+ * <pre>
+ * java -cp target/test-classes:&lt;classpath&gt; \
+ *     -Dbenchmark.url=jdbc:mysql://localhost:3306/ -Dbenchmark.user=root \
+ *     -Dbenchmark.password=password \
+ *     com.betrybe.agrix.benchmark.HarvestSearchBenchmark
+ * </pre>
+ *
+ * <p>Every round inserts one more past season into both tables and times the same searches over
+ * the current season. The partitioned p50/p99 columns should stay flat while the row count grows;
+ * the unpartitioned ones show what the {@code db/partitioning} migration buys.
+ */
+public class HarvestSearchBenchmark {
+  private static final String LAYOUT = "CREATE TABLE %s ("
+      + "id BIGINT NOT NULL AUTO_INCREMENT, name VARCHAR(255), planted_area FLOAT(53), "
+      + "planted_date DATE, harvest_date DATE NOT NULL, %s, "
+      + "INDEX idx_%1$s_harvest_date (harvest_date)) ENGINE = InnoDB";
+  private static final String SEARCH = "SELECT id, name, harvest_date FROM %s "
+      + "WHERE harvest_date BETWEEN ? AND ?";
+  private static final String INSERT = "INSERT INTO %s "
+      + "(name, planted_area, planted_date, harvest_date) VALUES (?, ?, ?, ?)";
+  private static final String[] TABLES = {"crops_plain", "crops_partitioned"};
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args unused
+   * @throws SQLException if the database cannot be reached
+   */
+  public static void main(String[] args) throws SQLException {
+    String url = System.getProperty("benchmark.url", "jdbc:mysql://localhost:3306/");
+    int seasons = Integer.getInteger("benchmark.seasons", 10);
+    int cropsPerSeason = Integer.getInteger("benchmark.crops-per-season", 100_000);
+    int samples = Integer.getInteger("benchmark.samples", 200);
+    int currentYear = LocalDate.now().getYear();
+    String schema = "agrix_benchmark_" + System.currentTimeMillis();
+
+    try (Connection connection = DriverManager.getConnection(
+        url, System.getProperty("benchmark.user"), System.getProperty("benchmark.password")
+    )) {
+      execute(connection, "CREATE DATABASE " + schema);
+
+      try {
+        connection.setCatalog(schema);
+        createLayouts(connection, currentYear - seasons, currentYear);
+        connection.setAutoCommit(false);
+
+        System.out.printf("%8s %12s %14s %14s %14s %14s%n", "seasons", "rows",
+            "plain p50 (us)", "plain p99 (us)", "part. p50 (us)", "part. p99 (us)");
+
+        for (int season = 0; season <= seasons; season++) {
+          List<Long> columns = new ArrayList<>();
+
+          for (String table : TABLES) {
+            seed(connection, table, currentYear - season, cropsPerSeason);
+          }
+
+          for (String table : TABLES) {
+            long[] latencies = search(connection, table, currentYear, samples);
+
+            columns.add(percentile(latencies, 0.50) / 1_000);
+            columns.add(percentile(latencies, 0.99) / 1_000);
+          }
+
+          System.out.printf("%8d %12d %14d %14d %14d %14d%n", season + 1,
+              count(connection, TABLES[0]), columns.get(0), columns.get(1), columns.get(2),
+              columns.get(3));
+        }
+      } finally {
+        connection.setAutoCommit(true);
+        execute(connection, "DROP DATABASE " + schema);
+      }
+    }
+  }
+
+  private static void createLayouts(Connection connection, int firstYear, int lastYear)
+      throws SQLException {
+    List<String> partitions = new ArrayList<>();
+
+    for (int year = firstYear; year <= lastYear; year++) {
+      partitions.add("PARTITION p" + year + " VALUES LESS THAN (" + (year + 1) + ")");
+    }
+
+    partitions.add("PARTITION pmax VALUES LESS THAN MAXVALUE");
+
+    execute(connection, String.format(LAYOUT, TABLES[0], "PRIMARY KEY (id)"));
+    execute(connection, String.format(LAYOUT, TABLES[1], "PRIMARY KEY (id, harvest_date)")
+        + " PARTITION BY RANGE (YEAR(harvest_date)) (" + String.join(", ", partitions) + ")");
+  }
+
+  private static void seed(Connection connection, String table, int year, int crops)
+      throws SQLException {
+    Random random = new Random(year);
+
+    try (PreparedStatement insert = connection.prepareStatement(String.format(INSERT, table))) {
+      for (int i = 0; i < crops; i++) {
+        LocalDate harvest = LocalDate.of(year, 1, 1).plusDays(random.nextInt(365));
+
+        insert.setString(1, "Benchmark " + year + "-" + i);
+        insert.setDouble(2, 1 + random.nextDouble() * 10);
+        insert.setDate(3, Date.valueOf(harvest.minusDays(90 + random.nextInt(60))));
+        insert.setDate(4, Date.valueOf(harvest));
+        insert.addBatch();
+
+        if (i % 1_000 == 999) {
+          insert.executeBatch();
+        }
+      }
+
+      insert.executeBatch();
+    }
+
+    connection.commit();
+  }
+
+  private static long[] search(Connection connection, String table, int year, int samples)
+      throws SQLException {
+    long[] latencies = new long[samples];
+    Random random = new Random(samples);
+
+    try (PreparedStatement search = connection.prepareStatement(String.format(SEARCH, table))) {
+      for (int i = 0; i < samples; i++) {
+        LocalDate start = LocalDate.of(year, 1, 1).plusDays(random.nextInt(330));
+
+        search.setDate(1, Date.valueOf(start));
+        search.setDate(2, Date.valueOf(start.plusDays(30)));
+
+        long began = System.nanoTime();
+
+        try (ResultSet rows = search.executeQuery()) {
+          while (rows.next()) {
+            rows.getLong(1);
+          }
+        }
+
+        latencies[i] = System.nanoTime() - began;
+      }
+    }
+
+    return latencies;
+  }
+
+  private static long count(Connection connection, String table) throws SQLException {
+    try (Statement statement = connection.createStatement();
+        ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+      rows.next();
+      return rows.getLong(1);
+    }
+  }
+
+  private static void execute(Connection connection, String sql) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(sql);
+    }
+  }
+
+  private static long percentile(long[] latencies, double percentile) {
+    long[] sorted = latencies.clone();
+    Arrays.sort(sorted);
+
+    return sorted[Math.min(sorted.length - 1, (int) (sorted.length * percentile))];
+  }
+}
@@ -0,0 +1,103 @@
+package com.betrybe.agrix.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the time from launching the application to its first successful request.
+ *
+ * <p>Not part of the test suite. The arguments are the command that starts the application; the
+ * first successful request is a {@code POST /persons} answered with 201, which goes through the
+ * security chain, Jackson, BCrypt and JPA. Compare the variants with the same database:
+ *
+ * <pre>
+ * java -cp target/test-classes com.betrybe.agrix.benchmark.StartupBenchmark \
+ *     java -jar target/agrix-1.0-SNAPSHOT.jar
+ * java -cp target/test-classes com.betrybe.agrix.benchmark.StartupBenchmark \
+ *     java -Dspring.aot.enabled=true -jar target/agrix-1.0-SNAPSHOT.jar
+ * java -cp target/test-classes com.betrybe.agrix.benchmark.StartupBenchmark \
+ *     java -Dspring.main.lazy-initialization=true -jar target/agrix-1.0-SNAPSHOT.jar
+ * java -cp target/test-classes com.betrybe.agrix.benchmark.StartupBenchmark \
+ *     docker run --rm --network host -e SPRING_DATASOURCE_URL=... agrix
+ * </pre>
+ */
+public class StartupBenchmark {
+  private static final String PERSON = "{\"username\":\"startup-%d\",\"password\":\"startup\","
+      + "\"role\":\"USER\"}";
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the command starting the application
+   * @throws Exception if the application cannot be started
+   */
+  public static void main(String[] args) throws Exception {
+    if (args.length == 0) {
+      System.err.println("Usage: StartupBenchmark <command starting the application>");
+      System.exit(1);
+    }
+
+    URI persons = URI.create(System.getProperty("benchmark.url", "http://localhost:8080")
+        + "/persons");
+    int runs = Integer.getInteger("benchmark.runs", 5);
+    long timeoutMillis = Long.getLong("benchmark.timeout-millis", 120_000);
+    HttpClient client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofMillis(200))
+        .build();
+    long[] timings = new long[runs];
+
+    for (int run = 0; run < runs; run++) {
+      timings[run] = timeToFirstRequest(List.of(args), client, persons, timeoutMillis);
+      System.out.printf("run %d: %d ms%n", run + 1, timings[run]);
+    }
+
+    Arrays.sort(timings);
+    System.out.printf("min %d ms, median %d ms, max %d ms%n",
+        timings[0], timings[runs / 2], timings[runs - 1]);
+  }
+
+  private static long timeToFirstRequest(List<String> command, HttpClient client, URI persons,
+      long timeoutMillis) throws IOException, InterruptedException {
+    long started = System.nanoTime();
+    Process application = new ProcessBuilder(command)
+        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+        .redirectError(ProcessBuilder.Redirect.DISCARD)
+        .start();
+
+    try {
+      HttpRequest request = HttpRequest.newBuilder(persons)
+          .header("Content-Type", "application/json")
+          .POST(HttpRequest.BodyPublishers.ofString(String.format(PERSON, started)))
+          .build();
+
+      while (application.isAlive()) {
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        if (elapsedMillis > timeoutMillis) {
+          throw new IllegalStateException("No successful request after " + elapsedMillis + " ms");
+        }
+
+        try {
+          if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 201) {
+            return (System.nanoTime() - started) / 1_000_000;
+          }
+        } catch (IOException e) {
+          // Not listening yet.
+        }
+
+        Thread.sleep(20);
+      }
+
+      throw new IllegalStateException("The application exited with " + application.exitValue());
+    } finally {
+      application.destroy();
+      application.waitFor();
+    }
+  }
+}
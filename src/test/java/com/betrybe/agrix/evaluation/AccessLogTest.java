@@ -0,0 +1,151 @@
+package com.betrybe.agrix.evaluation;
+
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.bearer;
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.createPersonAndAuthenticate;
+import static com.betrybe.agrix.evaluation.util.TestHelpers.objectToJson;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.betrybe.agrix.evaluation.mock.PersonFixtures;
+import com.betrybe.agrix.evaluation.util.SimpleResultHandler;
+import com.betrybe.agrix.web.AccessLogWriter;
+import com.betrybe.agrix.web.accesslog.AccessLogFile;
+import com.betrybe.agrix.web.accesslog.AccessLogReader;
+import com.betrybe.agrix.web.accesslog.AccessLogRecord;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Log de acesso binário")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class AccessLogTest {
+
+  private static final long TIMESTAMP = Instant.parse("2023-06-25T12:00:00Z").toEpochMilli();
+
+  @TempDir
+  static Path accessLogDirectory;
+
+  MockMvc mockMvc;
+
+  @Autowired
+  WebApplicationContext wac;
+
+  @Autowired
+  AccessLogWriter accessLogWriter;
+
+  @DynamicPropertySource
+  static void accessLogProperties(DynamicPropertyRegistry registry) {
+    registry.add("agrix.access-log.directory", () -> accessLogDirectory.toString());
+  }
+
+  @BeforeEach
+  public void setup() {
+    this.mockMvc = MockMvcBuilders
+        .webAppContextSetup(wac)
+        .apply(springSecurity())
+        .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+        .alwaysDo(new SimpleResultHandler())
+        .build();
+  }
+
+  @Test
+  @DisplayName("As requisições gravadas pelo filtro são lidas de volta pelo conversor")
+  void testRequestsRoundTrip() throws Exception {
+    String token = createPersonAndAuthenticate(mockMvc, PersonFixtures.person_admin);
+
+    mockMvc.perform(post("/farms")
+            .header("Authorization", bearer(token))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(Map.of("name", "Fazenda do Chico", "size", 5))))
+        .andExpect(status().isCreated());
+    mockMvc.perform(get("/farms/999").header("Authorization", bearer(token)))
+        .andExpect(status().isNotFound());
+
+    // Drains the buffer and flushes the file, as on shutdown.
+    accessLogWriter.shutdown();
+
+    List<String> lines = convert("--csv");
+
+    assertEquals("timestamp,method,route,status,latency_ms,db_ms,principal", lines.get(0));
+    assertTrue(lines.stream().anyMatch(line -> line.matches(
+        "[^,]+,POST,/persons,201,[0-9.]+,[0-9.]+,-")), String.join("\n", lines));
+    assertTrue(lines.stream().anyMatch(line -> line.matches(
+        "[^,]+,POST,/farms,201,[0-9.]+,[0-9.]+,mrrobot")), String.join("\n", lines));
+    assertTrue(lines.stream().anyMatch(line -> line.matches(
+        "[^,]+,GET,/farms/\\{id},404,[0-9.]+,[0-9.]+,mrrobot")), String.join("\n", lines));
+
+    for (String line : lines.subList(1, lines.size())) {
+      Instant.parse(line.substring(0, line.indexOf(',')));
+    }
+  }
+
+  @Test
+  @DisplayName("Campos truncados e caracteres especiais sobrevivem à leitura")
+  void testRecordsRoundTrip(@TempDir Path directory) throws Exception {
+    try (AccessLogFile file = new AccessLogFile(directory, 16, 1)) {
+      file.append(new AccessLogRecord(TIMESTAMP, 1_500_000, 250_000, 200, "GET",
+          "/farms/{id}", "maria"));
+      file.append(new AccessLogRecord(TIMESTAMP + 1, 2_000_000, 0, 500, "OTHER",
+          "/plantações/" + "ç".repeat(40), "joao, \"o gerente\""));
+    }
+
+    assertEquals(List.of(
+        "timestamp,method,route,status,latency_ms,db_ms,principal",
+        "2023-06-25T12:00:00Z,GET,/farms/{id},200,1.500,0.250,maria",
+        "2023-06-25T12:00:00.001Z,OTHER,/plantações/" + "ç".repeat(25) + ",500,2.000,0.000,"
+            + "\"joao, \"\"o gerente\"\"\""
+    ), convert("--csv", directory));
+
+    assertEquals(List.of(
+        "{\"timestamp\":\"2023-06-25T12:00:00Z\",\"method\":\"GET\",\"route\":\"/farms/{id}\","
+            + "\"status\":200,\"latencyMs\":1.500,\"dbMs\":0.250,\"principal\":\"maria\"}",
+        "{\"timestamp\":\"2023-06-25T12:00:00.001Z\",\"method\":\"OTHER\",\"route\":"
+            + "\"/plantações/" + "ç".repeat(25) + "\",\"status\":500,\"latencyMs\":2.000,"
+            + "\"dbMs\":0.000,\"principal\":\"joao, \\\"o gerente\\\"\"}"
+    ), convert("--json", directory));
+  }
+
+  private static List<String> convert(String format) throws Exception {
+    return convert(format, accessLogDirectory);
+  }
+
+  private static List<String> convert(String format, Path directory) throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    PrintStream standardOutput = System.out;
+
+    System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+    try {
+      AccessLogReader.main(new String[] {format, directory.toString()});
+    } finally {
+      System.setOut(standardOutput);
+    }
+
+    return output.toString(StandardCharsets.UTF_8).lines().toList();
+  }
+}
@@ -0,0 +1,213 @@
+package com.betrybe.agrix.evaluation;
+
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.bearer;
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.createPersonAndAuthenticate;
+import static com.betrybe.agrix.evaluation.util.TestHelpers.objectToJson;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.betrybe.agrix.evaluation.mock.PersonFixtures;
+import com.betrybe.agrix.evaluation.util.SimpleResultHandler;
+import com.betrybe.agrix.service.AuditService;
+import com.betrybe.agrix.service.audit.AuditDurability;
+import com.betrybe.agrix.service.audit.AuditEvent;
+import com.betrybe.agrix.service.audit.AuditJournal;
+import com.betrybe.agrix.service.event.ChangeType;
+import com.betrybe.agrix.service.event.ChangedEntity;
+import com.betrybe.agrix.service.event.EntityChangeEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest(properties = "agrix.audit.idle-millis=10")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Auditoria das mudanças")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class AuditTest {
+
+  private static final String COUNT_BY_EVENT = "SELECT COUNT(*) FROM audit_log"
+      + " WHERE event_id = :eventId";
+
+  MockMvc mockMvc;
+
+  @Autowired
+  WebApplicationContext wac;
+
+  @Autowired
+  NamedParameterJdbcTemplate jdbcTemplate;
+
+  @Autowired
+  TransactionTemplate transactionTemplate;
+
+  @TempDir
+  Path journalDirectory;
+
+  @BeforeEach
+  public void setup() {
+    this.mockMvc = MockMvcBuilders
+        .webAppContextSetup(wac)
+        .apply(springSecurity())
+        .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+        .alwaysDo(new SimpleResultHandler())
+        .build();
+  }
+
+  @AfterEach
+  public void clearPrincipal() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  @DisplayName("Uma mudança confirmada é gravada pelo escritor com quem a fez")
+  void testAsyncBatch() throws Exception {
+    String token = createPersonAndAuthenticate(mockMvc, PersonFixtures.person_manager);
+
+    mockMvc.perform(post("/farms")
+            .header("Authorization", bearer(token))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(Map.of("name", "Fazenda do Chico", "size", 5))))
+        .andExpect(status().isCreated());
+
+    await(() -> countByPrincipal("joao") == 1);
+
+    assertEquals("CREATED", jdbcTemplate.queryForObject(
+        "SELECT change_type FROM audit_log WHERE principal = 'joao' AND entity = 'FARM'",
+        Map.of(), String.class));
+  }
+
+  @Test
+  @DisplayName("O replay do diário grava só os eventos que ainda não estão na tabela")
+  void testJournalReplay() throws Exception {
+    List<AuditEvent> events = List.of(event("maria"), event("maria"), event("maria"));
+
+    try (AuditJournal journal = new AuditJournal(journalDirectory)) {
+      events.forEach(event -> journal.append(event, appended -> { }));
+    }
+
+    // The first batch was committed, but the checkpoint never made it to disk.
+    insert(events.get(0));
+
+    AuditService service = journaled(3);
+    service.shutdown();
+
+    for (AuditEvent event : events) {
+      assertEquals(1, jdbcTemplate.queryForObject(COUNT_BY_EVENT,
+          new MapSqlParameterSource("eventId", event.eventId()), Integer.class));
+    }
+
+    try (AuditJournal journal = new AuditJournal(journalDirectory)) {
+      assertTrue(journal.unflushed().isEmpty());
+    }
+  }
+
+  @Test
+  @DisplayName("Um lote recusado em todas as tentativas é estacionado e não trava o escritor")
+  void testPoisonBatchIsParked() throws Exception {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    AuditService service = journaled(2, meterRegistry);
+
+    // The principal does not fit its column: the database refuses the row every time.
+    authenticate("x".repeat(300));
+    service.recordAfterCommit(change());
+    await(() -> meterRegistry.counter("agrix.audit.failures").count() >= 1);
+
+    authenticate("maria");
+    service.recordAfterCommit(change());
+    await(() -> countByPrincipal("maria") == 1);
+    service.shutdown();
+
+    assertEquals(1, meterRegistry.counter("agrix.audit.abandoned").count());
+    assertEquals(2, meterRegistry.counter("agrix.audit.failures").count());
+    assertEquals(1, Files.readAllLines(journalDirectory.resolve("audit.parked")).size());
+
+    try (AuditJournal journal = new AuditJournal(journalDirectory)) {
+      assertTrue(journal.unflushed().isEmpty());
+    }
+  }
+
+  private AuditService journaled(int maxAttempts) throws Exception {
+    return journaled(maxAttempts, new SimpleMeterRegistry());
+  }
+
+  private AuditService journaled(int maxAttempts, SimpleMeterRegistry meterRegistry)
+      throws Exception {
+    return new AuditService(jdbcTemplate, transactionTemplate, AuditDurability.JOURNAL, 16, 500,
+        10, maxAttempts, journalDirectory, meterRegistry);
+  }
+
+  private void insert(AuditEvent event) {
+    jdbcTemplate.update("INSERT INTO audit_log (event_id, occurred_at, principal, entity,"
+            + " change_type, entity_id) VALUES (:eventId, :occurredAt, :principal, :entity,"
+            + " :changeType, :entityId)",
+        new MapSqlParameterSource()
+            .addValue("eventId", event.eventId())
+            .addValue("occurredAt", Timestamp.from(event.occurredAt()))
+            .addValue("principal", event.principal())
+            .addValue("entity", event.entity().name())
+            .addValue("changeType", event.changeType().name())
+            .addValue("entityId", event.entityId()));
+  }
+
+  private int countByPrincipal(String principal) {
+    return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_log WHERE principal = :p",
+        new MapSqlParameterSource("p", principal), Integer.class);
+  }
+
+  private static AuditEvent event(String principal) {
+    return new AuditEvent(0, UUID.randomUUID().toString(), Instant.now(), principal,
+        ChangedEntity.FARM, ChangeType.UPDATED, 1L, 1L, null);
+  }
+
+  private static EntityChangeEvent change() {
+    return new EntityChangeEvent(ChangedEntity.FARM, ChangeType.UPDATED, 1L, 1L, null);
+  }
+
+  private static void authenticate(String username) {
+    SecurityContextHolder.getContext().setAuthentication(
+        new UsernamePasswordAuthenticationToken(username, null, List.of())
+    );
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+
+    while (!condition.getAsBoolean()) {
+      if (System.currentTimeMillis() > deadline) {
+        fail("Condição não atingida a tempo");
+      }
+
+      Thread.sleep(20);
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package com.betrybe.agrix.evaluation;
+
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.bearer;
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.createPersonAndAuthenticate;
+import static com.betrybe.agrix.evaluation.util.TestHelpers.objectToJson;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.betrybe.agrix.controller.dto.BatchEntryDto;
+import com.betrybe.agrix.evaluation.mock.PersonFixtures;
+import com.betrybe.agrix.evaluation.util.SimpleResultHandler;
+import com.betrybe.agrix.service.BatchLookup;
+import com.betrybe.agrix.service.exception.FarmNotFoundException;
+import com.betrybe.agrix.service.exception.TooManyIdsException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Busca em lote com ?ids=")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class BatchLookupTest {
+
+  MockMvc mockMvc;
+
+  @Autowired
+  WebApplicationContext wac;
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  String token;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    this.mockMvc = MockMvcBuilders
+        .webAppContextSetup(wac)
+        .apply(springSecurity())
+        .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+        .alwaysDo(new SimpleResultHandler())
+        .build();
+    this.token = createPersonAndAuthenticate(mockMvc, PersonFixtures.person_admin);
+  }
+
+  @Test
+  @DisplayName("Os ids distintos são carregados de uma vez e respondidos na ordem pedida")
+  void testResolve() throws Exception {
+    List<Collection<Long>> loads = new ArrayList<>();
+    Function<Collection<Long>, List<Long>> loader = ids -> {
+      loads.add(List.copyOf(ids));
+      return ids.stream().filter(id -> id % 2 == 0).toList();
+    };
+
+    List<BatchEntryDto<String>> entries = BatchLookup.resolve(
+        List.of(4L, 3L, 4L, 2L), loader, Function.identity(), id -> "#" + id, "ausente"
+    );
+
+    assertEquals(List.of(List.of(4L, 3L, 2L)), loads);
+    assertEquals(List.of(4L, 3L, 4L, 2L), entries.stream().map(BatchEntryDto::id).toList());
+    assertEquals("ausente", entries.get(1).error());
+    assertEquals("#2", entries.get(3).data());
+
+    List<Long> tooMany = LongStream.rangeClosed(1, BatchLookup.MAX_IDS + 1).boxed()
+        .collect(Collectors.toList());
+
+    assertThrows(TooManyIdsException.class, () -> BatchLookup.resolve(
+        tooMany, loader, Function.identity(), id -> "#" + id, "ausente"
+    ));
+  }
+
+  @Test
+  @DisplayName("Ids inexistentes são reportados na própria entrada")
+  void testMissingIds() throws Exception {
+    long first = createFarm("Fazenda A");
+    long second = createFarm("Fazenda B");
+
+    mockMvc.perform(get("/farms")
+            .param("ids", second + "," + (second + 100) + "," + first)
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(3))
+        .andExpect(jsonPath("$[0].id").value(second))
+        .andExpect(jsonPath("$[0].data.name").value("Fazenda B"))
+        .andExpect(jsonPath("$[1].id").value(second + 100))
+        .andExpect(jsonPath("$[1].error").value(new FarmNotFoundException().getMessage()))
+        .andExpect(jsonPath("$[2].data.name").value("Fazenda A"));
+  }
+
+  @Test
+  @DisplayName("Mais ids do que o limite são recusados")
+  void testTooManyIds() throws Exception {
+    String ids = LongStream.rangeClosed(1, BatchLookup.MAX_IDS + 1)
+        .mapToObj(String::valueOf)
+        .collect(Collectors.joining(","));
+
+    mockMvc.perform(get("/crops").param("ids", ids).header("Authorization", bearer(token)))
+        .andExpect(status().isBadRequest())
+        .andExpect(content().string(new TooManyIdsException(BatchLookup.MAX_IDS).getMessage()));
+  }
+
+  private long createFarm(String name) throws Exception {
+    String responseContent = mockMvc.perform(post("/farms")
+            .header("Authorization", bearer(token))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(Map.of("name", name, "size", 5))))
+        .andExpect(status().isCreated())
+        .andReturn().getResponse().getContentAsString();
+
+    return objectMapper.readTree(responseContent).get("id").asLong();
+  }
+}
@@ -0,0 +1,211 @@
+package com.betrybe.agrix.evaluation;
+
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.bearer;
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.createPersonAndAuthenticate;
+import static com.betrybe.agrix.evaluation.util.TestHelpers.objectToJson;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.betrybe.agrix.evaluation.mock.PersonFixtures;
+import com.betrybe.agrix.service.ChangeStreamService;
+import com.betrybe.agrix.service.CropService;
+import com.betrybe.agrix.service.event.ChangeType;
+import com.betrybe.agrix.service.event.ChangedEntity;
+import com.betrybe.agrix.service.event.EntityChangeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Fluxo de mudanças por SSE")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class ChangeStreamTest {
+
+  MockMvc mockMvc;
+
+  @Autowired
+  WebApplicationContext wac;
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  @Autowired
+  CropService cropService;
+
+  String token;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    this.mockMvc = MockMvcBuilders
+        .webAppContextSetup(wac)
+        .apply(springSecurity())
+        .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+        .build();
+    this.token = createPersonAndAuthenticate(mockMvc, PersonFixtures.person_admin);
+  }
+
+  @Test
+  @DisplayName("Eventos de mudança de fazenda trazem a fazenda anterior")
+  void testTouchesFarm() {
+    EntityChangeEvent moved = new EntityChangeEvent(
+        ChangedEntity.CROP, ChangeType.UPDATED, 7L, 2L, null, 1L
+    );
+    EntityChangeEvent stayed = new EntityChangeEvent(
+        ChangedEntity.CROP, ChangeType.UPDATED, 7L, 2L, null
+    );
+
+    assertTrue(moved.touchesFarm(1L));
+    assertTrue(moved.touchesFarm(2L));
+    assertFalse(moved.touchesFarm(3L));
+    assertFalse(stayed.touchesFarm(1L));
+  }
+
+  @Test
+  @DisplayName("Uma plantação movida chega aos assinantes das duas fazendas")
+  void testMoveReachesBothFarms() throws Exception {
+    long farmA = createFarm("Fazenda A");
+    long farmB = createFarm("Fazenda B");
+    long farmC = createFarm("Fazenda C");
+    long cropId = createCrop(farmA);
+
+    MvcResult streamA = subscribe("?farmId=" + farmA);
+    MvcResult streamB = subscribe("?farmId=" + farmB);
+    MvcResult streamC = subscribe("?farmId=" + farmC);
+    MvcResult streamAll = subscribe("");
+
+    cropService.setCropFarm(cropId, farmB);
+
+    String moved = "\"farmId\":" + farmB;
+    awaitContent(streamA, moved);
+    awaitContent(streamB, moved);
+    awaitContent(streamAll, moved);
+    assertTrue(content(streamA).contains("\"previousFarmId\":" + farmA));
+
+    // Fertilizers belong to no farm: only the unfiltered stream sees them.
+    mockMvc.perform(post("/fertilizers")
+            .header("Authorization", bearer(token))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(Map.of(
+                "name", "Compostagem", "brand", "Feita em casa", "composition", "Restos"))))
+        .andExpect(status().isCreated());
+
+    awaitContent(streamAll, "FERTILIZER");
+    assertFalse(content(streamA).contains("FERTILIZER"));
+    assertFalse(content(streamC).contains("CROP"));
+  }
+
+  @Test
+  @DisplayName("Um assinante travado é desligado sem derrubar os saudáveis")
+  void testStalledSubscriber() throws Exception {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    ChangeStreamService service = new ChangeStreamService(4, 0, 1, 200, registry);
+    SseEmitter stalled = service.subscribe(null);
+    service.subscribe(null);
+
+    try {
+      // A send holds the emitter's monitor: holding it here blocks the write like a full socket.
+      synchronized (stalled) {
+        service.onEntityChange(change(1L));
+        await(() -> registry.counter("agrix.events.stalled-consumers").count() == 1);
+
+        // The only dispatcher thread is still stuck; the healthy subscriber must keep draining.
+        for (long id = 2; id <= 12; id++) {
+          service.onEntityChange(change(id));
+          Thread.sleep(20);
+        }
+
+        assertEquals(0.0, registry.counter("agrix.events.slow-consumers").count());
+        assertEquals(1.0, registry.get("agrix.events.subscribers").gauge().value());
+      }
+    } finally {
+      service.shutdown();
+    }
+  }
+
+  private static EntityChangeEvent change(long farmId) {
+    return new EntityChangeEvent(ChangedEntity.FARM, ChangeType.UPDATED, farmId, farmId, null);
+  }
+
+  private MvcResult subscribe(String query) throws Exception {
+    return mockMvc.perform(get("/events/stream" + query).header("Authorization", bearer(token)))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+  }
+
+  private long createFarm(String name) throws Exception {
+    String responseContent = mockMvc.perform(post("/farms")
+            .header("Authorization", bearer(token))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(Map.of("name", name, "size", 5))))
+        .andExpect(status().isCreated())
+        .andReturn().getResponse().getContentAsString();
+
+    return objectMapper.readTree(responseContent).get("id").asLong();
+  }
+
+  private long createCrop(long farmId) throws Exception {
+    String responseContent = mockMvc.perform(post("/farms/" + farmId + "/crops")
+            .header("Authorization", bearer(token))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(Map.of(
+                "name", "Couve-flor", "plantedArea", 5.43,
+                "plantedDate", "2023-02-15", "harvestDate", "2023-06-25"))))
+        .andExpect(status().isCreated())
+        .andReturn().getResponse().getContentAsString();
+
+    return objectMapper.readTree(responseContent).get("id").asLong();
+  }
+
+  private static String content(MvcResult stream) throws Exception {
+    return stream.getResponse().getContentAsString(StandardCharsets.UTF_8);
+  }
+
+  private static void awaitContent(MvcResult stream, String expected) throws Exception {
+    long deadline = System.currentTimeMillis() + 5_000;
+
+    while (!content(stream).contains(expected)) {
+      if (System.currentTimeMillis() > deadline) {
+        fail("Evento com " + expected + " não recebido: " + content(stream));
+      }
+
+      Thread.sleep(20);
+    }
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5_000;
+
+    while (!condition.getAsBoolean()) {
+      if (System.currentTimeMillis() > deadline) {
+        fail("Condição não atingida a tempo");
+      }
+
+      Thread.sleep(20);
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.betrybe.agrix.evaluation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.betrybe.agrix.web.AdaptiveLimiter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Limite adaptativo de concorrência")
+public class ConcurrencyLimitTest {
+
+  private static final long FAST = 1_000_000L;
+  private static final long SLOW = 20_000_000L;
+
+  @Test
+  @DisplayName("Recusa requisições além do limite e libera vagas ao terminar")
+  void testRejectsOverLimit() {
+    AdaptiveLimiter limiter = new AdaptiveLimiter(2, 1, 10);
+
+    assertTrue(limiter.tryAcquire());
+    assertTrue(limiter.tryAcquire());
+    assertFalse(limiter.tryAcquire());
+    assertEquals(2, limiter.getInFlight());
+
+    limiter.release(FAST);
+
+    assertEquals(1, limiter.getInFlight());
+    assertTrue(limiter.tryAcquire());
+  }
+
+  @Test
+  @DisplayName("O limite cresce com latência estável e encolhe quando ela sobe")
+  void testAdapts() {
+    AdaptiveLimiter limiter = new AdaptiveLimiter(4, 2, 100);
+
+    saturate(limiter, FAST, 50);
+    int grown = limiter.getLimit();
+
+    assertTrue(grown > 4, "O limite deveria crescer, mas ficou em " + grown);
+    assertTrue(grown <= 100);
+
+    saturate(limiter, SLOW, 5);
+
+    assertTrue(limiter.getLimit() < grown,
+        "O limite deveria encolher, mas foi de " + grown + " para " + limiter.getLimit());
+  }
+
+  @Test
+  @DisplayName("O limite nunca fica abaixo do mínimo")
+  void testMinLimit() {
+    AdaptiveLimiter limiter = new AdaptiveLimiter(4, 4, 100);
+
+    saturate(limiter, FAST, 1);
+    saturate(limiter, SLOW, 20);
+
+    assertEquals(4, limiter.getLimit());
+  }
+
+  @Test
+  @DisplayName("O limite não cresce enquanto o tráfego não o utiliza")
+  void testIdleLimitDoesNotGrow() {
+    AdaptiveLimiter limiter = new AdaptiveLimiter(10, 2, 100);
+
+    for (int i = 0; i < 100; i++) {
+      assertTrue(limiter.tryAcquire());
+      limiter.release(FAST);
+    }
+
+    assertEquals(10, limiter.getLimit());
+  }
+
+  /**
+   * Fills every slot, then releases them all with the given latency, once per round.
+   */
+  private static void saturate(AdaptiveLimiter limiter, long rttNanos, int rounds) {
+    for (int round = 0; round < rounds; round++) {
+      int acquired = 0;
+
+      while (limiter.tryAcquire()) {
+        acquired++;
+      }
+
+      for (int i = 0; i < acquired; i++) {
+        limiter.release(rttNanos);
+      }
+    }
+  }
+}
@@ -0,0 +1,169 @@
+package com.betrybe.agrix.evaluation;
+
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.bearer;
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.createPersonAndAuthenticate;
+import static com.betrybe.agrix.evaluation.util.TestHelpers.objectToJson;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.betrybe.agrix.entity.Crop;
+import com.betrybe.agrix.evaluation.mock.PersonFixtures;
+import com.betrybe.agrix.evaluation.util.SimpleResultHandler;
+import com.betrybe.agrix.repository.ArchivedCropRepository;
+import com.betrybe.agrix.repository.CropRepository;
+import com.betrybe.agrix.service.CropArchiveService;
+import com.betrybe.agrix.service.event.ChangeType;
+import com.betrybe.agrix.service.event.EntityChangeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest(properties = {
+    "agrix.crops.archive.enabled=true",
+    "agrix.crops.archive.after-days=30",
+    "agrix.crops.archive.cron=-"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@RecordApplicationEvents
+@DisplayName("Arquivamento de plantações")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class CropArchiveTest {
+
+  MockMvc mockMvc;
+
+  @Autowired
+  WebApplicationContext wac;
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  @Autowired
+  CropArchiveService cropArchiveService;
+
+  @Autowired
+  CropRepository cropRepository;
+
+  @Autowired
+  ArchivedCropRepository archivedCropRepository;
+
+  @Autowired
+  ApplicationEvents events;
+
+  String token;
+  long farmId;
+  long oldCropId;
+  long recentCropId;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    this.mockMvc = MockMvcBuilders
+        .webAppContextSetup(wac)
+        .apply(springSecurity())
+        .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+        .alwaysDo(new SimpleResultHandler())
+        .build();
+    this.token = createPersonAndAuthenticate(mockMvc, PersonFixtures.person_admin);
+
+    LocalDate today = LocalDate.now();
+
+    farmId = postForId("/farms", Map.of("name", "Fazenda do Chico", "size", 5));
+    oldCropId = postForId("/farms/" + farmId + "/crops", Map.of(
+        "name", "Milho", "plantedArea", 2.5,
+        "plantedDate", "2020-02-01", "harvestDate", "2020-07-01"
+    ));
+    recentCropId = postForId("/farms/" + farmId + "/crops", Map.of(
+        "name", "Soja", "plantedArea", 3.0,
+        "plantedDate", today.minusDays(90).toString(), "harvestDate", today.toString()
+    ));
+    long fertilizerId = postForId("/fertilizers", Map.of(
+        "name", "Compostagem", "brand", "Feita em casa", "composition", "Restos de alimentos"
+    ));
+
+    mockMvc.perform(post("/crops/" + oldCropId + "/fertilizers/" + fertilizerId)
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isCreated());
+  }
+
+  @Test
+  @DisplayName("Só plantações colhidas antes do corte vão para o arquivo, com um evento cada")
+  void testArchive() {
+    cropArchiveService.archiveHarvested();
+
+    assertEquals(List.of(recentCropId), cropRepository.findAll().stream()
+        .map(Crop::getId).toList());
+    assertEquals(1, archivedCropRepository.count());
+
+    List<EntityChangeEvent> archived = events.stream(EntityChangeEvent.class)
+        .filter(event -> event.type() == ChangeType.ARCHIVED)
+        .toList();
+
+    assertEquals(1, archived.size());
+    assertEquals(oldCropId, archived.get(0).id());
+    assertEquals(farmId, archived.get(0).farmId());
+  }
+
+  @Test
+  @DisplayName("Plantações arquivadas continuam acessíveis por id e pela busca de colheita")
+  void testReadThrough() throws Exception {
+    mockMvc.perform(get("/crops/search")
+            .param("start", "2020-01-01")
+            .param("end", "2020-12-31")
+            .header("Authorization", bearer(token)))
+        .andExpect(jsonPath("$.length()").value(1));
+
+    cropArchiveService.archiveHarvested();
+
+    mockMvc.perform(get("/crops/" + oldCropId).header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.name").value("Milho"))
+        .andExpect(jsonPath("$.farmId").value(farmId));
+    mockMvc.perform(get("/crops/" + oldCropId + "/fertilizers")
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1));
+    mockMvc.perform(get("/crops/search")
+            .param("start", "2020-01-01")
+            .param("end", "2020-12-31")
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id").value(oldCropId));
+    mockMvc.perform(get("/crops/search")
+            .param("start", "2020-01-01")
+            .param("end", LocalDate.now().toString())
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2));
+  }
+
+  private long postForId(String url, Map<String, Object> body) throws Exception {
+    String responseContent = mockMvc.perform(post(url)
+            .header("Authorization", bearer(token))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(body)))
+        .andExpect(status().isCreated())
+        .andReturn().getResponse().getContentAsString();
+
+    return objectMapper.readTree(responseContent).get("id").asLong();
+  }
+}
@@ -0,0 +1,97 @@
+package com.betrybe.agrix.evaluation;
+
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.bearer;
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.createPersonAndAuthenticate;
+import static com.betrybe.agrix.evaluation.util.TestHelpers.objectToJson;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.betrybe.agrix.evaluation.mock.PersonFixtures;
+import com.betrybe.agrix.evaluation.util.SimpleResultHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Criação de plantações")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class CropCreationTest {
+
+  MockMvc mockMvc;
+
+  @Autowired
+  WebApplicationContext wac;
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  String token;
+  long farmId;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    this.mockMvc = MockMvcBuilders
+        .webAppContextSetup(wac)
+        .apply(springSecurity())
+        .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+        .alwaysDo(new SimpleResultHandler())
+        .build();
+    this.token = createPersonAndAuthenticate(mockMvc, PersonFixtures.person_admin);
+
+    String responseContent = mockMvc.perform(post("/farms")
+            .header("Authorization", bearer(token))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(Map.of("name", "Fazenda do Chico", "size", 5))))
+        .andExpect(status().isCreated())
+        .andReturn().getResponse().getContentAsString();
+
+    farmId = objectMapper.readTree(responseContent).get("id").asLong();
+  }
+
+  @Test
+  @DisplayName("Sem particionamento, a data de colheita é opcional")
+  void testMissingHarvestDate() throws Exception {
+    mockMvc.perform(post("/farms/" + farmId + "/crops")
+            .header("Authorization", bearer(token))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(
+                Map.of("name", "Milho", "plantedArea", 2.5, "plantedDate", "2023-02-01"))))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.harvestDate").doesNotExist());
+  }
+
+  @Test
+  @DisplayName("A colheita não pode ser antes do plantio")
+  void testHarvestBeforePlanting() throws Exception {
+    assertRejected(Map.of(
+        "name", "Milho", "plantedArea", 2.5,
+        "plantedDate", "2023-02-01", "harvestDate", "2023-01-31"
+    ));
+  }
+
+  private void assertRejected(Map<String, Object> crop) throws Exception {
+    mockMvc.perform(post("/farms/" + farmId + "/crops")
+            .header("Authorization", bearer(token))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(crop)))
+        .andExpect(status().isBadRequest())
+        .andExpect(content().string("Data de colheita inválida!"));
+  }
+}
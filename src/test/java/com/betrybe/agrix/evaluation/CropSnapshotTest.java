@@ -0,0 +1,223 @@
+package com.betrybe.agrix.evaluation;
+
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.bearer;
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.createPersonAndAuthenticate;
+import static com.betrybe.agrix.evaluation.util.TestHelpers.objectToJson;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.betrybe.agrix.evaluation.mock.PersonFixtures;
+import com.betrybe.agrix.evaluation.util.SimpleResultHandler;
+import com.betrybe.agrix.service.CropArchiveService;
+import com.betrybe.agrix.service.CropSnapshotService;
+import com.betrybe.agrix.service.snapshot.CropColumns;
+import com.betrybe.agrix.service.snapshot.CropSnapshot;
+import com.betrybe.agrix.service.snapshot.CropSnapshot.Row;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest(properties = {
+    "agrix.crops.snapshot.max-patches=2",
+    "agrix.crops.archive.enabled=true",
+    "agrix.crops.archive.cron=-"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Snapshot colunar das plantações")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class CropSnapshotTest {
+
+  private static final LocalDate PLANTED = LocalDate.of(2023, 2, 15);
+  private static final LocalDate HARVESTED = LocalDate.of(2023, 6, 25);
+
+  MockMvc mockMvc;
+
+  @Autowired
+  WebApplicationContext wac;
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  @Autowired
+  CropSnapshotService cropSnapshotService;
+
+  @Autowired
+  CropArchiveService cropArchiveService;
+
+  String token;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    this.mockMvc = MockMvcBuilders
+        .webAppContextSetup(wac)
+        .apply(springSecurity())
+        .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+        .alwaysDo(new SimpleResultHandler())
+        .build();
+    this.token = createPersonAndAuthenticate(mockMvc, PersonFixtures.person_admin);
+  }
+
+  @Test
+  @DisplayName("O overlay é mesclado à base em ordem de id, substituindo, incluindo e removendo")
+  void testMerge() {
+    CropSnapshot base = CropSnapshot.of(CropColumns.builder()
+        .add(2, 1L, 1.0, PLANTED, HARVESTED, "Milho")
+        .add(4, 1L, 2.0, PLANTED, HARVESTED, "Soja")
+        .add(6, 2L, 3.0, PLANTED, HARVESTED, "Trigo")
+        .build());
+
+    CropSnapshot patched = base
+        .patch(7, new Row(2L, 7.0, PLANTED, null, "Arroz"))
+        .patch(4, new Row(2L, 4.5, PLANTED, HARVESTED, "Soja"))
+        .patch(1, new Row(1L, 0.5, PLANTED, HARVESTED, "Feijão"))
+        .patch(6, null)
+        .patch(3, new Row(null, null, null, null, "Café"));
+
+    assertEquals(List.of(
+        "1 1 0.5 " + day(PLANTED) + " " + day(HARVESTED) + " Feijão",
+        "2 1 1.0 " + day(PLANTED) + " " + day(HARVESTED) + " Milho",
+        "3 0 NaN " + CropColumns.NO_DATE + " " + CropColumns.NO_DATE + " Café",
+        "4 2 4.5 " + day(PLANTED) + " " + day(HARVESTED) + " Soja",
+        "7 2 7.0 " + day(PLANTED) + " " + CropColumns.NO_DATE + " Arroz"
+    ), rows(patched));
+    assertEquals(5, patched.patchCount());
+
+    // Patching returns a new snapshot: the previous one is left as it was.
+    assertEquals(3, rows(base).size());
+    assertEquals(0, base.patchCount());
+  }
+
+  @Test
+  @DisplayName("Um id já no overlay é substituído no lugar, inclusive depois de removido")
+  void testRepatch() {
+    CropSnapshot base = CropSnapshot.of(CropColumns.builder()
+        .add(5, 1L, 1.0, PLANTED, HARVESTED, "Milho")
+        .build());
+
+    CropSnapshot removed = base.patch(5, null).patch(9, new Row(1L, 2.0, PLANTED, null, "Soja"));
+    CropSnapshot restored = removed
+        .patch(5, new Row(1L, 3.0, PLANTED, HARVESTED, "Milho"))
+        .patch(9, null);
+
+    assertEquals(List.of("9 1 2.0 " + day(PLANTED) + " " + CropColumns.NO_DATE + " Soja"),
+        rows(removed));
+    assertEquals(List.of("5 1 3.0 " + day(PLANTED) + " " + day(HARVESTED) + " Milho"),
+        rows(restored));
+    assertEquals(2, restored.patchCount());
+  }
+
+  @Test
+  @DisplayName("Mudanças confirmadas são aplicadas ao overlay e a reconstrução as absorve")
+  void testPatchThenRebuild() throws Exception {
+    long farmId = postForId("/farms", Map.of("name", "Fazenda do Chico", "size", 5));
+    long cornId = postForId("/farms/" + farmId + "/crops", crop("Milho"));
+    long soyId = postForId("/farms/" + farmId + "/crops", crop("Soja"));
+
+    CropSnapshot patched = cropSnapshotService.snapshot();
+
+    assertEquals(2, patched.patchCount());
+    assertEquals(List.of(
+        cornId + " " + farmId + " 2.5 " + day(PLANTED) + " " + day(HARVESTED) + " Milho",
+        soyId + " " + farmId + " 2.5 " + day(PLANTED) + " " + day(HARVESTED) + " Soja"
+    ), rows(patched));
+
+    cropSnapshotService.rebuild();
+
+    assertEquals(0, cropSnapshotService.snapshot().patchCount());
+    assertEquals(2, cropSnapshotService.snapshot().base().size());
+    assertEquals(rows(patched), rows(cropSnapshotService.snapshot()));
+  }
+
+  @Test
+  @DisplayName("Um overlay maior que o limite agenda uma reconstrução")
+  void testOverlayLimit() throws Exception {
+    long farmId = postForId("/farms", Map.of("name", "Fazenda do Chico", "size", 5));
+
+    for (String name : List.of("Milho", "Soja", "Trigo")) {
+      postForId("/farms/" + farmId + "/crops", crop(name));
+    }
+
+    long deadline = System.currentTimeMillis() + 5_000;
+
+    while (cropSnapshotService.snapshot().patchCount() > 0) {
+      if (System.currentTimeMillis() > deadline) {
+        fail("Snapshot não reconstruído: " + cropSnapshotService.snapshot().patchCount());
+      }
+
+      Thread.sleep(20);
+    }
+
+    assertEquals(3, cropSnapshotService.snapshot().base().size());
+  }
+
+  @Test
+  @DisplayName("Uma plantação arquivada continua no snapshot, antes e depois da reconstrução")
+  void testArchivedCrop() throws Exception {
+    LocalDate planted = LocalDate.of(2020, 2, 1);
+    LocalDate harvested = LocalDate.of(2020, 7, 1);
+    long farmId = postForId("/farms", Map.of("name", "Fazenda do Chico", "size", 5));
+    long cropId = postForId("/farms/" + farmId + "/crops", Map.of("name", "Milho",
+        "plantedArea", 2.5, "plantedDate", planted.toString(),
+        "harvestDate", harvested.toString()));
+    List<String> expected = List.of(
+        cropId + " " + farmId + " 2.5 " + day(planted) + " " + day(harvested) + " Milho");
+
+    cropSnapshotService.rebuild();
+    cropArchiveService.archiveHarvested();
+
+    assertEquals(1, cropSnapshotService.snapshot().patchCount());
+    assertEquals(expected, rows(cropSnapshotService.snapshot()));
+
+    cropSnapshotService.rebuild();
+
+    assertEquals(expected, rows(cropSnapshotService.snapshot()));
+  }
+
+  private static List<String> rows(CropSnapshot snapshot) {
+    List<String> rows = new ArrayList<>();
+
+    snapshot.forEach((id, farmId, area, plantedDay, harvestDay, name) -> rows.add(
+        id + " " + farmId + " " + area + " " + plantedDay + " " + harvestDay + " " + name));
+
+    return rows;
+  }
+
+  private static int day(LocalDate date) {
+    return CropColumns.epochDay(date);
+  }
+
+  private static Map<String, Object> crop(String name) {
+    return Map.of("name", name, "plantedArea", 2.5,
+        "plantedDate", PLANTED.toString(), "harvestDate", HARVESTED.toString());
+  }
+
+  private long postForId(String url, Map<String, Object> body) throws Exception {
+    String responseContent = mockMvc.perform(post(url)
+            .header("Authorization", bearer(token))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(body)))
+        .andExpect(status().isCreated())
+        .andReturn().getResponse().getContentAsString();
+
+    return objectMapper.readTree(responseContent).get("id").asLong();
+  }
+}
@@ -0,0 +1,140 @@
+package com.betrybe.agrix.evaluation;
+
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.bearer;
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.createPersonAndAuthenticate;
+import static com.betrybe.agrix.evaluation.util.TestHelpers.objectToJson;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.betrybe.agrix.evaluation.mock.PersonFixtures;
+import com.betrybe.agrix.evaluation.util.SimpleResultHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Exclusão de fazendas")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class FarmDeletionTest {
+
+  MockMvc mockMvc;
+
+  @Autowired
+  WebApplicationContext wac;
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  String token;
+  long farmId;
+  long cornId;
+  long soyId;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    this.mockMvc = MockMvcBuilders
+        .webAppContextSetup(wac)
+        .apply(springSecurity())
+        .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+        .alwaysDo(new SimpleResultHandler())
+        .build();
+    this.token = createPersonAndAuthenticate(mockMvc, PersonFixtures.person_admin);
+
+    farmId = postForId("/farms", Map.of("name", "Fazenda do Chico", "size", 5));
+    cornId = postForId("/farms/" + farmId + "/crops", crop("Milho"));
+    soyId = postForId("/farms/" + farmId + "/crops", crop("Soja"));
+    long fertilizerId = postForId("/fertilizers", Map.of(
+        "name", "Compostagem", "brand", "Feita em casa", "composition", "Restos de alimentos"
+    ));
+
+    mockMvc.perform(post("/crops/" + cornId + "/fertilizers/" + fertilizerId)
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isCreated());
+  }
+
+  @Test
+  @DisplayName("CASCADE exclui as plantações e os vínculos com fertilizantes")
+  void testCascade() throws Exception {
+    mockMvc.perform(delete("/farms/" + farmId)
+            .param("mode", "CASCADE")
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.farmId").value(farmId))
+        .andExpect(jsonPath("$.mode").value("CASCADE"))
+        .andExpect(jsonPath("$.cropsAffected").value(2))
+        .andExpect(jsonPath("$.fertilizerLinksRemoved").value(1));
+
+    mockMvc.perform(get("/farms/" + farmId).header("Authorization", bearer(token)))
+        .andExpect(status().isNotFound());
+    mockMvc.perform(get("/crops/" + cornId).header("Authorization", bearer(token)))
+        .andExpect(status().isNotFound());
+    mockMvc.perform(get("/crops/" + soyId).header("Authorization", bearer(token)))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @DisplayName("DETACH mantém as plantações e seus fertilizantes, sem fazenda")
+  void testDetach() throws Exception {
+    mockMvc.perform(delete("/farms/" + farmId).header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.mode").value("DETACH"))
+        .andExpect(jsonPath("$.cropsAffected").value(2))
+        .andExpect(jsonPath("$.fertilizerLinksRemoved").value(0));
+
+    mockMvc.perform(get("/farms/" + farmId).header("Authorization", bearer(token)))
+        .andExpect(status().isNotFound());
+    mockMvc.perform(get("/crops/" + cornId).header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.farmId").doesNotExist());
+    mockMvc.perform(get("/crops/" + cornId + "/fertilizers").header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1));
+  }
+
+  @Test
+  @DisplayName("Uma fazenda já excluída não pode ser excluída de novo")
+  void testDeleteTwice() throws Exception {
+    mockMvc.perform(delete("/farms/" + farmId).header("Authorization", bearer(token)))
+        .andExpect(status().isOk());
+    mockMvc.perform(delete("/farms/" + farmId).header("Authorization", bearer(token)))
+        .andExpect(status().isNotFound());
+  }
+
+  private static Map<String, Object> crop(String name) {
+    return Map.of(
+        "name", name,
+        "plantedArea", 2.5,
+        "plantedDate", "2023-02-01",
+        "harvestDate", "2023-07-01"
+    );
+  }
+
+  private long postForId(String url, Map<String, Object> body) throws Exception {
+    String responseContent = mockMvc.perform(post(url)
+            .header("Authorization", bearer(token))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(body)))
+        .andExpect(status().isCreated())
+        .andReturn().getResponse().getContentAsString();
+
+    return objectMapper.readTree(responseContent).get("id").asLong();
+  }
+}
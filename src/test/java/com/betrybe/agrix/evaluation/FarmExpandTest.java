@@ -0,0 +1,135 @@
+package com.betrybe.agrix.evaluation;
+
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.bearer;
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.createPersonAndAuthenticate;
+import static com.betrybe.agrix.evaluation.util.TestHelpers.objectToJson;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.betrybe.agrix.evaluation.mock.PersonFixtures;
+import com.betrybe.agrix.evaluation.util.SimpleResultHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest(properties = "agrix.farms.expand.max-crops=2")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Expansão de fazendas com ?expand=")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class FarmExpandTest {
+
+  MockMvc mockMvc;
+
+  @Autowired
+  WebApplicationContext wac;
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  String token;
+  long farmId;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    this.mockMvc = MockMvcBuilders
+        .webAppContextSetup(wac)
+        .apply(springSecurity())
+        .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+        .alwaysDo(new SimpleResultHandler())
+        .build();
+    this.token = createPersonAndAuthenticate(mockMvc, PersonFixtures.person_admin);
+
+    farmId = postForId("/farms", Map.of("name", "Fazenda do Chico", "size", 5));
+    long cornId = postForId("/farms/" + farmId + "/crops", crop("Milho"));
+    postForId("/farms/" + farmId + "/crops", crop("Soja"));
+    postForId("/farms/" + farmId + "/crops", crop("Trigo"));
+    long fertilizerId = postForId("/fertilizers", Map.of(
+        "name", "Compostagem", "brand", "Feita em casa", "composition", "Restos de alimentos"
+    ));
+
+    mockMvc.perform(post("/crops/" + cornId + "/fertilizers/" + fertilizerId)
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isCreated());
+  }
+
+  @Test
+  @DisplayName("Sem relações pedidas, a fazenda vem sozinha")
+  void testNoExpansion() throws Exception {
+    mockMvc.perform(get("/farms/" + farmId).param("expand", "")
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.name").value("Fazenda do Chico"))
+        .andExpect(jsonPath("$.crops").doesNotExist())
+        .andExpect(jsonPath("$.cropsTruncated").doesNotExist());
+  }
+
+  @Test
+  @DisplayName("As plantações vêm limitadas e sinalizadas quando truncadas")
+  void testExpandCrops() throws Exception {
+    mockMvc.perform(get("/farms/" + farmId).param("expand", "crops")
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.crops.length()").value(2))
+        .andExpect(jsonPath("$.crops[0].name").value("Milho"))
+        .andExpect(jsonPath("$.crops[1].name").value("Soja"))
+        .andExpect(jsonPath("$.crops[0].fertilizers").doesNotExist())
+        .andExpect(jsonPath("$.cropsTruncated").value(true));
+  }
+
+  @Test
+  @DisplayName("Os fertilizantes das plantações vêm quando pedidos")
+  void testExpandFertilizers() throws Exception {
+    mockMvc.perform(get("/farms/" + farmId).param("expand", "crops,crops.fertilizers")
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.crops[0].fertilizers.length()").value(1))
+        .andExpect(jsonPath("$.crops[0].fertilizers[0].name").value("Compostagem"))
+        .andExpect(jsonPath("$.crops[1].fertilizers.length()").value(0));
+  }
+
+  @Test
+  @DisplayName("Relações desconhecidas são recusadas")
+  void testUnknownExpansion() throws Exception {
+    mockMvc.perform(get("/farms/" + farmId).param("expand", "crops,owner")
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isBadRequest())
+        .andExpect(content().string("Campos inválidos: owner!"));
+  }
+
+  private static Map<String, Object> crop(String name) {
+    return Map.of(
+        "name", name,
+        "plantedArea", 2.5,
+        "plantedDate", "2023-02-01",
+        "harvestDate", "2023-07-01"
+    );
+  }
+
+  private long postForId(String url, Map<String, Object> body) throws Exception {
+    String responseContent = mockMvc.perform(post(url)
+            .header("Authorization", bearer(token))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(body)))
+        .andExpect(status().isCreated())
+        .andReturn().getResponse().getContentAsString();
+
+    return objectMapper.readTree(responseContent).get("id").asLong();
+  }
+}
@@ -0,0 +1,172 @@
+package com.betrybe.agrix.evaluation;
+
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.bearer;
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.createPersonAndAuthenticate;
+import static com.betrybe.agrix.evaluation.util.TestHelpers.objectToJson;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.betrybe.agrix.evaluation.mock.PersonFixtures;
+import com.betrybe.agrix.evaluation.util.SimpleResultHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Relatório de uso de fertilizantes")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class FertilizerUsageTest {
+
+  MockMvc mockMvc;
+
+  @Autowired
+  WebApplicationContext wac;
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  String token;
+  long farmA;
+  long compost;
+  long manure;
+  long soyB;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    this.mockMvc = MockMvcBuilders
+        .webAppContextSetup(wac)
+        .apply(springSecurity())
+        .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+        .alwaysDo(new SimpleResultHandler())
+        .build();
+    this.token = createPersonAndAuthenticate(mockMvc, PersonFixtures.person_admin);
+
+    farmA = postForId("/farms", Map.of("name", "Fazenda do Chico", "size", 5));
+    long farmB = postForId("/farms", Map.of("name", "Sítio da Zeca", "size", 3));
+
+    long cornA = postForId("/farms/" + farmA + "/crops", crop("Milho", 2.5, "2023-01-10"));
+    long riceA = postForId("/farms/" + farmA + "/crops", crop("Arroz", 1.5, "2023-03-10"));
+    soyB = postForId("/farms/" + farmB + "/crops", crop("Soja", 4.0, "2023-02-10"));
+
+    compost = postForId("/fertilizers", fertilizer("Compostagem"));
+    postForId("/fertilizers", fertilizer("Sem uso"));
+    manure = postForId("/fertilizers", fertilizer("Esterco"));
+
+    link(cornA, compost);
+    link(riceA, compost);
+    link(soyB, compost);
+    link(riceA, manure);
+  }
+
+  @Test
+  @DisplayName("Sem filtros cada fertilizante em uso soma suas plantações, área e fazendas")
+  void testUsage() throws Exception {
+    mockMvc.perform(get("/fertilizers/usage").header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].fertilizerId").value(compost))
+        .andExpect(jsonPath("$[0].crops").value(3))
+        .andExpect(jsonPath("$[0].plantedArea").value(8.0))
+        .andExpect(jsonPath("$[0].farms").value(2))
+        .andExpect(jsonPath("$[1].fertilizerId").value(manure))
+        .andExpect(jsonPath("$[1].crops").value(1))
+        .andExpect(jsonPath("$[1].plantedArea").value(1.5))
+        .andExpect(jsonPath("$[1].farms").value(1));
+  }
+
+  @Test
+  @DisplayName("A janela de plantio inclui as duas pontas")
+  void testPlantedWindow() throws Exception {
+    mockMvc.perform(get("/fertilizers/usage").param("from", "2023-02-10")
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].crops").value(2))
+        .andExpect(jsonPath("$[0].plantedArea").value(5.5));
+
+    mockMvc.perform(get("/fertilizers/usage").param("to", "2023-02-10")
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].fertilizerId").value(compost))
+        .andExpect(jsonPath("$[0].crops").value(2))
+        .andExpect(jsonPath("$[0].plantedArea").value(6.5))
+        .andExpect(jsonPath("$[0].farms").value(2));
+
+    mockMvc.perform(get("/fertilizers/usage").param("from", "2024-01-01")
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(0));
+  }
+
+  @Test
+  @DisplayName("O filtro por fazenda conta só as plantações dela")
+  void testFarmFilter() throws Exception {
+    mockMvc.perform(get("/fertilizers/usage").param("farmId", String.valueOf(farmA))
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].crops").value(2))
+        .andExpect(jsonPath("$[0].plantedArea").value(4.0))
+        .andExpect(jsonPath("$[0].farms").value(1))
+        .andExpect(jsonPath("$[1].crops").value(1));
+  }
+
+  @Test
+  @DisplayName("Uma nova associação invalida o relatório em cache")
+  void testCacheInvalidation() throws Exception {
+    mockMvc.perform(get("/fertilizers/usage").header("Authorization", bearer(token)))
+        .andExpect(jsonPath("$[1].crops").value(1));
+
+    link(soyB, manure);
+
+    mockMvc.perform(get("/fertilizers/usage").header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[1].crops").value(2))
+        .andExpect(jsonPath("$[1].plantedArea").value(5.5))
+        .andExpect(jsonPath("$[1].farms").value(2));
+  }
+
+  private void link(long cropId, long fertilizerId) throws Exception {
+    mockMvc.perform(post("/crops/" + cropId + "/fertilizers/" + fertilizerId)
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isCreated());
+  }
+
+  private static Map<String, Object> crop(String name, double plantedArea, String plantedDate) {
+    return Map.of("name", name, "plantedArea", plantedArea,
+        "plantedDate", plantedDate, "harvestDate", "2023-12-20");
+  }
+
+  private static Map<String, Object> fertilizer(String name) {
+    return Map.of("name", name, "brand", "Feita em casa", "composition", "Restos de alimentos");
+  }
+
+  private long postForId(String url, Map<String, Object> body) throws Exception {
+    String responseContent = mockMvc.perform(post(url)
+            .header("Authorization", bearer(token))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(body)))
+        .andExpect(status().isCreated())
+        .andReturn().getResponse().getContentAsString();
+
+    return objectMapper.readTree(responseContent).get("id").asLong();
+  }
+}
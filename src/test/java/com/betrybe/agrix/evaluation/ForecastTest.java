@@ -0,0 +1,240 @@
+package com.betrybe.agrix.evaluation;
+
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.bearer;
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.createPersonAndAuthenticate;
+import static com.betrybe.agrix.evaluation.util.TestHelpers.objectToJson;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.betrybe.agrix.evaluation.mock.PersonFixtures;
+import com.betrybe.agrix.evaluation.util.SimpleResultHandler;
+import com.betrybe.agrix.service.CropService;
+import com.betrybe.agrix.service.FertilizerForecastService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest(properties = {
+    "agrix.forecast.horizon-weeks=12",
+    "agrix.forecast.default-schedule=0:1,2:0.5"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Previsão de demanda de fertilizantes")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class ForecastTest {
+
+  private static final LocalDate THIS_WEEK = LocalDate.now()
+      .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+
+  MockMvc mockMvc;
+
+  @Autowired
+  WebApplicationContext wac;
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  @Autowired
+  FertilizerForecastService fertilizerForecastService;
+
+  @Autowired
+  CropService cropService;
+
+  String token;
+  long farmA;
+  long farmB;
+  long compost;
+  long manure;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    this.mockMvc = MockMvcBuilders
+        .webAppContextSetup(wac)
+        .apply(springSecurity())
+        .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+        .alwaysDo(new SimpleResultHandler())
+        .build();
+    this.token = createPersonAndAuthenticate(mockMvc, PersonFixtures.person_admin);
+
+    farmA = postForId("/farms", Map.of("name", "Fazenda do Chico", "size", 10));
+    farmB = postForId("/farms", Map.of("name", "Sítio da Zeca", "size", 5));
+    compost = postForId("/fertilizers", fertilizer("Compostagem"));
+    manure = postForId("/fertilizers", fertilizer("Esterco"));
+  }
+
+  @Test
+  @DisplayName("Cada semana soma as aplicações do cronograma sobre a área plantada")
+  void testWeeklyDemand() throws Exception {
+    long corn = postForId("/farms/" + farmA + "/crops", crop("Milho", 2.0, THIS_WEEK));
+    long soy = postForId("/farms/" + farmA + "/crops", crop("Soja", 0.5, THIS_WEEK.minusWeeks(1)));
+    link(corn, compost);
+    link(soy, compost);
+
+    mockMvc.perform(get("/forecast/fertilizers").param("weeks", "4")
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.firstWeek").value(THIS_WEEK.toString()))
+        .andExpect(jsonPath("$.fertilizers.length()").value(1))
+        .andExpect(jsonPath("$.fertilizers[0].fertilizerId").value(compost))
+        .andExpect(jsonPath("$.fertilizers[0].weekly.length()").value(4))
+        .andExpect(jsonPath("$.fertilizers[0].weekly[0]").value(2.0))
+        .andExpect(jsonPath("$.fertilizers[0].weekly[1]").value(0.25))
+        .andExpect(jsonPath("$.fertilizers[0].weekly[2]").value(1.0))
+        .andExpect(jsonPath("$.fertilizers[0].weekly[3]").value(0.0))
+        .andExpect(jsonPath("$.fertilizers[0].total").value(3.25));
+
+    assertMatchesRebuild();
+  }
+
+  @Test
+  @DisplayName("Plantações e associações novas são aplicadas como a reconstrução faria")
+  void testCreateAndAssociate() throws Exception {
+    long corn = postForId("/farms/" + farmA + "/crops", crop("Milho", 2.0, THIS_WEEK));
+    long soy = postForId("/farms/" + farmB + "/crops", crop("Soja", 1.25, THIS_WEEK.plusWeeks(2)));
+    long rice = postForId("/farms/" + farmA + "/crops",
+        crop("Arroz", 0.5, THIS_WEEK.minusWeeks(1)));
+    assertMatchesRebuild();
+
+    link(corn, compost);
+    link(soy, compost);
+    link(rice, manure);
+    assertMatchesRebuild();
+
+    link(corn, manure);
+    link(corn, manure);
+    assertMatchesRebuild();
+
+    // Planted too long ago or beyond the horizon: never in the forecast.
+    long old = postForId("/farms/" + farmB + "/crops",
+        crop("Trigo", 2.0, THIS_WEEK.minusWeeks(3)));
+    long late = postForId("/farms/" + farmB + "/crops",
+        crop("Café", 2.0, THIS_WEEK.plusWeeks(12)));
+    link(old, compost);
+    link(late, compost);
+    assertMatchesRebuild();
+  }
+
+  @Test
+  @DisplayName("Plantações movidas, soltas ou excluídas ficam como na reconstrução")
+  void testMoveAndDelete() throws Exception {
+    long corn = postForId("/farms/" + farmA + "/crops", crop("Milho", 2.0, THIS_WEEK));
+    long soy = postForId("/farms/" + farmA + "/crops", crop("Soja", 1.25, THIS_WEEK.plusWeeks(2)));
+    long rice = postForId("/farms/" + farmA + "/crops",
+        crop("Arroz", 0.5, THIS_WEEK.minusWeeks(1)));
+    link(corn, compost);
+    link(soy, manure);
+    link(rice, compost);
+
+    cropService.setCropFarm(corn, farmB);
+    assertMatchesRebuild();
+
+    cropService.removeCropFarm(soy);
+    assertMatchesRebuild();
+
+    cropService.deleteById(rice);
+    assertMatchesRebuild();
+  }
+
+  @Test
+  @DisplayName("Excluir uma fazenda, em cascata ou soltando as plantações, atualiza a previsão")
+  void testFarmDeletion() throws Exception {
+    long corn = postForId("/farms/" + farmA + "/crops", crop("Milho", 2.0, THIS_WEEK));
+    long soy = postForId("/farms/" + farmB + "/crops", crop("Soja", 1.25, THIS_WEEK.plusWeeks(2)));
+    long rice = postForId("/farms/" + farmB + "/crops", crop("Arroz", 0.5, THIS_WEEK));
+    link(corn, compost);
+    link(soy, compost);
+    link(rice, manure);
+
+    deleteFarm(farmA, "CASCADE");
+    assertMatchesRebuild();
+
+    deleteFarm(farmB, "DETACH");
+    assertMatchesRebuild();
+
+    mockMvc.perform(get("/forecast/fertilizers").param("weeks", "12")
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.fertilizers.length()").value(0));
+  }
+
+  @Test
+  @DisplayName("Semanas fora do horizonte respondem 400")
+  void testInvalidWeeks() throws Exception {
+    for (String weeks : new String[] {"0", "13"}) {
+      mockMvc.perform(get("/forecast/fertilizers").param("weeks", weeks)
+              .header("Authorization", bearer(token)))
+          .andExpect(status().isBadRequest());
+    }
+  }
+
+  /**
+   * Checks that the incrementally patched forecast is the one a rebuild from the database gives.
+   */
+  private void assertMatchesRebuild() throws Exception {
+    String patched = forecast();
+
+    fertilizerForecastService.rebuild();
+
+    assertEquals(patched, forecast());
+  }
+
+  private String forecast() throws Exception {
+    return mockMvc.perform(get("/forecast/fertilizers").param("weeks", "12")
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+  }
+
+  private void deleteFarm(long farmId, String mode) throws Exception {
+    mockMvc.perform(delete("/farms/" + farmId).param("mode", mode)
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isOk());
+  }
+
+  private void link(long cropId, long fertilizerId) throws Exception {
+    mockMvc.perform(post("/crops/" + cropId + "/fertilizers/" + fertilizerId)
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isCreated());
+  }
+
+  private static Map<String, Object> crop(String name, double plantedArea, LocalDate planted) {
+    return Map.of("name", name, "plantedArea", plantedArea,
+        "plantedDate", planted.toString(), "harvestDate", planted.plusWeeks(20).toString());
+  }
+
+  private static Map<String, Object> fertilizer(String name) {
+    return Map.of("name", name, "brand", "Feita em casa", "composition", "Restos de alimentos");
+  }
+
+  private long postForId(String url, Map<String, Object> body) throws Exception {
+    String responseContent = mockMvc.perform(post(url)
+            .header("Authorization", bearer(token))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(body)))
+        .andExpect(status().isCreated())
+        .andReturn().getResponse().getContentAsString();
+
+    return objectMapper.readTree(responseContent).get("id").asLong();
+  }
+}
@@ -0,0 +1,201 @@
+package com.betrybe.agrix.evaluation;
+
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.bearer;
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.createPersonAndAuthenticate;
+import static com.betrybe.agrix.evaluation.util.TestHelpers.objectToJson;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.betrybe.agrix.evaluation.mock.PersonFixtures;
+import com.betrybe.agrix.evaluation.util.SimpleResultHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Busca de fazendas por localização")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class GeoSearchTest {
+
+  MockMvc mockMvc;
+
+  @Autowired
+  WebApplicationContext wac;
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  String token;
+  long brasilia;
+  long goiania;
+  long fijiEast;
+  long fijiWest;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    this.mockMvc = MockMvcBuilders
+        .webAppContextSetup(wac)
+        .apply(springSecurity())
+        .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+        .alwaysDo(new SimpleResultHandler())
+        .build();
+    this.token = createPersonAndAuthenticate(mockMvc, PersonFixtures.person_admin);
+
+    brasilia = postForId("/farms", farm("Fazenda do Chico", -15.78, -47.93));
+    goiania = postForId("/farms", farm("Sítio da Zeca", -16.68, -49.25));
+    fijiEast = postForId("/farms", farm("Taveuni", -17.0, 179.9));
+    fijiWest = postForId("/farms", farm("Rabi", -17.0, -179.9));
+    postForId("/farms", Map.of("name", "Sem endereço", "size", 1));
+  }
+
+  @Test
+  @DisplayName("A busca por raio devolve só as fazendas dentro dele, a mais próxima primeiro")
+  void testNear() throws Exception {
+    mockMvc.perform(get("/farms/near").header("Authorization", bearer(token))
+            .param("lat", "-15.8").param("lon", "-47.9").param("radiusKm", "50"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].farm.id").value(brasilia));
+
+    mockMvc.perform(get("/farms/near").header("Authorization", bearer(token))
+            .param("lat", "-15.8").param("lon", "-47.9").param("radiusKm", "250"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].farm.id").value(brasilia))
+        .andExpect(jsonPath("$[1].farm.id").value(goiania));
+
+    mockMvc.perform(get("/farms/near").header("Authorization", bearer(token))
+            .param("lat", "-15.8").param("lon", "-47.9").param("radiusKm", "250")
+            .param("limit", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].farm.id").value(brasilia));
+  }
+
+  @Test
+  @DisplayName("A busca por caixa devolve as fazendas dentro dela, por id")
+  void testWithin() throws Exception {
+    mockMvc.perform(get("/farms/within").header("Authorization", bearer(token))
+            .param("south", "-17").param("west", "-50")
+            .param("north", "-15").param("east", "-47"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].id").value(brasilia))
+        .andExpect(jsonPath("$[1].id").value(goiania));
+  }
+
+  @Test
+  @DisplayName("Raio e caixa atravessam o antimeridiano")
+  void testAntimeridian() throws Exception {
+    mockMvc.perform(get("/farms/near").header("Authorization", bearer(token))
+            .param("lat", "-17").param("lon", "179.99").param("radiusKm", "30"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].farm.id").value(fijiEast))
+        .andExpect(jsonPath("$[1].farm.id").value(fijiWest));
+
+    mockMvc.perform(get("/farms/within").header("Authorization", bearer(token))
+            .param("south", "-18").param("west", "179")
+            .param("north", "-16").param("east", "-179"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].id").value(fijiEast))
+        .andExpect(jsonPath("$[1].id").value(fijiWest));
+  }
+
+  @Test
+  @DisplayName("Limite, raio ou coordenadas fora da faixa respondem 400")
+  void testInvalidParameters() throws Exception {
+    for (String limit : List.of("0", "-1")) {
+      mockMvc.perform(get("/farms/near").header("Authorization", bearer(token))
+              .param("lat", "-15.8").param("lon", "-47.9").param("radiusKm", "50")
+              .param("limit", limit))
+          .andExpect(status().isBadRequest())
+          .andExpect(content().string("Limite inválido!"));
+
+      mockMvc.perform(get("/farms/within").header("Authorization", bearer(token))
+              .param("south", "-17").param("west", "-50")
+              .param("north", "-15").param("east", "-47")
+              .param("limit", limit))
+          .andExpect(status().isBadRequest())
+          .andExpect(content().string("Limite inválido!"));
+    }
+
+    mockMvc.perform(get("/farms/near").header("Authorization", bearer(token))
+            .param("lat", "-15.8").param("lon", "-47.9").param("radiusKm", "0"))
+        .andExpect(status().isBadRequest())
+        .andExpect(content().string("Localização inválida!"));
+
+    mockMvc.perform(get("/farms/within").header("Authorization", bearer(token))
+            .param("south", "-15").param("west", "-50")
+            .param("north", "-17").param("east", "-47"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Um contorno com o máximo de vértices cabe na coluna, com seis casas decimais")
+  void testBoundaryFitsColumn() throws Exception {
+    List<Map<String, Object>> boundary = new ArrayList<>();
+
+    for (int i = 0; i < 256; i++) {
+      boundary.add(Map.of(
+          "latitude", -89.123456789012345 + i * 1e-9,
+          "longitude", -179.123456789012345 + i * 1e-9
+      ));
+    }
+
+    long farmId = postForId("/farms", Map.of("name", "Contorno", "size", 1,
+        "boundary", boundary));
+
+    mockMvc.perform(get("/farms/" + farmId).header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.boundary.length()").value(256))
+        .andExpect(jsonPath("$.boundary[0].latitude").value(-89.123457))
+        .andExpect(jsonPath("$.boundary[0].longitude").value(-179.123457));
+
+    Integer length = jdbcTemplate.queryForObject(
+        "SELECT LENGTH(boundary) FROM farms WHERE id = ?", Integer.class, farmId);
+
+    assertTrue(length <= 256 * 23, "boundary takes " + length + " characters");
+  }
+
+  private static Map<String, Object> farm(String name, double latitude, double longitude) {
+    return Map.of("name", name, "size", 5, "latitude", latitude, "longitude", longitude);
+  }
+
+  private long postForId(String url, Map<String, Object> body) throws Exception {
+    String responseContent = mockMvc.perform(post(url)
+            .header("Authorization", bearer(token))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(body)))
+        .andExpect(status().isCreated())
+        .andReturn().getResponse().getContentAsString();
+
+    return objectMapper.readTree(responseContent).get("id").asLong();
+  }
+}
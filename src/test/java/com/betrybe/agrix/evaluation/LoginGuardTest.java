@@ -0,0 +1,140 @@
+package com.betrybe.agrix.evaluation;
+
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.createPersonAndLogin;
+import static com.betrybe.agrix.evaluation.util.TestHelpers.objectToJson;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.betrybe.agrix.evaluation.mock.MockPerson;
+import com.betrybe.agrix.evaluation.mock.PersonFixtures;
+import com.betrybe.agrix.evaluation.util.SimpleResultHandler;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest(properties = {
+    "api.login-guard.username-threshold=3",
+    "api.login-guard.address-threshold=5",
+    "api.login-guard.base-backoff=500ms",
+    "api.login-guard.max-backoff=1s"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Proteção do login contra força bruta")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class LoginGuardTest {
+
+  private static final String BLOCKED = "Muitas tentativas de login! Tente novamente mais tarde.";
+  private static final String ADDRESS = "203.0.113.7";
+
+  MockMvc mockMvc;
+
+  @Autowired
+  WebApplicationContext wac;
+
+  String username;
+  String password;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    this.mockMvc = MockMvcBuilders
+        .webAppContextSetup(wac)
+        .apply(springSecurity())
+        .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+        .alwaysDo(new SimpleResultHandler())
+        .build();
+
+    MockPerson person = PersonFixtures.person_user;
+    createPersonAndLogin(mockMvc, person);
+    this.username = (String) person.get("username");
+    this.password = (String) person.get("password");
+  }
+
+  @Test
+  @DisplayName("Um usuário no limite é bloqueado mesmo com a senha certa até o recuo passar")
+  void testUsernameBackoff() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      login(username, "incorrectpassword", ADDRESS)
+          .andExpect(status().isForbidden());
+    }
+
+    login(username, password, ADDRESS)
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string("Retry-After", "1"))
+        .andExpect(content().string(BLOCKED));
+
+    Thread.sleep(600);
+
+    login(username, password, ADDRESS)
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  @DisplayName("Cada falha além do limite dobra o bloqueio, até o máximo")
+  void testBackoffDoubles() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      login(username, "incorrectpassword", ADDRESS)
+          .andExpect(status().isForbidden());
+    }
+
+    Thread.sleep(600);
+
+    // Blocked for 1s now: still blocked once the first 500ms are over.
+    login(username, "incorrectpassword", ADDRESS)
+        .andExpect(status().isForbidden());
+    Thread.sleep(600);
+    login(username, password, ADDRESS)
+        .andExpect(status().isTooManyRequests());
+
+    Thread.sleep(600);
+
+    // Capped at the maximum of 1s, not doubled again to 2s.
+    login(username, "incorrectpassword", ADDRESS)
+        .andExpect(status().isForbidden());
+    Thread.sleep(1_100);
+    login(username, password, ADDRESS)
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  @DisplayName("Um endereço no limite é bloqueado para todos os usuários, e só ele")
+  void testAddressBackoff() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      login("nonexistingusername" + i, "incorrectpassword", ADDRESS)
+          .andExpect(status().isForbidden());
+    }
+
+    login(username, password, ADDRESS)
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string("Retry-After", "1"));
+
+    login(username, password, "198.51.100.20")
+        .andExpect(status().isOk());
+  }
+
+  private ResultActions login(String username, String password, String address)
+      throws Exception {
+    return mockMvc.perform(post("/auth/login")
+        .with(request -> {
+          request.setRemoteAddr(address);
+          return request;
+        })
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectToJson(Map.of("username", username, "password", password))));
+  }
+}
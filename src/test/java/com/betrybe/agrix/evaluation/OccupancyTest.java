@@ -0,0 +1,199 @@
+package com.betrybe.agrix.evaluation;
+
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.bearer;
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.createPersonAndAuthenticate;
+import static com.betrybe.agrix.evaluation.util.TestHelpers.objectToJson;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.betrybe.agrix.controller.dto.OccupancyRunDto;
+import com.betrybe.agrix.evaluation.mock.PersonFixtures;
+import com.betrybe.agrix.evaluation.util.SimpleResultHandler;
+import com.betrybe.agrix.service.occupancy.OccupancySweep;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest(properties = "agrix.farms.occupancy.max-days=31")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Ocupação das fazendas")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class OccupancyTest {
+
+  private static final LocalDate FROM = LocalDate.of(2023, 1, 1);
+  private static final LocalDate TO = LocalDate.of(2023, 1, 31);
+
+  MockMvc mockMvc;
+
+  @Autowired
+  WebApplicationContext wac;
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  String token;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    this.mockMvc = MockMvcBuilders
+        .webAppContextSetup(wac)
+        .apply(springSecurity())
+        .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+        .alwaysDo(new SimpleResultHandler())
+        .build();
+    this.token = createPersonAndAuthenticate(mockMvc, PersonFixtures.person_admin);
+  }
+
+  @Test
+  @DisplayName("Sem plantações a janela inteira é um só trecho vazio")
+  void testEmptyWindow() {
+    List<OccupancyRunDto> runs = new OccupancySweep(FROM, TO).sweep(10.0);
+
+    assertEquals(List.of(new OccupancyRunDto(FROM, TO, 0, 0.0)), runs);
+  }
+
+  @Test
+  @DisplayName("A colheita libera a área no próprio dia e as pontas são recortadas na janela")
+  void testHarvestIsExclusive() {
+    OccupancySweep sweep = new OccupancySweep(FROM, TO);
+    sweep.add(date(10), date(20), 2.0);
+    sweep.add(LocalDate.of(2022, 12, 1), date(5), 1.0);
+    sweep.add(date(31), LocalDate.of(2023, 3, 1), 4.0);
+
+    assertEquals(List.of(
+        new OccupancyRunDto(FROM, date(4), 1.0, 0.1),
+        new OccupancyRunDto(date(5), date(9), 0, 0.0),
+        new OccupancyRunDto(date(10), date(19), 2.0, 0.2),
+        new OccupancyRunDto(date(20), date(30), 0, 0.0),
+        new OccupancyRunDto(date(31), TO, 4.0, 0.4)
+    ), sweep.sweep(10.0));
+  }
+
+  @Test
+  @DisplayName("Uma plantação que substitui outra de mesma área não corta o trecho")
+  void testBackToBack() {
+    OccupancySweep sweep = new OccupancySweep(FROM, TO);
+    sweep.add(date(1), date(15), 3.0);
+    sweep.add(date(15), null, 3.0);
+
+    assertEquals(List.of(new OccupancyRunDto(FROM, TO, 3.0, 0.3)), sweep.sweep(10.0));
+  }
+
+  @Test
+  @DisplayName("Plantações vazias, sem data ou fora da janela são ignoradas")
+  void testIgnoredCrops() {
+    OccupancySweep sweep = new OccupancySweep(FROM, TO);
+    sweep.add(date(10), date(10), 2.0);
+    sweep.add(LocalDate.of(2022, 12, 1), FROM, 2.0);
+    sweep.add(LocalDate.of(2023, 2, 1), null, 2.0);
+    sweep.add(null, date(20), 2.0);
+    sweep.add(date(10), date(20), null);
+    sweep.add(date(10), date(20), 0.0);
+
+    assertEquals(List.of(new OccupancyRunDto(FROM, TO, 0, null)), sweep.sweep(null));
+  }
+
+  @Test
+  @DisplayName("Áreas que se anulam voltam a zero sem resíduo de ponto flutuante")
+  void testLevelReturnsToZero() {
+    OccupancySweep sweep = new OccupancySweep(FROM, TO);
+    sweep.add(date(1), date(11), 0.1);
+    sweep.add(date(1), date(11), 0.2);
+    sweep.add(date(11), date(21), 0.3);
+
+    List<OccupancyRunDto> runs = sweep.sweep(0.0);
+
+    assertEquals(2, runs.size());
+    assertEquals(new OccupancyRunDto(date(21), TO, 0, null), runs.get(1));
+    assertNull(runs.get(0).occupancy());
+  }
+
+  @Test
+  @DisplayName("A linha do tempo de uma fazenda e a da frota concordam")
+  void testFarmAndFleet() throws Exception {
+    long farmId = postForId("/farms", Map.of("name", "Fazenda do Chico", "size", 10));
+    long emptyId = postForId("/farms", Map.of("name", "Sítio da Zeca", "size", 5));
+    postForId("/farms/" + farmId + "/crops", crop("2023-01-10", "2023-01-20", 2.0));
+    postForId("/farms/" + farmId + "/crops", crop("2022-12-01", "2023-01-05", 1.0));
+
+    mockMvc.perform(get("/farms/" + farmId + "/occupancy").header("Authorization", bearer(token))
+            .param("from", FROM.toString()).param("to", TO.toString()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.runs.length()").value(4))
+        .andExpect(jsonPath("$.runs[0].end").value("2023-01-04"))
+        .andExpect(jsonPath("$.runs[0].occupancy").value(0.1))
+        .andExpect(jsonPath("$.runs[2].start").value("2023-01-10"))
+        .andExpect(jsonPath("$.runs[2].occupiedArea").value(2.0))
+        .andExpect(jsonPath("$.runs[3].end").value("2023-01-31"));
+
+    mockMvc.perform(get("/farms/occupancy").header("Authorization", bearer(token))
+            .param("from", FROM.toString()).param("to", TO.toString()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].farmId").value(farmId))
+        .andExpect(jsonPath("$[0].runs.length()").value(4))
+        .andExpect(jsonPath("$[0].runs[2].occupiedArea").value(2.0))
+        .andExpect(jsonPath("$[1].farmId").value(emptyId))
+        .andExpect(jsonPath("$[1].runs.length()").value(1))
+        .andExpect(jsonPath("$[1].runs[0].occupiedArea").value(0.0));
+  }
+
+  @Test
+  @DisplayName("Janelas invertidas ou longas demais respondem 400")
+  void testInvalidWindow() throws Exception {
+    long farmId = postForId("/farms", Map.of("name", "Fazenda do Chico", "size", 10));
+
+    mockMvc.perform(get("/farms/" + farmId + "/occupancy").header("Authorization", bearer(token))
+            .param("from", TO.toString()).param("to", FROM.toString()))
+        .andExpect(status().isBadRequest());
+
+    mockMvc.perform(get("/farms/occupancy").header("Authorization", bearer(token))
+            .param("from", FROM.toString()).param("to", "2023-02-01"))
+        .andExpect(status().isBadRequest());
+
+    mockMvc.perform(get("/farms/" + farmId + "/occupancy").header("Authorization", bearer(token))
+            .param("from", FROM.toString()).param("to", FROM.toString()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.runs.length()").value(1));
+  }
+
+  private static LocalDate date(int dayOfJanuary) {
+    return LocalDate.of(2023, 1, dayOfJanuary);
+  }
+
+  private static Map<String, Object> crop(String plantedDate, String harvestDate, double area) {
+    return Map.of("name", "Milho", "plantedArea", area,
+        "plantedDate", plantedDate, "harvestDate", harvestDate);
+  }
+
+  private long postForId(String url, Map<String, Object> body) throws Exception {
+    String responseContent = mockMvc.perform(post(url)
+            .header("Authorization", bearer(token))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(body)))
+        .andExpect(status().isCreated())
+        .andReturn().getResponse().getContentAsString();
+
+    return objectMapper.readTree(responseContent).get("id").asLong();
+  }
+}
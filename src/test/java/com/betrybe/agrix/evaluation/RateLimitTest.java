@@ -0,0 +1,147 @@
+package com.betrybe.agrix.evaluation;
+
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.bearer;
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.createPersonAndAuthenticate;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.betrybe.agrix.evaluation.mock.PersonFixtures;
+import com.betrybe.agrix.evaluation.util.SimpleResultHandler;
+import com.betrybe.agrix.security.RateLimiter;
+import com.betrybe.agrix.security.Role;
+import com.betrybe.agrix.security.TokenBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest(properties = {
+    "api.ratelimit.user.capacity=2",
+    "api.ratelimit.user.refill-per-second=0.001"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Limite de requisições por principal")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class RateLimitTest {
+
+  private static final long SECOND = 1_000_000_000L;
+
+  MockMvc mockMvc;
+
+  @Autowired
+  WebApplicationContext wac;
+
+  @BeforeEach
+  public void setup() {
+    this.mockMvc = MockMvcBuilders
+        .webAppContextSetup(wac)
+        .apply(springSecurity())
+        .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+        .alwaysDo(new SimpleResultHandler())
+        .build();
+  }
+
+  @Test
+  @DisplayName("O balde libera a rajada, nega o excesso e reabastece com o tempo")
+  void testTokenBucketRefill() {
+    TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+    assertTrue(bucket.isIdle(0));
+    assertEquals(0, bucket.tryConsume(0));
+    assertEquals(0, bucket.tryConsume(0));
+    assertEquals(0, bucket.tryConsume(0));
+    assertFalse(bucket.isIdle(0));
+
+    assertEquals(SECOND, bucket.tryConsume(0));
+    assertEquals(SECOND / 2, bucket.tryConsume(SECOND / 2));
+    assertEquals(0, bucket.tryConsume(SECOND));
+    assertEquals(SECOND, bucket.tryConsume(SECOND));
+
+    assertTrue(bucket.isIdle(4 * SECOND));
+    assertEquals(0, bucket.tryConsume(4 * SECOND));
+  }
+
+  @Test
+  @DisplayName("O limitador conta as recusas e ignora quem não tem papel")
+  void testRateLimiterDenies() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    RateLimiter limiter = new RateLimiter(true, 1, 1, 1, 1, 1, 1, 1, registry);
+
+    assertEquals(0, limiter.tryAcquire("maria", Role.USER));
+    assertEquals(1, limiter.tryAcquire("maria", Role.USER));
+    assertEquals(0, limiter.tryAcquire("anonymous", null));
+
+    // The table is full: the least recently used bucket makes room, and the new subject is
+    // throttled like any other.
+    assertEquals(0, limiter.tryAcquire("joao", Role.USER));
+    assertEquals(1, limiter.tryAcquire("joao", Role.USER));
+
+    assertEquals(2.0, registry.get("agrix.ratelimit.throttled")
+        .tag("role", "USER").counter().count());
+    assertEquals(1.0, registry.get("agrix.ratelimit.evicted").counter().count());
+    assertEquals(1.0, registry.get("agrix.ratelimit.buckets").gauge().value());
+  }
+
+  @Test
+  @DisplayName("Um novo principal desaloja o balde usado há mais tempo, nunca um recente")
+  void testRateLimiterEvictsLeastRecentlyUsed() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    RateLimiter limiter = new RateLimiter(true, 2, 1, 1, 1, 1, 1, 0.001, registry);
+
+    assertEquals(0, limiter.tryAcquire("maria", Role.USER));
+    assertEquals(0, limiter.tryAcquire("joao", Role.USER));
+    assertTrue(limiter.tryAcquire("maria", Role.USER) > 0);
+
+    // joao is now the least recently used: the newcomer takes that place, maria stays throttled.
+    assertEquals(0, limiter.tryAcquire("ana", Role.USER));
+    assertTrue(limiter.tryAcquire("maria", Role.USER) > 0);
+    assertTrue(limiter.tryAcquire("ana", Role.USER) > 0);
+
+    for (int i = 0; i < 1_000; i++) {
+      assertEquals(0, limiter.tryAcquire("conta" + i, Role.USER));
+      assertTrue(limiter.tryAcquire("conta" + i, Role.USER) > 0);
+    }
+
+    assertEquals(2.0, registry.get("agrix.ratelimit.buckets").gauge().value());
+    assertEquals(1_001.0, registry.get("agrix.ratelimit.evicted").counter().count());
+  }
+
+  @Test
+  @DisplayName("O limitador desligado nunca recusa")
+  void testRateLimiterDisabled() {
+    RateLimiter limiter = new RateLimiter(false, 1, 1, 1, 1, 1, 1, 1, new SimpleMeterRegistry());
+
+    for (int i = 0; i < 10; i++) {
+      assertEquals(0, limiter.tryAcquire("maria", Role.USER));
+    }
+  }
+
+  @Test
+  @DisplayName("Requisições além da rajada recebem 429 com Retry-After")
+  void testTooManyRequests() throws Exception {
+    String token = createPersonAndAuthenticate(mockMvc, PersonFixtures.person_user);
+
+    mockMvc.perform(get("/farms").header("Authorization", bearer(token)))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/farms").header("Authorization", bearer(token)))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/farms").header("Authorization", bearer(token)))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().exists("Retry-After"));
+  }
+}
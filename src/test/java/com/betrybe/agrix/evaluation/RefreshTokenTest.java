@@ -0,0 +1,132 @@
+package com.betrybe.agrix.evaluation;
+
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.bearer;
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.createPersonAndLogin;
+import static com.betrybe.agrix.evaluation.util.TestHelpers.objectToJson;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.betrybe.agrix.evaluation.mock.PersonFixtures;
+import com.betrybe.agrix.evaluation.util.SimpleResultHandler;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Rotação de refresh tokens")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class RefreshTokenTest {
+
+  MockMvc mockMvc;
+
+  @Autowired
+  WebApplicationContext wac;
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  @BeforeEach
+  public void setup() {
+    this.mockMvc = MockMvcBuilders
+        .webAppContextSetup(wac)
+        .apply(springSecurity())
+        .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+        .alwaysDo(new SimpleResultHandler())
+        .build();
+  }
+
+  @Test
+  @DisplayName("O refresh troca o token por um novo token de acesso e o próximo da família")
+  void testRotation() throws Exception {
+    String first = createPersonAndLogin(mockMvc, PersonFixtures.person_user)
+        .get("refreshToken").asText();
+
+    JsonNode rotated = readTree(refresh(first).andExpect(status().isOk()));
+    String second = rotated.get("refreshToken").asText();
+
+    assertNotEquals(first, second);
+
+    mockMvc.perform(get("/farms").header("Authorization", bearer(rotated.get("token").asText())))
+        .andExpect(status().isOk());
+
+    JsonNode again = readTree(refresh(second).andExpect(status().isOk()));
+
+    assertNotEquals(second, again.get("refreshToken").asText());
+  }
+
+  @Test
+  @DisplayName("Reusar um refresh token já trocado revoga a família inteira")
+  void testReuseRevokesFamily() throws Exception {
+    String first = createPersonAndLogin(mockMvc, PersonFixtures.person_user)
+        .get("refreshToken").asText();
+    String second = readTree(refresh(first).andExpect(status().isOk()))
+        .get("refreshToken").asText();
+
+    refresh(first).andExpect(status().isUnauthorized());
+    refresh(second).andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  @DisplayName("Logins diferentes abrem famílias independentes")
+  void testFamiliesAreIndependent() throws Exception {
+    String first = createPersonAndLogin(mockMvc, PersonFixtures.person_user)
+        .get("refreshToken").asText();
+    String other = readTree(mockMvc.perform(post("/auth/login")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(Map.of(
+                "username", PersonFixtures.person_user.get("username"),
+                "password", PersonFixtures.person_user.get("password")
+            )))))
+        .get("refreshToken").asText();
+
+    refresh(first).andExpect(status().isOk());
+    refresh(first).andExpect(status().isUnauthorized());
+    refresh(other).andExpect(status().isOk());
+  }
+
+  @Test
+  @DisplayName("Tokens desconhecidos ou revogados no logout são recusados")
+  void testUnknownAndLoggedOut() throws Exception {
+    JsonNode login = createPersonAndLogin(mockMvc, PersonFixtures.person_user);
+    String refreshToken = login.get("refreshToken").asText();
+
+    refresh("nao-existe").andExpect(status().isUnauthorized());
+
+    mockMvc.perform(post("/auth/logout")
+            .header("Authorization", bearer(login.get("token").asText()))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(Map.of("refreshToken", refreshToken))))
+        .andExpect(status().isNoContent());
+
+    refresh(refreshToken).andExpect(status().isUnauthorized());
+  }
+
+  private ResultActions refresh(String refreshToken) throws Exception {
+    return mockMvc.perform(post("/auth/refresh")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectToJson(Map.of("refreshToken", refreshToken))));
+  }
+
+  private JsonNode readTree(ResultActions result) throws Exception {
+    return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+  }
+}
@@ -0,0 +1,194 @@
+package com.betrybe.agrix.evaluation;
+
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.bearer;
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.createPersonAndAuthenticate;
+import static com.betrybe.agrix.evaluation.util.TestHelpers.objectToJson;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.betrybe.agrix.config.PrimaryReads;
+import com.betrybe.agrix.config.ReadWriteRoutingDataSource;
+import com.betrybe.agrix.config.ReadWriteRoutingDataSource.Route;
+import com.betrybe.agrix.config.ReadYourWritesTracker;
+import com.betrybe.agrix.evaluation.mock.PersonFixtures;
+import com.betrybe.agrix.evaluation.util.SimpleResultHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest(properties = {
+    "agrix.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Roteamento entre primário e réplica")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class ReplicaRoutingTest {
+
+  private static final String PRIMARY_URL = "jdbc:h2:mem:unit-primary;DB_CLOSE_DELAY=-1";
+  private static final String REPLICA_URL = "jdbc:h2:mem:unit-replica;DB_CLOSE_DELAY=-1";
+
+  MockMvc mockMvc;
+
+  @Autowired
+  WebApplicationContext wac;
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  @Autowired
+  @Qualifier("primaryDataSource")
+  DataSource primaryDataSource;
+
+  @Autowired
+  @Qualifier("replicaDataSource")
+  DataSource replicaDataSource;
+
+  @BeforeEach
+  public void setup() {
+    this.mockMvc = MockMvcBuilders
+        .webAppContextSetup(wac)
+        .apply(springSecurity())
+        .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+        .alwaysDo(new SimpleResultHandler())
+        .build();
+
+    // Nothing replicates between the two H2 databases: the replica gets the schema, never rows.
+    JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+    replica.execute("DROP ALL OBJECTS");
+    new JdbcTemplate(primaryDataSource)
+        .queryForList("SCRIPT NODATA", String.class)
+        .forEach(replica::execute);
+  }
+
+  @AfterEach
+  public void clearPrincipal() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  @DisplayName("Transações somente leitura vão para a réplica e as demais para o primário")
+  void testRouting() {
+    Router router = new Router(Duration.ZERO);
+
+    assertEquals(Route.REPLICA, router.read());
+    assertEquals(Route.PRIMARY, router.write());
+    assertEquals(Route.PRIMARY, router.currentRoute());
+    assertEquals(Route.PRIMARY, PrimaryReads.call(router::read));
+    assertEquals(Route.REPLICA, router.read());
+  }
+
+  @Test
+  @DisplayName("Quem acabou de escrever lê do primário dentro da janela")
+  void testReadYourWrites() {
+    Router router = new Router(Duration.ofMinutes(1));
+    SecurityContextHolder.getContext().setAuthentication(
+        new UsernamePasswordAuthenticationToken("maria", null, List.of())
+    );
+
+    assertEquals(Route.REPLICA, router.read());
+    router.rolledBackWrite();
+    assertEquals(Route.REPLICA, router.read());
+    router.write();
+    assertEquals(Route.PRIMARY, router.read());
+
+    SecurityContextHolder.getContext().setAuthentication(
+        new UsernamePasswordAuthenticationToken("joao", null, List.of())
+    );
+    assertEquals(Route.REPLICA, router.read());
+  }
+
+  @Test
+  @DisplayName("Uma pessoa recém-criada consegue autenticar com réplica atrasada")
+  void testLoginAfterSignUp() throws Exception {
+    String token = createPersonAndAuthenticate(mockMvc, PersonFixtures.person_manager);
+
+    String responseContent = mockMvc.perform(post("/farms")
+            .header("Authorization", bearer(token))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(Map.of("name", "Fazenda do Chico", "size", 5))))
+        .andExpect(status().isCreated())
+        .andReturn().getResponse().getContentAsString();
+
+    long farmId = objectMapper.readTree(responseContent).get("id").asLong();
+
+    // The farm is only on the primary, and farm lookups are read-only transactions.
+    mockMvc.perform(get("/farms/" + farmId).header("Authorization", bearer(token)))
+        .andExpect(status().isNotFound());
+  }
+
+  private static class Router {
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate readOnly;
+    private final TransactionTemplate readWrite;
+
+    Router(Duration window) {
+      ReadWriteRoutingDataSource routing =
+          new ReadWriteRoutingDataSource(new ReadYourWritesTracker(window));
+      routing.setTargetDataSources(Map.of(
+          Route.PRIMARY, new DriverManagerDataSource(PRIMARY_URL, "sa", ""),
+          Route.REPLICA, new DriverManagerDataSource(REPLICA_URL, "sa", "")
+      ));
+      routing.afterPropertiesSet();
+
+      DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+      DataSourceTransactionManager transactionManager =
+          new DataSourceTransactionManager(dataSource);
+
+      this.jdbc = new JdbcTemplate(dataSource);
+      this.readOnly = new TransactionTemplate(transactionManager);
+      this.readOnly.setReadOnly(true);
+      this.readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    Route read() {
+      return readOnly.execute(status -> currentRoute());
+    }
+
+    Route write() {
+      return readWrite.execute(status -> currentRoute());
+    }
+
+    void rolledBackWrite() {
+      readWrite.executeWithoutResult(status -> {
+        currentRoute();
+        status.setRollbackOnly();
+      });
+    }
+
+    Route currentRoute() {
+      String url = jdbc.execute((ConnectionCallback<String>) con -> con.getMetaData().getURL());
+
+      return url.startsWith(REPLICA_URL.substring(0, REPLICA_URL.indexOf(';')))
+          ? Route.REPLICA : Route.PRIMARY;
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package com.betrybe.agrix.evaluation;
+
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.bearer;
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.createPersonAndAuthenticate;
+import static com.betrybe.agrix.evaluation.util.TestHelpers.objectToJson;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.betrybe.agrix.evaluation.mock.PersonFixtures;
+import com.betrybe.agrix.web.ResponseCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Cache de respostas serializadas")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class ResponseCacheTest {
+
+  private static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+
+  // The auto-configured MockMvc registers every servlet filter, the response cache included.
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  MeterRegistry meterRegistry;
+
+  @Test
+  @DisplayName("Respostas produzidas durante uma invalidação não são guardadas")
+  void testGenerationRace() {
+    ResponseCache cache = new ResponseCache(false, 1024, 1024, new SimpleMeterRegistry());
+
+    long generation = cache.generation("/farms");
+    cache.invalidate("/farms");
+    cache.put("/farms?|ROLE_USER", "/farms", generation, JSON, body(10));
+
+    assertNull(cache.get("/farms?|ROLE_USER"));
+
+    cache.put("/farms?|ROLE_USER", "/farms", cache.generation("/farms"), JSON, body(10));
+    cache.put("/fertilizers?|ROLE_ADMIN", "/fertilizers", 0, JSON, body(10));
+
+    assertNotNull(cache.get("/farms?|ROLE_USER"));
+
+    cache.invalidate("/farms");
+
+    assertNull(cache.get("/farms?|ROLE_USER"));
+    assertNotNull(cache.get("/fertilizers?|ROLE_ADMIN"));
+  }
+
+  @Test
+  @DisplayName("Com o orçamento cheio, as entradas lidas recentemente sobrevivem")
+  void testClockEviction() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    ResponseCache cache = new ResponseCache(false, 1024, 30, registry);
+
+    cache.put("a", "/farms", 0, JSON, body(10));
+    cache.put("b", "/farms", 0, JSON, body(10));
+    cache.put("c", "/farms", 0, JSON, body(10));
+    assertNotNull(cache.get("a"));
+
+    cache.put("d", "/farms", 0, JSON, body(10));
+
+    assertNotNull(cache.get("a"));
+    assertNotNull(cache.get("d"));
+    assertTrue(cache.get("b") == null ^ cache.get("c") == null);
+    assertEquals(1.0, registry.get("agrix.response-cache.evictions").counter().count());
+    assertEquals(30.0, registry.get("agrix.response-cache.bytes").gauge().value());
+
+    cache.put("huge", "/farms", 0, JSON, body(31));
+
+    assertNull(cache.get("huge"));
+  }
+
+  @Test
+  @DisplayName("GET /fertilizers é servido do cache até uma escrita invalidá-lo")
+  void testInvalidationOnWrite() throws Exception {
+    String token = createPersonAndAuthenticate(mockMvc, PersonFixtures.person_admin);
+
+    createFertilizer(token, "Compostagem");
+
+    mockMvc.perform(get("/fertilizers").header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1));
+    mockMvc.perform(get("/fertilizers").header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1));
+
+    assertEquals(1.0, requests("hit"));
+    assertEquals(1.0, requests("miss"));
+
+    // Unknown query parameters bypass the cache instead of adding keys to it.
+    mockMvc.perform(get("/fertilizers?nocache=42").header("Authorization", bearer(token)))
+        .andExpect(status().isOk());
+
+    assertEquals(1.0, requests("hit"));
+    assertEquals(1.0, requests("miss"));
+
+    createFertilizer(token, "Humus");
+
+    mockMvc.perform(get("/fertilizers").header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2));
+
+    assertEquals(2.0, requests("miss"));
+  }
+
+  private void createFertilizer(String token, String name) throws Exception {
+    mockMvc.perform(post("/fertilizers")
+            .header("Authorization", bearer(token))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(Map.of(
+                "name", name, "brand", "Feita em casa", "composition", "Restos de comida"))))
+        .andExpect(status().isCreated());
+  }
+
+  private double requests(String result) {
+    return meterRegistry.get("agrix.response-cache.requests").tag("result", result)
+        .counter().count();
+  }
+
+  private static byte[] body(int length) {
+    byte[] body = new byte[length];
+    body[0] = '[';
+    body[length - 1] = ']';
+
+    return body;
+  }
+}
@@ -0,0 +1,164 @@
+package com.betrybe.agrix.evaluation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.betrybe.agrix.config.EmbeddedDatabaseFallback;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.env.MockEnvironment;
+
+@DisplayName("Migrações do esquema")
+public class SchemaMigrationTest {
+
+  private static final List<String> LEGACY_SCHEMA = List.of(
+      "create table farms (id bigint not null auto_increment, name varchar(255),"
+          + " size float(53), primary key (id)) engine=InnoDB",
+      "create table crops (id bigint not null auto_increment, harvest_date date,"
+          + " name varchar(255), planted_area float(53), planted_date date, farm_id bigint,"
+          + " primary key (id)) engine=InnoDB",
+      "create table fertilizers (id bigint not null auto_increment, brand varchar(255),"
+          + " composition varchar(255), name varchar(255), primary key (id)) engine=InnoDB",
+      "create table crop_fertilizers (crop_id bigint not null, fertilizer_id bigint not null)"
+          + " engine=InnoDB",
+      "create table persons (id bigint not null auto_increment, password varchar(255),"
+          + " role tinyint, username varchar(255), primary key (id)) engine=InnoDB",
+      "alter table persons add constraint UK_legacy_username unique (username)",
+      "alter table crops add constraint FK_legacy_crop_farm foreign key (farm_id)"
+          + " references farms (id)",
+      "alter table crop_fertilizers add constraint FK_legacy_link_crop foreign key (crop_id)"
+          + " references crops (id)",
+      "alter table crop_fertilizers add constraint FK_legacy_link_fertilizer"
+          + " foreign key (fertilizer_id) references fertilizers (id)"
+  );
+
+  @Test
+  @DisplayName("Um banco vazio recebe o esquema completo")
+  void testFreshDatabase() throws SQLException {
+    DataSource dataSource = dataSource("fresh");
+    JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+    flyway(dataSource).migrate();
+
+    assertTrue(columns(dataSource, "crops").containsAll(List.of(
+        "id", "farm_id", "harvest_date", "updated_at", "deleted_at", "change_seq"
+    )));
+    assertTrue(columns(dataSource, "farms").containsAll(List.of(
+        "latitude", "longitude", "boundary", "change_seq"
+    )));
+
+    for (String table : List.of("fertilizers", "persons", "crops_archive", "token_revocations",
+        "refresh_tokens", "audit_log", "change_sequence")) {
+      assertTrue(!columns(dataSource, table).isEmpty(), table);
+    }
+
+    assertEquals(1L, jdbc.queryForObject(
+        "SELECT seq FROM change_sequence WHERE id = 1", Long.class
+    ));
+
+    jdbc.update("INSERT INTO crops (name) VALUES ('Milho')");
+    jdbc.update("INSERT INTO fertilizers (name) VALUES ('Compostagem')");
+    jdbc.update("INSERT INTO crop_fertilizers (crop_id, fertilizer_id) VALUES (1, 1)");
+
+    assertThrows(DataIntegrityViolationException.class, () -> jdbc.update(
+        "INSERT INTO crop_fertilizers (crop_id, fertilizer_id) VALUES (1, 1)"
+    ));
+    assertThrows(DataIntegrityViolationException.class, () -> jdbc.update(
+        "INSERT INTO crop_fertilizers (crop_id, fertilizer_id) VALUES (2, 1)"
+    ));
+  }
+
+  @Test
+  @DisplayName("Um banco anterior às migrações é atualizado sem perder dados")
+  void testBaselinedDatabase() throws SQLException {
+    DataSource dataSource = dataSource("legacy");
+    JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+    LEGACY_SCHEMA.forEach(jdbc::execute);
+    jdbc.update("INSERT INTO farms (name, size) VALUES ('Fazenda do Chico', 5)");
+    jdbc.update("INSERT INTO crops (name, farm_id) VALUES ('Milho', 1)");
+    jdbc.update("INSERT INTO fertilizers (name) VALUES ('Compostagem')");
+    jdbc.update("INSERT INTO crop_fertilizers (crop_id, fertilizer_id) VALUES (1, 1)");
+    jdbc.update("INSERT INTO crop_fertilizers (crop_id, fertilizer_id) VALUES (1, 1)");
+
+    Flyway flyway = flyway(dataSource);
+    flyway.migrate();
+
+    MigrationInfo[] applied = flyway.info().applied();
+
+    assertEquals(MigrationType.BASELINE, applied[0].getType());
+    assertEquals("0", applied[0].getVersion().getVersion());
+    assertEquals("1", applied[1].getVersion().getVersion());
+    assertTrue(columns(dataSource, "crops").contains("change_seq"));
+    assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM crop_fertilizers", Integer.class));
+    assertEquals("Milho", jdbc.queryForObject("SELECT name FROM crops", String.class));
+    assertEquals(1L, jdbc.queryForObject("SELECT change_seq FROM crops", Long.class));
+    assertEquals(1L, jdbc.queryForObject("SELECT change_seq FROM farms", Long.class));
+    assertEquals(1L, jdbc.queryForObject(
+        "SELECT seq FROM change_sequence WHERE id = 1", Long.class
+    ));
+  }
+
+  @Test
+  @DisplayName("Sem url de banco, o Flyway fica desligado e o Hibernate cria o esquema")
+  void testEmbeddedFallback() {
+    MockEnvironment embedded = new MockEnvironment()
+        .withProperty("spring.jpa.hibernate.ddl-auto", "validate");
+    MockEnvironment configured = new MockEnvironment()
+        .withProperty("spring.jpa.hibernate.ddl-auto", "validate")
+        .withProperty("spring.datasource.url", "jdbc:mysql://db:3306/agrixdb");
+
+    new EmbeddedDatabaseFallback().postProcessEnvironment(embedded, null);
+    new EmbeddedDatabaseFallback().postProcessEnvironment(configured, null);
+
+    assertEquals("false", embedded.getProperty("spring.flyway.enabled"));
+    assertEquals("create-drop", embedded.getProperty("spring.jpa.hibernate.ddl-auto"));
+    assertNull(configured.getProperty("spring.flyway.enabled"));
+    assertEquals("validate", configured.getProperty("spring.jpa.hibernate.ddl-auto"));
+  }
+
+  private static Flyway flyway(DataSource dataSource) {
+    return Flyway.configure()
+        .dataSource(dataSource)
+        .locations("classpath:db/migration")
+        .baselineOnMigrate(true)
+        .baselineVersion("0")
+        .load();
+  }
+
+  private static DataSource dataSource(String name) {
+    return new DriverManagerDataSource(
+        "jdbc:h2:mem:migration-" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "sa",
+        ""
+    );
+  }
+
+  private static Set<String> columns(DataSource dataSource, String table) throws SQLException {
+    Set<String> columns = new HashSet<>();
+
+    try (Connection connection = dataSource.getConnection();
+        ResultSet rows = connection.getMetaData().getColumns(null, null, table, null)) {
+      while (rows.next()) {
+        columns.add(rows.getString("COLUMN_NAME").toLowerCase());
+      }
+    }
+
+    return columns;
+  }
+}
@@ -0,0 +1,51 @@
+package com.betrybe.agrix.evaluation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.betrybe.agrix.config.SlowQueriesEndpoint;
+import com.betrybe.agrix.config.SlowQueriesEndpoint.SlowQuery;
+import com.betrybe.agrix.repository.CropRepository;
+import com.betrybe.agrix.repository.FarmRepository;
+import com.betrybe.agrix.repository.FertilizerRepository;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.statistics.query_max_size=2")
+@ActiveProfiles("test")
+@DisplayName("Endpoint de consultas lentas")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class SlowQueriesTest {
+
+  @Autowired
+  SlowQueriesEndpoint endpoint;
+
+  @Autowired
+  FarmRepository farmRepository;
+
+  @Autowired
+  CropRepository cropRepository;
+
+  @Autowired
+  FertilizerRepository fertilizerRepository;
+
+  @Test
+  @DisplayName("O limite é ajustado ao intervalo entre 1 e o máximo de consultas rastreadas")
+  void testLimitIsClamped() {
+    farmRepository.findAll();
+    cropRepository.findAll();
+    fertilizerRepository.findAll();
+
+    List<SlowQuery> all = endpoint.slowQueries(null);
+
+    assertTrue(all.size() >= 1 && all.size() <= 2);
+    assertEquals(1, endpoint.slowQueries(-5).size());
+    assertEquals(1, endpoint.slowQueries(0).size());
+    assertEquals(all.size(), endpoint.slowQueries(Integer.MAX_VALUE).size());
+  }
+}
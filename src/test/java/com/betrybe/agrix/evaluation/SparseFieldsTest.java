@@ -0,0 +1,134 @@
+package com.betrybe.agrix.evaluation;
+
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.bearer;
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.createPersonAndAuthenticate;
+import static com.betrybe.agrix.evaluation.util.TestHelpers.objectToJson;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.betrybe.agrix.evaluation.mock.PersonFixtures;
+import com.betrybe.agrix.evaluation.util.SimpleResultHandler;
+import com.betrybe.agrix.service.FieldSelection;
+import com.betrybe.agrix.service.exception.InvalidFieldsException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Seleção de campos com ?fields=")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class SparseFieldsTest {
+
+  MockMvc mockMvc;
+
+  @Autowired
+  WebApplicationContext wac;
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  String token;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    this.mockMvc = MockMvcBuilders
+        .webAppContextSetup(wac)
+        .apply(springSecurity())
+        .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+        .alwaysDo(new SimpleResultHandler())
+        .build();
+    this.token = createPersonAndAuthenticate(mockMvc, PersonFixtures.person_admin);
+  }
+
+  @Test
+  @DisplayName("Os campos pedidos são resolvidos na ordem da requisição, sem repetição")
+  void testResolve() throws Exception {
+    Map<String, String> exposed = Map.of("id", "id", "name", "name", "farmId", "farm.id");
+
+    assertEquals(
+        List.of("farmId", "name"),
+        new ArrayList<>(FieldSelection.resolve(exposed, List.of("farmId", " name", "", "farmId"))
+            .keySet())
+    );
+    assertEquals("farm.id", FieldSelection.resolve(exposed, List.of("farmId")).get("farmId"));
+    assertThrows(InvalidFieldsException.class,
+        () -> FieldSelection.resolve(exposed, List.of(" ")));
+    assertThrows(InvalidFieldsException.class,
+        () -> FieldSelection.resolve(exposed, List.of("name", "password")));
+  }
+
+  @Test
+  @DisplayName("A listagem traz só os campos pedidos, inclusive os de relações")
+  void testListing() throws Exception {
+    long farmId = postForId("/farms", Map.of("name", "Fazenda do Chico", "size", 5));
+    postForId("/farms/" + farmId + "/crops", Map.of(
+        "name", "Milho", "plantedArea", 2.5,
+        "plantedDate", "2023-02-01", "harvestDate", "2023-07-01"
+    ));
+
+    JsonNode farms = list("/farms", "name");
+
+    assertEquals(1, farms.size());
+    assertEquals(1, farms.get(0).size());
+    assertEquals("Fazenda do Chico", farms.get(0).get("name").asText());
+
+    JsonNode crops = list("/crops", "name,farmId");
+
+    assertEquals(2, crops.get(0).size());
+    assertEquals("Milho", crops.get(0).get("name").asText());
+    assertEquals(farmId, crops.get(0).get("farmId").asLong());
+  }
+
+  @Test
+  @DisplayName("Campos desconhecidos são recusados")
+  void testUnknownField() throws Exception {
+    mockMvc.perform(get("/fertilizers")
+            .param("fields", "name,price")
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isBadRequest())
+        .andExpect(content().string("Campos inválidos: price!"));
+  }
+
+  private JsonNode list(String url, String fields) throws Exception {
+    String responseContent = mockMvc.perform(get(url)
+            .param("fields", fields)
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+
+    return objectMapper.readTree(responseContent);
+  }
+
+  private long postForId(String url, Map<String, Object> body) throws Exception {
+    String responseContent = mockMvc.perform(post(url)
+            .header("Authorization", bearer(token))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(body)))
+        .andExpect(status().isCreated())
+        .andReturn().getResponse().getContentAsString();
+
+    return objectMapper.readTree(responseContent).get("id").asLong();
+  }
+}
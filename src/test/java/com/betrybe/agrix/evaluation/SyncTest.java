@@ -0,0 +1,298 @@
+package com.betrybe.agrix.evaluation;
+
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.bearer;
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.createPersonAndAuthenticate;
+import static com.betrybe.agrix.evaluation.util.TestHelpers.objectToJson;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.betrybe.agrix.evaluation.mock.PersonFixtures;
+import com.betrybe.agrix.evaluation.util.SimpleResultHandler;
+import com.betrybe.agrix.service.CropService;
+import com.betrybe.agrix.service.sync.ChangeSequence;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Sincronização incremental")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class SyncTest {
+
+  MockMvc mockMvc;
+
+  @Autowired
+  WebApplicationContext wac;
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  @Autowired
+  CropService cropService;
+
+  @Autowired
+  ChangeSequence changeSequence;
+
+  @Autowired
+  PlatformTransactionManager transactionManager;
+
+  String token;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    this.mockMvc = MockMvcBuilders
+        .webAppContextSetup(wac)
+        .apply(springSecurity())
+        .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+        .alwaysDo(new SimpleResultHandler())
+        .build();
+    this.token = createPersonAndAuthenticate(mockMvc, PersonFixtures.person_admin);
+  }
+
+  @Test
+  @DisplayName("A sequência de mudanças só é alocada dentro de uma transação e cresce sempre")
+  void testChangeSequence() {
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+    assertThrows(IllegalStateException.class, changeSequence::next);
+
+    long first = transaction.execute(status -> changeSequence.next());
+    long second = transaction.execute(status -> changeSequence.next());
+    transaction.executeWithoutResult(status -> {
+      changeSequence.next();
+      status.setRollbackOnly();
+    });
+    long third = transaction.execute(status -> changeSequence.next());
+
+    // Values are taken outside the writing transaction: a rollback leaves a gap.
+    assertTrue(first >= 1);
+    assertEquals(first + 1, second);
+    assertEquals(second + 2, third);
+    assertEquals(third, changeSequence.watermark());
+  }
+
+  @Test
+  @DisplayName("Páginas param antes das mudanças que uma transação aberta ainda pode gravar")
+  void testWatermark() throws Exception {
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    CountDownLatch allocated = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Thread writer = new Thread(() -> transaction.executeWithoutResult(status -> {
+      changeSequence.next();
+      allocated.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }));
+
+    writer.start();
+    allocated.await();
+
+    long farmId = createFarm("Fazenda A");
+
+    assertEquals(0, sync().get("changes").size());
+
+    release.countDown();
+    writer.join();
+
+    JsonNode changes = sync().get("changes");
+
+    assertEquals(1, changes.size());
+    assertEquals(farmId, changes.get(0).get("id").asLong());
+  }
+
+  @Test
+  @DisplayName("Páginas seguem o cursor sem repetir nem pular mudanças")
+  void testPaging() throws Exception {
+    long farmA = createFarm("Fazenda A");
+    long farmB = createFarm("Fazenda B");
+    long cropA = createCrop(farmA, "Milho");
+    long cropB = createCrop(farmB, "Soja");
+
+    List<String> seen = new ArrayList<>();
+    String cursor = "0";
+    JsonNode page;
+
+    do {
+      page = sync("since", cursor, "limit", "3");
+      page.get("changes").forEach(change ->
+          seen.add(change.get("entity").asText() + ":" + change.get("id").asLong()));
+      cursor = page.get("nextCursor").asText();
+    } while (page.get("hasMore").asBoolean());
+
+    assertEquals(4, seen.size());
+    assertEquals(
+        Set.of("FARM:" + farmA, "FARM:" + farmB, "CROP:" + cropA, "CROP:" + cropB),
+        new HashSet<>(seen)
+    );
+    assertEquals(0, sync("since", cursor).get("changes").size());
+  }
+
+  @Test
+  @DisplayName("Exclusões chegam como marcadores sem dados")
+  void testTombstones() throws Exception {
+    long farmId = createFarm("Fazenda A");
+    long cropId = createCrop(farmId, "Milho");
+    String cursor = sync().get("nextCursor").asText();
+
+    cropService.deleteById(cropId);
+
+    JsonNode changes = sync("since", cursor).get("changes");
+
+    assertEquals(1, changes.size());
+    assertEquals("CROP", changes.get(0).get("entity").asText());
+    assertEquals(cropId, changes.get(0).get("id").asLong());
+    assertTrue(changes.get(0).get("deleted").asBoolean());
+    assertTrue(changes.get(0).get("data").isNull());
+  }
+
+  @Test
+  @DisplayName("O filtro por fazenda traz só a fazenda e suas plantações")
+  void testFarmFilter() throws Exception {
+    long farmA = createFarm("Fazenda A");
+    long farmB = createFarm("Fazenda B");
+    long cropA = createCrop(farmA, "Milho");
+    createCrop(farmB, "Soja");
+
+    JsonNode page = sync("farmId", String.valueOf(farmA));
+    Set<String> seen = new HashSet<>();
+    page.get("changes").forEach(change ->
+        seen.add(change.get("entity").asText() + ":" + change.get("id").asLong()));
+
+    assertEquals(Set.of("FARM:" + farmA, "CROP:" + cropA), seen);
+    assertFalse(page.get("hasMore").asBoolean());
+  }
+
+  @Test
+  @DisplayName("Uma plantação movida sai do filtro da fazenda antiga como exclusão")
+  void testFarmFilterMove() throws Exception {
+    long farmA = createFarm("Fazenda A");
+    long farmB = createFarm("Fazenda B");
+    long cropId = createCrop(farmA, "Milho");
+    String cursorA = sync("farmId", String.valueOf(farmA)).get("nextCursor").asText();
+    String cursorB = sync("farmId", String.valueOf(farmB)).get("nextCursor").asText();
+
+    cropService.setCropFarm(cropId, farmB);
+
+    assertRemoved(sync("farmId", String.valueOf(farmA), "since", cursorA), "CROP", cropId);
+
+    JsonNode changes = sync("farmId", String.valueOf(farmB), "since", cursorB).get("changes");
+
+    assertEquals(1, changes.size());
+    assertEquals(cropId, changes.get(0).get("id").asLong());
+    assertFalse(changes.get(0).get("deleted").asBoolean());
+    assertEquals(farmB, changes.get(0).get("data").get("farmId").asLong());
+  }
+
+  @Test
+  @DisplayName("Uma plantação solta da fazenda sai do filtro como exclusão")
+  void testFarmFilterDetach() throws Exception {
+    long farmId = createFarm("Fazenda A");
+    long cropId = createCrop(farmId, "Milho");
+    String cursor = sync("farmId", String.valueOf(farmId)).get("nextCursor").asText();
+
+    cropService.removeCropFarm(cropId);
+
+    assertRemoved(sync("farmId", String.valueOf(farmId), "since", cursor), "CROP", cropId);
+  }
+
+  @Test
+  @DisplayName("Excluir a fazenda soltando as plantações as tira do filtro como exclusões")
+  void testFarmFilterDetachDeletion() throws Exception {
+    long farmId = createFarm("Fazenda A");
+    long cropId = createCrop(farmId, "Milho");
+    String cursor = sync("farmId", String.valueOf(farmId)).get("nextCursor").asText();
+
+    mockMvc.perform(delete("/farms/" + farmId).param("mode", "DETACH")
+            .header("Authorization", bearer(token)))
+        .andExpect(status().isOk());
+
+    JsonNode page = sync("farmId", String.valueOf(farmId), "since", cursor);
+    Set<String> seen = new HashSet<>();
+    page.get("changes").forEach(change -> {
+      assertTrue(change.get("deleted").asBoolean());
+      seen.add(change.get("entity").asText() + ":" + change.get("id").asLong());
+    });
+
+    assertEquals(Set.of("FARM:" + farmId, "CROP:" + cropId), seen);
+  }
+
+  private static void assertRemoved(JsonNode page, String entity, long id) {
+    JsonNode changes = page.get("changes");
+
+    assertEquals(1, changes.size());
+    assertEquals(entity, changes.get(0).get("entity").asText());
+    assertEquals(id, changes.get(0).get("id").asLong());
+    assertTrue(changes.get(0).get("deleted").asBoolean());
+    assertTrue(changes.get(0).get("data").isNull());
+  }
+
+  private long createFarm(String name) throws Exception {
+    return postForId("/farms", Map.of("name", name, "size", 5));
+  }
+
+  private long createCrop(long farmId, String name) throws Exception {
+    return postForId("/farms/" + farmId + "/crops", Map.of(
+        "name", name,
+        "plantedArea", 2.5,
+        "plantedDate", "2023-02-01",
+        "harvestDate", "2023-07-01"
+    ));
+  }
+
+  private long postForId(String url, Map<String, Object> body) throws Exception {
+    String responseContent = mockMvc.perform(post(url)
+            .header("Authorization", bearer(token))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(body)))
+        .andExpect(status().isCreated())
+        .andReturn().getResponse().getContentAsString();
+
+    return objectMapper.readTree(responseContent).get("id").asLong();
+  }
+
+  private JsonNode sync(String... params) throws Exception {
+    var request = get("/sync").header("Authorization", bearer(token));
+
+    for (int i = 0; i < params.length; i += 2) {
+      request.param(params[i], params[i + 1]);
+    }
+
+    String responseContent = mockMvc.perform(request)
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+
+    return objectMapper.readTree(responseContent);
+  }
+}
@@ -0,0 +1,104 @@
+package com.betrybe.agrix.evaluation;
+
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.bearer;
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.createPersonAndAuthenticate;
+import static com.betrybe.agrix.evaluation.util.AuthHelpers.login;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.betrybe.agrix.evaluation.mock.PersonFixtures;
+import com.betrybe.agrix.evaluation.util.SimpleResultHandler;
+import java.nio.charset.StandardCharsets;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest(properties = {
+    "agrix.datasource.replica.url=jdbc:h2:mem:revocation-replica;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Revogação de tokens")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class TokenRevocationTest {
+
+  MockMvc mockMvc;
+
+  @Autowired
+  WebApplicationContext wac;
+
+  @Autowired
+  @Qualifier("primaryDataSource")
+  DataSource primaryDataSource;
+
+  @Autowired
+  @Qualifier("replicaDataSource")
+  DataSource replicaDataSource;
+
+  @BeforeEach
+  public void setup() {
+    this.mockMvc = MockMvcBuilders
+        .webAppContextSetup(wac)
+        .apply(springSecurity())
+        .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+        .alwaysDo(new SimpleResultHandler())
+        .build();
+
+    // The replica never sees the revocations: only a lookup on the primary finds them.
+    JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+    replica.execute("DROP ALL OBJECTS");
+    new JdbcTemplate(primaryDataSource)
+        .queryForList("SCRIPT NODATA", String.class)
+        .forEach(replica::execute);
+  }
+
+  @Test
+  @DisplayName("Um token não é aceito depois do logout, mesmo com réplica atrasada")
+  void testTokenReuseAfterLogout() throws Exception {
+    String token = createPersonAndAuthenticate(mockMvc, PersonFixtures.person_manager);
+
+    mockMvc.perform(get("/farms").header("Authorization", bearer(token)))
+        .andExpect(status().isOk());
+
+    mockMvc.perform(post("/auth/logout").header("Authorization", bearer(token)))
+        .andExpect(status().isNoContent());
+
+    mockMvc.perform(get("/farms").header("Authorization", bearer(token)))
+        .andExpect(status().isUnauthorized());
+
+    String next = login(mockMvc, PersonFixtures.person_manager).get("token").asText();
+
+    mockMvc.perform(get("/farms").header("Authorization", bearer(next)))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  @DisplayName("Revogar uma pessoa invalida os tokens que ela já tinha")
+  void testRevokePerson() throws Exception {
+    String adminToken = createPersonAndAuthenticate(mockMvc, PersonFixtures.person_admin);
+    String token = createPersonAndAuthenticate(mockMvc, PersonFixtures.person_manager);
+
+    mockMvc.perform(post("/auth/revoke/" + PersonFixtures.person_manager.get("username"))
+            .header("Authorization", bearer(adminToken)))
+        .andExpect(status().isNoContent());
+
+    mockMvc.perform(get("/farms").header("Authorization", bearer(token)))
+        .andExpect(status().isUnauthorized());
+
+    mockMvc.perform(get("/farms").header("Authorization", bearer(adminToken)))
+        .andExpect(status().isOk());
+  }
+}
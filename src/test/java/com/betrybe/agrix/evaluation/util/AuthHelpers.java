@@ -0,0 +1,63 @@
+package com.betrybe.agrix.evaluation.util;
+
+import static com.betrybe.agrix.evaluation.util.TestHelpers.objectToJson;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.betrybe.agrix.evaluation.mock.MockPerson;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+public class AuthHelpers {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private AuthHelpers() {}
+
+  /**
+   * Creates the person and returns the body of its login response.
+   */
+  public static JsonNode createPersonAndLogin(MockMvc mockMvc, MockPerson person)
+      throws Exception {
+    mockMvc.perform(post("/persons")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectToJson(person)))
+        .andExpect(status().isCreated());
+
+    return login(mockMvc, person);
+  }
+
+  /**
+   * Logs an existing person in and returns the body of the login response.
+   */
+  public static JsonNode login(MockMvc mockMvc, MockPerson person) throws Exception {
+    Map<String, Object> loginInfo = Map.of(
+        "username", person.get("username"),
+        "password", person.get("password")
+    );
+
+    String responseContent =
+        mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectToJson(loginInfo)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+    return MAPPER.readTree(responseContent);
+  }
+
+  /**
+   * Creates the person and returns its access token.
+   */
+  public static String createPersonAndAuthenticate(MockMvc mockMvc, MockPerson person)
+      throws Exception {
+    return createPersonAndLogin(mockMvc, person).get("token").asText();
+  }
+
+  public static String bearer(String token) {
+    return "Bearer " + token;
+  }
+}